@@ -30,7 +30,7 @@ package org.logicng.configurations;
 
 /**
  * The different types of configurations in LogicNG.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.1
  */
 public enum ConfigurationType {
@@ -43,5 +43,6 @@ public enum ConfigurationType {
     CC_ENCODER,
     PB_ENCODER,
     FORMULA_RANDOMIZER,
-    ADVANCED_SIMPLIFIER
+    ADVANCED_SIMPLIFIER,
+    PORTFOLIO
 }
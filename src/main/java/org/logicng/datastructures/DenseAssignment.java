@@ -0,0 +1,377 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.datastructures;
+
+import org.logicng.formulas.BinaryOperator;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Not;
+import org.logicng.formulas.PBConstraint;
+import org.logicng.formulas.Variable;
+import org.logicng.util.FormulaHelper;
+
+import java.util.Arrays;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A Boolean assignment stored as bit sets over a {@link VariableIndex}.
+ * <p>
+ * In contrast to {@link Assignment}, a dense assignment does not store any literals.
+ * For each variable of the index it stores one bit indicating whether the variable
+ * is assigned and one bit for its value.  Hence assigning, evaluating, and
+ * restricting a literal are constant time operations without hashing of the
+ * literal, as long as the variable index of the literal is known.
+ * <p>
+ * Literals are evaluated like in {@link Assignment}: a literal whose variable is not
+ * assigned evaluates to {@code false} if it is positive and to {@code true} if it is
+ * negative.
+ * <p>
+ * This class is not thread-safe.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class DenseAssignment {
+
+    private final VariableIndex index;
+    private long[] assigned;
+    private long[] values;
+
+    /**
+     * Constructs a new empty dense assignment over the given variable index.
+     * @param index the variable index
+     */
+    public DenseAssignment(final VariableIndex index) {
+        this.index = index;
+        final int words = wordsFor(index.size());
+        this.assigned = new long[words];
+        this.values = new long[words];
+    }
+
+    /**
+     * Constructs a new dense assignment over the given variable index with the literals
+     * of the given assignment.  Variables which are not yet in the index are added to it.
+     * @param index      the variable index
+     * @param assignment the assignment
+     */
+    public DenseAssignment(final VariableIndex index, final Assignment assignment) {
+        this(index);
+        for (final Variable var : assignment.positiveVariables()) {
+            this.assign(index.add(var), true);
+        }
+        for (final Literal lit : assignment.negativeLiterals()) {
+            this.assign(index.add(lit.variable()), false);
+        }
+    }
+
+    /**
+     * Returns the variable index of this assignment.
+     * @return the variable index of this assignment
+     */
+    public VariableIndex variableIndex() {
+        return this.index;
+    }
+
+    /**
+     * Assigns the variable with the given index.
+     * @param var   the index of the variable
+     * @param value the value of the variable
+     */
+    public void assign(final int var, final boolean value) {
+        final int word = var >>> 6;
+        if (word >= this.assigned.length) {
+            final int words = Math.max(word + 1, wordsFor(this.index.size()));
+            this.assigned = Arrays.copyOf(this.assigned, words);
+            this.values = Arrays.copyOf(this.values, words);
+        }
+        final long bit = 1L << var;
+        this.assigned[word] |= bit;
+        if (value) {
+            this.values[word] |= bit;
+        } else {
+            this.values[word] &= ~bit;
+        }
+    }
+
+    /**
+     * Removes the assignment of the variable with the given index.
+     * @param var the index of the variable
+     */
+    public void unassign(final int var) {
+        final int word = var >>> 6;
+        if (word < this.assigned.length) {
+            final long bit = 1L << var;
+            this.assigned[word] &= ~bit;
+            this.values[word] &= ~bit;
+        }
+    }
+
+    /**
+     * Adds a single literal to this assignment.  If the variable of the literal is not yet in
+     * the variable index, it is added to it.
+     * @param lit the literal
+     */
+    public void addLiteral(final Literal lit) {
+        this.assign(this.index.add(lit.variable()), lit.phase());
+    }
+
+    /**
+     * Returns whether the variable with the given index is assigned.
+     * @param var the index of the variable
+     * @return {@code true} if the variable is assigned, {@code false} otherwise
+     */
+    public boolean isAssigned(final int var) {
+        final int word = var >>> 6;
+        return var >= 0 && word < this.assigned.length && (this.assigned[word] & 1L << var) != 0;
+    }
+
+    /**
+     * Returns whether the given variable is assigned.
+     * @param var the variable
+     * @return {@code true} if the variable is assigned, {@code false} otherwise
+     */
+    public boolean isAssigned(final Variable var) {
+        return this.isAssigned(this.index.index(var));
+    }
+
+    /**
+     * Returns the value of the variable with the given index.  Unassigned variables have the value {@code false}.
+     * @param var the index of the variable
+     * @return the value of the variable
+     */
+    public boolean value(final int var) {
+        final int word = var >>> 6;
+        return var >= 0 && word < this.values.length && (this.values[word] & 1L << var) != 0;
+    }
+
+    /**
+     * Returns the number of assigned variables.
+     * @return the number of assigned variables
+     */
+    public int size() {
+        int size = 0;
+        for (final long word : this.assigned) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Evaluates a given literal.  A literal not covered by the assignment evaluates
+     * to {@code false} if it is positive, otherwise it evaluates to {@code true}.
+     * @param lit the literal
+     * @return the evaluation of the literal
+     */
+    public boolean evaluateLit(final Literal lit) {
+        final int var = this.index.index(lit.variable());
+        return this.isAssigned(var) ? this.value(var) == lit.phase() : !lit.phase();
+    }
+
+    /**
+     * Restricts a given literal to a constant.  Returns the literal itself, if the literal's variable is not assigned.
+     * @param lit the literal
+     * @return the restriction of the literal or the literal itself, if the literal's variable is not assigned
+     */
+    public Formula restrictLit(final Literal lit) {
+        final int var = this.index.index(lit.variable());
+        return this.isAssigned(var) ? lit.factory().constant(this.value(var) == lit.phase()) : lit;
+    }
+
+    /**
+     * Evaluates a given formula with this assignment.  The result is the same as for
+     * {@link Formula#evaluate(Assignment)} with the equivalent {@link Assignment}.
+     * @param formula the formula
+     * @return the result of the evaluation
+     */
+    public boolean evaluate(final Formula formula) {
+        switch (formula.type()) {
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            case LITERAL:
+                return this.evaluateLit((Literal) formula);
+            case NOT:
+                return !this.evaluate(((Not) formula).operand());
+            case IMPL:
+                return !this.evaluate(((BinaryOperator) formula).left()) || this.evaluate(((BinaryOperator) formula).right());
+            case EQUIV:
+                return this.evaluate(((BinaryOperator) formula).left()) == this.evaluate(((BinaryOperator) formula).right());
+            case AND:
+                for (final Formula op : formula) {
+                    if (!this.evaluate(op)) {
+                        return false;
+                    }
+                }
+                return true;
+            case OR:
+                for (final Formula op : formula) {
+                    if (this.evaluate(op)) {
+                        return true;
+                    }
+                }
+                return false;
+            case PBC:
+                return this.evaluatePBC((PBConstraint) formula);
+            default:
+                throw new IllegalArgumentException("Unknown formula type " + formula.type());
+        }
+    }
+
+    /**
+     * Restricts a given formula with this assignment.  The result is the same as for
+     * {@link Formula#restrict(Assignment)} with the equivalent {@link Assignment}.
+     * @param formula the formula
+     * @return the restricted formula
+     */
+    public Formula restrict(final Formula formula) {
+        return FormulaHelper.transformAtoms(formula, this::restrictAtom);
+    }
+
+    /**
+     * Returns all literals of this assignment.
+     * @return all literals of this assignment
+     */
+    public SortedSet<Literal> literals() {
+        final SortedSet<Literal> literals = new TreeSet<>();
+        for (int w = 0; w < this.assigned.length; w++) {
+            for (long word = this.assigned[w]; word != 0; word &= word - 1) {
+                final int var = (w << 6) + Long.numberOfTrailingZeros(word);
+                final Variable variable = this.index.variable(var);
+                literals.add(this.value(var) ? variable : variable.negate());
+            }
+        }
+        return literals;
+    }
+
+    /**
+     * Converts this dense assignment to an {@link Assignment}.
+     * @param fastEvaluable indicates whether the created assignment should be fast evaluable
+     * @return the assignment
+     */
+    public Assignment toAssignment(final boolean fastEvaluable) {
+        final Assignment assignment = new Assignment(fastEvaluable);
+        for (int w = 0; w < this.assigned.length; w++) {
+            for (long word = this.assigned[w]; word != 0; word &= word - 1) {
+                final int var = (w << 6) + Long.numberOfTrailingZeros(word);
+                final Variable variable = this.index.variable(var);
+                assignment.addLiteral(this.value(var) ? variable : variable.negate());
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Converts this dense assignment to an {@link Assignment} (without fast evaluation).
+     * @return the assignment
+     */
+    public Assignment toAssignment() {
+        return this.toAssignment(false);
+    }
+
+    private boolean evaluatePBC(final PBConstraint pbc) {
+        final Literal[] literals = pbc.operands();
+        final int[] coefficients = pbc.coefficients();
+        int lhs = 0;
+        for (int i = 0; i < literals.length; i++) {
+            if (this.evaluateLit(literals[i])) {
+                lhs += coefficients[i];
+            }
+        }
+        switch (pbc.comparator()) {
+            case EQ:
+                return lhs == pbc.rhs();
+            case LE:
+                return lhs <= pbc.rhs();
+            case LT:
+                return lhs < pbc.rhs();
+            case GE:
+                return lhs >= pbc.rhs();
+            case GT:
+                return lhs > pbc.rhs();
+            default:
+                throw new IllegalStateException("Unknown pseudo-Boolean comparator: " + pbc.comparator());
+        }
+    }
+
+    private Formula restrictAtom(final Formula atom) {
+        switch (atom.type()) {
+            case LITERAL:
+                return this.restrictLit((Literal) atom);
+            case PBC:
+                final Assignment relevant = new Assignment();
+                for (final Literal lit : ((PBConstraint) atom).operands()) {
+                    final int var = this.index.index(lit.variable());
+                    if (this.isAssigned(var)) {
+                        relevant.addLiteral(this.value(var) ? lit.variable() : lit.variable().negate());
+                    }
+                }
+                return atom.restrict(relevant);
+            default:
+                return atom;
+        }
+    }
+
+    private static int wordsFor(final int numVars) {
+        return (numVars + 63) >>> 6;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.literals().hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || this.getClass() != other.getClass()) {
+            return false;
+        }
+        final DenseAssignment o = (DenseAssignment) other;
+        if (this.index == o.index) {
+            final int words = Math.max(this.assigned.length, o.assigned.length);
+            for (int w = 0; w < words; w++) {
+                final long assignedWord = w < this.assigned.length ? this.assigned[w] : 0L;
+                if (assignedWord != (w < o.assigned.length ? o.assigned[w] : 0L)
+                        || (w < this.values.length ? this.values[w] : 0L) != (w < o.values.length ? o.values[w] : 0L)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return this.literals().equals(o.literals());
+    }
+
+    @Override
+    public String toString() {
+        return "DenseAssignment{" + this.literals() + "}";
+    }
+}
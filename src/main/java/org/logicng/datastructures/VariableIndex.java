@@ -0,0 +1,163 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.datastructures;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.formulas.Variable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dense index of variables.
+ * <p>
+ * Each variable added to the index is mapped to the next free integer starting
+ * at {@code 0}.  Indices are never removed or reassigned, so an index can be
+ * shared by many {@link DenseAssignment dense assignments} and grow while they
+ * are in use.
+ * <p>
+ * Lookups of variables which were already added are answered via the {@link Variable#id() id}
+ * of the variable without hashing its name.
+ * <p>
+ * This class is not thread-safe.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class VariableIndex {
+
+    private final Map<Variable, Integer> indices;
+    private final List<Variable> variables;
+    private final LNGIntVector idIndices;
+
+    /**
+     * Constructs a new empty variable index.
+     */
+    public VariableIndex() {
+        this.indices = new HashMap<>();
+        this.variables = new ArrayList<>();
+        this.idIndices = new LNGIntVector();
+    }
+
+    /**
+     * Constructs a new variable index for the given variables.  The variables are
+     * indexed in the iteration order of the collection.
+     * @param variables the variables
+     */
+    public VariableIndex(final Collection<Variable> variables) {
+        this.indices = new HashMap<>(variables.size() * 4 / 3 + 1);
+        this.variables = new ArrayList<>(variables.size());
+        this.idIndices = new LNGIntVector();
+        for (final Variable var : variables) {
+            this.add(var);
+        }
+    }
+
+    /**
+     * Adds a variable to this index if it is not already present.
+     * @param var the variable
+     * @return the index of the variable
+     */
+    public int add(final Variable var) {
+        final int index = this.index(var);
+        if (index != -1) {
+            return index;
+        }
+        final int newIndex = this.variables.size();
+        this.indices.put(var, newIndex);
+        this.variables.add(var);
+        this.cacheId(var, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Returns the index of a given variable.
+     * @param var the variable
+     * @return the index of the variable or {@code -1} if the variable is not in this index
+     */
+    public int index(final Variable var) {
+        final int id = var.id();
+        if (id >= 0 && id < this.idIndices.size()) {
+            final int cached = this.idIndices.get(id);
+            if (cached != -1 && this.variables.get(cached) == var) {
+                return cached;
+            }
+        }
+        final Integer index = this.indices.get(var);
+        if (index == null) {
+            return -1;
+        }
+        this.cacheId(var, index);
+        return index;
+    }
+
+    /**
+     * Returns the variable for a given index.
+     * @param index the index
+     * @return the variable
+     * @throws IndexOutOfBoundsException if the index is not in the range {@code [0, size())}
+     */
+    public Variable variable(final int index) {
+        return this.variables.get(index);
+    }
+
+    /**
+     * Returns the number of variables in this index.
+     * @return the number of variables in this index
+     */
+    public int size() {
+        return this.variables.size();
+    }
+
+    /**
+     * Returns the variables of this index ordered by their index.
+     * @return the variables of this index
+     */
+    public List<Variable> variables() {
+        return Collections.unmodifiableList(this.variables);
+    }
+
+    private void cacheId(final Variable var, final int index) {
+        final int id = var.id();
+        if (id >= 0) {
+            if (id >= this.idIndices.size()) {
+                this.idIndices.growTo(id + 1, -1);
+            }
+            this.idIndices.set(id, index);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "VariableIndex{" + this.variables + "}";
+    }
+}
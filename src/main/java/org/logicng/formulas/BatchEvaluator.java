@@ -0,0 +1,455 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import org.logicng.datastructures.Assignment;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A formula compiled to a flat evaluation program for the evaluation and restriction of
+ * large batches of assignments.
+ * <p>
+ * The formula DAG is compiled once into a topologically sorted list of instructions, where
+ * each distinct subformula is a single instruction.  Thus shared subformulas are evaluated
+ * only once per assignment.  The evaluation is bit-parallel: 64 assignments are packed into
+ * one {@code long} word per variable and every instruction evaluates all 64 assignments at
+ * once.  Blocks of 64 assignments are distributed over a {@link ForkJoinPool}.
+ * <p>
+ * The semantics of {@link #evaluate(List)} and {@link #restrict(List)} is the same as of
+ * {@link Formula#evaluate(Assignment)} and {@link Formula#restrict(Assignment)} for each
+ * single assignment.  Restrictions generate new formulas on the formula factory of the
+ * compiled formula, therefore they are only computed in parallel if the formula belongs to a
+ * {@link ConcurrentFormulaFactory}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class BatchEvaluator {
+
+    private static final FType[] TYPES = FType.values();
+    private static final int BLOCK_SIZE = 64;
+    private static final int BLOCKS_PER_TASK = 16;
+
+    private final Formula formula;
+    private final Formula[] nodes;
+    private final byte[] types;
+    private final int[] starts;
+    private final int[] args;
+    private final Map<Variable, Integer> variableIndices;
+
+    /**
+     * Compiles the given formula for batch evaluation.
+     * @param formula the formula
+     */
+    public BatchEvaluator(final Formula formula) {
+        this.formula = formula;
+        this.variableIndices = new HashMap<>();
+        final List<Formula> order = topologicalOrder(formula);
+        final Map<Formula, Integer> indices = new IdentityHashMap<>();
+        this.nodes = order.toArray(new Formula[0]);
+        this.types = new byte[this.nodes.length];
+        this.starts = new int[this.nodes.length + 1];
+        final List<Integer> arguments = new ArrayList<>();
+        for (int i = 0; i < this.nodes.length; i++) {
+            final Formula node = this.nodes[i];
+            indices.put(node, i);
+            this.types[i] = (byte) node.type().ordinal();
+            this.starts[i] = arguments.size();
+            switch (node.type()) {
+                case LITERAL:
+                    arguments.add(this.literalCode((Literal) node));
+                    break;
+                case PBC:
+                    final PBConstraint pbc = (PBConstraint) node;
+                    final Literal[] literals = pbc.operands();
+                    final int[] coefficients = pbc.coefficients();
+                    for (int j = 0; j < literals.length; j++) {
+                        arguments.add(this.literalCode(literals[j]));
+                        arguments.add(coefficients[j]);
+                    }
+                    break;
+                case TRUE:
+                case FALSE:
+                    break;
+                default:
+                    for (final Formula op : node) {
+                        arguments.add(indices.get(op));
+                    }
+            }
+        }
+        this.starts[this.nodes.length] = arguments.size();
+        this.args = arguments.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the compiled formula.
+     * @return the compiled formula
+     */
+    public Formula formula() {
+        return this.formula;
+    }
+
+    /**
+     * Returns the number of instructions of the evaluation program, i.e. the number of
+     * distinct subformulas of the compiled formula.
+     * @return the number of instructions
+     */
+    public int size() {
+        return this.nodes.length;
+    }
+
+    /**
+     * Evaluates the formula for each of the given assignments using the common fork/join pool.
+     * @param assignments the assignments
+     * @return a bit set which contains bit {@code i} iff the formula evaluates to {@code true}
+     * under the {@code i}-th assignment
+     */
+    public BitSet evaluate(final List<Assignment> assignments) {
+        return this.evaluate(assignments, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluates the formula for each of the given assignments using the given fork/join pool.
+     * @param assignments the assignments
+     * @param pool        the fork/join pool
+     * @return a bit set which contains bit {@code i} iff the formula evaluates to {@code true}
+     * under the {@code i}-th assignment
+     */
+    public BitSet evaluate(final List<Assignment> assignments, final ForkJoinPool pool) {
+        final int numBlocks = (assignments.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final long[] results = new long[numBlocks];
+        if (numBlocks <= BLOCKS_PER_TASK) {
+            this.evaluateBlocks(assignments, 0, numBlocks, results);
+        } else {
+            pool.invoke(new EvaluationTask(assignments, 0, numBlocks, results));
+        }
+        return BitSet.valueOf(results);
+    }
+
+    /**
+     * Restricts the formula with each of the given assignments using the common fork/join pool.
+     * @param assignments the assignments
+     * @return the restricted formulas in the order of the assignments
+     */
+    public List<Formula> restrict(final List<Assignment> assignments) {
+        return this.restrict(assignments, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Restricts the formula with each of the given assignments using the given fork/join pool.
+     * The pool is only used if the formula belongs to a {@link ConcurrentFormulaFactory},
+     * otherwise the restrictions are computed sequentially.
+     * @param assignments the assignments
+     * @param pool        the fork/join pool
+     * @return the restricted formulas in the order of the assignments
+     */
+    public List<Formula> restrict(final List<Assignment> assignments, final ForkJoinPool pool) {
+        final Formula[] results = new Formula[assignments.size()];
+        if (this.formula.factory() instanceof ConcurrentFormulaFactory && assignments.size() > BLOCK_SIZE) {
+            pool.invoke(new RestrictionTask(assignments, 0, assignments.size(), results));
+        } else {
+            this.restrictRange(assignments, 0, assignments.size(), results);
+        }
+        final List<Formula> list = new ArrayList<>(results.length);
+        Collections.addAll(list, results);
+        return list;
+    }
+
+    private void evaluateBlocks(final List<Assignment> assignments, final int fromBlock, final int toBlock, final long[] results) {
+        final int numVars = this.variableIndices.size();
+        final long[] positive = new long[numVars];
+        final long[] negative = new long[numVars];
+        final long[] values = new long[this.nodes.length];
+        for (int block = fromBlock; block < toBlock; block++) {
+            final int base = block * BLOCK_SIZE;
+            final int lanes = Math.min(BLOCK_SIZE, assignments.size() - base);
+            final long mask = lanes == BLOCK_SIZE ? -1L : (1L << lanes) - 1;
+            for (int v = 0; v < numVars; v++) {
+                positive[v] = 0L;
+                negative[v] = 0L;
+            }
+            for (int lane = 0; lane < lanes; lane++) {
+                final Assignment assignment = assignments.get(base + lane);
+                final long bit = 1L << lane;
+                for (final Variable var : assignment.positiveVariables()) {
+                    final Integer index = this.variableIndices.get(var);
+                    if (index != null) {
+                        positive[index] |= bit;
+                    }
+                }
+                for (final Literal lit : assignment.negativeLiterals()) {
+                    final Integer index = this.variableIndices.get(lit.variable());
+                    if (index != null) {
+                        negative[index] |= bit;
+                    }
+                }
+            }
+            for (int v = 0; v < numVars; v++) {
+                negative[v] |= ~positive[v];
+            }
+            results[block] = this.evaluateProgram(positive, negative, values, lanes) & mask;
+        }
+    }
+
+    private long evaluateProgram(final long[] positive, final long[] negative, final long[] values, final int lanes) {
+        for (int i = 0; i < this.nodes.length; i++) {
+            final int start = this.starts[i];
+            final int end = this.starts[i + 1];
+            switch (TYPES[this.types[i]]) {
+                case FALSE:
+                    values[i] = 0L;
+                    break;
+                case TRUE:
+                    values[i] = -1L;
+                    break;
+                case LITERAL:
+                    values[i] = literalWord(this.args[start], positive, negative);
+                    break;
+                case NOT:
+                    values[i] = ~values[this.args[start]];
+                    break;
+                case IMPL:
+                    values[i] = ~values[this.args[start]] | values[this.args[start + 1]];
+                    break;
+                case EQUIV:
+                    values[i] = ~(values[this.args[start]] ^ values[this.args[start + 1]]);
+                    break;
+                case AND:
+                    long and = -1L;
+                    for (int j = start; j < end; j++) {
+                        and &= values[this.args[j]];
+                    }
+                    values[i] = and;
+                    break;
+                case OR:
+                    long or = 0L;
+                    for (int j = start; j < end; j++) {
+                        or |= values[this.args[j]];
+                    }
+                    values[i] = or;
+                    break;
+                case PBC:
+                    values[i] = this.evaluatePBC(i, positive, negative, lanes);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown formula type: " + TYPES[this.types[i]]);
+            }
+        }
+        return values[this.nodes.length - 1];
+    }
+
+    private long evaluatePBC(final int node, final long[] positive, final long[] negative, final int lanes) {
+        final PBConstraint pbc = (PBConstraint) this.nodes[node];
+        final int start = this.starts[node];
+        final int end = this.starts[node + 1];
+        final long[] words = new long[(end - start) / 2];
+        for (int j = start; j < end; j += 2) {
+            words[(j - start) / 2] = literalWord(this.args[j], positive, negative);
+        }
+        long result = 0L;
+        for (int lane = 0; lane < lanes; lane++) {
+            int lhs = 0;
+            for (int j = 0; j < words.length; j++) {
+                if ((words[j] >>> lane & 1L) != 0) {
+                    lhs += this.args[start + 2 * j + 1];
+                }
+            }
+            if (evaluateComparator(pbc.comparator(), lhs, pbc.rhs())) {
+                result |= 1L << lane;
+            }
+        }
+        return result;
+    }
+
+    private void restrictRange(final List<Assignment> assignments, final int from, final int to, final Formula[] results) {
+        final Formula[] restricted = new Formula[this.nodes.length];
+        for (int a = from; a < to; a++) {
+            results[a] = this.restrictProgram(assignments.get(a), restricted);
+        }
+    }
+
+    private Formula restrictProgram(final Assignment assignment, final Formula[] restricted) {
+        final FormulaFactory f = this.formula.factory();
+        for (int i = 0; i < this.nodes.length; i++) {
+            final Formula node = this.nodes[i];
+            final int start = this.starts[i];
+            final int end = this.starts[i + 1];
+            switch (node.type()) {
+                case FALSE:
+                case TRUE:
+                    restricted[i] = node;
+                    break;
+                case LITERAL:
+                    restricted[i] = assignment.restrictLit((Literal) node);
+                    break;
+                case PBC:
+                    restricted[i] = node.restrict(assignment);
+                    break;
+                default:
+                    boolean changed = false;
+                    for (int j = start; j < end && !changed; j++) {
+                        changed = restricted[this.args[j]] != this.nodes[this.args[j]];
+                    }
+                    if (!changed) {
+                        restricted[i] = node;
+                    } else if (node.type() == FType.NOT) {
+                        restricted[i] = f.not(restricted[this.args[start]]);
+                    } else if (node.type() == FType.IMPL || node.type() == FType.EQUIV) {
+                        restricted[i] = f.binaryOperator(node.type(), restricted[this.args[start]], restricted[this.args[start + 1]]);
+                    } else {
+                        final LinkedHashSet<Formula> nops = new LinkedHashSet<>();
+                        for (int j = start; j < end; j++) {
+                            nops.add(restricted[this.args[j]]);
+                        }
+                        restricted[i] = f.naryOperator(node.type(), nops);
+                    }
+            }
+        }
+        return restricted[this.nodes.length - 1];
+    }
+
+    private int literalCode(final Literal literal) {
+        Integer index = this.variableIndices.get(literal.variable());
+        if (index == null) {
+            index = this.variableIndices.size();
+            this.variableIndices.put(literal.variable(), index);
+        }
+        return 2 * index + (literal.phase() ? 0 : 1);
+    }
+
+    private static long literalWord(final int code, final long[] positive, final long[] negative) {
+        return (code & 1) == 0 ? positive[code >> 1] : negative[code >> 1];
+    }
+
+    private static boolean evaluateComparator(final CType comparator, final int lhs, final int rhs) {
+        switch (comparator) {
+            case EQ:
+                return lhs == rhs;
+            case LE:
+                return lhs <= rhs;
+            case LT:
+                return lhs < rhs;
+            case GE:
+                return lhs >= rhs;
+            case GT:
+                return lhs > rhs;
+            default:
+                throw new IllegalStateException("Unknown pseudo-Boolean comparator");
+        }
+    }
+
+    private static List<Formula> topologicalOrder(final Formula formula) {
+        final List<Formula> order = new ArrayList<>();
+        final Map<Formula, Boolean> visited = new IdentityHashMap<>();
+        final List<Formula> stack = new ArrayList<>();
+        stack.add(formula);
+        while (!stack.isEmpty()) {
+            final Formula current = stack.get(stack.size() - 1);
+            if (visited.containsKey(current)) {
+                stack.remove(stack.size() - 1);
+                continue;
+            }
+            final int sizeBefore = stack.size();
+            if (!current.isAtomicFormula()) {
+                for (final Formula op : current) {
+                    if (!visited.containsKey(op)) {
+                        stack.add(op);
+                    }
+                }
+            }
+            if (stack.size() == sizeBefore) {
+                stack.remove(stack.size() - 1);
+                visited.put(current, Boolean.TRUE);
+                order.add(current);
+            }
+        }
+        return order;
+    }
+
+    private final class EvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Assignment> assignments;
+        private final int fromBlock;
+        private final int toBlock;
+        private final long[] results;
+
+        private EvaluationTask(final List<Assignment> assignments, final int fromBlock, final int toBlock, final long[] results) {
+            this.assignments = assignments;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.toBlock - this.fromBlock <= BLOCKS_PER_TASK) {
+                evaluateBlocks(this.assignments, this.fromBlock, this.toBlock, this.results);
+            } else {
+                final int middle = (this.fromBlock + this.toBlock) >>> 1;
+                invokeAll(new EvaluationTask(this.assignments, this.fromBlock, middle, this.results),
+                        new EvaluationTask(this.assignments, middle, this.toBlock, this.results));
+            }
+        }
+    }
+
+    private final class RestrictionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Assignment> assignments;
+        private final int from;
+        private final int to;
+        private final Formula[] results;
+
+        private RestrictionTask(final List<Assignment> assignments, final int from, final int to, final Formula[] results) {
+            this.assignments = assignments;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= BLOCK_SIZE) {
+                restrictRange(this.assignments, this.from, this.to, this.results);
+            } else {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RestrictionTask(this.assignments, this.from, middle, this.results),
+                        new RestrictionTask(this.assignments, middle, this.to, this.results));
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import org.logicng.formulas.cache.CacheEntry;
+import org.logicng.pseudobooleans.PBEncoder;
+import org.logicng.transformations.cnf.CNFEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe version of the formula factory.
+ * <p>
+ * New formulas can only be generated by a formula factory.  It is implemented s.t. it is guaranteed that equivalent
+ * formulas (in terms of associativity and commutativity) are hold exactly once in memory.  This also holds if formulas
+ * are generated concurrently from many threads on an instance of this factory.
+ * <p>
+ * All unique tables and formula caches of this factory are {@link ConcurrentHashMap concurrent hash maps}, i.e. reads
+ * are lock-free and writes only lock the affected bin of the table.  If two threads try to generate the same formula at
+ * the same time, both threads get the same formula instance.  The generation of auxiliary variables and the import of
+ * formulas from other factories are synchronized on the factory.
+ * <p>
+ * Formula construction, the formula caches, and the stateless transformations, predicates, and functions can be used
+ * concurrently.  This includes the encodings of {@link PBConstraint#getEncoding() pseudo-Boolean constraints}, which
+ * use a new encoder for each constraint, and {@link Formula#cnf()}, since each thread gets its own
+ * {@link #cnfEncoder() CNF encoder}.  Stateful components like the {@link #pbEncoder() PB encoder} or SAT solvers
+ * must still be used by one thread at a time.  Also {@link #clear()}
+ * and {@link #putConfiguration} must not be called while other threads are using the factory.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class ConcurrentFormulaFactory extends FormulaFactory {
+
+    // variables are constructed inside the unique table, so the ids must not be handed out under the factory lock
+    private final AtomicInteger variableIds = new AtomicInteger();
+    private final ThreadLocal<CNFEncoder> cnfEncoders = ThreadLocal.withInitial(() -> new CNFEncoder(this));
+    private final ThreadLocal<OperandBuffer> operandBuffers = ThreadLocal.withInitial(OperandBuffer::new);
+
+    /**
+     * Constructor for a new concurrent formula factory.
+     * @param config the configuration for this formula factory
+     */
+    public ConcurrentFormulaFactory(final FormulaFactoryConfig config) {
+        super(config);
+    }
+
+    /**
+     * Constructor for a new concurrent formula factory with the default configuration.
+     */
+    public ConcurrentFormulaFactory() {
+        super();
+    }
+
+    @Override
+    public void clear() {
+        this.posLiterals = new ConcurrentHashMap<>();
+        this.negLiterals = new ConcurrentHashMap<>();
+        this.generatedVariables = ConcurrentHashMap.newKeySet();
+        this.nots = new ConcurrentHashMap<>();
+        this.implications = new ConcurrentHashMap<>();
+        this.equivalences = new ConcurrentHashMap<>();
+        this.ands2 = new ConcurrentHashMap<>();
+        this.ands3 = new ConcurrentHashMap<>();
+        this.ands4 = new ConcurrentHashMap<>();
+        this.andsN = new ConcurrentHashMap<>();
+        this.ors2 = new ConcurrentHashMap<>();
+        this.ors3 = new ConcurrentHashMap<>();
+        this.ors4 = new ConcurrentHashMap<>();
+        this.orsN = new ConcurrentHashMap<>();
+        this.pbConstraints = new ConcurrentHashMap<>();
+        this.cardinalityConstraints = new ConcurrentHashMap<>();
+        this.ccCounter = 0;
+        this.pbCounter = 0;
+        this.cnfCounter = 0;
+        this.transformationCache = new ConcurrentHashMap<>();
+        this.predicateCache = new ConcurrentHashMap<>();
+        this.functionCache = new ConcurrentHashMap<>();
+        this.pbEncodingCache = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    int nextVariableId() {
+        return this.variableIds.getAndIncrement();
+    }
+
+    @Override
+    public int numberOfVariableIds() {
+        return this.variableIds.get();
+    }
+
+    @Override
+    public synchronized Variable newCCVariable() {
+        return super.newCCVariable();
+    }
+
+    @Override
+    public synchronized Variable newPBVariable() {
+        return super.newPBVariable();
+    }
+
+    @Override
+    public synchronized Variable newCNFVariable() {
+        return super.newCNFVariable();
+    }
+
+    @Override
+    public synchronized Formula importFormula(final Formula formula) {
+        return super.importFormula(formula);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The {@link #pbEncoder() PB encoder} of the factory is stateful, so each encoding uses its own encoder.
+     */
+    @Override
+    List<Formula> encodePBConstraint(final PBConstraint constraint) {
+        return new PBEncoder(this).encode(constraint);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The CNF encoder is stateful, so each thread gets its own encoder.  Hence {@link Formula#cnf()} can be called
+     * concurrently.
+     */
+    @Override
+    public CNFEncoder cnfEncoder() {
+        return this.cnfEncoders.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each thread gets its own operand buffer.
+     */
+    @Override
+    OperandBuffer operandBuffer() {
+        return this.operandBuffers.get();
+    }
+
+    @Override
+    protected <T> Map<CacheEntry, T> newCacheEntryMap() {
+        return new ConcurrentHashMap<>();
+    }
+}
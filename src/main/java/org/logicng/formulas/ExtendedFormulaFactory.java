@@ -29,7 +29,9 @@
 package org.logicng.formulas;
 
 import org.logicng.collections.LNGIntVector;
+import org.logicng.formulas.cache.BoundedCache;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -45,7 +47,7 @@ import java.util.Set;
  * <p>
  * A formula factory is NOT thread-safe.  If you generate formulas from more than one thread you either need to
  * synchronize the formula factory yourself or you use a formula factory for each single thread.
- * @version 2.3.2
+ * @version 2.7.0
  * @since 1.2
  */
 public class ExtendedFormulaFactory extends FormulaFactory {
@@ -53,6 +55,21 @@ public class ExtendedFormulaFactory extends FormulaFactory {
     private final LNGIntVector validStates = new LNGIntVector();
     private int nextStateId;
 
+    /**
+     * Constructor for a new extended formula factory.
+     * @param config the configuration for this formula factory
+     */
+    public ExtendedFormulaFactory(final FormulaFactoryConfig config) {
+        super(config);
+    }
+
+    /**
+     * Constructor for a new extended formula factory with the default configuration.
+     */
+    public ExtendedFormulaFactory() {
+        super();
+    }
+
     /**
      * Shrinks a given map to a given size
      * @param map     the map to be shrunk
@@ -126,6 +143,7 @@ public class ExtendedFormulaFactory extends FormulaFactory {
         this.predicateCache = new HashMap<>();
         this.functionCache = new HashMap<>();
         this.pbEncodingCache = new HashMap<>();
+        initBoundedCaches();
     }
 
     /**
@@ -205,5 +223,14 @@ public class ExtendedFormulaFactory extends FormulaFactory {
         this.transformationCache.clear();
         this.functionCache.clear();
         this.pbEncodingCache.clear();
+        for (final Map<?, ? extends Formula> uniqueTable : Arrays.asList(this.posLiterals, this.negLiterals, this.nots, this.implications,
+                this.equivalences, this.ands2, this.ands3, this.ands4, this.andsN, this.ors2, this.ors3, this.ors4, this.orsN,
+                this.pbConstraints, this.cardinalityConstraints)) {
+            uniqueTable.values().forEach(FormulaFactory::clearCacheSlots);
+        }
+        if (this.boundedTransformationCaches != null) {
+            this.boundedTransformationCaches.values().forEach(BoundedCache::clear);
+            this.boundedFunctionCaches.values().forEach(BoundedCache::clear);
+        }
     }
 }
@@ -54,13 +54,21 @@ import java.util.stream.Stream;
 
 /**
  * Super class for formulas.
- * @version 2.4.0
+ * @version 2.7.0
  * @since 1.0
  */
 public abstract class Formula implements Iterable<Formula> {
 
     protected final FType type;
     protected final FormulaFactory f;
+    WeakFormulaFactory.NodeCaches nodeCaches; // only used by the weak formula factory
+
+    // flat cache slots for the most frequently used cache entries, maintained by the formula factory
+    Formula nnfSlot;
+    Formula cnfSlot;
+    Object variablesSlot;
+    Tristate isNnfSlot;
+    Tristate isCnfSlot;
 
     /**
      * Constructs a new formula.
@@ -0,0 +1,917 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import org.logicng.collections.LNGByteVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A compact, integer-indexed representation of formulas for bulk processing.
+ * <p>
+ * Each node of a formula added to the arena is stored as a type byte and a slice of a
+ * single shared {@code int} array.  Variables are interned to dense indices and literals
+ * are encoded as {@code 2 * variable + (phase ? 0 : 1)}.  The nodes are stored in
+ * topological order, i.e. the operands of a node always have smaller ids than the node
+ * itself.  Therefore all operations on the arena are simple linear passes over the nodes
+ * without recursion and without creating intermediate {@link Formula} objects.
+ * <p>
+ * The node layout is as follows:
+ * <ul>
+ *     <li>{@code $false} and {@code $true} are the fixed nodes {@code 0} and {@code 1}</li>
+ *     <li>a literal stores its literal code, literal nodes are interned</li>
+ *     <li>a negation stores its operand</li>
+ *     <li>an implication or equivalence stores its left and right operand</li>
+ *     <li>a conjunction or disjunction stores its operands</li>
+ *     <li>a pseudo-Boolean constraint stores its comparator, its right-hand side and pairs
+ *     of literal codes and coefficients</li>
+ * </ul>
+ * All nodes are interned arena-wide: a node with the same type and the same slice as an
+ * existing node is never stored twice, regardless of whether it was created by
+ * {@link #add(Formula)} or by {@link #restrict(int, Assignment)}.  All operations only visit
+ * the nodes reachable from the given node and reuse internal scratch arrays, therefore an
+ * arena is not thread-safe.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class FormulaArena {
+
+    /**
+     * The node id of the constant {@code $false}.
+     */
+    public static final int FALSE = 0;
+
+    /**
+     * The node id of the constant {@code $true}.
+     */
+    public static final int TRUE = 1;
+
+    private static final FType[] TYPES = FType.values();
+    private static final CType[] COMPARATORS = CType.values();
+
+    private final LNGByteVector types;
+    private final LNGIntVector offsets;
+    private final LNGIntVector data;
+    private final LNGIntVector literalNodes;
+    private int[] uniqueTable;
+    private int uniqueNodes;
+    private final List<String> variableNames;
+    private final Map<String, Integer> variableIndices;
+    private int[] marks;
+    private int epoch;
+    private final LNGIntVector evaluationStack;
+    private int[] intScratch;
+    private long[] longScratch;
+    private Formula[] formulaScratch;
+
+    /**
+     * Constructs a new empty formula arena.
+     */
+    public FormulaArena() {
+        this.types = new LNGByteVector();
+        this.offsets = new LNGIntVector();
+        this.data = new LNGIntVector();
+        this.literalNodes = new LNGIntVector();
+        this.uniqueTable = new int[64];
+        this.variableNames = new ArrayList<>();
+        this.variableIndices = new HashMap<>();
+        this.marks = new int[0];
+        this.evaluationStack = new LNGIntVector();
+        this.intScratch = new int[0];
+        this.longScratch = new long[0];
+        this.formulaScratch = new Formula[0];
+        this.offsets.push(0);
+        this.newNode(FType.FALSE);
+        this.newNode(FType.TRUE);
+    }
+
+    /**
+     * Adds the given formula to this arena and returns the id of its root node.
+     * @param formula the formula
+     * @return the node id of the formula
+     */
+    public int add(final Formula formula) {
+        final Map<Formula, Integer> nodes = new IdentityHashMap<>();
+        final List<Formula> stack = new ArrayList<>();
+        stack.add(formula);
+        while (!stack.isEmpty()) {
+            final Formula current = stack.get(stack.size() - 1);
+            if (nodes.containsKey(current)) {
+                stack.remove(stack.size() - 1);
+                continue;
+            }
+            final int sizeBefore = stack.size();
+            if (current.type == FType.NOT || current.type == FType.IMPL || current.type == FType.EQUIV
+                    || current.type == FType.AND || current.type == FType.OR) {
+                for (final Formula op : current) {
+                    if (!nodes.containsKey(op)) {
+                        stack.add(op);
+                    }
+                }
+                Collections.reverse(stack.subList(sizeBefore, stack.size()));
+            }
+            if (stack.size() == sizeBefore) {
+                stack.remove(stack.size() - 1);
+                nodes.put(current, this.addNode(current, nodes));
+            }
+        }
+        return nodes.get(formula);
+    }
+
+    private int addNode(final Formula formula, final Map<Formula, Integer> nodes) {
+        switch (formula.type) {
+            case FALSE:
+                return FALSE;
+            case TRUE:
+                return TRUE;
+            case LITERAL:
+                return this.literalNode(this.literalCode((Literal) formula));
+            case NOT:
+                return this.intern(this.newNode(FType.NOT, nodes.get(((Not) formula).operand())));
+            case IMPL:
+            case EQUIV:
+                final BinaryOperator binary = (BinaryOperator) formula;
+                return this.intern(this.newNode(formula.type, nodes.get(binary.left()), nodes.get(binary.right())));
+            case AND:
+            case OR:
+                final int node = this.newNode(formula.type);
+                for (final Formula op : formula) {
+                    this.data.push(nodes.get(op));
+                }
+                this.offsets.set(node + 1, this.data.size());
+                return this.intern(node);
+            case PBC:
+                final PBConstraint pbc = (PBConstraint) formula;
+                final int pbNode = this.newNode(FType.PBC, pbc.comparator().ordinal(), pbc.rhs());
+                final Literal[] literals = pbc.operands();
+                final int[] coefficients = pbc.coefficients();
+                for (int i = 0; i < literals.length; i++) {
+                    this.data.push(this.literalCode(literals[i]));
+                    this.data.push(coefficients[i]);
+                }
+                this.offsets.set(pbNode + 1, this.data.size());
+                return this.intern(pbNode);
+            default:
+                throw new IllegalArgumentException("Unknown formula type: " + formula.type);
+        }
+    }
+
+    /**
+     * Returns the formula of the given node in the given formula factory.
+     * @param node the node id
+     * @param f    the formula factory
+     * @return the formula
+     */
+    public Formula toFormula(final int node, final FormulaFactory f) {
+        final LNGIntVector order = this.reachableNodes(node);
+        final Formula[] formulas = this.formulaScratch();
+        for (int k = 0; k < order.size(); k++) {
+            final int i = order.get(k);
+            final int start = this.offsets.get(i);
+            final int end = this.offsets.get(i + 1);
+            switch (this.type(i)) {
+                case FALSE:
+                    formulas[i] = f.falsum();
+                    break;
+                case TRUE:
+                    formulas[i] = f.verum();
+                    break;
+                case LITERAL:
+                    formulas[i] = this.literal(this.data.get(start), f);
+                    break;
+                case NOT:
+                    formulas[i] = f.not(formulas[this.data.get(start)]);
+                    break;
+                case IMPL:
+                    formulas[i] = f.implication(formulas[this.data.get(start)], formulas[this.data.get(start + 1)]);
+                    break;
+                case EQUIV:
+                    formulas[i] = f.equivalence(formulas[this.data.get(start)], formulas[this.data.get(start + 1)]);
+                    break;
+                case AND:
+                case OR:
+                    final LinkedHashSet<Formula> operands = new LinkedHashSet<>();
+                    for (int j = start; j < end; j++) {
+                        operands.add(formulas[this.data.get(j)]);
+                    }
+                    formulas[i] = f.naryOperator(this.type(i), operands);
+                    break;
+                case PBC:
+                    final int numLits = (end - start - 2) / 2;
+                    final Literal[] literals = new Literal[numLits];
+                    final int[] coefficients = new int[numLits];
+                    for (int j = 0; j < numLits; j++) {
+                        literals[j] = this.literal(this.data.get(start + 2 + 2 * j), f);
+                        coefficients[j] = this.data.get(start + 3 + 2 * j);
+                    }
+                    formulas[i] = f.pbc(COMPARATORS[this.data.get(start)], this.data.get(start + 1), literals, coefficients);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown formula type: " + this.type(i));
+            }
+        }
+        final Formula result = formulas[node];
+        for (int k = 0; k < order.size(); k++) {
+            formulas[order.get(k)] = null;
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the given node with the given assignment.  The semantics is the same as
+     * in {@link Formula#evaluate(Assignment)}: variables not covered by the assignment are
+     * considered to be {@code false}.
+     * @param node       the node id
+     * @param assignment the assignment
+     * @return the result of the evaluation
+     */
+    public boolean evaluate(final int node, final Assignment assignment) {
+        final boolean[] values = new boolean[this.variableNames.size()];
+        for (final Variable var : assignment.positiveVariables()) {
+            final Integer index = this.variableIndices.get(var.name());
+            if (index != null) {
+                values[index] = true;
+            }
+        }
+        return this.evaluate(node, values);
+    }
+
+    /**
+     * Evaluates the given node with the given variable values.  The array is indexed by
+     * the variable indices of this arena.  Like {@link Formula#evaluate(Assignment)} the
+     * evaluation of conjunctions, disjunctions, and implications stops as soon as their
+     * result is determined.
+     * @param node   the node id
+     * @param values the values of the variables
+     * @return the result of the evaluation
+     */
+    public boolean evaluate(final int node, final boolean[] values) {
+        if (node < 0 || node >= this.types.size()) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        final LNGIntVector stack = this.evaluationStack;
+        stack.clear();
+        int current = node;
+        boolean result;
+        descend:
+        while (true) {
+            final int start = this.offsets.get(current);
+            switch (this.type(current)) {
+                case FALSE:
+                    result = false;
+                    break;
+                case TRUE:
+                    result = true;
+                    break;
+                case LITERAL:
+                    result = evaluateLiteral(this.data.get(start), values);
+                    break;
+                case PBC:
+                    int lhs = 0;
+                    for (int j = start + 2; j < this.offsets.get(current + 1); j += 2) {
+                        if (evaluateLiteral(this.data.get(j), values)) {
+                            lhs += this.data.get(j + 1);
+                        }
+                    }
+                    result = evaluateComparator(COMPARATORS[this.data.get(start)], lhs, this.data.get(start + 1));
+                    break;
+                default:
+                    stack.push(current);
+                    stack.push(0);
+                    current = this.data.get(start);
+                    continue;
+            }
+            while (!stack.empty()) {
+                final int parent = stack.get(stack.size() - 2);
+                final int state = stack.back();
+                final int start2 = this.offsets.get(parent);
+                final int next;
+                switch (this.type(parent)) {
+                    case NOT:
+                        result = !result;
+                        next = -1;
+                        break;
+                    case IMPL:
+                        next = state == 0 && result ? 1 : -1;
+                        if (state == 0 && !result) {
+                            result = true;
+                        }
+                        break;
+                    case EQUIV:
+                        if (state == 0) {
+                            next = result ? 2 : 1;
+                        } else {
+                            result = result == (state == 2);
+                            next = -1;
+                        }
+                        break;
+                    case AND:
+                    case OR:
+                        final boolean dominant = this.type(parent) == FType.OR;
+                        next = result != dominant && start2 + state + 1 < this.offsets.get(parent + 1) ? state + 1 : -1;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown formula type: " + this.type(parent));
+                }
+                if (next == -1) {
+                    stack.shrinkTo(stack.size() - 2);
+                } else {
+                    stack.set(stack.size() - 1, next);
+                    current = this.type(parent) == FType.EQUIV || this.type(parent) == FType.IMPL
+                            ? this.data.get(start2 + 1)
+                            : this.data.get(start2 + next);
+                    continue descend;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Restricts the given node with the given assignment and returns the id of the restricted
+     * node.  Nodes which are not affected by the assignment are reused, all other nodes are
+     * looked up in this arena and only appended if they do not exist yet.  Constants are propagated in the same way as in
+     * {@link Formula#restrict(Assignment)}.
+     * @param node       the node id
+     * @param assignment the assignment
+     * @return the node id of the restricted formula
+     */
+    public int restrict(final int node, final Assignment assignment) {
+        final Tristate[] values = new Tristate[this.variableNames.size()];
+        for (final Variable var : assignment.positiveVariables()) {
+            final Integer index = this.variableIndices.get(var.name());
+            if (index != null) {
+                values[index] = Tristate.TRUE;
+            }
+        }
+        for (final Literal lit : assignment.negativeLiterals()) {
+            final Integer index = this.variableIndices.get(lit.name());
+            if (index != null && values[index] == null) {
+                values[index] = Tristate.FALSE;
+            }
+        }
+        final LNGIntVector order = this.reachableNodes(node);
+        final int[] restricted = this.intScratch();
+        final LNGIntVector operands = new LNGIntVector();
+        for (int k = 0; k < order.size(); k++) {
+            final int i = order.get(k);
+            final int start = this.offsets.get(i);
+            final int end = this.offsets.get(i + 1);
+            switch (this.type(i)) {
+                case FALSE:
+                case TRUE:
+                    restricted[i] = i;
+                    break;
+                case LITERAL:
+                    final Tristate value = literalValue(this.data.get(start), values);
+                    restricted[i] = value == Tristate.UNDEF ? i : constant(value == Tristate.TRUE);
+                    break;
+                case NOT:
+                    final int op = restricted[this.data.get(start)];
+                    restricted[i] = op == this.data.get(start) ? i : this.negation(op);
+                    break;
+                case IMPL:
+                case EQUIV:
+                    final int left = restricted[this.data.get(start)];
+                    final int right = restricted[this.data.get(start + 1)];
+                    restricted[i] = left == this.data.get(start) && right == this.data.get(start + 1)
+                            ? i
+                            : this.binaryOperator(this.type(i), left, right);
+                    break;
+                case AND:
+                case OR:
+                    restricted[i] = this.restrictNAryOperator(i, start, end, restricted, operands);
+                    break;
+                case PBC:
+                    restricted[i] = this.restrictPBC(i, start, end, values, operands);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown formula type: " + this.type(i));
+            }
+        }
+        return restricted[node];
+    }
+
+    private int restrictNAryOperator(final int node, final int start, final int end, final int[] restricted, final LNGIntVector operands) {
+        final boolean isAnd = this.type(node) == FType.AND;
+        final int neutral = constant(isAnd);
+        final int dominant = constant(!isAnd);
+        operands.clear();
+        boolean changed = false;
+        for (int j = start; j < end; j++) {
+            final int op = restricted[this.data.get(j)];
+            changed |= op != this.data.get(j);
+            if (op == dominant) {
+                return dominant;
+            } else if (op != neutral) {
+                operands.push(op);
+            }
+        }
+        if (!changed) {
+            return node;
+        } else if (operands.empty()) {
+            return neutral;
+        } else if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        final int newNode = this.newNode(this.type(node));
+        for (int j = 0; j < operands.size(); j++) {
+            this.data.push(operands.get(j));
+        }
+        this.offsets.set(newNode + 1, this.data.size());
+        return this.intern(newNode);
+    }
+
+    private int restrictPBC(final int node, final int start, final int end, final Tristate[] values, final LNGIntVector operands) {
+        final CType comparator = COMPARATORS[this.data.get(start)];
+        operands.clear();
+        int lhsFixed = 0;
+        int minValue = 0;
+        int maxValue = 0;
+        for (int j = start + 2; j < end; j += 2) {
+            final int coeff = this.data.get(j + 1);
+            final Tristate value = literalValue(this.data.get(j), values);
+            if (value == Tristate.UNDEF) {
+                operands.push(this.data.get(j));
+                operands.push(coeff);
+                if (coeff > 0) {
+                    maxValue += coeff;
+                } else {
+                    minValue += coeff;
+                }
+            } else if (value == Tristate.TRUE) {
+                lhsFixed += coeff;
+            }
+        }
+        if (operands.empty()) {
+            return constant(evaluateComparator(comparator, lhsFixed, this.data.get(start + 1)));
+        }
+        final int newRhs = this.data.get(start + 1) - lhsFixed;
+        if (comparator != CType.EQ) {
+            final Tristate fixed = PBConstraint.evaluateCoeffs(minValue, maxValue, newRhs, comparator);
+            if (fixed != Tristate.UNDEF) {
+                return constant(fixed == Tristate.TRUE);
+            }
+        }
+        if (operands.size() == end - start - 2) {
+            return node;
+        }
+        final int newNode = this.newNode(FType.PBC, comparator.ordinal(), newRhs);
+        for (int j = 0; j < operands.size(); j++) {
+            this.data.push(operands.get(j));
+        }
+        this.offsets.set(newNode + 1, this.data.size());
+        return this.intern(newNode);
+    }
+
+    /**
+     * Returns the variables of the given node as a bit set of variable indices.
+     * @param node the node id
+     * @return the variable indices
+     */
+    public BitSet variables(final int node) {
+        final LNGIntVector order = this.reachableNodes(node);
+        final BitSet variables = new BitSet(this.variableNames.size());
+        for (int k = 0; k < order.size(); k++) {
+            final int i = order.get(k);
+            if (this.type(i) == FType.LITERAL) {
+                variables.set(this.data.get(this.offsets.get(i)) >> 1);
+            } else if (this.type(i) == FType.PBC) {
+                for (int j = this.offsets.get(i) + 2; j < this.offsets.get(i + 1); j += 2) {
+                    variables.set(this.data.get(j) >> 1);
+                }
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * Returns the number of nodes of the given node when viewed as a tree.  The semantics is
+     * the same as in {@link org.logicng.functions.NumberOfNodesFunction}.
+     * @param node the node id
+     * @return the number of nodes
+     */
+    public long numberOfNodes(final int node) {
+        final LNGIntVector order = this.reachableNodes(node);
+        final long[] numbers = this.longScratch();
+        for (int k = 0; k < order.size(); k++) {
+            final int i = order.get(k);
+            final int start = this.offsets.get(i);
+            final int end = this.offsets.get(i + 1);
+            switch (this.type(i)) {
+                case FALSE:
+                case TRUE:
+                case LITERAL:
+                    numbers[i] = 1;
+                    break;
+                case PBC:
+                    numbers[i] = 1 + (end - start - 2) / 2;
+                    break;
+                default:
+                    long number = 1;
+                    for (int j = start; j < end; j++) {
+                        number += numbers[this.data.get(j)];
+                    }
+                    numbers[i] = number;
+            }
+        }
+        return numbers[node];
+    }
+
+    /**
+     * Iterates over the clauses of the given node, which must be in conjunctive normal form.
+     * Each clause is passed to the consumer as a vector of literal codes.  The vector is reused
+     * between the clauses and must therefore not be stored by the consumer.  The constant
+     * {@code $true} has no clauses and the constant {@code $false} has a single empty clause.
+     * @param node     the node id
+     * @param consumer the consumer of the clauses
+     * @throws IllegalArgumentException if the node is not in conjunctive normal form
+     */
+    public void forEachClause(final int node, final Consumer<LNGIntVector> consumer) {
+        final LNGIntVector clause = new LNGIntVector();
+        if (this.type(node) == FType.AND) {
+            for (int j = this.offsets.get(node); j < this.offsets.get(node + 1); j++) {
+                this.fillClause(this.data.get(j), clause);
+                consumer.accept(clause);
+            }
+        } else if (this.type(node) != FType.TRUE) {
+            this.fillClause(node, clause);
+            consumer.accept(clause);
+        }
+    }
+
+    private void fillClause(final int node, final LNGIntVector clause) {
+        clause.clear();
+        switch (this.type(node)) {
+            case FALSE:
+                break;
+            case LITERAL:
+                clause.push(this.data.get(this.offsets.get(node)));
+                break;
+            case OR:
+                for (int j = this.offsets.get(node); j < this.offsets.get(node + 1); j++) {
+                    final int op = this.data.get(j);
+                    if (this.type(op) != FType.LITERAL) {
+                        throw new IllegalArgumentException("Node " + node + " is not a clause");
+                    }
+                    clause.push(this.data.get(this.offsets.get(op)));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Node " + node + " is not a clause");
+        }
+    }
+
+    /**
+     * Returns the type of the given node.
+     * @param node the node id
+     * @return the type of the node
+     */
+    public FType type(final int node) {
+        return TYPES[this.types.get(node)];
+    }
+
+    /**
+     * Returns the number of operands of the given node.  For literals and constants this is
+     * 0, for pseudo-Boolean constraints it is the number of literals.
+     * @param node the node id
+     * @return the number of operands
+     */
+    public int numberOfOperands(final int node) {
+        switch (this.type(node)) {
+            case FALSE:
+            case TRUE:
+            case LITERAL:
+                return 0;
+            case PBC:
+                return (this.offsets.get(node + 1) - this.offsets.get(node) - 2) / 2;
+            default:
+                return this.offsets.get(node + 1) - this.offsets.get(node);
+        }
+    }
+
+    /**
+     * Returns the i-th operand of the given node.  For pseudo-Boolean constraints this is the
+     * literal code of the i-th literal, for all other operators it is the node id of the operand.
+     * @param node the node id
+     * @param i    the index of the operand
+     * @return the operand
+     */
+    public int operand(final int node, final int i) {
+        final int start = this.offsets.get(node);
+        return this.type(node) == FType.PBC ? this.data.get(start + 2 + 2 * i) : this.data.get(start + i);
+    }
+
+    /**
+     * Returns the literal code of the given literal node.
+     * @param node the node id
+     * @return the literal code
+     */
+    public int literalCode(final int node) {
+        if (this.type(node) != FType.LITERAL) {
+            throw new IllegalArgumentException("Node " + node + " is not a literal");
+        }
+        return this.data.get(this.offsets.get(node));
+    }
+
+    /**
+     * Returns the number of nodes in this arena.
+     * @return the number of nodes
+     */
+    public int size() {
+        return this.types.size();
+    }
+
+    /**
+     * Returns the number of variables in this arena.
+     * @return the number of variables
+     */
+    public int numberOfVariables() {
+        return this.variableNames.size();
+    }
+
+    /**
+     * Returns the name of the variable with the given index.
+     * @param index the variable index
+     * @return the name of the variable
+     */
+    public String variableName(final int index) {
+        return this.variableNames.get(index);
+    }
+
+    /**
+     * Returns the index of the variable with the given name or -1 if the variable is unknown.
+     * @param name the name of the variable
+     * @return the index of the variable
+     */
+    public int variableIndex(final String name) {
+        final Integer index = this.variableIndices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    private int literalCode(final Literal literal) {
+        Integer index = this.variableIndices.get(literal.name());
+        if (index == null) {
+            index = this.variableNames.size();
+            this.variableNames.add(literal.name());
+            this.variableIndices.put(literal.name(), index);
+            this.literalNodes.push(-1);
+            this.literalNodes.push(-1);
+        }
+        return 2 * index + (literal.phase() ? 0 : 1);
+    }
+
+    private int literalNode(final int code) {
+        int node = this.literalNodes.get(code);
+        if (node == -1) {
+            node = this.newNode(FType.LITERAL, code);
+            this.literalNodes.set(code, node);
+        }
+        return node;
+    }
+
+    private Literal literal(final int code, final FormulaFactory f) {
+        return f.literal(this.variableNames.get(code >> 1), (code & 1) == 0);
+    }
+
+    private int negation(final int op) {
+        switch (this.type(op)) {
+            case FALSE:
+                return TRUE;
+            case TRUE:
+                return FALSE;
+            case LITERAL:
+                return this.literalNode(this.data.get(this.offsets.get(op)) ^ 1);
+            case NOT:
+                return this.data.get(this.offsets.get(op));
+            default:
+                return this.intern(this.newNode(FType.NOT, op));
+        }
+    }
+
+    private int binaryOperator(final FType type, final int left, final int right) {
+        if (type == FType.IMPL) {
+            if (left == FALSE || right == TRUE) {
+                return TRUE;
+            } else if (left == TRUE) {
+                return right;
+            } else if (right == FALSE) {
+                return this.negation(left);
+            }
+        } else {
+            if (left == TRUE) {
+                return right;
+            } else if (left == FALSE) {
+                return this.negation(right);
+            } else if (right == TRUE) {
+                return left;
+            } else if (right == FALSE) {
+                return this.negation(left);
+            }
+        }
+        return this.intern(this.newNode(type, left, right));
+    }
+
+    private int newNode(final FType type, final int... elements) {
+        this.types.push((byte) type.ordinal());
+        for (final int element : elements) {
+            this.data.push(element);
+        }
+        this.offsets.push(this.data.size());
+        return this.types.size() - 1;
+    }
+
+    /**
+     * Interns the given node, which must be the last node of this arena.  If an equal node
+     * already exists, the given node is removed again and the existing node is returned.
+     * @param node the node id
+     * @return the id of the interned node
+     */
+    private int intern(final int node) {
+        if (2 * (this.uniqueNodes + 1) > this.uniqueTable.length) {
+            final int[] oldTable = this.uniqueTable;
+            this.uniqueTable = new int[2 * oldTable.length];
+            for (final int existing : oldTable) {
+                if (existing != 0) {
+                    this.insertUnique(existing);
+                }
+            }
+        }
+        final int mask = this.uniqueTable.length - 1;
+        for (int pos = this.hashNode(node) & mask; ; pos = (pos + 1) & mask) {
+            final int existing = this.uniqueTable[pos];
+            if (existing == 0) {
+                this.uniqueTable[pos] = node;
+                this.uniqueNodes++;
+                return node;
+            } else if (this.equalNodes(existing, node)) {
+                this.types.pop();
+                this.offsets.pop();
+                this.data.shrinkTo(this.offsets.back());
+                return existing;
+            }
+        }
+    }
+
+    private void insertUnique(final int node) {
+        final int mask = this.uniqueTable.length - 1;
+        int pos = this.hashNode(node) & mask;
+        while (this.uniqueTable[pos] != 0) {
+            pos = (pos + 1) & mask;
+        }
+        this.uniqueTable[pos] = node;
+    }
+
+    private int hashNode(final int node) {
+        int hash = this.types.get(node);
+        for (int j = this.offsets.get(node); j < this.offsets.get(node + 1); j++) {
+            hash = 31 * hash + this.data.get(j);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean equalNodes(final int node1, final int node2) {
+        final int start1 = this.offsets.get(node1);
+        final int start2 = this.offsets.get(node2);
+        final int length = this.offsets.get(node1 + 1) - start1;
+        if (this.types.get(node1) != this.types.get(node2) || this.offsets.get(node2 + 1) - start2 != length) {
+            return false;
+        }
+        for (int j = 0; j < length; j++) {
+            if (this.data.get(start1 + j) != this.data.get(start2 + j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the nodes reachable from the given node in topological order.  Only the reachable
+     * nodes are visited, so the costs do not depend on the overall size of the arena.
+     * @param node the node id
+     * @return the reachable nodes in ascending order
+     */
+    private LNGIntVector reachableNodes(final int node) {
+        if (node < 0 || node >= this.types.size()) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        if (this.marks.length < this.types.size()) {
+            this.marks = Arrays.copyOf(this.marks, Math.max(this.types.size(), 2 * this.marks.length));
+        }
+        if (++this.epoch == 0) {
+            Arrays.fill(this.marks, 0);
+            this.epoch = 1;
+        }
+        final LNGIntVector order = new LNGIntVector();
+        final LNGIntVector stack = new LNGIntVector();
+        stack.push(node);
+        while (!stack.empty()) {
+            final int current = stack.back();
+            stack.pop();
+            if (this.marks[current] == this.epoch) {
+                continue;
+            }
+            this.marks[current] = this.epoch;
+            order.push(current);
+            if (this.type(current) != FType.PBC && this.type(current) != FType.LITERAL) {
+                for (int j = this.offsets.get(current); j < this.offsets.get(current + 1); j++) {
+                    stack.push(this.data.get(j));
+                }
+            }
+        }
+        order.sort();
+        return order;
+    }
+
+    private int[] intScratch() {
+        if (this.intScratch.length < this.types.size()) {
+            this.intScratch = new int[Math.max(this.types.size(), 2 * this.intScratch.length)];
+        }
+        return this.intScratch;
+    }
+
+    private long[] longScratch() {
+        if (this.longScratch.length < this.types.size()) {
+            this.longScratch = new long[Math.max(this.types.size(), 2 * this.longScratch.length)];
+        }
+        return this.longScratch;
+    }
+
+    private Formula[] formulaScratch() {
+        if (this.formulaScratch.length < this.types.size()) {
+            this.formulaScratch = new Formula[Math.max(this.types.size(), 2 * this.formulaScratch.length)];
+        }
+        return this.formulaScratch;
+    }
+
+    private static int constant(final boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    private static boolean evaluateLiteral(final int code, final boolean[] values) {
+        return values[code >> 1] == ((code & 1) == 0);
+    }
+
+    private static Tristate literalValue(final int code, final Tristate[] values) {
+        final Tristate value = values[code >> 1];
+        if (value == null) {
+            return Tristate.UNDEF;
+        }
+        return (value == Tristate.TRUE) == ((code & 1) == 0) ? Tristate.TRUE : Tristate.FALSE;
+    }
+
+    private static boolean evaluateComparator(final CType comparator, final int lhs, final int rhs) {
+        switch (comparator) {
+            case EQ:
+                return lhs == rhs;
+            case LE:
+                return lhs <= rhs;
+            case LT:
+                return lhs < rhs;
+            case GE:
+                return lhs >= rhs;
+            case GT:
+                return lhs > rhs;
+            default:
+                throw new IllegalStateException("Unknown pseudo-Boolean comparator");
+        }
+    }
+}
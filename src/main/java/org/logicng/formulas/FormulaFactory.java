@@ -34,19 +34,26 @@ import static org.logicng.formulas.FType.LITERAL;
 import static org.logicng.formulas.FType.NOT;
 import static org.logicng.formulas.FType.OR;
 import static org.logicng.formulas.FType.TRUE;
+import static org.logicng.formulas.cache.FunctionCacheEntry.VARIABLES;
 import static org.logicng.formulas.cache.PredicateCacheEntry.IS_CNF;
+import static org.logicng.formulas.cache.PredicateCacheEntry.IS_NNF;
 import static org.logicng.formulas.cache.TransformationCacheEntry.FACTORIZED_CNF;
+import static org.logicng.formulas.cache.TransformationCacheEntry.NNF;
 
 import org.logicng.cardinalityconstraints.CCConfig;
 import org.logicng.configurations.Configuration;
 import org.logicng.configurations.ConfigurationType;
 import org.logicng.datastructures.Tristate;
 import org.logicng.explanations.mus.MUSConfig;
+import org.logicng.formulas.cache.BoundedCache;
 import org.logicng.formulas.cache.CacheEntry;
+import org.logicng.formulas.cache.CacheEvictionPolicy;
+import org.logicng.formulas.cache.CacheStatistics;
 import org.logicng.formulas.printer.FormulaStringRepresentation;
 import org.logicng.functions.SubNodeFunction;
 import org.logicng.pseudobooleans.PBConfig;
 import org.logicng.pseudobooleans.PBEncoder;
+import org.logicng.solvers.PortfolioConfig;
 import org.logicng.solvers.maxsat.algorithms.MaxSATConfig;
 import org.logicng.solvers.sat.GlucoseConfig;
 import org.logicng.solvers.sat.MiniSatConfig;
@@ -77,8 +84,8 @@ import java.util.Set;
  * formulas (in terms of associativity and commutativity) are hold exactly once in memory.
  * <p>
  * A formula factory is NOT thread-safe.  If you generate formulas from more than one thread you either need to synchronize the formula factory
- * yourself or you use a formula factory for each single thread.
- * @version 2.5.0
+ * yourself, you use a formula factory for each single thread, or you use a {@link ConcurrentFormulaFactory}.
+ * @version 2.7.0
  * @since 1.0
  */
 public class FormulaFactory {
@@ -94,6 +101,8 @@ public class FormulaFactory {
     private final FormulaStringRepresentation stringRepresentation;
     private final FormulaFactoryConfig.FormulaMergeStrategy formulaMergeStrategy;
     private final boolean simplifyComplementaryOperands;
+    private final boolean compactOperatorTables;
+    private final Map<CacheEntry, Pair<Integer, CacheEvictionPolicy>> cacheLimits;
     private final Map<ConfigurationType, Configuration> configurations;
     private final String ccPrefix;
     private final String pbPrefix;
@@ -101,6 +110,7 @@ public class FormulaFactory {
     private final SubNodeFunction subformulaFunction;
     private final PBEncoder pbEncoder;
     private final CNFEncoder cnfEncoder;
+    private final OperandBuffer operandBuffer;
     Map<String, Variable> posLiterals;
     Map<String, Literal> negLiterals;
     Set<Variable> generatedVariables;
@@ -120,11 +130,14 @@ public class FormulaFactory {
     int ccCounter;
     int pbCounter;
     int cnfCounter;
+    int variableCounter;
     Map<Formula, Map<CacheEntry, Formula>> transformationCache;
     Map<Formula, Map<CacheEntry, Tristate>> predicateCache;
     Map<Formula, Map<CacheEntry, Object>> functionCache;
     Map<PBConstraint, List<Formula>> pbEncodingCache;
-    private boolean cnfCheck;
+    Map<CacheEntry, BoundedCache<Formula>> boundedTransformationCaches;
+    Map<CacheEntry, BoundedCache<Tristate>> boundedPredicateCaches;
+    Map<CacheEntry, BoundedCache<Object>> boundedFunctionCaches;
     private FormulaFactoryImporter importer;
 
     /**
@@ -136,11 +149,14 @@ public class FormulaFactory {
         this.stringRepresentation = config.stringRepresentation.get();
         this.formulaMergeStrategy = config.formulaMergeStrategy;
         this.simplifyComplementaryOperands = config.simplifyComplementaryOperands;
+        this.compactOperatorTables = config.compactOperatorTables;
+        this.cacheLimits = config.cacheLimits;
         this.configurations = initDefaultConfigs();
         this.cFalse = new CFalse(this);
         this.cTrue = new CTrue(this);
         this.clear();
         this.cnfEncoder = new CNFEncoder(this);
+        this.operandBuffer = new OperandBuffer();
         this.subformulaFunction = SubNodeFunction.get();
         if (!this.name.isEmpty()) {
             this.ccPrefix = CC_PREFIX + this.name + "_";
@@ -175,6 +191,7 @@ public class FormulaFactory {
         configMap.put(ConfigurationType.MUS, MUSConfig.builder().build());
         configMap.put(ConfigurationType.ADVANCED_SIMPLIFIER, AdvancedSimplifierConfig.builder().build());
         configMap.put(ConfigurationType.FORMULA_RANDOMIZER, FormulaRandomizerConfig.builder().build());
+        configMap.put(ConfigurationType.PORTFOLIO, PortfolioConfig.builder().build());
         return configMap;
     }
 
@@ -186,7 +203,7 @@ public class FormulaFactory {
      * @param formula  the formula
      * @return {@code true} if a given list of formulas contains a given formula, {@code false} otherwise
      */
-    private boolean containsComplement(final LinkedHashSet<Formula> formulas, final Formula formula) {
+    private boolean containsComplement(final Set<Formula> formulas, final Formula formula) {
         if (!this.simplifyComplementaryOperands) {
             return false;
         }
@@ -221,14 +238,25 @@ public class FormulaFactory {
         this.nots = new HashMap<>();
         this.implications = new HashMap<>();
         this.equivalences = new HashMap<>();
-        this.ands2 = new HashMap<>();
-        this.ands3 = new HashMap<>();
-        this.ands4 = new HashMap<>();
-        this.andsN = new HashMap<>();
-        this.ors2 = new HashMap<>();
-        this.ors3 = new HashMap<>();
-        this.ors4 = new HashMap<>();
-        this.orsN = new HashMap<>();
+        if (this.compactOperatorTables) {
+            this.ands2 = new NAryOperatorTable<>();
+            this.ands3 = new NAryOperatorTable<>();
+            this.ands4 = new NAryOperatorTable<>();
+            this.andsN = new NAryOperatorTable<>();
+            this.ors2 = new NAryOperatorTable<>();
+            this.ors3 = new NAryOperatorTable<>();
+            this.ors4 = new NAryOperatorTable<>();
+            this.orsN = new NAryOperatorTable<>();
+        } else {
+            this.ands2 = new HashMap<>();
+            this.ands3 = new HashMap<>();
+            this.ands4 = new HashMap<>();
+            this.andsN = new HashMap<>();
+            this.ors2 = new HashMap<>();
+            this.ors3 = new HashMap<>();
+            this.ors4 = new HashMap<>();
+            this.orsN = new HashMap<>();
+        }
         this.pbConstraints = new HashMap<>();
         this.cardinalityConstraints = new HashMap<>();
         this.ccCounter = 0;
@@ -238,6 +266,22 @@ public class FormulaFactory {
         this.predicateCache = new HashMap<>();
         this.functionCache = new HashMap<>();
         this.pbEncodingCache = new HashMap<>();
+        initBoundedCaches();
+    }
+
+    /**
+     * Initializes the bounded caches for all cache entries with a cache limit.
+     */
+    void initBoundedCaches() {
+        if (this.cacheLimits.isEmpty()) {
+            this.boundedTransformationCaches = null;
+            this.boundedPredicateCaches = null;
+            this.boundedFunctionCaches = null;
+        } else {
+            this.boundedTransformationCaches = new HashMap<>();
+            this.boundedPredicateCaches = new HashMap<>();
+            this.boundedFunctionCaches = new HashMap<>();
+        }
     }
 
     /**
@@ -289,6 +333,15 @@ public class FormulaFactory {
         return this.pbEncoder;
     }
 
+    /**
+     * Encodes a pseudo-Boolean constraint as CNF for {@link PBConstraint#getEncoding()}.
+     * @param constraint the pseudo-Boolean constraint
+     * @return the encoding of the constraint
+     */
+    List<Formula> encodePBConstraint(final PBConstraint constraint) {
+        return this.pbEncoder.encode(constraint);
+    }
+
     /**
      * Returns the default CNF encoder of this formula factory.
      * @return the default CNF encoder of this formula factory
@@ -297,6 +350,14 @@ public class FormulaFactory {
         return this.cnfEncoder;
     }
 
+    /**
+     * Returns the buffer for the operands of conjunctions and disjunctions which are looked up in the unique tables.
+     * @return the operand buffer
+     */
+    OperandBuffer operandBuffer() {
+        return this.operandBuffer;
+    }
+
     /**
      * Creates a new binary operator with a given type and two operands.
      * @param type  the type of the formula
@@ -338,12 +399,13 @@ public class FormulaFactory {
             return this.verum();
         }
         final Pair<Formula, Formula> key = new Pair<>(left, right);
-        Implication implication = this.implications.get(key);
-        if (implication == null) {
-            implication = new Implication(left, right, this);
-            this.implications.put(key, implication);
+        final Implication implication = this.implications.get(key);
+        if (implication != null) {
+            return implication;
         }
-        return implication;
+        final Implication newImplication = new Implication(left, right, this);
+        final Implication existing = this.implications.putIfAbsent(key, newImplication);
+        return existing != null ? existing : newImplication;
     }
 
     /**
@@ -374,12 +436,13 @@ public class FormulaFactory {
             return this.falsum();
         }
         final LinkedHashSet<Formula> key = new LinkedHashSet<>(Arrays.asList(left, right));
-        Equivalence equivalence = this.equivalences.get(key);
-        if (equivalence == null) {
-            equivalence = new Equivalence(left, right, this);
-            this.equivalences.put(key, equivalence);
+        final Equivalence equivalence = this.equivalences.get(key);
+        if (equivalence != null) {
+            return equivalence;
         }
-        return equivalence;
+        final Equivalence newEquivalence = new Equivalence(left, right, this);
+        final Equivalence existing = this.equivalences.putIfAbsent(key, newEquivalence);
+        return existing != null ? existing : newEquivalence;
     }
 
     /**
@@ -403,12 +466,13 @@ public class FormulaFactory {
         if (operand.type() == LITERAL || operand.type() == FALSE || operand.type() == TRUE || operand.type() == NOT) {
             return operand.negate();
         }
-        Not not = this.nots.get(operand);
-        if (not == null) {
-            not = new Not(operand, this);
-            this.nots.put(operand, not);
+        final Not not = this.nots.get(operand);
+        if (not != null) {
+            return not;
         }
-        return not;
+        final Not newNot = new Not(operand, this);
+        final Not existing = this.nots.putIfAbsent(operand, newNot);
+        return existing != null ? existing : newNot;
     }
 
     /**
@@ -463,6 +527,16 @@ public class FormulaFactory {
      * @return a new conjunction
      */
     public Formula and(final Formula... operands) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        boolean contradiction = false;
+        for (final Formula op : operands) {
+            contradiction |= !this.bufferOperandAnd(buffer, op);
+        }
+        final Formula existing = this.lookupAnd(buffer, contradiction);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Formula> ops = new LinkedHashSet<>(operands.length);
         Collections.addAll(ops, operands);
         return this.constructAnd(ops);
@@ -472,14 +546,86 @@ public class FormulaFactory {
      * Creates a new conjunction from a collection of formulas.
      * <p>
      * Note: The LinkedHashSet is used to eliminate duplicate sub-formulas and to respect the commutativity of operands.
+     * It is only allocated if the conjunction does not exist yet.
      * @param operands the array of formulas
      * @return a new conjunction
      */
     public Formula and(final Collection<? extends Formula> operands) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        boolean contradiction = false;
+        for (final Formula op : operands) {
+            contradiction |= !this.bufferOperandAnd(buffer, op);
+        }
+        final Formula existing = this.lookupAnd(buffer, contradiction);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Formula> ops = new LinkedHashSet<>(operands);
         return this.constructAnd(ops);
     }
 
+    /**
+     * Adds an operand of a conjunction to the operand buffer and condenses it like {@link #condenseOperandsAnd}.
+     * If the operand was created by another formula factory, the buffer becomes invalid.
+     * @param buffer  the operand buffer
+     * @param formula the operand
+     * @return {@code false} if the conjunction became a contradiction, {@code true} otherwise
+     */
+    private boolean bufferOperandAnd(final OperandBuffer buffer, final Formula formula) {
+        if (formula.factory() != this) {
+            buffer.invalidate();
+            return true;
+        }
+        if (formula.type() == AND) {
+            for (final Formula op : ((NAryOperator) formula).operands) {
+                if (!this.addFormulaAnd(buffer, op)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return this.addFormulaAnd(buffer, formula);
+    }
+
+    /**
+     * Looks up the conjunction of the condensed operands in the operand buffer and resets the buffer.
+     * @param buffer        the operand buffer
+     * @param contradiction whether the conjunction became a contradiction
+     * @return the conjunction or {@code null} if the buffer is invalid or the conjunction does not exist yet
+     */
+    private Formula lookupAnd(final OperandBuffer buffer, final boolean contradiction) {
+        final Formula result;
+        if (!buffer.isValid()) {
+            result = null;
+        } else if (contradiction) {
+            result = this.falsum();
+        } else {
+            switch (buffer.size()) {
+                case 0:
+                    result = this.verum();
+                    break;
+                case 1:
+                    result = buffer.get(0);
+                    break;
+                case 2:
+                    result = this.ands2.get(buffer);
+                    break;
+                case 3:
+                    result = this.ands3.get(buffer);
+                    break;
+                case 4:
+                    result = this.ands4.get(buffer);
+                    break;
+                default:
+                    result = this.andsN.get(buffer);
+                    break;
+            }
+        }
+        buffer.reset();
+        return result;
+    }
+
     /**
      * Checks if the given formula was created by this formula factory. If this is the case,
      * the formula is returned. Otherwise, depending on the {@link #formulaMergeStrategy}
@@ -633,9 +779,12 @@ public class FormulaFactory {
         and = condAndMap.get(condensedOperands);
         if (and == null) {
             tempAnd = new And(condensedOperands, this);
-            setCnfCaches(tempAnd, this.cnfCheck);
+            setCnfCaches(tempAnd, isCnfConjunction(condensedOperands));
+            final And existing = condAndMap.putIfAbsent(condensedOperands, tempAnd);
+            if (existing != null) {
+                tempAnd = existing;
+            }
             opAndMap.put(operands, tempAnd);
-            condAndMap.put(condensedOperands, tempAnd);
             return tempAnd;
         }
         opAndMap.put(operands, and);
@@ -704,8 +853,8 @@ public class FormulaFactory {
         }
         tempAnd = new And(clauses, this);
         setCnfCaches(tempAnd, true);
-        opAndMap.put(clauses, tempAnd);
-        return tempAnd;
+        final And existing = opAndMap.putIfAbsent(clauses, tempAnd);
+        return existing != null ? existing : tempAnd;
     }
 
     /**
@@ -714,6 +863,16 @@ public class FormulaFactory {
      * @return a new disjunction
      */
     public Formula or(final Formula... operands) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        boolean tautology = false;
+        for (final Formula op : operands) {
+            tautology |= !this.bufferOperandOr(buffer, op);
+        }
+        final Formula existing = this.lookupOr(buffer, tautology);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Formula> ops = new LinkedHashSet<>(operands.length);
         Collections.addAll(ops, operands);
         return this.constructOr(ops);
@@ -723,14 +882,86 @@ public class FormulaFactory {
      * Creates a new disjunction from a collection of formulas.
      * <p>
      * Note: The LinkedHashSet is used to eliminate duplicate sub-formulas and to respect the commutativity of operands.
+     * It is only allocated if the disjunction does not exist yet.
      * @param operands the collection of formulas
      * @return a new disjunction
      */
     public Formula or(final Collection<? extends Formula> operands) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        boolean tautology = false;
+        for (final Formula op : operands) {
+            tautology |= !this.bufferOperandOr(buffer, op);
+        }
+        final Formula existing = this.lookupOr(buffer, tautology);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Formula> ops = new LinkedHashSet<>(operands);
         return this.constructOr(ops);
     }
 
+    /**
+     * Adds an operand of a disjunction to the operand buffer and condenses it like {@link #condenseOperandsOr}.
+     * If the operand was created by another formula factory, the buffer becomes invalid.
+     * @param buffer  the operand buffer
+     * @param formula the operand
+     * @return {@code false} if the disjunction became a tautology, {@code true} otherwise
+     */
+    private boolean bufferOperandOr(final OperandBuffer buffer, final Formula formula) {
+        if (formula.factory() != this) {
+            buffer.invalidate();
+            return true;
+        }
+        if (formula.type() == OR) {
+            for (final Formula op : ((NAryOperator) formula).operands) {
+                if (!this.addFormulaOr(buffer, op)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return this.addFormulaOr(buffer, formula);
+    }
+
+    /**
+     * Looks up the disjunction of the condensed operands in the operand buffer and resets the buffer.
+     * @param buffer    the operand buffer
+     * @param tautology whether the disjunction became a tautology
+     * @return the disjunction or {@code null} if the buffer is invalid or the disjunction does not exist yet
+     */
+    private Formula lookupOr(final OperandBuffer buffer, final boolean tautology) {
+        final Formula result;
+        if (!buffer.isValid()) {
+            result = null;
+        } else if (tautology) {
+            result = this.verum();
+        } else {
+            switch (buffer.size()) {
+                case 0:
+                    result = this.falsum();
+                    break;
+                case 1:
+                    result = buffer.get(0);
+                    break;
+                case 2:
+                    result = this.ors2.get(buffer);
+                    break;
+                case 3:
+                    result = this.ors3.get(buffer);
+                    break;
+                case 4:
+                    result = this.ors4.get(buffer);
+                    break;
+                default:
+                    result = this.orsN.get(buffer);
+                    break;
+            }
+        }
+        buffer.reset();
+        return result;
+    }
+
     /**
      * Creates a new disjunction.
      * @param operandsIn the formulas
@@ -789,9 +1020,12 @@ public class FormulaFactory {
         or = condOrMap.get(condensedOperands);
         if (or == null) {
             tempOr = new Or(condensedOperands, this);
-            setCnfCaches(tempOr, this.cnfCheck);
+            setCnfCaches(tempOr, isClause(condensedOperands));
+            final Or existing = condOrMap.putIfAbsent(condensedOperands, tempOr);
+            if (existing != null) {
+                tempOr = existing;
+            }
             opOrMap.put(operands, tempOr);
-            condOrMap.put(condensedOperands, tempOr);
             return tempOr;
         }
         opOrMap.put(operands, or);
@@ -860,8 +1094,8 @@ public class FormulaFactory {
         }
         tempOr = new Or(terms, this);
         setCnfCaches(tempOr, isCnf(termsIn));
-        opOrMap.put(terms, tempOr);
-        return tempOr;
+        final Or existing = opOrMap.putIfAbsent(terms, tempOr);
+        return existing != null ? existing : tempOr;
     }
 
     private static boolean isCnf(final LinkedHashSet<? extends Formula> terms) {
@@ -885,6 +1119,15 @@ public class FormulaFactory {
      * @return a new clause
      */
     public Formula clause(final Literal... literals) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        for (final Literal lit : literals) {
+            this.bufferLiteral(buffer, lit);
+        }
+        final Formula existing = this.lookupOr(buffer, false);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Literal> ops = new LinkedHashSet<>(literals.length);
         Collections.addAll(ops, literals);
         return this.constructClause(ops);
@@ -899,6 +1142,15 @@ public class FormulaFactory {
      * @return a new clause
      */
     public Formula clause(final Collection<? extends Literal> literals) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        for (final Literal lit : literals) {
+            this.bufferLiteral(buffer, lit);
+        }
+        final Formula existing = this.lookupOr(buffer, false);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Literal> ops = new LinkedHashSet<>(literals);
         return this.constructClause(ops);
     }
@@ -936,8 +1188,8 @@ public class FormulaFactory {
         }
         tempOr = new Or(literals, this);
         setCnfCaches(tempOr, true);
-        opOrMap.put(literals, tempOr);
-        return tempOr;
+        final Or existing = opOrMap.putIfAbsent(literals, tempOr);
+        return existing != null ? existing : tempOr;
     }
 
     /**
@@ -949,6 +1201,15 @@ public class FormulaFactory {
      * @return a new term
      */
     public Formula term(final Literal... literals) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        for (final Literal lit : literals) {
+            this.bufferLiteral(buffer, lit);
+        }
+        final Formula existing = this.lookupAnd(buffer, false);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Literal> ops = new LinkedHashSet<>(literals.length);
         Collections.addAll(ops, literals);
         return this.constructTerm(ops);
@@ -963,10 +1224,33 @@ public class FormulaFactory {
      * @return a new term
      */
     public Formula term(final Collection<? extends Literal> literals) {
+        final OperandBuffer buffer = this.operandBuffer();
+        buffer.reset();
+        for (final Literal lit : literals) {
+            this.bufferLiteral(buffer, lit);
+        }
+        final Formula existing = this.lookupAnd(buffer, false);
+        if (existing != null) {
+            return existing;
+        }
         final LinkedHashSet<Literal> ops = new LinkedHashSet<>(literals);
         return this.constructTerm(ops);
     }
 
+    /**
+     * Adds a literal of a clause or term to the operand buffer.  If the literal was created by another formula
+     * factory, the buffer becomes invalid.
+     * @param buffer  the operand buffer
+     * @param literal the literal
+     */
+    private void bufferLiteral(final OperandBuffer buffer, final Literal literal) {
+        if (literal.factory() != this) {
+            buffer.invalidate();
+        } else {
+            buffer.add(literal);
+        }
+    }
+
     /**
      * Creates a new term.
      * @param literalsIn the literals
@@ -1000,10 +1284,16 @@ public class FormulaFactory {
         }
         tempAnd = new And(literals, this);
         setCnfCaches(tempAnd, true);
-        opAndMap.put(literals, tempAnd);
-        return tempAnd;
+        final And existing = opAndMap.putIfAbsent(literals, tempAnd);
+        return existing != null ? existing : tempAnd;
     }
 
+    /**
+     * Initializes the CNF caches of a new conjunction or disjunction.  This must happen before the formula is published
+     * in a unique table, otherwise another thread could see the formula without its CNF flag.
+     * @param formula the new formula
+     * @param isCNF   whether the formula is in CNF
+     */
     private void setCnfCaches(final Formula formula, final boolean isCNF) {
         if (isCNF) {
             setPredicateCacheEntry(formula, IS_CNF, true);
@@ -1025,12 +1315,13 @@ public class FormulaFactory {
         if (phase) {
             return this.variable(name);
         } else {
-            Literal lit = this.negLiterals.get(name);
-            if (lit == null) {
-                lit = new Literal(name, false, this);
-                this.negLiterals.put(name, lit);
+            final Literal lit = this.negLiterals.get(name);
+            if (lit != null) {
+                return lit;
             }
-            return lit;
+            final Literal newLit = new Literal(name, false, this);
+            final Literal existing = this.negLiterals.putIfAbsent(name, newLit);
+            return existing != null ? existing : newLit;
         }
     }
 
@@ -1040,12 +1331,30 @@ public class FormulaFactory {
      * @return a new literal with the given name and positive phase
      */
     public Variable variable(final String name) {
-        Variable var = this.posLiterals.get(name);
-        if (var == null) {
-            var = new Variable(name, this);
-            this.posLiterals.put(name, var);
+        final Variable var = this.posLiterals.get(name);
+        if (var != null) {
+            return var;
         }
-        return var;
+        return this.posLiterals.computeIfAbsent(name, n -> new Variable(n, this));
+    }
+
+    /**
+     * Returns the next free variable id of this factory.
+     * @return the next free variable id
+     */
+    int nextVariableId() {
+        return this.variableCounter++;
+    }
+
+    /**
+     * Returns the number of variable ids this factory has handed out so far.  Each variable of
+     * this factory has a unique {@link Variable#id() id} in the range {@code [0, numberOfVariableIds())},
+     * so this number can be used as size for arrays indexed by variable ids.  Ids are not reused
+     * when the factory is cleared.
+     * @return the number of variable ids
+     */
+    public int numberOfVariableIds() {
+        return this.variableCounter;
     }
 
     /**
@@ -1113,12 +1422,13 @@ public class FormulaFactory {
             return constructCCUnsafe(comparator, rhs, literals);
         }
         final PBOperands operands = new PBOperands(literals, coefficients, comparator, rhs);
-        PBConstraint constraint = this.pbConstraints.get(operands);
-        if (constraint == null) {
-            constraint = new PBConstraint(literals, coefficients, comparator, rhs, this);
-            this.pbConstraints.put(operands, constraint);
+        final PBConstraint constraint = this.pbConstraints.get(operands);
+        if (constraint != null) {
+            return constraint;
         }
-        return constraint;
+        final PBConstraint newConstraint = new PBConstraint(literals, coefficients, comparator, rhs, this);
+        final PBConstraint existing = this.pbConstraints.putIfAbsent(operands, newConstraint);
+        return existing != null ? existing : newConstraint;
     }
 
     /**
@@ -1218,12 +1528,13 @@ public class FormulaFactory {
             return this.constant(evaluateTrivialPBConstraint(comparator, rhs));
         }
         final CCOperands operands = new CCOperands(literals, comparator, rhs);
-        CardinalityConstraint constraint = this.cardinalityConstraints.get(operands);
-        if (constraint == null) {
-            constraint = new CardinalityConstraint(importOrPanic(literals), comparator, rhs, this);
-            this.cardinalityConstraints.put(operands, constraint);
+        final CardinalityConstraint constraint = this.cardinalityConstraints.get(operands);
+        if (constraint != null) {
+            return constraint;
         }
-        return constraint;
+        final CardinalityConstraint newConstraint = new CardinalityConstraint(importOrPanic(literals), comparator, rhs, this);
+        final CardinalityConstraint existing = this.cardinalityConstraints.putIfAbsent(operands, newConstraint);
+        return existing != null ? existing : newConstraint;
     }
 
     /**
@@ -1321,26 +1632,17 @@ public class FormulaFactory {
      */
     private LinkedHashSet<Formula> condenseOperandsOr(final Collection<? extends Formula> operands) {
         final LinkedHashSet<Formula> ops = new LinkedHashSet<>();
-        this.cnfCheck = true;
         for (final Formula form : operands) {
             if (form.type() == OR) {
                 for (final Formula op : ((NAryOperator) form).operands) {
-                    final byte ret = this.addFormulaOr(ops, op);
-                    if (ret == 0x00) {
+                    if (!this.addFormulaOr(ops, op)) {
                         return null;
                     }
-                    if (ret == 0x02) {
-                        this.cnfCheck = false;
-                    }
                 }
             } else {
-                final byte ret = this.addFormulaOr(ops, form);
-                if (ret == 0x00) {
+                if (!this.addFormulaOr(ops, form)) {
                     return null;
                 }
-                if (ret == 0x02) {
-                    this.cnfCheck = false;
-                }
             }
         }
         return ops;
@@ -1353,26 +1655,17 @@ public class FormulaFactory {
      */
     private LinkedHashSet<Formula> condenseOperandsAnd(final Collection<? extends Formula> operands) {
         final LinkedHashSet<Formula> ops = new LinkedHashSet<>();
-        this.cnfCheck = true;
         for (final Formula form : operands) {
             if (form.type() == AND) {
                 for (final Formula op : ((NAryOperator) form).operands) {
-                    final byte ret = this.addFormulaAnd(ops, op);
-                    if (ret == 0x00) {
+                    if (!this.addFormulaAnd(ops, op)) {
                         return null;
                     }
-                    if (ret == 0x02) {
-                        this.cnfCheck = false;
-                    }
                 }
             } else {
-                final byte ret = this.addFormulaAnd(ops, form);
-                if (ret == 0x00) {
+                if (!this.addFormulaAnd(ops, form)) {
                     return null;
                 }
-                if (ret == 0x02) {
-                    this.cnfCheck = false;
-                }
             }
         }
         return ops;
@@ -1399,41 +1692,71 @@ public class FormulaFactory {
     /**
      * Adds a given formula to a list of operands.  If the formula is the neutral element for the respective n-ary
      * operation it will be skipped.  If a complementary formula is already present in the list of operands or the
-     * formula is the dual element, 0x00 is returned.  If the added formula was a literal 0x01 is returned,
-     * otherwise 0x02 is returned.
+     * formula is the dual element, {@code false} is returned, otherwise {@code true}.
      * @param ops     the list of operands
      * @param formula the formula
+     * @return {@code false} if the disjunction became a tautology, {@code true} otherwise
      */
-    private byte addFormulaOr(final LinkedHashSet<Formula> ops, final Formula formula) {
+    private boolean addFormulaOr(final Set<Formula> ops, final Formula formula) {
         if (formula.type == FALSE) {
-            return 0x01;
+            return true;
         } else if (formula.type == TRUE || containsComplement(ops, formula)) {
-            return 0x00;
+            return false;
         } else {
             ops.add(formula);
-            return (byte) (formula.type == LITERAL ? 0x01 : 0x02);
+            return true;
         }
     }
 
     /**
      * Adds a given formula to a list of operands.  If the formula is the neutral element for the respective n-ary
      * operation it will be skipped.  If a complementary formula is already present in the list of operands or the
-     * formula is the dual element, 0x00 is returned.  If the added formula was a clause, 0x01 is returned,
-     * otherwise 0x02 is returned.
+     * formula is the dual element, {@code false} is returned, otherwise {@code true}.
      * @param ops     the list of operands
      * @param formula the formula
+     * @return {@code false} if the conjunction became a contradiction, {@code true} otherwise
      */
-    private byte addFormulaAnd(final LinkedHashSet<Formula> ops, final Formula formula) {
+    private boolean addFormulaAnd(final Set<Formula> ops, final Formula formula) {
         if (formula.type() == TRUE) {
-            return 0x01;
+            return true;
         } else if (formula.type == FALSE || containsComplement(ops, formula)) {
-            return 0x00;
+            return false;
         } else {
             ops.add(formula);
-            return (byte) (formula.type == LITERAL || formula.type == OR && ((Or) formula).isCNFClause() ? 0x01 : 0x02);
+            return true;
         }
     }
 
+    /**
+     * Returns {@code true} if the given condensed operands of a disjunction are all literals, i.e. if the
+     * disjunction is a clause.
+     * @param operands the condensed operands
+     * @return {@code true} if the disjunction is a clause
+     */
+    private static boolean isClause(final LinkedHashSet<? extends Formula> operands) {
+        for (final Formula op : operands) {
+            if (op.type != LITERAL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if the given condensed operands of a conjunction are all literals or clauses, i.e. if
+     * the conjunction is a CNF.
+     * @param operands the condensed operands
+     * @return {@code true} if the conjunction is a CNF
+     */
+    private static boolean isCnfConjunction(final LinkedHashSet<? extends Formula> operands) {
+        for (final Formula op : operands) {
+            if (op.type != LITERAL && !(op.type == OR && ((Or) op).isCNFClause())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Imports a formula from another formula factory into this factory and returns it.  If the current factory of the
      * formula is already this formula factory, the same instance will be returned.
@@ -1482,6 +1805,15 @@ public class FormulaFactory {
      * @return the cache value or {@code null} if the key is not found
      */
     protected Formula transformationCacheEntry(final Formula formula, final CacheEntry key) {
+        final BoundedCache<Formula> bounded = boundedCache(this.boundedTransformationCaches, key);
+        if (bounded != null) {
+            return bounded.get(formula);
+        }
+        if (key == NNF) {
+            return formula.nnfSlot;
+        } else if (key == FACTORIZED_CNF) {
+            return formula.cnfSlot;
+        }
         final Map<CacheEntry, Formula> cache = this.transformationCache.get(formula);
         return cache == null ? null : cache.get(key);
     }
@@ -1493,7 +1825,19 @@ public class FormulaFactory {
      * @param value   the cache value
      */
     protected void setTransformationCacheEntry(final Formula formula, final CacheEntry key, final Formula value) {
-        this.transformationCache.computeIfAbsent(formula, k -> new HashMap<>()).put(key, value);
+        final BoundedCache<Formula> bounded = boundedCache(this.boundedTransformationCaches, key);
+        if (bounded != null) {
+            bounded.put(formula, value);
+            return;
+        }
+        if (key == NNF) {
+            formula.nnfSlot = value;
+            return;
+        } else if (key == FACTORIZED_CNF) {
+            formula.cnfSlot = value;
+            return;
+        }
+        this.transformationCache.computeIfAbsent(formula, k -> newCacheEntryMap()).put(key, value);
     }
 
     /**
@@ -1503,6 +1847,16 @@ public class FormulaFactory {
      * @return the cache value (which is {@code UNDEF} if nothing is present)
      */
     protected Tristate predicateCacheEntry(final Formula formula, final CacheEntry key) {
+        final BoundedCache<Tristate> bounded = boundedCache(this.boundedPredicateCaches, key);
+        if (bounded != null) {
+            final Tristate value = bounded.get(formula);
+            return value == null ? Tristate.UNDEF : value;
+        }
+        if (key == IS_NNF) {
+            return predicateSlot(formula.isNnfSlot);
+        } else if (key == IS_CNF) {
+            return predicateSlot(formula.isCnfSlot);
+        }
         final Map<CacheEntry, Tristate> cache = this.predicateCache.get(formula);
         if (cache == null) {
             return Tristate.UNDEF;
@@ -1529,7 +1883,19 @@ public class FormulaFactory {
      * @param value   the cache value
      */
     protected void setPredicateCacheEntry(final Formula formula, final CacheEntry key, final Tristate value) {
-        this.predicateCache.computeIfAbsent(formula, k -> new HashMap<>()).put(key, value);
+        final BoundedCache<Tristate> bounded = boundedCache(this.boundedPredicateCaches, key);
+        if (bounded != null) {
+            bounded.put(formula, value);
+            return;
+        }
+        if (key == IS_NNF) {
+            formula.isNnfSlot = value;
+            return;
+        } else if (key == IS_CNF) {
+            formula.isCnfSlot = value;
+            return;
+        }
+        this.predicateCache.computeIfAbsent(formula, k -> newCacheEntryMap()).put(key, value);
     }
 
     /**
@@ -1539,6 +1905,13 @@ public class FormulaFactory {
      * @return the cache value or {@code null} if the key is not found
      */
     protected Object functionCacheEntry(final Formula formula, final CacheEntry key) {
+        final BoundedCache<Object> bounded = boundedCache(this.boundedFunctionCaches, key);
+        if (bounded != null) {
+            return bounded.get(formula);
+        }
+        if (key == VARIABLES) {
+            return formula.variablesSlot;
+        }
         final Map<CacheEntry, Object> cache = this.functionCache.get(formula);
         return cache == null ? null : cache.get(key);
     }
@@ -1550,7 +1923,25 @@ public class FormulaFactory {
      * @param value   the cache value
      */
     protected void setFunctionCacheEntry(final Formula formula, final CacheEntry key, final Object value) {
-        this.functionCache.computeIfAbsent(formula, k -> new HashMap<>()).put(key, value);
+        final BoundedCache<Object> bounded = boundedCache(this.boundedFunctionCaches, key);
+        if (bounded != null) {
+            bounded.put(formula, value);
+            return;
+        }
+        if (key == VARIABLES) {
+            formula.variablesSlot = value;
+            return;
+        }
+        this.functionCache.computeIfAbsent(formula, k -> newCacheEntryMap()).put(key, value);
+    }
+
+    /**
+     * Returns a new map for the cache entries of a single formula.
+     * @param <T> the type of the cache values
+     * @return the new map
+     */
+    protected <T> Map<CacheEntry, T> newCacheEntryMap() {
+        return new HashMap<>();
     }
 
     /**
@@ -1560,11 +1951,68 @@ public class FormulaFactory {
     protected void clearCaches(final Formula formula) {
         this.transformationCache.remove(formula);
         this.functionCache.remove(formula);
+        clearCacheSlots(formula);
+        if (this.boundedTransformationCaches != null) {
+            this.boundedTransformationCaches.values().forEach(cache -> cache.remove(formula));
+            this.boundedFunctionCaches.values().forEach(cache -> cache.remove(formula));
+        }
         if (formula instanceof PBConstraint) {
             this.pbEncodingCache.remove(formula);
         }
     }
 
+    /**
+     * Clears the flat cache slots of the transformation and function cache of the given formula.
+     * @param formula the formula
+     */
+    static void clearCacheSlots(final Formula formula) {
+        formula.nnfSlot = null;
+        formula.cnfSlot = null;
+        formula.variablesSlot = null;
+    }
+
+    private static Tristate predicateSlot(final Tristate value) {
+        return value == null ? Tristate.UNDEF : value;
+    }
+
+    /**
+     * Returns the bounded cache for the given cache entry or {@code null} if the cache entry is unbounded.
+     * The bounded cache is created on first access.
+     * @param caches the bounded caches of a cache type
+     * @param key    the cache key
+     * @param <V>    the type of the cached values
+     * @return the bounded cache or {@code null} if the cache entry is unbounded
+     */
+    private <V> BoundedCache<V> boundedCache(final Map<CacheEntry, BoundedCache<V>> caches, final CacheEntry key) {
+        if (caches == null) {
+            return null;
+        }
+        BoundedCache<V> cache = caches.get(key);
+        if (cache == null) {
+            final Pair<Integer, CacheEvictionPolicy> limit = this.cacheLimits.get(key);
+            if (limit != null) {
+                cache = BoundedCache.create(key, limit.first(), limit.second());
+                caches.put(key, cache);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the statistics of all bounded caches of this factory which were already used.  Caches without a
+     * {@link FormulaFactoryConfig.Builder#cacheLimit(CacheEntry, int) cache limit} are not included.
+     * @return the statistics of the bounded caches
+     */
+    public List<CacheStatistics> cacheStatistics() {
+        final List<CacheStatistics> statistics = new ArrayList<>();
+        if (this.boundedTransformationCaches != null) {
+            this.boundedTransformationCaches.values().forEach(cache -> statistics.add(cache.statistics()));
+            this.boundedPredicateCaches.values().forEach(cache -> statistics.add(cache.statistics()));
+            this.boundedFunctionCaches.values().forEach(cache -> statistics.add(cache.statistics()));
+        }
+        return statistics;
+    }
+
     /**
      * Returns a string representation of a formula with this factories string representation
      * @param formula the formula
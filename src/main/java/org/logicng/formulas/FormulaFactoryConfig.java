@@ -30,14 +30,20 @@ package org.logicng.formulas;
 
 import org.logicng.configurations.Configuration;
 import org.logicng.configurations.ConfigurationType;
+import org.logicng.formulas.cache.CacheEntry;
+import org.logicng.formulas.cache.CacheEvictionPolicy;
 import org.logicng.formulas.printer.DefaultStringRepresentation;
 import org.logicng.formulas.printer.FormulaStringRepresentation;
+import org.logicng.util.Pair;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
  * The configuration object for a formula factory.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 2.0.0
  */
 public final class FormulaFactoryConfig extends Configuration {
@@ -61,6 +67,8 @@ public final class FormulaFactoryConfig extends Configuration {
     final FormulaMergeStrategy formulaMergeStrategy;
     final Supplier<FormulaStringRepresentation> stringRepresentation;
     final boolean simplifyComplementaryOperands;
+    final boolean compactOperatorTables;
+    final Map<CacheEntry, Pair<Integer, CacheEvictionPolicy>> cacheLimits;
 
     private FormulaFactoryConfig(final Builder builder) {
         super(ConfigurationType.FORMULA_FACTORY);
@@ -68,6 +76,8 @@ public final class FormulaFactoryConfig extends Configuration {
         this.formulaMergeStrategy = builder.formulaMergeStrategy;
         this.stringRepresentation = builder.stringRepresentation;
         this.simplifyComplementaryOperands = builder.simplifyComplementaryOperands;
+        this.compactOperatorTables = builder.compactOperatorTables;
+        this.cacheLimits = Collections.unmodifiableMap(new LinkedHashMap<>(builder.cacheLimits));
     }
 
     /**
@@ -80,7 +90,7 @@ public final class FormulaFactoryConfig extends Configuration {
 
     /**
      * The builder for a formula factory configuration.
-     * @version 2.0.0
+     * @version 2.7.0
      * @since 2.0.0
      */
     public static class Builder {
@@ -88,6 +98,8 @@ public final class FormulaFactoryConfig extends Configuration {
         private FormulaMergeStrategy formulaMergeStrategy = FormulaMergeStrategy.PANIC;
         private Supplier<FormulaStringRepresentation> stringRepresentation = DefaultStringRepresentation::new;
         private boolean simplifyComplementaryOperands = true;
+        private boolean compactOperatorTables = false;
+        private final Map<CacheEntry, Pair<Integer, CacheEvictionPolicy>> cacheLimits = new LinkedHashMap<>();
 
         /**
          * Sets the name of this formula factory. The default is an empty string.
@@ -139,6 +151,56 @@ public final class FormulaFactoryConfig extends Configuration {
             return this;
         }
 
+        /**
+         * Sets the flag whether compact unique tables should be used for conjunctions and disjunctions.
+         * If set to true, the formula factory stores only the conjunction and disjunction nodes in open-addressing
+         * tables which are hashed on the operands of the nodes instead of hash maps with operand sets as keys.
+         * This significantly reduces the retained memory per node, but mappings from uncondensed operands to their
+         * condensed node are not cached.  This flag is only respected by the {@link FormulaFactory} itself, not by
+         * its subclasses.  The default is {@code false}.
+         * @param compactOperatorTables the flag whether to use compact unique tables for n-ary operators
+         * @return the builder
+         */
+        public Builder compactOperatorTables(final boolean compactOperatorTables) {
+            this.compactOperatorTables = compactOperatorTables;
+            return this;
+        }
+
+        /**
+         * Sets a maximum size for the formula cache of the given cache entry.  If more formulas than the maximum size
+         * hold a cached value for this entry, the least recently used values are evicted.  By default, all caches are
+         * unbounded.
+         * @param entry       the cache entry
+         * @param maximumSize the maximum number of cached values for this entry
+         * @return the builder
+         * @throws IllegalArgumentException if the maximum size is not positive
+         */
+        public Builder cacheLimit(final CacheEntry entry, final int maximumSize) {
+            return cacheLimit(entry, maximumSize, CacheEvictionPolicy.LRU);
+        }
+
+        /**
+         * Sets a maximum size and an eviction policy for the formula cache of the given cache entry.  By default, all
+         * caches are unbounded.  The hits, misses, and evictions of bounded caches can be obtained via
+         * {@link FormulaFactory#cacheStatistics()}.
+         * <p>
+         * Cache limits are respected by the {@link FormulaFactory} and the {@link ExtendedFormulaFactory}.  The
+         * {@link ConcurrentFormulaFactory} and the {@link WeakFormulaFactory} ignore them.
+         * @param entry       the cache entry
+         * @param maximumSize the maximum size of the cache, for {@link CacheEvictionPolicy#SIZE_WEIGHTED} this is the
+         *                    maximum total weight of the cached values
+         * @param policy      the eviction policy
+         * @return the builder
+         * @throws IllegalArgumentException if the maximum size is not positive
+         */
+        public Builder cacheLimit(final CacheEntry entry, final int maximumSize, final CacheEvictionPolicy policy) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("The maximum size of a cache must be positive, but was " + maximumSize);
+            }
+            this.cacheLimits.put(entry, new Pair<>(maximumSize, policy));
+            return this;
+        }
+
         /**
          * Builds the configuration.
          * @return the configuration.
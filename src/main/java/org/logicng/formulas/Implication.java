@@ -29,10 +29,11 @@
 package org.logicng.formulas;
 
 import org.logicng.datastructures.Assignment;
+import org.logicng.util.FormulaHelper;
 
 /**
  * Boolean implication.
- * @version 2.2.0
+ * @version 2.7.0
  * @since 1.0
  */
 public final class Implication extends BinaryOperator {
@@ -54,7 +55,7 @@ public final class Implication extends BinaryOperator {
 
     @Override
     public Formula restrict(final Assignment assignment) {
-        return this.f.implication(this.left.restrict(assignment), this.right.restrict(assignment));
+        return FormulaHelper.transformAtoms(this, atom -> atom.restrict(assignment));
     }
 
     @Override
@@ -30,6 +30,7 @@ package org.logicng.formulas;
 
 import org.logicng.datastructures.Assignment;
 import org.logicng.datastructures.Substitution;
+import org.logicng.util.FormulaHelper;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -41,7 +42,7 @@ import java.util.stream.Stream;
 
 /**
  * Super class for Boolean n-ary operators.
- * @version 2.2.0
+ * @version 2.7.0
  * @since 1.0
  */
 public abstract class NAryOperator extends Formula {
@@ -88,11 +89,7 @@ public abstract class NAryOperator extends Formula {
 
     @Override
     public Formula restrict(final Assignment assignment) {
-        final LinkedHashSet<Formula> nops = new LinkedHashSet<>();
-        for (final Formula op : this.operands) {
-            nops.add(op.restrict(assignment));
-        }
-        return this.f.naryOperator(this.type, nops);
+        return FormulaHelper.transformAtoms(this, atom -> atom.restrict(assignment));
     }
 
     @Override
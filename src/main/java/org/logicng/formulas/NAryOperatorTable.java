@@ -0,0 +1,320 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact unique table for n-ary operators.
+ * <p>
+ * In contrast to a hash map with operand sets as keys, this table only stores the operator nodes themselves in an
+ * open-addressing table with linear probing.  The hash of a node is computed from the identity hashes of its
+ * {@link NAryOperator#operands operands} (which are unique in their formula factory) and is independent of the order
+ * of the operands.  Therefore, neither the operand sets used for lookups nor additional map entries are retained.
+ * <p>
+ * A consequence of storing only the nodes is that a node can only be found by its own operands.  Mappings from an
+ * operand set to a node with different operands (e.g. from uncondensed operands to the condensed conjunction) are
+ * silently dropped by {@link #put}.  The table does not support removal of single entries and is not thread-safe.
+ * @param <T> the type of the n-ary operator
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+final class NAryOperatorTable<T extends NAryOperator> extends AbstractMap<LinkedHashSet<? extends Formula>, T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private NAryOperator[] table;
+    private int size;
+
+    /**
+     * Constructs a new empty table.
+     */
+    NAryOperatorTable() {
+        this.table = new NAryOperator[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(final Object key) {
+        if (key instanceof OperandBuffer) {
+            return get((OperandBuffer) key);
+        }
+        if (!(key instanceof Collection)) {
+            return null;
+        }
+        final Collection<?> operands = (Collection<?>) key;
+        final int mask = this.table.length - 1;
+        int i = spread(hash(operands)) & mask;
+        NAryOperator node;
+        while ((node = this.table[i]) != null) {
+            if (hasOperands(node, operands)) {
+                return (T) node;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the node with exactly the operands of the given buffer.  In contrast to a lookup with an operand set,
+     * this lookup does not allocate any objects.
+     * @param operands the operand buffer
+     * @return the node with exactly these operands or {@code null} if there is no such node
+     */
+    @SuppressWarnings("unchecked")
+    private T get(final OperandBuffer operands) {
+        final int mask = this.table.length - 1;
+        int i = spread(operands.identityHashCode()) & mask;
+        NAryOperator node;
+        while ((node = this.table[i]) != null) {
+            if (hasOperands(node, operands)) {
+                return (T) node;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        if (!(value instanceof NAryOperator)) {
+            return false;
+        }
+        final NAryOperator node = (NAryOperator) value;
+        final int mask = this.table.length - 1;
+        int i = spread(hash(node.operands)) & mask;
+        NAryOperator current;
+        while ((current = this.table[i]) != null) {
+            if (current == node) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Stores the given node in the table if the given operands are exactly the operands of the node.  Otherwise, the
+     * mapping is not stored and {@code null} is returned.
+     * @param key   the operands of the node
+     * @param value the node
+     * @return the node which was previously stored for these operands or {@code null} if there was none
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T put(final LinkedHashSet<? extends Formula> key, final T value) {
+        if (!hasOperands(value, key)) {
+            return null;
+        }
+        final int mask = this.table.length - 1;
+        int i = spread(hash(value.operands)) & mask;
+        NAryOperator node;
+        while ((node = this.table[i]) != null) {
+            if (node == value || hasOperands(node, key)) {
+                this.table[i] = value;
+                return (T) node;
+            }
+            i = (i + 1) & mask;
+        }
+        this.table[i] = value;
+        if (++this.size > (this.table.length >>> 1) + (this.table.length >>> 2)) {
+            resize();
+        }
+        return null;
+    }
+
+    @Override
+    public T putIfAbsent(final LinkedHashSet<? extends Formula> key, final T value) {
+        final T existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        this.table = new NAryOperator[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    @Override
+    public Set<Entry<LinkedHashSet<? extends Formula>, T>> entrySet() {
+        return new AbstractSet<Entry<LinkedHashSet<? extends Formula>, T>>() {
+            @Override
+            public Iterator<Entry<LinkedHashSet<? extends Formula>, T>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return NAryOperatorTable.this.size;
+            }
+        };
+    }
+
+    /**
+     * Doubles the capacity of the table and re-inserts all nodes.
+     */
+    private void resize() {
+        final NAryOperator[] oldTable = this.table;
+        this.table = new NAryOperator[oldTable.length << 1];
+        final int mask = this.table.length - 1;
+        for (final NAryOperator node : oldTable) {
+            if (node != null) {
+                int i = spread(hash(node.operands)) & mask;
+                while (this.table[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                this.table[i] = node;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given node has exactly the given operands (in an arbitrary order).
+     * @param node     the node
+     * @param operands the operands
+     * @return {@code true} if the node has exactly the given operands, otherwise {@code false}
+     */
+    static boolean hasOperands(final NAryOperator node, final Collection<?> operands) {
+        if (node.operands.length != operands.size()) {
+            return false;
+        }
+        if (node.operands.length <= 4) {
+            for (final Object op : operands) {
+                if (!containsIdentical(node.operands, op)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (final Formula op : node.operands) {
+            if (!operands.contains(op)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasOperands(final NAryOperator node, final OperandBuffer operands) {
+        if (node.operands.length != operands.size()) {
+            return false;
+        }
+        for (final Formula op : node.operands) {
+            if (!operands.containsIdentical(op)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIdentical(final Formula[] operands, final Object operand) {
+        for (final Formula op : operands) {
+            if (op == operand) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(final Collection<?> operands) {
+        int hash = 0;
+        for (final Object op : operands) {
+            hash += System.identityHashCode(op);
+        }
+        return hash;
+    }
+
+    private static int hash(final Formula[] operands) {
+        int hash = 0;
+        for (final Formula op : operands) {
+            hash += System.identityHashCode(op);
+        }
+        return hash;
+    }
+
+    private static int spread(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Iterator over the entries of this table.  The keys of the entries are created on demand from the operands of
+     * the nodes.
+     */
+    private final class EntryIterator implements Iterator<Entry<LinkedHashSet<? extends Formula>, T>> {
+        private int index;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            final NAryOperator[] table = NAryOperatorTable.this.table;
+            while (this.index < table.length && table[this.index] == null) {
+                this.index++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < NAryOperatorTable.this.table.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<LinkedHashSet<? extends Formula>, T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T node = (T) NAryOperatorTable.this.table[this.index++];
+            advance();
+            return new SimpleImmutableEntry<>(new LinkedHashSet<>(Arrays.asList(node.operands)), node);
+        }
+    }
+}
@@ -30,6 +30,7 @@ package org.logicng.formulas;
 
 import org.logicng.datastructures.Assignment;
 import org.logicng.datastructures.Substitution;
+import org.logicng.util.FormulaHelper;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -37,7 +38,7 @@ import java.util.stream.Stream;
 
 /**
  * Boolean negation.
- * @version 2.2.0
+ * @version 2.7.0
  * @since 1.0
  */
 public final class Not extends Formula {
@@ -91,7 +92,7 @@ public final class Not extends Formula {
 
     @Override
     public Formula restrict(final Assignment assignment) {
-        return this.f.not(this.operand.restrict(assignment));
+        return FormulaHelper.transformAtoms(this, atom -> atom.restrict(assignment));
     }
 
     @Override
@@ -0,0 +1,196 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.formulas;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A reusable buffer for the operands of a conjunction or disjunction.
+ * <p>
+ * The formula factory condenses the operands of a conjunction or disjunction into this buffer and looks up the unique
+ * tables with it.  Therefore, no operand set has to be allocated if the formula already exists.  The buffer has the
+ * same hash code as a {@link Set set} of its operands and is equal to every set with exactly its operands.
+ * Since the formulas of a factory are unique, duplicate operands are detected by identity.
+ * <p>
+ * The buffer holds at most {@link #CAPACITY} operands, since duplicates are detected by a linear search.  If more
+ * operands or operands of another formula factory are added, the buffer becomes {@link #isValid() invalid} and the
+ * formula has to be constructed from an operand set.  The buffer is not thread-safe.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+final class OperandBuffer extends AbstractSet<Formula> {
+
+    static final int CAPACITY = 32;
+
+    private final Formula[] operands;
+    private int size;
+    private int hashCode;
+    private int identityHashCode;
+    private boolean valid;
+
+    /**
+     * Constructs a new empty buffer.
+     */
+    OperandBuffer() {
+        this.operands = new Formula[CAPACITY];
+        this.valid = true;
+    }
+
+    /**
+     * Removes all operands from this buffer and makes it valid again.
+     */
+    void reset() {
+        Arrays.fill(this.operands, 0, this.size, null);
+        this.size = 0;
+        this.hashCode = 0;
+        this.identityHashCode = 0;
+        this.valid = true;
+    }
+
+    /**
+     * Adds an operand to this buffer if it is not already present.  If the buffer is full, it becomes invalid.
+     * @param operand the operand
+     * @return {@code true} if the operand was added, {@code false} otherwise
+     */
+    @Override
+    public boolean add(final Formula operand) {
+        if (this.size == CAPACITY) {
+            this.valid = false;
+            return false;
+        }
+        if (containsIdentical(operand)) {
+            return false;
+        }
+        this.operands[this.size++] = operand;
+        this.hashCode += operand.hashCode();
+        this.identityHashCode += System.identityHashCode(operand);
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if this buffer contains the given operand instance.
+     * @param operand the operand
+     * @return {@code true} if this buffer contains the given operand instance
+     */
+    boolean containsIdentical(final Formula operand) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.operands[i] == operand) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks this buffer as invalid, e.g. if an operand was created by another formula factory.
+     */
+    void invalidate() {
+        this.valid = false;
+    }
+
+    /**
+     * Returns {@code true} if all operands could be added to this buffer, {@code false} otherwise.
+     * @return {@code true} if all operands could be added to this buffer
+     */
+    boolean isValid() {
+        return this.valid;
+    }
+
+    /**
+     * Returns the operand at the given index.
+     * @param index the index
+     * @return the operand at the given index
+     */
+    Formula get(final int index) {
+        return this.operands[index];
+    }
+
+    /**
+     * Returns the sum of the identity hash codes of the operands.
+     * @return the sum of the identity hash codes of the operands
+     */
+    int identityHashCode() {
+        return this.identityHashCode;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof Formula && containsIdentical((Formula) o);
+    }
+
+    @Override
+    public Iterator<Formula> iterator() {
+        return new Iterator<Formula>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < OperandBuffer.this.size;
+            }
+
+            @Override
+            public Formula next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return OperandBuffer.this.operands[this.index++];
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof Set) || ((Set<?>) other).size() != this.size) {
+            return false;
+        }
+        final Set<?> set = (Set<?>) other;
+        for (int i = 0; i < this.size; i++) {
+            if (!set.contains(this.operands[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -543,8 +543,11 @@ public class PBConstraint extends Formula {
     public List<Formula> getEncoding() {
         List<Formula> encoding = this.f.pbEncodingCache.get(this);
         if (encoding == null) {
-            encoding = this.f.pbEncoder().encode(this);
-            this.f.pbEncodingCache.put(this, encoding);
+            encoding = this.f.encodePBConstraint(this);
+            final List<Formula> existing = this.f.pbEncodingCache.putIfAbsent(this, encoding);
+            if (existing != null) {
+                encoding = existing;
+            }
         }
         return Collections.unmodifiableList(encoding);
     }
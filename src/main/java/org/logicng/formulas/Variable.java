@@ -32,17 +32,36 @@ package org.logicng.formulas;
  * Boolean variables.
  * <p>
  * A variable is a shortcut for a positive literal.
- * @version 1.0
+ * <p>
+ * Each variable created by a formula factory carries a unique {@link #id() id} which is
+ * dense over all variables of the factory.  This id can be used to map variables to
+ * values in plain arrays instead of hash or tree maps.
+ * @version 2.7.0
  * @since 1.0
  */
 public class Variable extends Literal {
 
+    private final int id;
+
     /**
      * Constructor.
      * @param name the literal name
      * @param f    the factory which created this literal
      */
-    protected Variable(final String name, FormulaFactory f) {
+    protected Variable(final String name, final FormulaFactory f) {
         super(name, true, f);
+        this.id = f == null ? -1 : f.nextVariableId();
+    }
+
+    /**
+     * Returns the id of this variable.  The ids of the variables of one formula factory are
+     * unique and lie in the range {@code [0, f.numberOfVariableIds())}.  Variables which were not
+     * created by a formula factory have the id {@code -1}.
+     * <p>
+     * Variables of different formula factories can have the same id.
+     * @return the id of this variable
+     */
+    public int id() {
+        return this.id;
     }
 }
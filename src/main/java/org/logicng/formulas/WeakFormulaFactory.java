@@ -0,0 +1,176 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.cache.CacheEntry;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A formula factory which allows the garbage collector to reclaim formulas which are no longer referenced.
+ * <p>
+ * A normal formula factory holds all formulas it ever created until it is {@link #clear() cleared}.  This factory
+ * holds compound formulas (negations, implications, equivalences, conjunctions, disjunctions, and pseudo-Boolean
+ * constraints) only weakly in its unique tables.  Once such a formula is not referenced anymore by user code or by
+ * another formula, it is reclaimed by the garbage collector and removed from the factory.  It is still guaranteed that
+ * equivalent formulas (in terms of associativity and commutativity) which are alive at the same time are hold exactly
+ * once in memory.
+ * <p>
+ * The transformation, predicate, and function caches are not held in the factory but directly on the formula nodes,
+ * i.e. they are reclaimed together with their formula.  Also the PB encoding cache references its constraints only
+ * weakly.  Literals and constants are never reclaimed since the number of variables is usually small compared to the
+ * number of formulas.  Conjunctions and disjunctions are only found by their condensed operands, i.e. mappings from
+ * uncondensed operands to their conjunction or disjunction are not cached since they could keep the formula alive.
+ * <p>
+ * Reclaimed formulas are removed from the unique tables lazily, so the {@link #statistics() statistics} of this factory
+ * may still contain formulas which are already unreachable.  Like the normal formula factory, this factory is NOT
+ * thread-safe.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class WeakFormulaFactory extends FormulaFactory {
+
+    /**
+     * Constructor for a new weak formula factory.
+     * @param config the configuration for this formula factory
+     */
+    public WeakFormulaFactory(final FormulaFactoryConfig config) {
+        super(config);
+    }
+
+    /**
+     * Constructor for a new weak formula factory with the default configuration.
+     */
+    public WeakFormulaFactory() {
+        super();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.nots = new WeakValueMap<>();
+        this.implications = new WeakValueMap<>();
+        this.equivalences = new WeakValueMap<>();
+        this.ands2 = naryOperatorTable();
+        this.ands3 = naryOperatorTable();
+        this.ands4 = naryOperatorTable();
+        this.andsN = naryOperatorTable();
+        this.ors2 = naryOperatorTable();
+        this.ors3 = naryOperatorTable();
+        this.ors4 = naryOperatorTable();
+        this.orsN = naryOperatorTable();
+        this.pbConstraints = new WeakValueMap<>();
+        this.cardinalityConstraints = new WeakValueMap<>();
+        this.pbEncodingCache = new WeakHashMap<>();
+    }
+
+    @Override
+    protected Formula transformationCacheEntry(final Formula formula, final CacheEntry key) {
+        final NodeCaches caches = formula.nodeCaches;
+        return caches == null || caches.transformations == null ? null : caches.transformations.get(key);
+    }
+
+    @Override
+    protected void setTransformationCacheEntry(final Formula formula, final CacheEntry key, final Formula value) {
+        final NodeCaches caches = nodeCaches(formula);
+        if (caches.transformations == null) {
+            caches.transformations = new HashMap<>();
+        }
+        caches.transformations.put(key, value);
+    }
+
+    @Override
+    protected Tristate predicateCacheEntry(final Formula formula, final CacheEntry key) {
+        final NodeCaches caches = formula.nodeCaches;
+        final Tristate value = caches == null || caches.predicates == null ? null : caches.predicates.get(key);
+        return value == null ? Tristate.UNDEF : value;
+    }
+
+    @Override
+    protected void setPredicateCacheEntry(final Formula formula, final CacheEntry key, final Tristate value) {
+        final NodeCaches caches = nodeCaches(formula);
+        if (caches.predicates == null) {
+            caches.predicates = new HashMap<>();
+        }
+        caches.predicates.put(key, value);
+    }
+
+    @Override
+    protected Object functionCacheEntry(final Formula formula, final CacheEntry key) {
+        final NodeCaches caches = formula.nodeCaches;
+        return caches == null || caches.functions == null ? null : caches.functions.get(key);
+    }
+
+    @Override
+    protected void setFunctionCacheEntry(final Formula formula, final CacheEntry key, final Object value) {
+        final NodeCaches caches = nodeCaches(formula);
+        if (caches.functions == null) {
+            caches.functions = new HashMap<>();
+        }
+        caches.functions.put(key, value);
+    }
+
+    @Override
+    protected void clearCaches(final Formula formula) {
+        final NodeCaches caches = formula.nodeCaches;
+        if (caches != null) {
+            caches.transformations = null;
+            caches.functions = null;
+        }
+        if (formula instanceof PBConstraint) {
+            this.pbEncodingCache.remove(formula);
+        }
+    }
+
+    private static <T extends NAryOperator> Map<LinkedHashSet<? extends Formula>, T> naryOperatorTable() {
+        return new WeakValueMap<>((operands, node) -> NAryOperatorTable.hasOperands(node, operands));
+    }
+
+    private static NodeCaches nodeCaches(final Formula formula) {
+        NodeCaches caches = formula.nodeCaches;
+        if (caches == null) {
+            caches = new NodeCaches();
+            formula.nodeCaches = caches;
+        }
+        return caches;
+    }
+
+    /**
+     * The caches of a single formula node of a weak formula factory.
+     */
+    static final class NodeCaches {
+        private Map<CacheEntry, Formula> transformations;
+        private Map<CacheEntry, Tristate> predicates;
+        private Map<CacheEntry, Object> functions;
+    }
+}
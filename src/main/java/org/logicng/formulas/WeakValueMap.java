@@ -0,0 +1,205 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * A hash map which references its values only weakly.
+ * <p>
+ * Once a value is only reachable through this map, it can be reclaimed by the garbage collector.  The entries of
+ * reclaimed values are removed from the map on the next modifying operation or call to {@link #size()}.  The keys of
+ * the map are referenced strongly until their entry is removed.  Therefore, a key must not reference its own value,
+ * otherwise the value can never be reclaimed.  Such entries can be excluded by a filter which is checked on every
+ * insertion.
+ * <p>
+ * This map is used for the unique tables of the {@link WeakFormulaFactory}.  It is not thread-safe.
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+final class WeakValueMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, ValueReference<K, V>> map;
+    private final ReferenceQueue<V> queue;
+    private final BiPredicate<? super K, ? super V> filter;
+
+    /**
+     * Constructs a new empty map.
+     */
+    WeakValueMap() {
+        this((key, value) -> true);
+    }
+
+    /**
+     * Constructs a new empty map which only stores entries satisfying the given filter.
+     * @param filter the filter for the entries, {@link #put} ignores all entries for which the filter returns
+     *               {@code false}
+     */
+    WeakValueMap(final BiPredicate<? super K, ? super V> filter) {
+        this.map = new HashMap<>();
+        this.queue = new ReferenceQueue<>();
+        this.filter = filter;
+    }
+
+    @Override
+    public int size() {
+        expungeReclaimedEntries();
+        return this.map.size();
+    }
+
+    @Override
+    public V get(final Object key) {
+        final ValueReference<K, V> reference = this.map.get(key);
+        return reference == null ? null : reference.get();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        if (!this.filter.test(key, value)) {
+            return null;
+        }
+        expungeReclaimedEntries();
+        final ValueReference<K, V> old = this.map.put(key, new ValueReference<>(key, value, this.queue));
+        return old == null ? null : old.get();
+    }
+
+    @Override
+    public V putIfAbsent(final K key, final V value) {
+        final V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        expungeReclaimedEntries();
+        final ValueReference<K, V> old = this.map.remove(key);
+        return old == null ? null : old.get();
+    }
+
+    @Override
+    public void clear() {
+        this.map.clear();
+        while (this.queue.poll() != null) {
+            // drain the queue
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        expungeReclaimedEntries();
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return WeakValueMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Removes all entries whose values were reclaimed by the garbage collector.
+     */
+    @SuppressWarnings("unchecked")
+    private void expungeReclaimedEntries() {
+        ValueReference<K, V> reference;
+        while ((reference = (ValueReference<K, V>) this.queue.poll()) != null) {
+            if (this.map.get(reference.key) == reference) {
+                this.map.remove(reference.key);
+            }
+        }
+    }
+
+    /**
+     * A weak reference to a value which remembers its key.
+     * @param <K> the type of the key
+     * @param <V> the type of the value
+     */
+    private static final class ValueReference<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private ValueReference(final K key, final V value, final ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Iterator over all entries whose values were not yet reclaimed.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<ValueReference<K, V>> iterator = WeakValueMap.this.map.values().iterator();
+        private Entry<K, V> next;
+
+        @Override
+        public boolean hasNext() {
+            while (this.next == null && this.iterator.hasNext()) {
+                final ValueReference<K, V> reference = this.iterator.next();
+                final V value = reference.get();
+                if (value != null) {
+                    this.next = new SimpleImmutableEntry<>(reference.key, value);
+                }
+            }
+            return this.next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Entry<K, V> result = this.next;
+            this.next = null;
+            return result;
+        }
+    }
+}
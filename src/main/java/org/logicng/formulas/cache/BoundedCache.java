@@ -0,0 +1,362 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas.cache;
+
+import org.logicng.formulas.Formula;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * A cache for a single cache entry of all formulas of a formula factory with a maximum size.
+ * <p>
+ * If the maximum size of the cache is exceeded, entries are evicted according to the {@link CacheEvictionPolicy
+ * eviction policy} of the cache.  The cache counts its hits, misses, and evictions.
+ * @param <V> the type of the cached values
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public abstract class BoundedCache<V> {
+
+    protected final CacheEntry entry;
+    protected final int maximumSize;
+    protected long hits;
+    protected long misses;
+    protected long evictions;
+
+    /**
+     * Constructs a new bounded cache.
+     * @param entry       the cache entry of this cache
+     * @param maximumSize the maximum size of this cache
+     */
+    protected BoundedCache(final CacheEntry entry, final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of a cache must be positive, but was " + maximumSize);
+        }
+        this.entry = entry;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Constructs a new bounded cache with the given eviction policy.
+     * @param entry       the cache entry of the cache
+     * @param maximumSize the maximum size of the cache
+     * @param policy      the eviction policy
+     * @param <V>         the type of the cached values
+     * @return the new cache
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public static <V> BoundedCache<V> create(final CacheEntry entry, final int maximumSize, final CacheEvictionPolicy policy) {
+        switch (policy) {
+            case LRU:
+                return new LRUCache<>(entry, maximumSize);
+            case LFU:
+                return new LFUCache<>(entry, maximumSize);
+            case SIZE_WEIGHTED:
+                return new SizeWeightedCache<>(entry, maximumSize);
+            default:
+                throw new IllegalStateException("Unknown cache eviction policy: " + policy);
+        }
+    }
+
+    /**
+     * Returns the cached value for the given formula and counts a hit or a miss.
+     * @param formula the formula
+     * @return the cached value or {@code null} if there is no value for the formula
+     */
+    public V get(final Formula formula) {
+        final V value = lookup(formula);
+        if (value == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value for the given formula and updates the usage information of the entry.
+     * @param formula the formula
+     * @return the cached value or {@code null} if there is no value for the formula
+     */
+    protected abstract V lookup(final Formula formula);
+
+    /**
+     * Caches a value for the given formula.  If the cache exceeds its maximum size, entries are evicted.
+     * @param formula the formula
+     * @param value   the value
+     */
+    public abstract void put(final Formula formula, final V value);
+
+    /**
+     * Removes the cached value for the given formula.
+     * @param formula the formula
+     */
+    public abstract void remove(final Formula formula);
+
+    /**
+     * Removes all cached values.  The hit, miss, and eviction counters are not reset.
+     */
+    public abstract void clear();
+
+    /**
+     * Returns the number of cached values.
+     * @return the number of cached values
+     */
+    public abstract int size();
+
+    /**
+     * Returns the statistics of this cache.
+     * @return the statistics of this cache
+     */
+    public CacheStatistics statistics() {
+        return new CacheStatistics(this.entry, this.maximumSize, size(), this.hits, this.misses, this.evictions);
+    }
+
+    /**
+     * An LRU cache based on a linked hash map in access order.
+     * @param <V> the type of the cached values
+     */
+    private static final class LRUCache<V> extends BoundedCache<V> {
+        private final LinkedHashMap<Formula, V> map;
+
+        private LRUCache(final CacheEntry entry, final int maximumSize) {
+            super(entry, maximumSize);
+            this.map = new LinkedHashMap<Formula, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Formula, V> eldest) {
+                    if (size() > LRUCache.this.maximumSize) {
+                        LRUCache.this.evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        protected V lookup(final Formula formula) {
+            return this.map.get(formula);
+        }
+
+        @Override
+        public void put(final Formula formula, final V value) {
+            this.map.put(formula, value);
+        }
+
+        @Override
+        public void remove(final Formula formula) {
+            this.map.remove(formula);
+        }
+
+        @Override
+        public void clear() {
+            this.map.clear();
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+    }
+
+    /**
+     * An LFU cache with constant time operations.  The entries are grouped in buckets of the same frequency and each
+     * bucket is ordered by the last access.
+     * @param <V> the type of the cached values
+     */
+    private static final class LFUCache<V> extends BoundedCache<V> {
+        private final Map<Formula, LFUNode<V>> nodes;
+        private final Map<Integer, LinkedHashSet<Formula>> buckets;
+        private int minFrequency;
+
+        private LFUCache(final CacheEntry entry, final int maximumSize) {
+            super(entry, maximumSize);
+            this.nodes = new HashMap<>();
+            this.buckets = new HashMap<>();
+        }
+
+        @Override
+        protected V lookup(final Formula formula) {
+            final LFUNode<V> node = this.nodes.get(formula);
+            if (node == null) {
+                return null;
+            }
+            touch(formula, node);
+            return node.value;
+        }
+
+        @Override
+        public void put(final Formula formula, final V value) {
+            final LFUNode<V> node = this.nodes.get(formula);
+            if (node != null) {
+                node.value = value;
+                touch(formula, node);
+                return;
+            }
+            if (this.nodes.size() >= this.maximumSize) {
+                final Iterator<Formula> it = this.buckets.get(this.minFrequency).iterator();
+                final Formula evicted = it.next();
+                it.remove();
+                removeBucketIfEmpty(this.minFrequency);
+                this.nodes.remove(evicted);
+                this.evictions++;
+            }
+            this.nodes.put(formula, new LFUNode<>(value));
+            this.buckets.computeIfAbsent(1, k -> new LinkedHashSet<>()).add(formula);
+            this.minFrequency = 1;
+        }
+
+        @Override
+        public void remove(final Formula formula) {
+            final LFUNode<V> node = this.nodes.remove(formula);
+            if (node != null) {
+                this.buckets.get(node.frequency).remove(formula);
+                removeBucketIfEmpty(node.frequency);
+                if (this.nodes.isEmpty()) {
+                    this.minFrequency = 0;
+                } else if (node.frequency == this.minFrequency && !this.buckets.containsKey(node.frequency)) {
+                    this.minFrequency = this.buckets.keySet().stream().min(Integer::compare).orElse(0);
+                }
+            }
+        }
+
+        @Override
+        public void clear() {
+            this.nodes.clear();
+            this.buckets.clear();
+            this.minFrequency = 0;
+        }
+
+        @Override
+        public int size() {
+            return this.nodes.size();
+        }
+
+        private void touch(final Formula formula, final LFUNode<V> node) {
+            final int frequency = node.frequency;
+            this.buckets.get(frequency).remove(formula);
+            if (removeBucketIfEmpty(frequency) && this.minFrequency == frequency) {
+                this.minFrequency = frequency + 1;
+            }
+            node.frequency = frequency + 1;
+            this.buckets.computeIfAbsent(node.frequency, k -> new LinkedHashSet<>()).add(formula);
+        }
+
+        private boolean removeBucketIfEmpty(final int frequency) {
+            if (this.buckets.get(frequency).isEmpty()) {
+                this.buckets.remove(frequency);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A node of the LFU cache.
+     * @param <V> the type of the cached value
+     */
+    private static final class LFUNode<V> {
+        private V value;
+        private int frequency;
+
+        private LFUNode(final V value) {
+            this.value = value;
+            this.frequency = 1;
+        }
+    }
+
+    /**
+     * An LRU cache where the maximum size is a maximum total weight of the cached values.
+     * @param <V> the type of the cached values
+     */
+    private static final class SizeWeightedCache<V> extends BoundedCache<V> {
+        private final LinkedHashMap<Formula, V> map;
+        private long totalWeight;
+
+        private SizeWeightedCache(final CacheEntry entry, final int maximumSize) {
+            super(entry, maximumSize);
+            this.map = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        @Override
+        protected V lookup(final Formula formula) {
+            return this.map.get(formula);
+        }
+
+        @Override
+        public void put(final Formula formula, final V value) {
+            final V old = this.map.put(formula, value);
+            if (old != null) {
+                this.totalWeight -= weight(old);
+            }
+            this.totalWeight += weight(value);
+            final Iterator<Map.Entry<Formula, V>> it = this.map.entrySet().iterator();
+            while (this.totalWeight > this.maximumSize && this.map.size() > 1) {
+                final Map.Entry<Formula, V> eldest = it.next();
+                this.totalWeight -= weight(eldest.getValue());
+                it.remove();
+                this.evictions++;
+            }
+        }
+
+        @Override
+        public void remove(final Formula formula) {
+            final V old = this.map.remove(formula);
+            if (old != null) {
+                this.totalWeight -= weight(old);
+            }
+        }
+
+        @Override
+        public void clear() {
+            this.map.clear();
+            this.totalWeight = 0;
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+
+        private static int weight(final Object value) {
+            if (value instanceof Formula) {
+                return ((Formula) value).numberOfOperands() + 1;
+            } else if (value instanceof Collection) {
+                return ((Collection<?>) value).size() + 1;
+            } else {
+                return 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas.cache;
+
+/**
+ * Eviction policies for bounded formula caches.
+ * <ul>
+ *     <li>{@link #LRU}: the least recently used entry is evicted</li>
+ *     <li>{@link #LFU}: the least frequently used entry is evicted, ties are broken by evicting the least recently
+ *     used entry</li>
+ *     <li>{@link #SIZE_WEIGHTED}: the maximum size of the cache is a maximum total weight of all cached values and
+ *     the least recently used entries are evicted until the total weight fits.  The weight of a cached formula is its
+ *     number of operands plus one, the weight of a cached collection its size plus one, and all other values have a
+ *     weight of one.</li>
+ * </ul>
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public enum CacheEvictionPolicy {
+    LRU,
+    LFU,
+    SIZE_WEIGHTED
+}
@@ -0,0 +1,154 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas.cache;
+
+import java.util.Objects;
+
+/**
+ * Statistics of a bounded formula cache for a single cache entry.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class CacheStatistics {
+    private final CacheEntry entry;
+    private final int maximumSize;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /**
+     * Constructs new cache statistics.
+     * @param entry       the cache entry
+     * @param maximumSize the maximum size of the cache
+     * @param size        the current size of the cache
+     * @param hits        the number of cache hits
+     * @param misses      the number of cache misses
+     * @param evictions   the number of evicted entries
+     */
+    public CacheStatistics(final CacheEntry entry, final int maximumSize, final int size, final long hits, final long misses, final long evictions) {
+        this.entry = entry;
+        this.maximumSize = maximumSize;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns the cache entry.
+     * @return the cache entry
+     */
+    public CacheEntry entry() {
+        return this.entry;
+    }
+
+    /**
+     * Returns the maximum size of the cache.
+     * @return the maximum size of the cache
+     */
+    public int maximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Returns the current number of cached values.
+     * @return the current number of cached values
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of cache hits.
+     * @return the number of cache hits
+     */
+    public long hits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of cache misses.
+     * @return the number of cache misses
+     */
+    public long misses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of evicted cache values.
+     * @return the number of evicted cache values
+     */
+    public long evictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the hit rate of the cache, i.e. the ratio of hits to all lookups.
+     * @return the hit rate of the cache or 0 if there were no lookups
+     */
+    public double hitRate() {
+        final long lookups = this.hits + this.misses;
+        return lookups == 0 ? 0.0 : (double) this.hits / lookups;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheStatistics)) {
+            return false;
+        }
+        final CacheStatistics that = (CacheStatistics) o;
+        return Objects.equals(this.entry, that.entry) &&
+                this.maximumSize == that.maximumSize &&
+                this.size == that.size &&
+                this.hits == that.hits &&
+                this.misses == that.misses &&
+                this.evictions == that.evictions;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.entry, this.maximumSize, this.size, this.hits, this.misses, this.evictions);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "entry=" + this.entry +
+                ", maximumSize=" + this.maximumSize +
+                ", size=" + this.size +
+                ", hits=" + this.hits +
+                ", misses=" + this.misses +
+                ", evictions=" + this.evictions +
+                '}';
+    }
+}
@@ -8,10 +8,16 @@ import org.logicng.formulas.FormulaFunction;
 import org.logicng.formulas.NAryOperator;
 import org.logicng.formulas.Not;
 import org.logicng.formulas.PBConstraint;
+import org.logicng.util.FormulaHelper;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A function that computes the number of nodes of a given formula.
- * @version 2.2.0
+ * @version 2.7.0
  * @since 2.2.0
  */
 public class NumberOfNodesFunction implements FormulaFunction<Long> {
@@ -35,10 +41,17 @@ public class NumberOfNodesFunction implements FormulaFunction<Long> {
 
     @Override
     public Long apply(final Formula formula, final boolean cache) {
+        return applyRec(formula, cache, 0);
+    }
+
+    private long applyRec(final Formula formula, final boolean cache, final int depth) {
         final Object cached = formula.functionCacheEntry(NUMBER_OF_NODES);
         if (cached != null) {
             return (Long) cached;
         }
+        if (depth >= FormulaHelper.MAX_RECURSION_DEPTH) {
+            return applyIteratively(formula, cache);
+        }
         long result;
         switch (formula.type()) {
             case FALSE:
@@ -47,19 +60,19 @@ public class NumberOfNodesFunction implements FormulaFunction<Long> {
                 result = 1L;
                 break;
             case NOT:
-                result = apply(((Not) formula).operand(), cache) + 1L;
+                result = applyRec(((Not) formula).operand(), cache, depth + 1) + 1L;
                 break;
             case IMPL:
             case EQUIV:
                 final BinaryOperator binary = (BinaryOperator) formula;
-                result = apply(binary.left(), cache) + apply(binary.right(), cache) + 1L;
+                result = applyRec(binary.left(), cache, depth + 1) + applyRec(binary.right(), cache, depth + 1) + 1L;
                 break;
             case OR:
             case AND:
                 final NAryOperator nary = (NAryOperator) formula;
                 result = 1L;
                 for (final Formula op : nary) {
-                    result += apply(op, cache);
+                    result += applyRec(op, cache, depth + 1);
                 }
                 break;
             case PBC:
@@ -74,4 +87,70 @@ public class NumberOfNodesFunction implements FormulaFunction<Long> {
         }
         return result;
     }
+
+    private static long applyIteratively(final Formula formula, final boolean cache) {
+        final Map<Formula, Long> results = new IdentityHashMap<>();
+        final List<Formula> stack = new ArrayList<>();
+        stack.add(formula);
+        while (!stack.isEmpty()) {
+            final Formula current = stack.get(stack.size() - 1);
+            if (results.containsKey(current)) {
+                stack.remove(stack.size() - 1);
+                continue;
+            }
+            final Object cachedOp = current.functionCacheEntry(NUMBER_OF_NODES);
+            if (cachedOp != null) {
+                stack.remove(stack.size() - 1);
+                results.put(current, (Long) cachedOp);
+                continue;
+            }
+            final int sizeBefore = stack.size();
+            if (!current.isAtomicFormula()) {
+                for (final Formula op : current) {
+                    if (!results.containsKey(op)) {
+                        stack.add(op);
+                    }
+                }
+            }
+            if (stack.size() > sizeBefore) {
+                continue;
+            }
+            stack.remove(stack.size() - 1);
+            long result;
+            switch (current.type()) {
+                case FALSE:
+                case TRUE:
+                case LITERAL:
+                    result = 1L;
+                    break;
+                case NOT:
+                    result = results.get(((Not) current).operand()) + 1L;
+                    break;
+                case IMPL:
+                case EQUIV:
+                    final BinaryOperator binary = (BinaryOperator) current;
+                    result = results.get(binary.left()) + results.get(binary.right()) + 1L;
+                    break;
+                case OR:
+                case AND:
+                    final NAryOperator nary = (NAryOperator) current;
+                    result = 1L;
+                    for (final Formula op : nary) {
+                        result += results.get(op);
+                    }
+                    break;
+                case PBC:
+                    final PBConstraint pbc = (PBConstraint) current;
+                    result = 1L + pbc.operands().length;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown formula type " + current.type());
+            }
+            if (cache) {
+                current.setFunctionCacheEntry(NUMBER_OF_NODES, result);
+            }
+            results.put(current, result);
+        }
+        return results.get(formula);
+    }
 }
@@ -3,6 +3,7 @@ package org.logicng.functions;
 import static org.logicng.formulas.cache.FunctionCacheEntry.VARIABLES;
 
 import org.logicng.formulas.BinaryOperator;
+import org.logicng.formulas.FType;
 import org.logicng.formulas.Formula;
 import org.logicng.formulas.FormulaFunction;
 import org.logicng.formulas.Literal;
@@ -12,13 +13,18 @@ import org.logicng.formulas.PBConstraint;
 import org.logicng.formulas.Variable;
 import org.logicng.util.FormulaHelper;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 /**
  * A function that computes all variables occurring in a given formula.
- * @version 2.2.0
+ * @version 2.7.0
  * @since 2.2.0
  */
 public class VariablesFunction implements FormulaFunction<SortedSet<Variable>> {
@@ -42,10 +48,17 @@ public class VariablesFunction implements FormulaFunction<SortedSet<Variable>> {
 
     @Override
     public SortedSet<Variable> apply(final Formula formula, final boolean cache) {
+        return applyRec(formula, cache, 0);
+    }
+
+    private SortedSet<Variable> applyRec(final Formula formula, final boolean cache, final int depth) {
         final Object cached = formula.functionCacheEntry(VARIABLES);
         if (cached != null) {
             return (SortedSet<Variable>) cached;
         }
+        if (depth >= FormulaHelper.MAX_RECURSION_DEPTH) {
+            return applyIteratively(formula, cache);
+        }
         SortedSet<Variable> result = new TreeSet<>();
         switch (formula.type()) {
             case FALSE:
@@ -58,19 +71,19 @@ public class VariablesFunction implements FormulaFunction<SortedSet<Variable>> {
                 break;
             case NOT:
                 final Not not = (Not) formula;
-                result = apply(not.operand(), cache);
+                result = applyRec(not.operand(), cache, depth + 1);
                 break;
             case IMPL:
             case EQUIV:
                 final BinaryOperator binary = (BinaryOperator) formula;
-                result.addAll(apply(binary.left(), cache));
-                result.addAll(apply(binary.right(), cache));
+                result.addAll(applyRec(binary.left(), cache, depth + 1));
+                result.addAll(applyRec(binary.right(), cache, depth + 1));
                 break;
             case OR:
             case AND:
                 final NAryOperator nary = (NAryOperator) formula;
                 for (final Formula op : nary) {
-                    result.addAll(apply(op, cache));
+                    result.addAll(applyRec(op, cache, depth + 1));
                 }
                 break;
             case PBC:
@@ -86,4 +99,113 @@ public class VariablesFunction implements FormulaFunction<SortedSet<Variable>> {
         }
         return result;
     }
+
+    @SuppressWarnings("unchecked")
+    private static SortedSet<Variable> applyIteratively(final Formula formula, final boolean cache) {
+        if (!cache) {
+            return Collections.unmodifiableSortedSet(collectVariables(formula));
+        }
+        final Map<Formula, SortedSet<Variable>> results = new IdentityHashMap<>();
+        final List<Formula> stack = new ArrayList<>();
+        stack.add(formula);
+        while (!stack.isEmpty()) {
+            final Formula current = stack.get(stack.size() - 1);
+            if (results.containsKey(current)) {
+                stack.remove(stack.size() - 1);
+                continue;
+            }
+            final Object cachedOp = current.functionCacheEntry(VARIABLES);
+            if (cachedOp != null) {
+                stack.remove(stack.size() - 1);
+                results.put(current, (SortedSet<Variable>) cachedOp);
+                continue;
+            }
+            final int sizeBefore = stack.size();
+            if (!current.isAtomicFormula()) {
+                for (final Formula op : current) {
+                    if (!results.containsKey(op)) {
+                        stack.add(op);
+                    }
+                }
+            }
+            if (stack.size() > sizeBefore) {
+                continue;
+            }
+            stack.remove(stack.size() - 1);
+            SortedSet<Variable> result = new TreeSet<>();
+            switch (current.type()) {
+                case FALSE:
+                case TRUE:
+                    break;
+                case LITERAL:
+                    final Literal lit = (Literal) current;
+                    result.add(lit.variable());
+                    break;
+                case NOT:
+                    final Not not = (Not) current;
+                    result = results.get(not.operand());
+                    break;
+                case IMPL:
+                case EQUIV:
+                    final BinaryOperator binary = (BinaryOperator) current;
+                    result.addAll(results.get(binary.left()));
+                    result.addAll(results.get(binary.right()));
+                    break;
+                case OR:
+                case AND:
+                    final NAryOperator nary = (NAryOperator) current;
+                    for (final Formula op : nary) {
+                        result.addAll(results.get(op));
+                    }
+                    break;
+                case PBC:
+                    final PBConstraint pbc = (PBConstraint) current;
+                    result = FormulaHelper.variables(pbc.literals());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown formula type " + current.type());
+            }
+            result = Collections.unmodifiableSortedSet(result);
+            if (cache) {
+                current.setFunctionCacheEntry(VARIABLES, result);
+            }
+            results.put(current, result);
+        }
+        return results.get(formula);
+    }
+
+    /**
+     * Collects the variables of the given formula without computing the variables of its
+     * subformulas.  Cached variables of subformulas are used if present.
+     * @param formula the formula
+     * @return the variables of the formula
+     */
+    @SuppressWarnings("unchecked")
+    private static SortedSet<Variable> collectVariables(final Formula formula) {
+        final SortedSet<Variable> variables = new TreeSet<>();
+        final Set<Formula> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Formula> stack = new ArrayList<>();
+        stack.add(formula);
+        while (!stack.isEmpty()) {
+            final Formula current = stack.remove(stack.size() - 1);
+            if (!visited.add(current)) {
+                continue;
+            }
+            final Object cached = current.functionCacheEntry(VARIABLES);
+            if (cached != null) {
+                variables.addAll((SortedSet<Variable>) cached);
+            } else if (current.type() == FType.LITERAL) {
+                variables.add(((Literal) current).variable());
+            } else if (current.type() == FType.PBC) {
+                for (final Literal lit : ((PBConstraint) current).operands()) {
+                    variables.add(lit.variable());
+                }
+            } else {
+                for (final Formula op : current) {
+                    stack.add(op);
+                }
+            }
+        }
+        return variables;
+    }
 }
@@ -57,6 +57,8 @@ MODIFICATIONS.
 
 package org.logicng.knowledgecompilation.bdds.jbuddy;
 
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
 import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.Variable;
 import org.logicng.handlers.BDDHandler;
@@ -68,7 +70,7 @@ import java.util.TreeMap;
 
 /**
  * The jBuddy kernel.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.4.0
  */
 public class BDDKernel {
@@ -109,6 +111,8 @@ public class BDDKernel {
     protected final FormulaFactory f;
     protected final SortedMap<Variable, Integer> var2idx;
     protected final SortedMap<Integer, Variable> idx2var;
+    protected final LNGIntVector varId2idx; // Variable id -> index for variables of the factory
+    protected final LNGVector<Variable> idxVariables; // Index -> variable
 
     protected BDDReordering reordering;
 
@@ -151,6 +155,8 @@ public class BDDKernel {
         this.prime = new BDDPrime();
         this.var2idx = new TreeMap<>();
         this.idx2var = new TreeMap<>();
+        this.varId2idx = new LNGIntVector();
+        this.idxVariables = new LNGVector<>();
         this.reordering = new BDDReordering(this);
         this.nodesize = this.prime.primeGTE(Math.max(nodeSize, 3));
         this.nodes = new int[this.nodesize * 6];
@@ -237,6 +243,10 @@ public class BDDKernel {
      * @throws IllegalArgumentException if the variable does not yet exist in the kernel and there are no free variable indices left
      */
     public int getOrAddVarIndex(final Variable variable) {
+        final int cached = this.cachedVarIndex(variable);
+        if (cached != -1) {
+            return cached;
+        }
         Integer index = this.var2idx.get(variable);
         if (index == null) {
             if (this.var2idx.size() >= this.varnum) {
@@ -245,11 +255,28 @@ public class BDDKernel {
                 index = this.var2idx.size();
                 this.var2idx.put(variable, index);
                 this.idx2var.put(index, variable);
+                this.idxVariables.push(variable);
             }
         }
+        this.cacheVarIndex(variable, index);
         return index;
     }
 
+    private int cachedVarIndex(final Variable variable) {
+        final int id = variable.id();
+        return variable.factory() == this.f && id >= 0 && id < this.varId2idx.size() ? this.varId2idx.get(id) : -1;
+    }
+
+    private void cacheVarIndex(final Variable variable, final int index) {
+        final int id = variable.id();
+        if (variable.factory() == this.f && id >= 0) {
+            if (id >= this.varId2idx.size()) {
+                this.varId2idx.growTo(id + 1, -1);
+            }
+            this.varId2idx.set(id, index);
+        }
+    }
+
     /**
      * Returns the formula factory.
      * @return the formula factory
@@ -297,6 +324,10 @@ public class BDDKernel {
      * @return the index for the given variable
      */
     public int getIndexForVariable(final Variable var) {
+        final int cached = this.cachedVarIndex(var);
+        if (cached != -1) {
+            return cached;
+        }
         final Integer index = this.var2idx.get(var);
         return index == null ? -1 : index;
     }
@@ -307,7 +338,7 @@ public class BDDKernel {
      * @return the variable for the given index
      */
     public Variable getVariableForIndex(final int idx) {
-        return this.idx2var.get(idx);
+        return idx >= 0 && idx < this.idxVariables.size() ? this.idxVariables.get(idx) : null;
     }
 
     /**
@@ -316,8 +347,8 @@ public class BDDKernel {
      * @return the level of the given variable
      */
     public int getLevel(final Variable var) {
-        final Integer idx = this.var2idx.get(var);
-        return idx != null && idx >= 0 && idx < this.var2level.length ? this.var2level[idx] : -1;
+        final int idx = this.getIndexForVariable(var);
+        return idx >= 0 && idx < this.var2level.length ? this.var2level[idx] : -1;
     }
 
     /**
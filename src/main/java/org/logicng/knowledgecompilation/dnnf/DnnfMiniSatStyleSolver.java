@@ -33,6 +33,7 @@ import org.logicng.datastructures.Tristate;
 import org.logicng.formulas.Formula;
 import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
 import org.logicng.solvers.datastructures.MSClause;
 import org.logicng.solvers.datastructures.MSVariable;
 import org.logicng.solvers.sat.MiniSat2Solver;
@@ -46,7 +47,7 @@ import java.util.List;
 
 /**
  * A variation of the MiniSat solver used during the DNNF compilation process.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 2.0.0
  */
 public class DnnfMiniSatStyleSolver extends MiniSat2Solver implements DnnfSatSolver {
@@ -83,12 +84,12 @@ public class DnnfMiniSatStyleSolver extends MiniSat2Solver implements DnnfSatSol
 
     @Override
     public int variableIndex(final Literal lit) {
-        return idxForName(lit.name());
+        return idxForVariable(lit.variable());
     }
 
     @Override
     public Literal litForIdx(final int var) {
-        return this.f.literal(this.idx2name.get(var), true);
+        return variableForIdx(var, this.f);
     }
 
     /**
@@ -134,10 +135,10 @@ public class DnnfMiniSatStyleSolver extends MiniSat2Solver implements DnnfSatSol
     protected LNGIntVector generateClauseVector(final Collection<Literal> literals) {
         final LNGIntVector clauseVec = new LNGIntVector(literals.size());
         for (final Literal lit : literals) {
-            int index = idxForName(lit.name());
+            int index = idxForVariable(lit.variable());
             if (index == -1) {
                 index = newVar(false, true);
-                addName(lit.name(), index);
+                addVariable(lit.variable(), index);
             }
             final int litNum = lit.phase() ? index * 2 : (index * 2) ^ 1;
             clauseVec.push(litNum);
@@ -176,7 +177,7 @@ public class DnnfMiniSatStyleSolver extends MiniSat2Solver implements DnnfSatSol
             uncheckedEnqueue(this.lastLearnt.get(0), null);
             this.unitClauses.push(this.lastLearnt.get(0));
         } else {
-            final MSClause cr = new MSClause(this.lastLearnt, true);
+            final MSClause cr = new MSClause(this.lastLearnt, true, this.clauseArena);
             this.learnts.push(cr);
             attachClause(cr);
             if (!this.incremental) {
@@ -205,8 +206,8 @@ public class DnnfMiniSatStyleSolver extends MiniSat2Solver implements DnnfSatSol
     }
 
     protected Literal intToLiteral(final int lit) {
-        final String name = nameForIdx(var(lit));
-        return this.f.literal(name, !sign(lit));
+        final Variable variable = variableForIdx(var(lit), this.f);
+        return sign(lit) ? variable.negate() : variable;
     }
 
     protected boolean propagateAfterDecide() {
@@ -236,6 +237,7 @@ public class DnnfMiniSatStyleSolver extends MiniSat2Solver implements DnnfSatSol
                 final MSVariable v = this.vars.get(x);
                 v.assign(Tristate.UNDEF);
                 v.setPolarity(sign(this.trail.get(c)));
+                varUnassigned(x);
                 insertVarOrder(x);
             }
             this.qhead = this.trailLim.get(level);
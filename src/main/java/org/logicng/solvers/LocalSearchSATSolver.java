@@ -0,0 +1,273 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers;
+
+import static org.logicng.datastructures.Tristate.TRUE;
+import static org.logicng.datastructures.Tristate.UNDEF;
+import static org.logicng.handlers.Handler.start;
+import static org.logicng.handlers.SATHandler.finishSolving;
+
+import org.logicng.cardinalityconstraints.CCIncrementalData;
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.configurations.ConfigurationType;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.CardinalityConstraint;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.SATHandler;
+import org.logicng.propositions.Proposition;
+import org.logicng.solvers.functions.SolverFunction;
+import org.logicng.solvers.sat.LocalSearch;
+import org.logicng.solvers.sat.MiniSatConfig;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * An incomplete SAT solver based on a ProbSAT-style {@link LocalSearch stochastic local search}.
+ * <p>
+ * The formulas are stored as clauses on a MiniSAT solver, which also propagates the unit clauses.  A call to
+ * {@code sat} runs a local search with a limited number of flips starting from the saved phases of the MiniSAT solver.
+ * If the search finds a model, the result is {@link Tristate#TRUE TRUE}.  The result is {@link Tristate#FALSE FALSE}
+ * only if the unit propagation on the clauses or the assumptions already yields a conflict.  In all other cases the
+ * result is {@link Tristate#UNDEF UNDEF}, since the local search cannot prove unsatisfiability.  So in contrast to the
+ * other solvers, {@code UNDEF} does not only indicate a computation aborted by the handler.  Therefore
+ * {@link #model(Collection)} returns {@code null} for every result other than {@code TRUE} instead of throwing an
+ * exception.
+ * <p>
+ * The local search can find models of large satisfiable random instances much faster than a CDCL solver.  Solver
+ * functions like model enumeration or backbone computation require a complete solver and are not supported.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class LocalSearchSATSolver extends SATSolver {
+
+    protected final MiniSat clauseStore;
+    protected final int maxFlips;
+    protected long runs;
+    protected LNGBooleanVector model;
+    protected boolean lastComputationWithAssumptions;
+
+    /**
+     * Constructs a new local search solver.
+     * @param f        the formula factory
+     * @param config   the MiniSAT configuration of the clause store
+     * @param maxFlips the maximal number of flips of a call to {@code sat}
+     */
+    protected LocalSearchSATSolver(final FormulaFactory f, final MiniSatConfig config, final int maxFlips) {
+        super(f);
+        this.clauseStore = MiniSat.miniSat(f, config);
+        this.maxFlips = maxFlips;
+        this.result = UNDEF;
+    }
+
+    /**
+     * Returns a new local search solver with the MiniSAT configuration from the formula factory.
+     * @param f        the formula factory
+     * @param maxFlips the maximal number of flips of a call to {@code sat}
+     * @return the solver
+     */
+    public static LocalSearchSATSolver localSearch(final FormulaFactory f, final int maxFlips) {
+        return new LocalSearchSATSolver(f, (MiniSatConfig) f.configurationFor(ConfigurationType.MINISAT), maxFlips);
+    }
+
+    /**
+     * Returns a new local search solver with a given MiniSAT configuration for the clause store.
+     * @param f        the formula factory
+     * @param config   the MiniSAT configuration of the clause store
+     * @param maxFlips the maximal number of flips of a call to {@code sat}
+     * @return the solver
+     */
+    public static LocalSearchSATSolver localSearch(final FormulaFactory f, final MiniSatConfig config, final int maxFlips) {
+        return new LocalSearchSATSolver(f, config, maxFlips);
+    }
+
+    @Override
+    public void add(final Formula formula, final Proposition proposition) {
+        this.result = UNDEF;
+        this.clauseStore.add(formula, proposition);
+    }
+
+    @Override
+    public void addWithoutUnknown(final Formula formula) {
+        this.result = UNDEF;
+        this.clauseStore.addWithoutUnknown(formula);
+    }
+
+    /**
+     * Incremental cardinality constraints are not supported by the local search solver.
+     * @param cc the cardinality constraint
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public CCIncrementalData addIncrementalCC(final CardinalityConstraint cc) {
+        throw new UnsupportedOperationException("The local search solver does not support incremental cardinality constraints.");
+    }
+
+    @Override
+    protected void addClause(final Formula formula, final Proposition proposition) {
+        this.result = UNDEF;
+        this.clauseStore.addClause(formula, proposition);
+    }
+
+    @Override
+    public Tristate sat(final SATHandler handler) {
+        if (this.result != UNDEF && !this.lastComputationWithAssumptions) {
+            return this.result;
+        }
+        this.result = this.search(handler, Collections.emptyList());
+        this.lastComputationWithAssumptions = false;
+        return this.result;
+    }
+
+    @Override
+    public Tristate sat(final SATHandler handler, final Literal literal) {
+        return this.sat(handler, Collections.singletonList(literal));
+    }
+
+    @Override
+    public Tristate sat(final SATHandler handler, final Collection<? extends Literal> assumptions) {
+        this.result = this.search(handler, assumptions);
+        this.lastComputationWithAssumptions = true;
+        return this.result;
+    }
+
+    /**
+     * Runs the local search on the clauses of the clause store.
+     * @param handler     the SAT handler, may be {@code null}
+     * @param assumptions the assumptions
+     * @return {@code TRUE} if a model was found, {@code FALSE} if the clauses or assumptions are unsatisfiable by unit
+     * propagation, and {@code UNDEF} otherwise
+     */
+    protected Tristate search(final SATHandler handler, final Collection<? extends Literal> assumptions) {
+        this.model = null;
+        final LNGIntVector assumptionVec = this.clauseStore.generateClauseVector(assumptions);
+        if (!this.clauseStore.underlyingSolver().ok()) {
+            return Tristate.FALSE;
+        }
+        start(handler);
+        final LocalSearch localSearch = new LocalSearch(this.clauseStore.underlyingSolver(), this.runs++);
+        final Tristate status = localSearch.search(assumptionVec, this.maxFlips, handler);
+        finishSolving(handler);
+        if (status == TRUE) {
+            this.model = localSearch.bestAssignment();
+        }
+        return status;
+    }
+
+    @Override
+    public void reset() {
+        this.clauseStore.reset();
+        this.result = UNDEF;
+        this.model = null;
+        this.lastComputationWithAssumptions = false;
+    }
+
+    @Override
+    public Assignment model(final Collection<Variable> variables) {
+        if (this.result != TRUE) {
+            return null;
+        }
+        final LNGIntVector relevantIndices = variables == null ? null : new LNGIntVector(variables.size());
+        if (relevantIndices != null) {
+            for (final Variable var : variables) {
+                relevantIndices.push(this.clauseStore.underlyingSolver().idxForVariable(var));
+            }
+        }
+        return this.clauseStore.createAssignment(this.model, relevantIndices);
+    }
+
+    /**
+     * Solver functions are not supported by the local search solver since they require a complete solver.
+     * @param function the solver function
+     * @param <RESULT> the result type of the function
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public <RESULT> RESULT execute(final SolverFunction<RESULT> function) {
+        throw new UnsupportedOperationException("The local search solver does not support solver functions.");
+    }
+
+    @Override
+    public SolverState saveState() {
+        return this.clauseStore.saveState();
+    }
+
+    @Override
+    public void loadState(final SolverState state) {
+        this.clauseStore.loadState(state);
+        this.result = UNDEF;
+        this.model = null;
+    }
+
+    @Override
+    public SortedSet<Variable> knownVariables() {
+        return this.clauseStore.knownVariables();
+    }
+
+    @Override
+    protected void setSelectionOrder(final List<? extends Literal> selectionOrder) {
+        throw new UnsupportedOperationException("The local search solver does not support selection orders.");
+    }
+
+    @Override
+    protected void resetSelectionOrder() {
+        throw new UnsupportedOperationException("The local search solver does not support selection orders.");
+    }
+
+    @Override
+    public boolean canSaveLoadState() {
+        return this.clauseStore.canSaveLoadState();
+    }
+
+    @Override
+    public boolean canGenerateProof() {
+        return false;
+    }
+
+    /**
+     * Returns the MiniSAT solver which stores the clauses of this solver.
+     * @return the clause store
+     */
+    public MiniSat clauseStore() {
+        return this.clauseStore;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LocalSearchSATSolver{result=%s, maxFlips=%d}", this.result, this.maxFlips);
+    }
+}
@@ -34,6 +34,7 @@ import static org.logicng.solvers.maxsat.algorithms.MaxSAT.MaxSATResult.UNSATISF
 
 import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
 import org.logicng.configurations.ConfigurationType;
 import org.logicng.datastructures.Assignment;
 import org.logicng.formulas.Formula;
@@ -58,7 +59,7 @@ import java.util.TreeSet;
 
 /**
  * A wrapper for the OpenWBO solver.
- * @version 2.4.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class MaxSATSolver {
@@ -75,6 +76,8 @@ public class MaxSATSolver {
     protected SortedMap<Variable, Integer> var2index;
     protected SortedMap<Integer, Variable> index2var;
     protected SortedSet<Variable> selectorVariables;
+    protected LNGIntVector varId2index;
+    protected LNGVector<Variable> modelVariables;
 
     /**
      * Constructs a new MaxSAT solver with a given configuration.
@@ -369,6 +372,8 @@ public class MaxSATSolver {
         this.var2index = new TreeMap<>();
         this.index2var = new TreeMap<>();
         this.selectorVariables = new TreeSet<>();
+        this.varId2index = new LNGIntVector();
+        this.modelVariables = new LNGVector<>();
         switch (this.algorithm) {
             case WBO:
                 this.solver = new WBO(this.configuration);
@@ -463,12 +468,7 @@ public class MaxSATSolver {
         this.result = UNDEF;
         final LNGIntVector clauseVec = new LNGIntVector((int) formula.numberOfAtoms());
         for (final Literal lit : formula.literals()) {
-            Integer index = this.var2index.get(lit.variable());
-            if (index == null) {
-                index = this.solver.newLiteral(false) >> 1;
-                this.var2index.put(lit.variable(), index);
-                this.index2var.put(index, lit.variable());
-            }
+            final int index = this.getOrAddIndex(lit.variable());
             final int litNum = lit.phase() ? index * 2 : (index * 2) ^ 1;
             clauseVec.push(litNum);
         }
@@ -481,6 +481,37 @@ public class MaxSATSolver {
         }
     }
 
+    /**
+     * Returns the solver index of a variable and adds the variable to the solver if it is not yet known.
+     * Variables of this solver's factory are looked up by their {@link Variable#id() id}.
+     * @param var the variable
+     * @return the solver index of the variable
+     */
+    protected int getOrAddIndex(final Variable var) {
+        final int id = var.id();
+        final boolean ownVariable = var.factory() == this.f && id >= 0;
+        if (ownVariable && id < this.varId2index.size() && this.varId2index.get(id) != -1) {
+            return this.varId2index.get(id);
+        }
+        Integer index = this.var2index.get(var);
+        if (index == null) {
+            index = this.solver.newLiteral(false) >> 1;
+            this.var2index.put(var, index);
+            this.index2var.put(index, var);
+            if (index >= this.modelVariables.size()) {
+                this.modelVariables.growTo(index + 1, null);
+            }
+            this.modelVariables.set(index, this.selectorVariables.contains(var) ? null : var);
+        }
+        if (ownVariable) {
+            if (id >= this.varId2index.size()) {
+                this.varId2index.growTo(id + 1, -1);
+            }
+            this.varId2index.set(id, index);
+        }
+        return index;
+    }
+
     /**
      * Solves the formula on the solver and returns the result.
      * @return the result (SAT, UNSAT, Optimum found)
@@ -539,14 +570,10 @@ public class MaxSATSolver {
      */
     protected Assignment createAssignment(final LNGBooleanVector vec) {
         final Assignment model = new Assignment();
-        for (int i = 0; i < vec.size(); i++) {
-            final Literal lit = this.index2var.get(i);
-            if (lit != null && !this.selectorVariables.contains(lit.variable())) {
-                if (vec.get(i)) {
-                    model.addLiteral(lit);
-                } else {
-                    model.addLiteral(lit.negate());
-                }
+        for (int i = 0; i < vec.size() && i < this.modelVariables.size(); i++) {
+            final Variable var = this.modelVariables.get(i);
+            if (var != null) {
+                model.addLiteral(vec.get(i) ? var : var.negate());
             }
         }
         return model;
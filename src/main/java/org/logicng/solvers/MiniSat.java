@@ -35,10 +35,13 @@ import org.logicng.cardinalityconstraints.CCEncoder;
 import org.logicng.cardinalityconstraints.CCIncrementalData;
 import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
 import org.logicng.configurations.ConfigurationType;
 import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.DenseAssignment;
 import org.logicng.datastructures.EncodingResult;
 import org.logicng.datastructures.Tristate;
+import org.logicng.datastructures.VariableIndex;
 import org.logicng.formulas.CType;
 import org.logicng.formulas.CardinalityConstraint;
 import org.logicng.formulas.FType;
@@ -58,8 +61,10 @@ import org.logicng.solvers.sat.MiniSatConfig;
 import org.logicng.solvers.sat.MiniSatStyleSolver;
 import org.logicng.transformations.cnf.PlaistedGreenbaumTransformationSolver;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
@@ -67,7 +72,7 @@ import java.util.TreeSet;
 
 /**
  * Wrapper for the MiniSAT-style SAT solvers.
- * @version 2.4.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class MiniSat extends SATSolver {
@@ -85,6 +90,9 @@ public class MiniSat extends SATSolver {
     protected final PlaistedGreenbaumTransformationSolver pgTransformation;
     protected final PlaistedGreenbaumTransformationSolver fullPgTransformation;
     protected boolean lastComputationWithAssumptions;
+    protected final List<Literal> assumptionStack;
+    protected VariableIndex modelIndex;
+    protected LNGIntVector modelIndexMapping;
 
     /**
      * Constructs a new SAT solver instance.
@@ -120,6 +128,7 @@ public class MiniSat extends SATSolver {
         this.ccEncoder = new CCEncoder(f);
         this.pgTransformation = new PlaistedGreenbaumTransformationSolver(true, this.underlyingSolver(), this.initialPhase);
         this.fullPgTransformation = new PlaistedGreenbaumTransformationSolver(false, this.underlyingSolver(), this.initialPhase);
+        this.assumptionStack = new ArrayList<>();
     }
 
     /**
@@ -150,6 +159,28 @@ public class MiniSat extends SATSolver {
         this.ccEncoder = new CCEncoder(f);
         this.pgTransformation = new PlaistedGreenbaumTransformationSolver(true, underlyingSolver, this.initialPhase);
         this.fullPgTransformation = new PlaistedGreenbaumTransformationSolver(false, underlyingSolver, this.initialPhase);
+        this.assumptionStack = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a fork of a given MiniSat solver.
+     * @param other the solver
+     */
+    protected MiniSat(final MiniSat other) {
+        super(other.f);
+        this.config = other.config;
+        this.style = other.style;
+        this.initialPhase = other.initialPhase;
+        this.solver = other.solver.fork();
+        this.result = other.result;
+        this.incremental = other.incremental;
+        this.validStates = new LNGIntVector(other.validStates);
+        this.nextStateId = other.nextStateId;
+        this.ccEncoder = new CCEncoder(other.f);
+        this.pgTransformation = other.pgTransformation.fork(this.solver);
+        this.fullPgTransformation = other.fullPgTransformation.fork(this.solver);
+        this.lastComputationWithAssumptions = other.lastComputationWithAssumptions;
+        this.assumptionStack = new ArrayList<>(other.assumptionStack);
     }
 
     /**
@@ -249,7 +280,9 @@ public class MiniSat extends SATSolver {
         this.result = UNDEF;
         if (formula.type() == FType.PBC) {
             final PBConstraint constraint = (PBConstraint) formula;
-            if (constraint.isCC()) {
+            if (proposition == null && this.style == SolverStyle.GLUCOSE && ((GlucoseSyrup) this.solver).nativeConstraints()) {
+                addNativeConstraint(constraint);
+            } else if (constraint.isCC()) {
                 if (this.style == SolverStyle.MINICARD) {
                     if (constraint.comparator() == CType.LE) {
                         ((MiniCard) this.solver).addAtMost(generateClauseVector(Arrays.asList(constraint.operands())), constraint.rhs());
@@ -273,6 +306,44 @@ public class MiniSat extends SATSolver {
         }
     }
 
+    /**
+     * Adds a cardinality or pseudo-Boolean constraint to a Glucose solver which propagates such constraints natively.
+     * Native constraints cannot be associated with a proposition, so constraints added with a proposition are encoded
+     * to clauses instead.
+     * @param constraint the constraint
+     */
+    protected void addNativeConstraint(final PBConstraint constraint) {
+        final GlucoseSyrup glucose = (GlucoseSyrup) this.solver;
+        final LNGIntVector ps = generateClauseVector(Arrays.asList(constraint.operands()));
+        final LNGLongVector coefficients = new LNGLongVector(constraint.coefficients().length);
+        final LNGLongVector negatedCoefficients = new LNGLongVector(constraint.coefficients().length);
+        for (final int coefficient : constraint.coefficients()) {
+            coefficients.push(coefficient);
+            negatedCoefficients.push(-(long) coefficient);
+        }
+        final long rhs = constraint.rhs();
+        switch (constraint.comparator()) {
+            case LE:
+                glucose.addPBConstraint(ps, coefficients, rhs);
+                break;
+            case LT:
+                glucose.addPBConstraint(ps, coefficients, rhs - 1);
+                break;
+            case GE:
+                glucose.addPBConstraint(ps, negatedCoefficients, -rhs);
+                break;
+            case GT:
+                glucose.addPBConstraint(ps, negatedCoefficients, -rhs - 1);
+                break;
+            case EQ:
+                glucose.addPBConstraint(ps, coefficients, rhs);
+                glucose.addPBConstraint(ps, negatedCoefficients, -rhs);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown pseudo-Boolean comparator: " + constraint.comparator());
+        }
+    }
+
     protected void addFormulaAsCNF(final Formula formula, final Proposition proposition) {
         if (this.config.getCnfMethod() == MiniSatConfig.CNFMethod.FACTORY_CNF) {
             this.addClauseSet(formula.cnf(), proposition);
@@ -299,6 +370,22 @@ public class MiniSat extends SATSolver {
         this.add(formula.restrict(restriction));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The constraint is propagated natively by the underlying solver, which combines its XOR constraints by a
+     * Gauss-Jordan elimination.  A solver with proof generation adds the constraint as CNF.
+     */
+    @Override
+    public void addXor(final Collection<? extends Literal> literals, final boolean parity) {
+        if (this.config.proofGeneration()) {
+            super.addXor(literals, parity);
+            return;
+        }
+        this.result = UNDEF;
+        this.solver.addXor(generateClauseVector(literals), parity);
+    }
+
     @Override
     public CCIncrementalData addIncrementalCC(final CardinalityConstraint cc) {
         final EncodingResult result = EncodingResult.resultForMiniSat(this.f, this, null);
@@ -314,6 +401,9 @@ public class MiniSat extends SATSolver {
 
     @Override
     public Tristate sat(final SATHandler handler) {
+        if (!this.assumptionStack.isEmpty()) {
+            return sat(handler, Collections.emptyList());
+        }
         if (lastResultIsUsable()) {
             return this.result;
         }
@@ -324,6 +414,9 @@ public class MiniSat extends SATSolver {
 
     @Override
     public Tristate sat(final SATHandler handler, final Literal literal) {
+        if (!this.assumptionStack.isEmpty()) {
+            return sat(handler, Collections.singletonList(literal));
+        }
         final LNGIntVector clauseVec = new LNGIntVector(1);
         final int index = getOrAddIndex(literal);
         final int litNum = literal.phase() ? index * 2 : (index * 2) ^ 1;
@@ -335,19 +428,72 @@ public class MiniSat extends SATSolver {
 
     @Override
     public Tristate sat(final SATHandler handler, final Collection<? extends Literal> assumptions) {
-        final LNGIntVector assumptionVec = generateClauseVector(assumptions);
+        final LNGIntVector assumptionVec;
+        if (this.assumptionStack.isEmpty()) {
+            assumptionVec = generateClauseVector(assumptions);
+        } else {
+            final List<Literal> allAssumptions = new ArrayList<>(this.assumptionStack.size() + assumptions.size());
+            allAssumptions.addAll(this.assumptionStack);
+            allAssumptions.addAll(assumptions);
+            assumptionVec = generateClauseVector(allAssumptions);
+        }
         this.result = this.solver.solve(handler, assumptionVec);
         this.lastComputationWithAssumptions = true;
         return this.result;
     }
 
+    /**
+     * Pushes an assumption on the assumption stack of this solver.
+     * @param assumption the assumption
+     * @see #pushAssumptions(Collection)
+     */
+    public void pushAssumption(final Literal assumption) {
+        this.assumptionStack.add(assumption);
+    }
+
+    /**
+     * Pushes assumptions on the assumption stack of this solver.  All following calls to {@code sat} are computed
+     * under the assumptions on the stack in addition to their own assumptions, until the assumptions are removed by
+     * {@link #popAssumptions(int)}.  This also holds for solver functions which call {@code sat}, e.g. the model
+     * enumeration.  If the {@link MiniSatConfig#trailReuse() trail reuse} is configured, the unit propagation of the
+     * assumptions on the stack is computed only once for all calls to {@code sat} between adding formulas to the
+     * solver.
+     * @param assumptions the assumptions
+     */
+    public void pushAssumptions(final Collection<? extends Literal> assumptions) {
+        this.assumptionStack.addAll(assumptions);
+    }
+
+    /**
+     * Removes the given number of assumptions from the top of the assumption stack of this solver.
+     * @param n the number of assumptions
+     * @throws IllegalArgumentException if the number is negative or larger than the size of the stack
+     */
+    public void popAssumptions(final int n) {
+        if (n < 0 || n > this.assumptionStack.size()) {
+            throw new IllegalArgumentException("Cannot pop " + n + " assumptions from a stack of size " + this.assumptionStack.size());
+        }
+        this.assumptionStack.subList(this.assumptionStack.size() - n, this.assumptionStack.size()).clear();
+    }
+
+    /**
+     * Returns the assumptions on the assumption stack of this solver, from the bottom to the top of the stack.
+     * @return the assumptions on the stack
+     */
+    public List<Literal> assumptionStack() {
+        return Collections.unmodifiableList(this.assumptionStack);
+    }
+
     @Override
     public void reset() {
         this.solver.reset();
+        this.assumptionStack.clear();
         this.lastComputationWithAssumptions = false;
         this.pgTransformation.clearCache();
         this.fullPgTransformation.clearCache();
         this.result = UNDEF;
+        this.modelIndex = null;
+        this.modelIndexMapping = null;
     }
 
     @Override
@@ -358,12 +504,61 @@ public class MiniSat extends SATSolver {
         final LNGIntVector relevantIndices = variables == null ? null : new LNGIntVector(variables.size());
         if (relevantIndices != null) {
             for (final Variable var : variables) {
-                relevantIndices.push(this.solver.idxForName(var.name()));
+                relevantIndices.push(this.solver.idxForVariable(var));
             }
         }
         return this.result == TRUE ? this.createAssignment(this.solver.model(), relevantIndices) : null;
     }
 
+    @Override
+    public DenseAssignment denseModel(final Collection<Variable> variables) {
+        if (this.result == UNDEF) {
+            throw new IllegalStateException("Cannot get a model as long as the formula is not solved.  Call 'sat' first.");
+        }
+        if (this.result != TRUE) {
+            return null;
+        }
+        this.updateModelIndex();
+        final LNGBooleanVector vec = this.solver.model();
+        final DenseAssignment model = new DenseAssignment(this.modelIndex);
+        if (variables == null) {
+            for (int i = 0; i < vec.size(); i++) {
+                final int index = this.modelIndexMapping.get(i);
+                if (index != -1) {
+                    model.assign(index, vec.get(i));
+                }
+            }
+        } else {
+            for (final Variable var : variables) {
+                final int solverIndex = this.solver.idxForVariable(var);
+                if (solverIndex != -1 && solverIndex < vec.size()) {
+                    final int index = this.modelIndexMapping.get(solverIndex);
+                    if (index != -1) {
+                        model.assign(index, vec.get(solverIndex));
+                    }
+                }
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Returns a fork of this solver.  The fork has the same formulas, learnt clauses, variable activities, phases, and
+     * saved states as this solver, but is otherwise independent of this solver.  The fork shares the literals of its
+     * clauses copy-on-write with this solver, so forking a solver is considerably cheaper than adding all formulas to
+     * a new solver.  This solver and its forks can be used concurrently on different threads, e.g. to answer
+     * different queries under assumptions on the same knowledge base.  However, adding formulas and creating models
+     * may access the formula factory, so a thread-safe formula factory like the
+     * {@link org.logicng.formulas.ConcurrentFormulaFactory} is required if this is done concurrently.
+     * <p>
+     * The incremental data of cardinality constraints added with {@link #addIncrementalCC} refers to this solver and
+     * cannot be used for a fork.  A solver must not be forked during a computation on it.
+     * @return the fork
+     */
+    public MiniSat fork() {
+        return new MiniSat(this);
+    }
+
     @Override
     public <RESULT> RESULT execute(final SolverFunction<RESULT> function) {
         return function.apply(this, this::setResult);
@@ -390,6 +585,8 @@ public class MiniSat extends SATSolver {
         this.validStates.shrinkTo(index + 1);
         this.solver.loadState(state.state());
         this.result = UNDEF;
+        this.modelIndex = null;
+        this.modelIndexMapping = null;
         this.pgTransformation.clearCache();
         this.fullPgTransformation.clearCache();
     }
@@ -421,15 +618,43 @@ public class MiniSat extends SATSolver {
         return clauseVec;
     }
 
+    /**
+     * Extends the variable index of the dense models by all relevant variables which were added
+     * to the solver since the last update.  The mapping from solver indices to indices of the
+     * variable index is extended accordingly.
+     */
+    protected void updateModelIndex() {
+        if (this.modelIndex == null) {
+            this.modelIndex = new VariableIndex();
+            this.modelIndexMapping = new LNGIntVector();
+        }
+        for (int i = this.modelIndexMapping.size(); i < this.solver.nVars(); i++) {
+            final Variable var = this.solver.nameForIdx(i) == null ? null : this.relevantVariable(i);
+            this.modelIndexMapping.push(var != null ? this.modelIndex.add(var) : -1);
+        }
+    }
+
     protected int getOrAddIndex(final Literal lit) {
-        int index = this.solver.idxForName(lit.name());
+        int index = this.solver.idxForVariable(lit.variable());
         if (index == -1) {
             index = this.solver.newVar(!this.initialPhase, true);
-            this.solver.addName(lit.name(), index);
+            this.solver.addVariable(lit.variable(), index);
         }
         return index;
     }
 
+    /**
+     * Returns the variable of this solver's formula factory for a given solver index if it is
+     * {@link #isRelevantVariable(String) relevant}.
+     * @param idx the solver index
+     * @return the variable or {@code null} if the variable is an auxiliary variable
+     */
+    protected Variable relevantVariable(final int idx) {
+        final Variable cached = this.solver.variableForIdx(idx);
+        final String name = cached != null ? cached.name() : this.solver.nameForIdx(idx);
+        return isRelevantVariable(name) ? this.solver.variableForIdx(idx, this.f) : null;
+    }
+
     /**
      * Creates an assignment from a Boolean vector of the solver. The created assignment is not fast evaluable.
      * @param vec             the vector of the solver
@@ -454,18 +679,18 @@ public class MiniSat extends SATSolver {
         final Assignment model = new Assignment(fastEvaluable);
         if (relevantIndices == null) {
             for (int i = 0; i < vec.size(); i++) {
-                final String name = this.solver.nameForIdx(i);
-                if (isRelevantVariable(name)) {
-                    model.addLiteral(this.f.literal(name, vec.get(i)));
+                final Variable var = this.relevantVariable(i);
+                if (var != null) {
+                    model.addLiteral(vec.get(i) ? var : var.negate());
                 }
             }
         } else {
             for (int i = 0; i < relevantIndices.size(); i++) {
                 final int index = relevantIndices.get(i);
                 if (index != -1) {
-                    final String name = this.solver.nameForIdx(index);
-                    if (isRelevantVariable(name)) {
-                        model.addLiteral(this.f.literal(name, vec.get(index)));
+                    final Variable var = this.relevantVariable(index);
+                    if (var != null) {
+                        model.addLiteral(vec.get(index) ? var : var.negate());
                     }
                 }
             }
@@ -529,6 +754,21 @@ public class MiniSat extends SATSolver {
         this.solver.resetSelectionOrder();
     }
 
+    /**
+     * Freezes or unfreezes a variable for the preprocessing of the solver (cf.
+     * {@link MiniSatConfig.Builder#preprocessing(boolean)}).  A frozen variable is never eliminated.  Eliminated
+     * variables which are used in later clauses or assumptions are restored and frozen automatically, but freezing
+     * them in advance avoids their elimination and restoration.  This method has no effect if the solver does not
+     * preprocess its clauses.
+     * @param variable the variable
+     * @param frozen   {@code true} if the variable should be frozen, {@code false} otherwise
+     */
+    public void setFrozen(final Variable variable, final boolean frozen) {
+        if (this.solver instanceof MiniSat2Solver && ((MiniSat2Solver) this.solver).preprocessing()) {
+            ((MiniSat2Solver) this.solver).setFrozen(getOrAddIndex(variable), frozen);
+        }
+    }
+
     @Override
     public boolean canSaveLoadState() {
         return (this.style == SolverStyle.MINISAT || this.style == SolverStyle.MINICARD) && this.incremental;
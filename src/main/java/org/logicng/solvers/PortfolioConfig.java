@@ -0,0 +1,407 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers;
+
+import org.logicng.configurations.Configuration;
+import org.logicng.configurations.ConfigurationType;
+import org.logicng.solvers.sat.GlucoseConfig;
+import org.logicng.solvers.sat.MiniSatConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The configuration object for the {@link PortfolioSATSolver}.
+ * <p>
+ * A portfolio consists of a list of workers, each of which is a MiniSAT-style solver with its own
+ * solver style and configuration.  If no workers are given explicitly, a default portfolio with the
+ * configured number of workers is created which varies the solver style, the initial phase, and the
+ * restart and decay parameters of the workers.
+ * <p>
+ * In the {@link SolvingMode#CUBE_AND_CONQUER cube-and-conquer} mode the workers do not compete on the whole
+ * problem.  Instead, the problem is split into cubes by a lookahead on the primary worker and the workers solve
+ * these cubes under assumptions.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class PortfolioConfig extends Configuration {
+
+    /**
+     * The solving mode of a portfolio.
+     * <ul>
+     * <li>{@link #PORTFOLIO} - all workers solve the whole problem, the first result wins</li>
+     * <li>{@link #CUBE_AND_CONQUER} - the problem is split into cubes which are solved by the workers</li>
+     * </ul>
+     */
+    public enum SolvingMode {
+        PORTFOLIO,
+        CUBE_AND_CONQUER
+    }
+
+    final List<Worker> workers;
+    final SolvingMode solvingMode;
+    final int cubeDepth;
+    final int lookaheadCandidates;
+    final boolean clauseSharing;
+    final int sharedClauseSizeLimit;
+    final int sharedClauseLbdLimit;
+    final int exchangeCapacity;
+
+    /**
+     * Constructs a new portfolio configuration from a given builder.
+     * @param builder the builder
+     */
+    private PortfolioConfig(final Builder builder) {
+        super(ConfigurationType.PORTFOLIO);
+        this.workers = builder.workers.isEmpty()
+                ? defaultWorkers(builder.numberOfWorkers)
+                : Collections.unmodifiableList(new ArrayList<>(builder.workers));
+        this.solvingMode = builder.solvingMode;
+        this.cubeDepth = builder.cubeDepth;
+        this.lookaheadCandidates = builder.lookaheadCandidates;
+        this.clauseSharing = builder.clauseSharing;
+        this.sharedClauseSizeLimit = builder.sharedClauseSizeLimit;
+        this.sharedClauseLbdLimit = builder.sharedClauseLbdLimit;
+        this.exchangeCapacity = builder.exchangeCapacity;
+    }
+
+    /**
+     * Returns a new builder for the configuration.
+     * @return the builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default portfolio with a given number of workers.  The first worker is an incremental MiniSat
+     * solver with the default configuration, all other workers are non-incremental.  If there are more than eight
+     * workers, the configurations of the non-incremental workers are repeated.
+     * @param numberOfWorkers the number of workers
+     * @return the workers of the default portfolio
+     */
+    public static List<Worker> defaultWorkers(final int numberOfWorkers) {
+        final List<Worker> workers = new ArrayList<>(numberOfWorkers);
+        for (int i = 0; i < numberOfWorkers; i++) {
+            workers.add(defaultWorker(i == 0 ? 0 : 1 + (i - 1) % 7));
+        }
+        return Collections.unmodifiableList(workers);
+    }
+
+    private static Worker defaultWorker(final int index) {
+        final MiniSatConfig.Builder miniSat = MiniSatConfig.builder().incremental(false);
+        final GlucoseConfig glucose = GlucoseConfig.builder().build();
+        switch (index) {
+            case 0:
+                return new Worker(MiniSat.SolverStyle.MINISAT, MiniSatConfig.builder().build(), null);
+            case 1:
+                return new Worker(MiniSat.SolverStyle.GLUCOSE, miniSat.build(), glucose);
+            case 2:
+                return new Worker(MiniSat.SolverStyle.MINISAT, miniSat.initialPhase(true).build(), null);
+            case 3:
+                return new Worker(MiniSat.SolverStyle.MINICARD, miniSat.build(), null);
+            case 4:
+                return new Worker(MiniSat.SolverStyle.GLUCOSE, miniSat.initialPhase(true).build(), glucose);
+            case 5:
+                return new Worker(MiniSat.SolverStyle.MINISAT, miniSat.restartFirst(50).restartInc(1.5).varDecay(0.9).build(), null);
+            case 6:
+                return new Worker(MiniSat.SolverStyle.GLUCOSE, miniSat.build(), GlucoseConfig.builder().reduceOnSize(true).factorK(0.7).build());
+            default:
+                return new Worker(MiniSat.SolverStyle.MINISAT, miniSat.initialPhase(true).restartFirst(200).restartInc(3.0)
+                        .clMinimization(MiniSatConfig.ClauseMinimization.BASIC).build(), null);
+        }
+    }
+
+    /**
+     * Returns the workers of the portfolio.
+     * @return the workers of the portfolio
+     */
+    public List<Worker> workers() {
+        return this.workers;
+    }
+
+    /**
+     * Returns the solving mode.
+     * @return the solving mode
+     */
+    public SolvingMode solvingMode() {
+        return this.solvingMode;
+    }
+
+    /**
+     * Returns the maximal depth of the lookahead search tree in the cube-and-conquer mode.
+     * @return the maximal depth of the lookahead search tree
+     */
+    public int cubeDepth() {
+        return this.cubeDepth;
+    }
+
+    /**
+     * Returns the maximal number of variables which are probed in a single node of the lookahead search tree in
+     * the cube-and-conquer mode.
+     * @return the maximal number of probed variables
+     */
+    public int lookaheadCandidates() {
+        return this.lookaheadCandidates;
+    }
+
+    /**
+     * Returns whether learnt clauses are shared between the workers.
+     * @return {@code true} if learnt clauses are shared, {@code false} otherwise
+     */
+    public boolean clauseSharing() {
+        return this.clauseSharing;
+    }
+
+    /**
+     * Returns the maximal size of a shared learnt clause.
+     * @return the maximal size of a shared learnt clause
+     */
+    public int sharedClauseSizeLimit() {
+        return this.sharedClauseSizeLimit;
+    }
+
+    /**
+     * Returns the maximal LBD of a shared learnt clause which exceeds the size limit.
+     * @return the maximal LBD of a shared learnt clause
+     */
+    public int sharedClauseLbdLimit() {
+        return this.sharedClauseLbdLimit;
+    }
+
+    /**
+     * Returns the number of clauses the clause exchange between the workers can hold.
+     * @return the capacity of the clause exchange
+     */
+    public int exchangeCapacity() {
+        return this.exchangeCapacity;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PortfolioConfig{").append(System.lineSeparator());
+        sb.append("workers=").append(this.workers.size()).append(System.lineSeparator());
+        sb.append("solvingMode=").append(this.solvingMode).append(System.lineSeparator());
+        sb.append("cubeDepth=").append(this.cubeDepth).append(System.lineSeparator());
+        sb.append("lookaheadCandidates=").append(this.lookaheadCandidates).append(System.lineSeparator());
+        sb.append("clauseSharing=").append(this.clauseSharing).append(System.lineSeparator());
+        sb.append("sharedClauseSizeLimit=").append(this.sharedClauseSizeLimit).append(System.lineSeparator());
+        sb.append("sharedClauseLbdLimit=").append(this.sharedClauseLbdLimit).append(System.lineSeparator());
+        sb.append("exchangeCapacity=").append(this.exchangeCapacity).append(System.lineSeparator());
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * A worker of a portfolio, i.e. the solver style and the configurations of a single solver.
+     */
+    public static final class Worker {
+        private final MiniSat.SolverStyle style;
+        private final MiniSatConfig miniSatConfig;
+        private final GlucoseConfig glucoseConfig;
+
+        /**
+         * Constructs a new worker.
+         * @param style         the solver style
+         * @param miniSatConfig the MiniSat configuration, must not be {@code null}
+         * @param glucoseConfig the Glucose configuration, must not be {@code null} for solver style
+         *                      {@link MiniSat.SolverStyle#GLUCOSE}
+         */
+        public Worker(final MiniSat.SolverStyle style, final MiniSatConfig miniSatConfig, final GlucoseConfig glucoseConfig) {
+            this.style = style;
+            this.miniSatConfig = miniSatConfig;
+            this.glucoseConfig = glucoseConfig;
+        }
+
+        /**
+         * Returns the solver style of this worker.
+         * @return the solver style
+         */
+        public MiniSat.SolverStyle style() {
+            return this.style;
+        }
+
+        /**
+         * Returns the MiniSat configuration of this worker.
+         * @return the MiniSat configuration
+         */
+        public MiniSatConfig miniSatConfig() {
+            return this.miniSatConfig;
+        }
+
+        /**
+         * Returns the Glucose configuration of this worker.
+         * @return the Glucose configuration, may be {@code null} if the solver style is not
+         * {@link MiniSat.SolverStyle#GLUCOSE}
+         */
+        public GlucoseConfig glucoseConfig() {
+            return this.glucoseConfig;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Worker{style=%s, incremental=%s, initialPhase=%s}", this.style,
+                    this.miniSatConfig.incremental(), this.miniSatConfig.initialPhase());
+        }
+    }
+
+    /**
+     * The builder for a portfolio configuration.
+     */
+    public static class Builder {
+        private final List<Worker> workers = new ArrayList<>();
+        private int numberOfWorkers = Runtime.getRuntime().availableProcessors();
+        private SolvingMode solvingMode = SolvingMode.PORTFOLIO;
+        private int cubeDepth = 8;
+        private int lookaheadCandidates = 20;
+        private boolean clauseSharing = true;
+        private int sharedClauseSizeLimit = 8;
+        private int sharedClauseLbdLimit = 2;
+        private int exchangeCapacity = 4096;
+
+        private Builder() {
+            // Initialize only via factory
+        }
+
+        /**
+         * Sets the number of workers of the default portfolio.  This value is ignored if workers are added explicitly.
+         * The default value is the number of available processors.
+         * @param numberOfWorkers the number of workers (must be at least 1)
+         * @return the builder
+         * @throws IllegalArgumentException if the number of workers is not positive
+         */
+        public Builder numberOfWorkers(final int numberOfWorkers) {
+            if (numberOfWorkers < 1) {
+                throw new IllegalArgumentException("A portfolio requires at least one worker.");
+            }
+            this.numberOfWorkers = numberOfWorkers;
+            return this;
+        }
+
+        /**
+         * Adds a worker to the portfolio.  The first worker is the primary worker on which solver functions are
+         * executed.
+         * @param style         the solver style
+         * @param miniSatConfig the MiniSat configuration, must not be {@code null}
+         * @param glucoseConfig the Glucose configuration, must not be {@code null} for solver style
+         *                      {@link MiniSat.SolverStyle#GLUCOSE}
+         * @return the builder
+         */
+        public Builder addWorker(final MiniSat.SolverStyle style, final MiniSatConfig miniSatConfig, final GlucoseConfig glucoseConfig) {
+            this.workers.add(new Worker(style, miniSatConfig, glucoseConfig));
+            return this;
+        }
+
+        /**
+         * Sets the solving mode.  The default value is {@link SolvingMode#PORTFOLIO}.
+         * @param solvingMode the solving mode
+         * @return the builder
+         */
+        public Builder solvingMode(final SolvingMode solvingMode) {
+            this.solvingMode = solvingMode;
+            return this;
+        }
+
+        /**
+         * Sets the maximal depth of the lookahead search tree in the cube-and-conquer mode, i.e. the problem is
+         * split into at most {@code 2^cubeDepth} cubes.  The default value is 8.
+         * @param cubeDepth the maximal depth (must not be negative)
+         * @return the builder
+         * @throws IllegalArgumentException if the depth is negative
+         */
+        public Builder cubeDepth(final int cubeDepth) {
+            if (cubeDepth < 0) {
+                throw new IllegalArgumentException("The cube depth must not be negative.");
+            }
+            this.cubeDepth = cubeDepth;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of variables which are probed in a single node of the lookahead search tree in the
+         * cube-and-conquer mode.  The variables with the most occurrences are probed first.  The default value is 20.
+         * @param lookaheadCandidates the maximal number of probed variables
+         * @return the builder
+         */
+        public Builder lookaheadCandidates(final int lookaheadCandidates) {
+            this.lookaheadCandidates = lookaheadCandidates;
+            return this;
+        }
+
+        /**
+         * Sets whether short learnt clauses or learnt clauses with a low LBD are shared between the workers.  The
+         * default value is {@code true}.
+         * @param clauseSharing {@code true} if learnt clauses should be shared, {@code false} otherwise
+         * @return the builder
+         */
+        public Builder clauseSharing(final boolean clauseSharing) {
+            this.clauseSharing = clauseSharing;
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of a shared learnt clause.  The default value is 8.
+         * @param sharedClauseSizeLimit the maximal size
+         * @return the builder
+         */
+        public Builder sharedClauseSizeLimit(final int sharedClauseSizeLimit) {
+            this.sharedClauseSizeLimit = sharedClauseSizeLimit;
+            return this;
+        }
+
+        /**
+         * Sets the maximal LBD of a shared learnt clause which exceeds the size limit.  The default value is 2.
+         * @param sharedClauseLbdLimit the maximal LBD
+         * @return the builder
+         */
+        public Builder sharedClauseLbdLimit(final int sharedClauseLbdLimit) {
+            this.sharedClauseLbdLimit = sharedClauseLbdLimit;
+            return this;
+        }
+
+        /**
+         * Sets the number of clauses the clause exchange between the workers can hold.  The default value is 4096.
+         * @param exchangeCapacity the capacity (must be at least 1)
+         * @return the builder
+         */
+        public Builder exchangeCapacity(final int exchangeCapacity) {
+            this.exchangeCapacity = exchangeCapacity;
+            return this;
+        }
+
+        /**
+         * Builds the portfolio configuration.
+         * @return the configuration
+         */
+        public PortfolioConfig build() {
+            return new PortfolioConfig(this);
+        }
+    }
+}
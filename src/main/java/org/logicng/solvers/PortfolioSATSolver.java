@@ -0,0 +1,766 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers;
+
+import static org.logicng.datastructures.Tristate.UNDEF;
+import static org.logicng.handlers.Handler.start;
+import static org.logicng.handlers.SATHandler.finishSolving;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.sign;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
+
+import org.logicng.cardinalityconstraints.CCIncrementalData;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.configurations.ConfigurationType;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.DenseAssignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.CardinalityConstraint;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.SATHandler;
+import org.logicng.propositions.Proposition;
+import org.logicng.solvers.datastructures.MSClauseExchange;
+import org.logicng.solvers.functions.SolverFunction;
+import org.logicng.solvers.sat.LookaheadSplitter;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A portfolio SAT solver which runs several differently configured MiniSAT-style solvers in parallel.
+ * <p>
+ * All formulas are added to each worker of the portfolio.  A call to {@code sat} starts all workers on
+ * their own threads, the first worker with a result wins and all other workers are canceled via their
+ * {@link SATHandler}.  Models are taken from the winning worker.  Optionally the workers share short
+ * learnt clauses and learnt clauses with a low LBD via a lock-free {@link MSClauseExchange}.
+ * <p>
+ * Solver functions like model enumeration or backbone computation are executed sequentially on the
+ * first worker, the primary worker.  If the primary worker cannot save and load its state, such a
+ * function may add clauses to it which the other workers do not know.  In this case all further calls
+ * are answered by the primary worker alone.  The same holds for all workers which are not in
+ * incremental mode and cannot save and load their state, therefore the state of a portfolio can only be
+ * saved and loaded if all of its workers are incremental MiniSat or MiniCard solvers.
+ * <p>
+ * In the {@link PortfolioConfig.SolvingMode#CUBE_AND_CONQUER cube-and-conquer} mode, the problem is split
+ * into cubes by a lookahead on the primary worker and the cubes are solved by the workers under assumptions.
+ * <p>
+ * The formula factory is only accessed by the calling thread.  The worker threads are daemon threads
+ * which terminate after a short idle time.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class PortfolioSATSolver extends SATSolver {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * The number of conflicts after which the solving of a cube is postponed in the first round of the
+     * cube-and-conquer mode.  The budget is doubled in each round.
+     */
+    protected static final long INITIAL_CUBE_CONFLICT_BUDGET = 1000;
+
+    protected final PortfolioConfig config;
+    protected final List<MiniSat> workers;
+    protected MSClauseExchange clauseExchange;
+    protected ThreadPoolExecutor executor;
+    protected ForkJoinPool forkJoinPool;
+    protected MiniSat winner;
+    protected boolean workersInSync;
+    protected boolean lastComputationWithAssumptions;
+    protected int nextStateId;
+    protected final Map<Integer, List<SolverState>> savedStates;
+
+    /**
+     * Constructs a new portfolio solver.
+     * @param f      the formula factory
+     * @param config the portfolio configuration
+     * @throws IllegalArgumentException if the configuration has no workers
+     */
+    protected PortfolioSATSolver(final FormulaFactory f, final PortfolioConfig config) {
+        super(f);
+        if (config.workers().isEmpty()) {
+            throw new IllegalArgumentException("A portfolio requires at least one worker.");
+        }
+        this.config = config;
+        this.workers = new ArrayList<>(config.workers().size());
+        for (final PortfolioConfig.Worker worker : config.workers()) {
+            this.workers.add(MiniSat.mk(f, worker.style(), worker.miniSatConfig(), worker.glucoseConfig()));
+        }
+        this.result = UNDEF;
+        this.workersInSync = true;
+        this.savedStates = new LinkedHashMap<>();
+        this.attachClauseExchange();
+    }
+
+    /**
+     * Returns a new portfolio solver with the portfolio configuration from the formula factory.
+     * @param f the formula factory
+     * @return the solver
+     */
+    public static PortfolioSATSolver portfolio(final FormulaFactory f) {
+        return new PortfolioSATSolver(f, (PortfolioConfig) f.configurationFor(ConfigurationType.PORTFOLIO));
+    }
+
+    /**
+     * Returns a new portfolio solver with a given configuration.
+     * @param f      the formula factory
+     * @param config the configuration, must not be {@code null}
+     * @return the solver
+     */
+    public static PortfolioSATSolver portfolio(final FormulaFactory f, final PortfolioConfig config) {
+        return new PortfolioSATSolver(f, config);
+    }
+
+    @Override
+    public void add(final Formula formula, final Proposition proposition) {
+        this.result = UNDEF;
+        for (final MiniSat worker : this.activeWorkers()) {
+            worker.add(formula, proposition);
+        }
+    }
+
+    @Override
+    public void addWithoutUnknown(final Formula formula) {
+        this.result = UNDEF;
+        for (final MiniSat worker : this.activeWorkers()) {
+            worker.addWithoutUnknown(formula);
+        }
+    }
+
+    @Override
+    public void addXor(final Collection<? extends Literal> literals, final boolean parity) {
+        this.result = UNDEF;
+        for (final MiniSat worker : this.activeWorkers()) {
+            worker.addXor(literals, parity);
+        }
+    }
+
+    /**
+     * Incremental cardinality constraints are not supported by the portfolio solver since their incremental data
+     * would be different for each worker.
+     * @param cc the cardinality constraint
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public CCIncrementalData addIncrementalCC(final CardinalityConstraint cc) {
+        throw new UnsupportedOperationException("The portfolio solver does not support incremental cardinality constraints.");
+    }
+
+    @Override
+    protected void addClause(final Formula formula, final Proposition proposition) {
+        this.result = UNDEF;
+        for (final MiniSat worker : this.activeWorkers()) {
+            worker.addClause(formula, proposition);
+        }
+    }
+
+    @Override
+    public Tristate sat(final SATHandler handler) {
+        if (this.result != UNDEF && !this.lastComputationWithAssumptions) {
+            return this.result;
+        }
+        this.result = this.solve(handler, null);
+        this.lastComputationWithAssumptions = false;
+        return this.result;
+    }
+
+    @Override
+    public Tristate sat(final SATHandler handler, final Literal literal) {
+        return this.sat(handler, Collections.singletonList(literal));
+    }
+
+    @Override
+    public Tristate sat(final SATHandler handler, final Collection<? extends Literal> assumptions) {
+        this.result = this.solve(handler, assumptions);
+        this.lastComputationWithAssumptions = true;
+        return this.result;
+    }
+
+    /**
+     * Solves the formulas on the solver with all active workers.
+     * @param handler     the SAT handler, may be {@code null}
+     * @param assumptions the assumptions or {@code null} if there are no assumptions
+     * @return the result of the first worker which finished or {@code UNDEF} if the computation was aborted by the
+     * handler
+     */
+    protected Tristate solve(final SATHandler handler, final Collection<? extends Literal> assumptions) {
+        final List<MiniSat> active = this.activeWorkers();
+        if (active.size() == 1) {
+            this.winner = active.get(0);
+            return assumptions == null ? this.winner.sat(handler) : this.winner.sat(handler, assumptions);
+        }
+        if (this.config.solvingMode() == PortfolioConfig.SolvingMode.CUBE_AND_CONQUER) {
+            return this.cubeAndConquer(handler, assumptions, active);
+        }
+        start(handler);
+        this.winner = null;
+        final AtomicBoolean stop = new AtomicBoolean();
+        final Tristate[] results = new Tristate[active.size()];
+        final ExecutorCompletionService<Integer> completion = new ExecutorCompletionService<>(this.executor());
+        for (int i = 0; i < active.size(); i++) {
+            final int index = i;
+            final MiniSat worker = active.get(i);
+            final SATHandler workerHandler = new WorkerHandler(stop, handler);
+            completion.submit(() -> {
+                results[index] = assumptions == null ? worker.sat(workerHandler) : worker.sat(workerHandler, assumptions);
+                if (results[index] != UNDEF) {
+                    stop.set(true);
+                }
+                return index;
+            });
+        }
+        Tristate status = UNDEF;
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (int finished = 0; finished < active.size(); ) {
+            try {
+                final int index = completion.take().get();
+                finished++;
+                if (this.winner == null && results[index] != UNDEF) {
+                    this.winner = active.get(index);
+                    status = results[index];
+                }
+            } catch (final ExecutionException e) {
+                finished++;
+                stop.set(true);
+                failure = failure == null ? e.getCause() : failure;
+            } catch (final InterruptedException e) {
+                stop.set(true);
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        finishSolving(handler);
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException("A worker of the portfolio failed.", failure);
+        }
+        return status;
+    }
+
+    /**
+     * Solves the formulas on the solver in the cube-and-conquer mode.  The problem is split into cubes by a
+     * {@link LookaheadSplitter} on the primary worker.  The cubes are solved under assumptions by the workers in a
+     * work-stealing pool.  If a cube is unsatisfiable, the failed assumptions of the worker are used to skip all other
+     * cubes which contain them.  Since a single cube can be much harder than the whole problem, the cubes are solved in
+     * rounds with a conflict budget per cube which is doubled in each round.  Cubes which exceed the budget are
+     * postponed to the next round.
+     * @param handler     the SAT handler, may be {@code null}
+     * @param assumptions the assumptions or {@code null} if there are no assumptions
+     * @param active      the active workers
+     * @return the result of the computation or {@code UNDEF} if the computation was aborted by the handler
+     */
+    protected Tristate cubeAndConquer(final SATHandler handler, final Collection<? extends Literal> assumptions,
+                                      final List<MiniSat> active) {
+        start(handler);
+        this.winner = null;
+        final List<Set<Literal>> cubes = this.cubes(assumptions);
+        final CubeAndConquerRun run = new CubeAndConquerRun(assumptions, active, handler);
+        List<Set<Literal>> open = cubes;
+        for (long budget = INITIAL_CUBE_CONFLICT_BUDGET; !open.isEmpty() && !run.stop.get(); budget *= 2) {
+            run.startRound(open, budget);
+            this.forkJoinPool().invoke(new CubeTask(run, 0, open.size()));
+            open = new ArrayList<>(run.postponed);
+        }
+        finishSolving(handler);
+        this.winner = run.satWorker.get();
+        if (this.winner != null) {
+            return Tristate.TRUE;
+        }
+        return run.undecided.get() && !run.refuted.get() ? UNDEF : Tristate.FALSE;
+    }
+
+    /**
+     * Splits the formulas on the primary worker into cubes.  Each cube starts with the given assumptions.
+     * @param assumptions the assumptions or {@code null} if there are no assumptions
+     * @return the cubes
+     */
+    protected List<Set<Literal>> cubes(final Collection<? extends Literal> assumptions) {
+        final MiniSatStyleSolver solver = this.primary().underlyingSolver();
+        final LNGIntVector assumptionLits = new LNGIntVector();
+        if (assumptions != null) {
+            for (final Literal lit : assumptions) {
+                final int idx = solver.idxForVariable(lit.variable());
+                if (idx != -1) {
+                    assumptionLits.push(mkLit(idx, !lit.phase()));
+                }
+            }
+        }
+        final LNGIntVector variables = new LNGIntVector();
+        for (int idx = 0; idx < solver.nVars(); idx++) {
+            final Variable var = solver.variableForIdx(idx);
+            if (var != null && !solver.isEliminated(idx) && !var.name().startsWith(FormulaFactory.CNF_PREFIX)
+                    && !var.name().startsWith(FormulaFactory.CC_PREFIX) && !var.name().startsWith(FormulaFactory.PB_PREFIX)) {
+                variables.push(idx);
+            }
+        }
+        final LookaheadSplitter splitter = new LookaheadSplitter(solver, this.config.cubeDepth(), this.config.lookaheadCandidates());
+        final LNGVector<LNGIntVector> splits = splitter.split(variables, assumptionLits);
+        final List<Set<Literal>> cubes = new ArrayList<>(splits.size());
+        for (final LNGIntVector split : splits) {
+            final Set<Literal> cube = assumptions == null ? new LinkedHashSet<>() : new LinkedHashSet<>(assumptions);
+            for (int i = 0; i < split.size(); i++) {
+                final Variable var = solver.variableForIdx(var(split.get(i)));
+                cube.add(sign(split.get(i)) ? var.negate() : var);
+            }
+            cubes.add(cube);
+        }
+        return cubes;
+    }
+
+    @Override
+    public void reset() {
+        for (final MiniSat worker : this.workers) {
+            worker.reset();
+        }
+        this.result = UNDEF;
+        this.winner = null;
+        this.workersInSync = true;
+        this.lastComputationWithAssumptions = false;
+        this.savedStates.clear();
+        this.attachClauseExchange();
+    }
+
+    @Override
+    public Assignment model(final Collection<Variable> variables) {
+        if (this.result == UNDEF) {
+            throw new IllegalStateException("Cannot get a model as long as the formula is not solved.  Call 'sat' first.");
+        }
+        return this.result == Tristate.TRUE ? this.winner.model(variables) : null;
+    }
+
+    @Override
+    public DenseAssignment denseModel(final Collection<Variable> variables) {
+        if (this.result == UNDEF) {
+            throw new IllegalStateException("Cannot get a model as long as the formula is not solved.  Call 'sat' first.");
+        }
+        return this.result == Tristate.TRUE ? this.winner.denseModel(variables) : null;
+    }
+
+    @Override
+    public <RESULT> RESULT execute(final SolverFunction<RESULT> function) {
+        final MiniSat primary = this.primary();
+        primary.underlyingSolver().setClauseExchange(null, 0, 0, 0);
+        try {
+            return primary.execute(function);
+        } finally {
+            if (!primary.canSaveLoadState()) {
+                this.workersInSync = false;
+            }
+            this.result = UNDEF;
+            this.winner = null;
+            this.attachClauseExchange();
+        }
+    }
+
+    @Override
+    public SolverState saveState() {
+        this.checkSaveLoadState();
+        final List<SolverState> states = new ArrayList<>(this.workers.size());
+        for (final MiniSat worker : this.activeWorkers()) {
+            states.add(worker.saveState());
+        }
+        final int id = this.nextStateId++;
+        this.savedStates.put(id, states);
+        return new SolverState(id, new int[]{states.size()});
+    }
+
+    @Override
+    public void loadState(final SolverState state) {
+        this.checkSaveLoadState();
+        final List<SolverState> states = this.savedStates.get(state.id());
+        final List<MiniSat> active = this.activeWorkers();
+        if (states == null || states.size() != active.size()) {
+            throw new IllegalArgumentException("The given solver state is not valid anymore.");
+        }
+        for (int i = 0; i < active.size(); i++) {
+            active.get(i).loadState(states.get(i));
+        }
+        boolean later = false;
+        for (final Iterator<Integer> it = this.savedStates.keySet().iterator(); it.hasNext(); ) {
+            final int id = it.next();
+            if (later) {
+                it.remove();
+            }
+            later |= id == state.id();
+        }
+        this.result = UNDEF;
+        this.winner = null;
+    }
+
+    @Override
+    public SortedSet<Variable> knownVariables() {
+        return this.primary().knownVariables();
+    }
+
+    @Override
+    protected void setSelectionOrder(final List<? extends Literal> selectionOrder) {
+        for (final MiniSat worker : this.activeWorkers()) {
+            worker.setSelectionOrder(selectionOrder);
+        }
+    }
+
+    @Override
+    protected void resetSelectionOrder() {
+        for (final MiniSat worker : this.activeWorkers()) {
+            worker.resetSelectionOrder();
+        }
+    }
+
+    @Override
+    public boolean canSaveLoadState() {
+        for (final MiniSat worker : this.activeWorkers()) {
+            if (!worker.canSaveLoadState()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean canGenerateProof() {
+        return this.primary().canGenerateProof();
+    }
+
+    /**
+     * Returns the workers of this portfolio.
+     * <p>
+     * ATTENTION: by influencing the workers directly, you can mess things up completely!
+     * @return the workers of this portfolio
+     */
+    public List<MiniSat> workers() {
+        return Collections.unmodifiableList(this.workers);
+    }
+
+    /**
+     * Returns the worker which computed the last result or {@code null} if there is no such worker.
+     * @return the worker which computed the last result
+     */
+    public MiniSat winner() {
+        return this.winner;
+    }
+
+    /**
+     * Returns this solver's configuration.
+     * @return this solver's configuration
+     */
+    public PortfolioConfig getConfig() {
+        return this.config;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PortfolioSATSolver{result=%s, workers=%d, inSync=%s}", this.result, this.workers.size(), this.workersInSync);
+    }
+
+    /**
+     * Sets the solver to UNDEF for this solver and all of its workers.
+     */
+    @Override
+    public void setSolverToUndef() {
+        super.setSolverToUndef();
+        for (final MiniSat worker : this.workers) {
+            worker.setSolverToUndef();
+        }
+    }
+
+    private void checkSaveLoadState() {
+        if (!this.canSaveLoadState()) {
+            throw new UnsupportedOperationException("The portfolio solver can only save and load states if all of its workers can.");
+        }
+    }
+
+    protected MiniSat primary() {
+        return this.workers.get(0);
+    }
+
+    protected List<MiniSat> activeWorkers() {
+        return this.workersInSync ? this.workers : Collections.singletonList(this.primary());
+    }
+
+    /**
+     * Creates a new clause exchange and attaches all workers to it if clause sharing is configured.  A new exchange
+     * is required whenever the formulas of the workers are reset, since the clauses of the old exchange might not
+     * be implied by the new formulas.
+     */
+    protected void attachClauseExchange() {
+        this.clauseExchange = this.config.clauseSharing() && this.workers.size() > 1
+                ? new MSClauseExchange(this.config.exchangeCapacity()) : null;
+        for (int i = 0; i < this.workers.size(); i++) {
+            this.workers.get(i).underlyingSolver().setClauseExchange(this.clauseExchange, i,
+                    this.config.sharedClauseSizeLimit(), this.config.sharedClauseLbdLimit());
+        }
+    }
+
+    protected ForkJoinPool forkJoinPool() {
+        if (this.forkJoinPool == null) {
+            this.forkJoinPool = new ForkJoinPool(this.workers.size());
+        }
+        return this.forkJoinPool;
+    }
+
+    protected ThreadPoolExecutor executor() {
+        if (this.executor == null) {
+            final int threads = this.workers.size();
+            this.executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                final Thread thread = new Thread(runnable, "logicng-portfolio-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+        return this.executor;
+    }
+
+    /**
+     * The shared state of a single cube-and-conquer computation.
+     */
+    protected static final class CubeAndConquerRun {
+        private List<Set<Literal>> cubes;
+        private long conflictBudget;
+        private final Queue<Set<Literal>> postponed;
+        private final Set<Literal> assumptions;
+        private final BlockingQueue<MiniSat> idleWorkers;
+        private final SATHandler handler;
+        private final List<Set<Literal>> cores;
+        private final AtomicBoolean stop;
+        private final AtomicBoolean undecided;
+        private final AtomicBoolean refuted;
+        private final AtomicReference<MiniSat> satWorker;
+
+        private CubeAndConquerRun(final Collection<? extends Literal> assumptions, final List<MiniSat> workers,
+                                  final SATHandler handler) {
+            this.postponed = new ConcurrentLinkedQueue<>();
+            this.assumptions = assumptions == null ? Collections.emptySet() : new HashSet<>(assumptions);
+            this.idleWorkers = new LinkedBlockingQueue<>(workers);
+            this.handler = handler;
+            this.cores = new CopyOnWriteArrayList<>();
+            this.stop = new AtomicBoolean();
+            this.undecided = new AtomicBoolean();
+            this.refuted = new AtomicBoolean();
+            this.satWorker = new AtomicReference<>();
+        }
+
+        /**
+         * Starts a new round.
+         * @param cubes          the cubes of this round
+         * @param conflictBudget the conflict budget for a single cube
+         */
+        private void startRound(final List<Set<Literal>> cubes, final long conflictBudget) {
+            this.cubes = cubes;
+            this.conflictBudget = conflictBudget;
+            this.postponed.clear();
+        }
+
+        /**
+         * Solves a single cube with the next idle worker.  If the worker exceeds the conflict budget, the cube is
+         * postponed.  The worker which finds a model is not returned to the idle
+         * workers, so its model stays valid.
+         * @param cube the cube
+         */
+        private void solve(final Set<Literal> cube) {
+            if (this.refuted.get() || this.isPruned(cube)) {
+                return;
+            }
+            if (this.stop.get()) {
+                this.undecided.set(true);
+                return;
+            }
+            final MiniSat worker;
+            try {
+                worker = this.idleWorkers.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.undecided.set(true);
+                this.stop.set(true);
+                return;
+            }
+            boolean idle = true;
+            try {
+                final Tristate result = worker.sat(new WorkerHandler(this.stop, this.handler, this.conflictBudget), cube);
+                if (result == Tristate.TRUE) {
+                    idle = !this.satWorker.compareAndSet(null, worker);
+                    this.stop.set(true);
+                } else if (result == Tristate.FALSE) {
+                    this.addCore(worker, cube);
+                } else if (this.stop.get()) {
+                    this.undecided.set(true);
+                } else {
+                    this.postponed.add(cube);
+                }
+            } catch (final RuntimeException | Error e) {
+                this.stop.set(true);
+                throw e;
+            } finally {
+                if (idle) {
+                    this.idleWorkers.add(worker);
+                }
+            }
+        }
+
+        /**
+         * Adds the failed assumptions of a worker for an unsatisfiable cube to the cores.  If the core only consists
+         * of the original assumptions, all cubes are unsatisfiable.
+         * @param worker the worker
+         * @param cube   the cube
+         */
+        private void addCore(final MiniSat worker, final Set<Literal> cube) {
+            final MiniSatStyleSolver solver = worker.underlyingSolver();
+            final LNGIntVector conflict = solver.conflict();
+            final Set<Integer> failed = new HashSet<>();
+            for (int i = 0; i < conflict.size(); i++) {
+                failed.add(conflict.get(i));
+            }
+            final Set<Literal> core = new HashSet<>();
+            for (final Literal lit : cube) {
+                final int idx = solver.idxForVariable(lit.variable());
+                if (idx != -1 && failed.contains(mkLit(idx, lit.phase()))) {
+                    core.add(lit);
+                }
+            }
+            if (this.assumptions.containsAll(core)) {
+                this.refuted.set(true);
+                this.stop.set(true);
+            } else if (core.size() < cube.size()) {
+                this.cores.add(core);
+            }
+        }
+
+        private boolean isPruned(final Set<Literal> cube) {
+            for (final Set<Literal> core : this.cores) {
+                if (cube.containsAll(core)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A task which solves a range of cubes by recursively splitting the range.
+     */
+    protected static final class CubeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient CubeAndConquerRun run;
+        private final int from;
+        private final int to;
+
+        private CubeTask(final CubeAndConquerRun run, final int from, final int to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.run.solve(this.run.cubes.get(this.from));
+            } else {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new CubeTask(this.run, this.from, middle), new CubeTask(this.run, middle, this.to));
+            }
+        }
+    }
+
+    /**
+     * The SAT handler of a single worker.  It cancels the worker as soon as another worker found a result, the
+     * handler of the portfolio aborts the computation, or the worker exceeds its conflict budget.  All workers report
+     * their conflicts to the handler of the portfolio, so each report synchronizes on this handler.  Once the handler
+     * aborts, all workers are stopped and no longer call it.
+     */
+    protected static final class WorkerHandler implements SATHandler {
+        private final AtomicBoolean stop;
+        private final SATHandler handler;
+        private final long conflictBudget;
+        private long conflicts;
+        private boolean aborted;
+
+        private WorkerHandler(final AtomicBoolean stop, final SATHandler handler) {
+            this(stop, handler, Long.MAX_VALUE);
+        }
+
+        private WorkerHandler(final AtomicBoolean stop, final SATHandler handler, final long conflictBudget) {
+            this.stop = stop;
+            this.handler = handler;
+            this.conflictBudget = conflictBudget;
+        }
+
+        @Override
+        public boolean aborted() {
+            return this.aborted;
+        }
+
+        @Override
+        public boolean detectedConflict() {
+            if (!this.stop.get() && this.handler != null) {
+                synchronized (this.handler) {
+                    if (!this.handler.detectedConflict()) {
+                        this.stop.set(true);
+                    }
+                }
+            }
+            this.aborted = this.stop.get() || ++this.conflicts > this.conflictBudget;
+            return !this.aborted;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.datastructures.MSClauseExchange;
+import org.logicng.solvers.datastructures.MSClauseStore;
+import org.logicng.solvers.sat.MiniSat2Solver;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+import org.logicng.solvers.sat.QueryContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe service for satisfiability queries under assumptions on a fixed knowledge base.
+ * <p>
+ * The knowledge base is given as a MiniSat solver which is forked and solved once on the creation of the service.
+ * The clauses of this fork, simplified by the literals on decision level 0, are then copied to a read-only
+ * {@link MSClauseStore} and the fork is dropped.  All queries run on this one store.  Each query borrows an idle
+ * {@link QueryContext} from a lock-free pool, or creates a new context if all contexts are busy, and returns it to
+ * the pool afterwards.  A context only holds the mutable state of a search: the assignment, the trail, the positions
+ * of the watched literals of each clause, the variable activities, and its own learnt clauses.  It never reorders the
+ * literals of the shared store.  So the number of contexts only grows to the maximal number of concurrent queries,
+ * and the memory per context is linear in the number of variables and clauses, not in the number of literals of the
+ * knowledge base.  A context whose query throws an exception is discarded.  Optionally the contexts share short
+ * learnt clauses and learnt clauses with a low LBD via a lock-free {@link MSClauseExchange}.
+ * <p>
+ * The store only holds clauses.  If the knowledge base contains XOR, cardinality, or pseudo-Boolean constraints, the
+ * creation of the service throws an {@link UnsupportedOperationException}.  Variables which were eliminated by the
+ * preprocessing of a {@link MiniSat2Solver} are restored before the store is created.
+ * <p>
+ * Queries with variables which are not in the knowledge base are answered correctly, such variables are part of the
+ * models with their assumed phase.  The service never accesses the formula factory after its creation.  The solver
+ * given to the service can still be used afterwards, but must not be used while the service is created.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class SATQueryService {
+
+    /**
+     * The capacity of the clause exchange of the contexts.
+     */
+    public static final int EXCHANGE_CAPACITY = 4096;
+
+    /**
+     * The maximal size of a learnt clause which is shared between the contexts.
+     */
+    public static final int SHARED_CLAUSE_SIZE_LIMIT = 8;
+
+    /**
+     * The maximal LBD of a learnt clause exceeding the size limit which is shared between the contexts.
+     */
+    public static final int SHARED_CLAUSE_LBD_LIMIT = 2;
+
+    protected final Tristate result;
+    protected final MSClauseStore clauseStore;
+    protected final Map<String, Integer> name2idx;
+    protected final Variable[] variables;
+    protected final boolean auxiliaryVariablesInModels;
+    protected final MSClauseExchange clauseExchange;
+    protected final Queue<QueryContext> idleContexts;
+    protected final AtomicInteger numberOfContexts;
+
+    /**
+     * Constructs a new query service without clause sharing for the formulas of the given solver.
+     * @param solver the solver with the knowledge base
+     * @throws UnsupportedOperationException if the knowledge base contains XOR, cardinality, or pseudo-Boolean
+     *                                       constraints
+     */
+    public SATQueryService(final MiniSat solver) {
+        this(solver, false);
+    }
+
+    /**
+     * Constructs a new query service for the formulas of the given solver.
+     * @param solver       the solver with the knowledge base
+     * @param shareLearnts {@code true} if the contexts should share learnt clauses, {@code false} otherwise
+     * @throws UnsupportedOperationException if the knowledge base contains XOR, cardinality, or pseudo-Boolean
+     *                                       constraints
+     */
+    public SATQueryService(final MiniSat solver, final boolean shareLearnts) {
+        final MiniSat compiled = solver.fork();
+        Tristate compiledResult = compiled.sat();
+        final MiniSatStyleSolver underlying = compiled.underlyingSolver();
+        if (compiledResult != Tristate.FALSE && underlying instanceof MiniSat2Solver) {
+            boolean restored = false;
+            for (int v = 0; v < underlying.nVars(); v++) {
+                if (underlying.isEliminated(v)) {
+                    ((MiniSat2Solver) underlying).setFrozen(v, true);
+                    restored = true;
+                }
+            }
+            if (restored) {
+                compiledResult = compiled.sat();
+            }
+        }
+        this.result = compiledResult;
+        this.clauseStore = this.result == Tristate.FALSE ? null : underlying.clauseStore();
+        this.name2idx = new HashMap<>(underlying.name2idx());
+        final FormulaFactory f = compiled.factory();
+        this.variables = new Variable[underlying.nVars()];
+        for (int v = 0; v < this.variables.length; v++) {
+            this.variables[v] = underlying.variableForIdx(v, f);
+        }
+        this.auxiliaryVariablesInModels = compiled.getConfig().isAuxiliaryVariablesInModels();
+        this.clauseExchange = shareLearnts ? new MSClauseExchange(EXCHANGE_CAPACITY) : null;
+        this.idleContexts = new ConcurrentLinkedQueue<>();
+        this.numberOfContexts = new AtomicInteger();
+        if (this.result != Tristate.FALSE) {
+            this.idleContexts.add(borrow());
+        }
+    }
+
+    /**
+     * Returns whether the knowledge base is satisfiable without assumptions.
+     * @return the result of the knowledge base without assumptions
+     */
+    public Tristate result() {
+        return this.result;
+    }
+
+    /**
+     * Returns the read-only clause store shared by all query contexts of this service.
+     * @return the clause store or {@code null} if the knowledge base is unsatisfiable
+     */
+    public MSClauseStore clauseStore() {
+        return this.clauseStore;
+    }
+
+    /**
+     * Returns whether the knowledge base is satisfiable under a given literal.
+     * @param literal the assumed literal
+     * @return the result of the query
+     */
+    public Tristate sat(final Literal literal) {
+        return sat(null, Collections.singletonList(literal));
+    }
+
+    /**
+     * Returns whether the knowledge base is satisfiable under a set of assumptions.
+     * @param assumptions the assumptions
+     * @return the result of the query
+     */
+    public Tristate sat(final Collection<? extends Literal> assumptions) {
+        return sat(null, assumptions);
+    }
+
+    /**
+     * Returns whether the knowledge base is satisfiable under a set of assumptions.
+     * @param handler     the SAT handler for the query, may be {@code null}
+     * @param assumptions the assumptions
+     * @return the result of the query, {@code UNDEF} if the query was canceled by the handler
+     */
+    public Tristate sat(final SATHandler handler, final Collection<? extends Literal> assumptions) {
+        final LNGIntVector assumptionLits = new LNGIntVector(assumptions.size());
+        if (this.result == Tristate.FALSE || translate(assumptions, assumptionLits, new HashMap<>()) == null) {
+            return Tristate.FALSE;
+        }
+        final QueryContext context = borrow();
+        boolean completed = false;
+        try {
+            final Tristate queryResult = context.solve(handler, assumptionLits);
+            completed = true;
+            return queryResult;
+        } finally {
+            giveBack(context, completed);
+        }
+    }
+
+    /**
+     * Returns a model of the knowledge base under a set of assumptions.
+     * @param assumptions the assumptions
+     * @param variables   the variables of the model
+     * @return the model or {@code null} if the knowledge base is unsatisfiable under the assumptions
+     */
+    public Assignment model(final Collection<? extends Literal> assumptions, final Collection<Variable> variables) {
+        final LNGIntVector assumptionLits = new LNGIntVector(assumptions.size());
+        final Map<Variable, Boolean> unknown = new HashMap<>();
+        if (this.result == Tristate.FALSE || translate(assumptions, assumptionLits, unknown) == null) {
+            return null;
+        }
+        final QueryContext context = borrow();
+        boolean completed = false;
+        try {
+            final Assignment model;
+            if (context.solve(null, assumptionLits) == Tristate.TRUE) {
+                final List<Literal> literals = new ArrayList<>(variables.size());
+                for (final Variable var : variables) {
+                    if (!isRelevantVariable(var.name())) {
+                        continue;
+                    }
+                    final Integer idx = index(var);
+                    final Boolean phase = idx != null ? Boolean.valueOf(context.modelValue(idx)) : unknown.get(var);
+                    if (phase != null) {
+                        literals.add(phase ? var : var.negate());
+                    }
+                }
+                model = new Assignment(literals);
+            } else {
+                model = null;
+            }
+            completed = true;
+            return model;
+        } finally {
+            giveBack(context, completed);
+        }
+    }
+
+    /**
+     * Returns the number of query contexts created by this service so far.
+     * @return the number of query contexts
+     */
+    public int numberOfContexts() {
+        return this.numberOfContexts.get();
+    }
+
+    /**
+     * Translates assumptions to literals of the clause store.  Assumptions on variables which are not in the
+     * knowledge base are collected with their phase.
+     * @param assumptions    the assumptions
+     * @param assumptionLits the vector for the literals of the clause store
+     * @param unknown        the map for the phases of the variables which are not in the knowledge base
+     * @return the literals of the clause store or {@code null} if an unknown variable is assumed in both phases
+     */
+    protected LNGIntVector translate(final Collection<? extends Literal> assumptions, final LNGIntVector assumptionLits,
+                                     final Map<Variable, Boolean> unknown) {
+        for (final Literal lit : assumptions) {
+            final Integer idx = index(lit.variable());
+            if (idx != null) {
+                assumptionLits.push(mkLit(idx, !lit.phase()));
+            } else if (unknown.getOrDefault(lit.variable(), lit.phase()) != lit.phase()) {
+                return null;
+            } else {
+                unknown.put(lit.variable(), lit.phase());
+            }
+        }
+        return assumptionLits;
+    }
+
+    /**
+     * Returns the index of a variable in the clause store.
+     * @param var the variable
+     * @return the index or {@code null} if the variable is not in the knowledge base
+     */
+    protected Integer index(final Variable var) {
+        final Integer idx = this.name2idx.get(var.name());
+        return idx != null && idx < this.clauseStore.numVars() ? idx : null;
+    }
+
+    /**
+     * Returns whether a variable is relevant for the models, i.e. whether it is not an auxiliary variable or
+     * auxiliary variables are included in the models.
+     * @param name the name of the variable
+     * @return {@code true} if the variable is relevant, {@code false} otherwise
+     */
+    protected boolean isRelevantVariable(final String name) {
+        return this.auxiliaryVariablesInModels || (!name.startsWith(FormulaFactory.CNF_PREFIX) &&
+                !name.startsWith(FormulaFactory.CC_PREFIX) && !name.startsWith(FormulaFactory.PB_PREFIX));
+    }
+
+    /**
+     * Returns an idle query context or creates a new context on the shared clause store if there is no idle context.
+     * @return the query context
+     */
+    protected QueryContext borrow() {
+        final QueryContext idle = this.idleContexts.poll();
+        if (idle != null) {
+            return idle;
+        }
+        final QueryContext context = new QueryContext(this.clauseStore);
+        final int id = this.numberOfContexts.getAndIncrement();
+        if (this.clauseExchange != null) {
+            context.setClauseExchange(this.clauseExchange, id, SHARED_CLAUSE_SIZE_LIMIT, SHARED_CLAUSE_LBD_LIMIT,
+                    this.variables, this.name2idx);
+        }
+        return context;
+    }
+
+    /**
+     * Returns a borrowed query context to the pool of idle contexts.  A context whose query was aborted by an
+     * exception may be in an inconsistent state and is discarded.
+     * @param context   the query context
+     * @param completed {@code true} if the query on the context completed normally, {@code false} otherwise
+     */
+    protected void giveBack(final QueryContext context, final boolean completed) {
+        if (completed) {
+            this.idleContexts.add(context);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SATQueryService{result=%s, contexts=%d, sharing=%s}", this.result, this.numberOfContexts.get(),
+                this.clauseExchange != null);
+    }
+}
@@ -32,7 +32,9 @@ import org.logicng.backbones.Backbone;
 import org.logicng.backbones.BackboneType;
 import org.logicng.cardinalityconstraints.CCIncrementalData;
 import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.DenseAssignment;
 import org.logicng.datastructures.Tristate;
+import org.logicng.datastructures.VariableIndex;
 import org.logicng.explanations.UNSATCore;
 import org.logicng.formulas.CardinalityConstraint;
 import org.logicng.formulas.Formula;
@@ -53,7 +55,7 @@ import java.util.SortedSet;
 
 /**
  * A generic interface for LogicNG's SAT solvers.
- * @version 2.3.0
+ * @version 2.7.0
  * @since 1.0
  */
 public abstract class SATSolver {
@@ -168,6 +170,23 @@ public abstract class SATSolver {
         }
     }
 
+    /**
+     * Adds an XOR constraint to the solver.  The constraint is satisfied if an odd number of the given literals is
+     * true for parity {@code true} and if an even number of them is true for parity {@code false}.
+     * <p>
+     * The default implementation adds the constraint as a chain of negated equivalences which is converted to CNF.
+     * Solvers which support XOR constraints natively override this method.
+     * @param literals the literals of the constraint
+     * @param parity   the parity of the constraint
+     */
+    public void addXor(final Collection<? extends Literal> literals, final boolean parity) {
+        Formula xor = this.f.constant(!parity);
+        for (final Literal literal : literals) {
+            xor = this.f.not(this.f.equivalence(xor, literal));
+        }
+        this.add(xor);
+    }
+
     /**
      * Adds a cardinality constraint and returns its incremental data in order to refine the constraint on the solver.
      * <p>
@@ -371,6 +390,32 @@ public abstract class SATSolver {
      */
     public abstract Assignment model(final Collection<Variable> variables);
 
+    /**
+     * Returns a model of the current formula on the solver as a {@link DenseAssignment}.  If the formula is UNSAT,
+     * {@code null} will be returned.
+     * @return a model of the current formula
+     * @throws IllegalStateException if the formula is not yet solved
+     */
+    public DenseAssignment denseModel() {
+        return this.denseModel(null);
+    }
+
+    /**
+     * Returns a model of the current formula on the solver wrt. a given set of variables as a {@link DenseAssignment}.
+     * If the set is {@code null}, all variables are considered relevant.  If the formula is UNSAT, {@code null} will
+     * be returned.
+     * <p>
+     * The default implementation converts the result of {@link #model(Collection)}.  Solvers should override this
+     * method if they can create the model without materializing its literals.
+     * @param variables the set of variables
+     * @return a model of the current formula
+     * @throws IllegalStateException if the formula is not yet solved
+     */
+    public DenseAssignment denseModel(final Collection<Variable> variables) {
+        final Assignment model = this.model(variables);
+        return model == null ? null : new DenseAssignment(new VariableIndex(), model);
+    }
+
     /**
      * Executes a solver function on this solver.
      * @param function the solver function
@@ -152,6 +152,16 @@ public final class LNGHeap {
         this.percolateUp(this.indices.get(n));
     }
 
+    /**
+     * Restores an element's position in the heap after its key was changed in an arbitrary direction.
+     * @param n the element
+     */
+    public void update(final int n) {
+        assert this.inHeap(n);
+        this.percolateUp(this.indices.get(n));
+        this.percolateDown(this.indices.get(n));
+    }
+
     /**
      * Inserts a given element in the heap.
      * @param n the element
@@ -50,7 +50,12 @@ import java.util.Comparator;
 
 /**
  * A clause of the SAT solver for MiniSAT-style solvers.
- * @version 2.0.0
+ * <p>
+ * The literals of a clause are either stored in an array of its own or inline in the
+ * page of a {@link MSClauseArena} which is shared with other clauses of the solver.  A clause
+ * which was {@link #fork(MSClauseArena, MSClauseArena) forked} shares its literals with its
+ * copy until one of them changes a literal.
+ * @version 2.7.0
  * @since 1.0
  */
 public final class MSClause {
@@ -82,7 +87,9 @@ public final class MSClause {
      */
     public static final Comparator<MSClause> minisatComparator = (x, y) -> x.size() > 2 && (y.size() == 2 || x.activity() < y.activity()) ? -1 : 1;
 
-    private final LNGIntVector data;
+    private int[] lits;
+    private int offset;
+    private int size;
     private final boolean learnt;
     private final boolean isAtMost;
     private double activity;
@@ -92,6 +99,8 @@ public final class MSClause {
     private boolean canBeDel;
     private boolean oneWatched;
     private int atMostWatchers;
+    private boolean vivified;
+    private MSClauseArena copyOnWrite;
 
     /**
      * Constructs a new clause
@@ -109,10 +118,28 @@ public final class MSClause {
      * @param isAtMost {@code true} if it is an at-most clause, {@code false} otherwise
      */
     public MSClause(final LNGIntVector ps, final boolean learnt, final boolean isAtMost) {
-        this.data = new LNGIntVector(ps.size());
-        for (int i = 0; i < ps.size(); i++) {
-            this.data.unsafePush(ps.get(i));
-        }
+        this(ps, learnt, isAtMost, null);
+    }
+
+    /**
+     * Constructs a new clause whose literals are stored in the given arena.
+     * @param ps     the vector of literals
+     * @param learnt {@code true} if it is a learnt clause, {@code false} otherwise
+     * @param arena  the clause arena or {@code null} if the clause should store its literals on its own
+     */
+    public MSClause(final LNGIntVector ps, final boolean learnt, final MSClauseArena arena) {
+        this(ps, learnt, false, arena);
+    }
+
+    /**
+     * Constructs a new clause whose literals are stored in the given arena.
+     * @param ps       the vector of literals
+     * @param learnt   {@code true} if it is a learnt clause, {@code false} otherwise
+     * @param isAtMost {@code true} if it is an at-most clause, {@code false} otherwise
+     * @param arena    the clause arena or {@code null} if the clause should store its literals on its own
+     */
+    public MSClause(final LNGIntVector ps, final boolean learnt, final boolean isAtMost, final MSClauseArena arena) {
+        store(ps, arena);
         this.learnt = learnt;
         this.szWithoutSelectors = 0;
         this.seen = false;
@@ -126,7 +153,7 @@ public final class MSClause {
     public MSClause(final LNGIntVector data, final boolean learnt, final boolean isAtMost, final double activity,
                     final int szWithoutSelectors, final boolean seen, final long lbd, final boolean canBeDel,
                     final boolean oneWatched, final int atMostWatchers) {
-        this.data = data;
+        store(data, null);
         this.learnt = learnt;
         this.isAtMost = isAtMost;
         this.activity = activity;
@@ -138,12 +165,94 @@ public final class MSClause {
         this.atMostWatchers = atMostWatchers;
     }
 
+    /**
+     * Constructs a copy of a given clause which shares the literals of the clause.
+     * @param other       the clause
+     * @param copyOnWrite the arena to which the literals are copied before they are changed
+     */
+    private MSClause(final MSClause other, final MSClauseArena copyOnWrite) {
+        this.lits = other.lits;
+        this.offset = other.offset;
+        this.size = other.size;
+        this.learnt = other.learnt;
+        this.isAtMost = other.isAtMost;
+        this.activity = other.activity;
+        this.szWithoutSelectors = other.szWithoutSelectors;
+        this.seen = other.seen;
+        this.lbd = other.lbd;
+        this.canBeDel = other.canBeDel;
+        this.oneWatched = other.oneWatched;
+        this.atMostWatchers = other.atMostWatchers;
+        this.vivified = other.vivified;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    private void store(final LNGIntVector ps, final MSClauseArena arena) {
+        this.size = ps.size();
+        if (arena == null) {
+            this.lits = new int[this.size];
+            this.offset = 0;
+        } else {
+            this.offset = arena.allocate(this.size);
+            this.lits = arena.page();
+        }
+        for (int i = 0; i < this.size; i++) {
+            this.lits[this.offset + i] = ps.get(i);
+        }
+    }
+
+    /**
+     * Replaces the literals of this clause.  The array of the literals is reused if it is large enough.  Must only be
+     * called on clauses which are not stored in a clause arena and which are not shared with a forked solver, i.e. on
+     * explanation clauses outside the clause database.
+     * @param ps the new literals
+     */
+    void replaceLiterals(final LNGIntVector ps) {
+        assert this.copyOnWrite == null && this.offset == 0;
+        if (this.lits.length < ps.size()) {
+            this.lits = new int[ps.size()];
+        }
+        this.size = ps.size();
+        for (int i = 0; i < this.size; i++) {
+            this.lits[i] = ps.get(i);
+        }
+    }
+
+    /**
+     * Moves the literals of this clause to the given arena.
+     * @param arena the new arena
+     */
+    void relocate(final MSClauseArena arena) {
+        final int newOffset = arena.allocate(this.size);
+        final int[] newLits = arena.page();
+        System.arraycopy(this.lits, this.offset, newLits, newOffset, this.size);
+        this.lits = newLits;
+        this.offset = newOffset;
+        this.copyOnWrite = null;
+    }
+
+    /**
+     * Returns a copy of this clause for a forked solver.  The copy shares the literals with this clause.  The
+     * literals are copied lazily: the first change of a literal of this clause or of the copy moves the literals of the
+     * changed clause to the arena of its solver.  Therefore, the shared literals are never changed and this clause and
+     * its copy can be used concurrently.
+     * @param arena     the clause arena of the solver of this clause
+     * @param forkArena the clause arena of the forked solver
+     * @return the copy
+     */
+    public MSClause fork(final MSClauseArena arena, final MSClauseArena forkArena) {
+        if (this.copyOnWrite == null) {
+            this.copyOnWrite = arena;
+        }
+        return new MSClause(this, forkArena);
+    }
+
     /**
      * Returns the size (number of literals) of this clause.
      * @return the size
      */
     public int size() {
-        return this.data.size();
+        return this.size;
     }
 
     /**
@@ -152,7 +261,7 @@ public final class MSClause {
      * @return the literal at index {@code i}
      */
     public int get(final int i) {
-        return this.data.get(i);
+        return this.lits[this.offset + i];
     }
 
     /**
@@ -161,7 +270,10 @@ public final class MSClause {
      * @param lit the literal
      */
     public void set(final int i, final int lit) {
-        this.data.set(i, lit);
+        if (this.copyOnWrite != null) {
+            relocate(this.copyOnWrite);
+        }
+        this.lits[this.offset + i] = lit;
     }
 
     /**
@@ -275,6 +387,22 @@ public final class MSClause {
         this.oneWatched = oneWatched;
     }
 
+    /**
+     * Returns {@code true} if this clause was already vivified, {@code false} otherwise
+     * @return {@code true} if this clause was already vivified
+     */
+    public boolean vivified() {
+        return this.vivified;
+    }
+
+    /**
+     * Sets whether this clause was already vivified or not.
+     * @param vivified {@code true} if it was already vivified, {@code false} otherwise
+     */
+    public void setVivified(final boolean vivified) {
+        this.vivified = vivified;
+    }
+
     /**
      * Returns {@code true} if this is an at-most clause, {@code false} otherwise.
      * @return {@code true} if this is an at-most clause
@@ -305,7 +433,7 @@ public final class MSClause {
      * Pops (removes) the last literal of this clause.
      */
     public void pop() {
-        this.data.pop();
+        this.size--;
     }
 
     /**
@@ -313,16 +441,36 @@ public final class MSClause {
      * @return the right-hand side
      */
     public int cardinality() {
-        return this.data.size() - this.atMostWatchers + 1;
+        return this.size - this.atMostWatchers + 1;
     }
 
+    /**
+     * Returns a copy of the literals of this clause.  The literals themselves are stored in the
+     * clause arena, so changes to the returned vector do not affect this clause.
+     * @return a copy of the literals of this clause
+     */
+    public LNGIntVector copyLiterals() {
+        final LNGIntVector data = new LNGIntVector(this.size);
+        for (int i = 0; i < this.size; i++) {
+            data.unsafePush(this.lits[this.offset + i]);
+        }
+        return data;
+    }
+
+    /**
+     * Returns a copy of the literals of this clause.
+     * @return a copy of the literals of this clause
+     * @deprecated the literals are stored in the clause arena and changes to the returned vector do not affect this
+     * clause anymore, use {@link #copyLiterals()}
+     */
+    @Deprecated
     public LNGIntVector getData() {
-        return this.data;
+        return copyLiterals();
     }
 
     @Override
     public int hashCode() {
-        return this.data.hashCode();
+        return System.identityHashCode(this);
     }
 
     @Override
@@ -343,10 +491,10 @@ public final class MSClause {
         sb.append("isAtMost=").append(this.isAtMost).append(", ");
         sb.append("atMostWatchers=").append(this.atMostWatchers).append(", ");
         sb.append("lits=[");
-        for (int i = 0; i < this.data.size(); i++) {
-            final int lit = this.data.get(i);
+        for (int i = 0; i < this.size; i++) {
+            final int lit = this.lits[this.offset + i];
             sb.append((lit & 1) == 1 ? "-" : "").append(lit >> 1);
-            if (i != this.data.size() - 1) {
+            if (i != this.size - 1) {
                 sb.append(", ");
             }
         }
@@ -0,0 +1,136 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.datastructures;
+
+/**
+ * A clause arena for MiniSAT-style solvers (inspired by MiniSat's {@code ClauseAllocator}).
+ * <p>
+ * The literals of all clauses allocated in an arena are stored inline in a few large
+ * {@code int} pages instead of one small array per clause.  Clauses which are allocated
+ * one after the other therefore lie next to each other in memory, which improves the
+ * cache locality during unit propagation and avoids the per-clause array overhead.
+ * <p>
+ * Pages are never resized, so a clause can safely hold a reference to its page.  Memory
+ * of removed clauses is reclaimed by {@link #relocate(MSClause) relocating} all live
+ * clauses into a fresh arena, which compacts them in the order of relocation.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class MSClauseArena {
+
+    /**
+     * The default number of literals of a page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1 << 16;
+
+    private final int pageSize;
+    private int[] page;
+    private int pageUsed;
+    private long used;
+
+    /**
+     * Constructs a new clause arena with the default page size.
+     */
+    public MSClauseArena() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructs a new clause arena with a given page size.
+     * @param pageSize the number of literals of a page
+     */
+    public MSClauseArena(final int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be positive");
+        }
+        this.pageSize = pageSize;
+        this.page = new int[0];
+        this.pageUsed = 0;
+        this.used = 0;
+    }
+
+    /**
+     * Reserves space for a clause with the given number of literals.  After this call
+     * the literals can be written to {@link #page()} starting at the returned offset.
+     * Clauses larger than the page size get a page of their own.
+     * @param size the number of literals
+     * @return the offset of the reserved space in the current page
+     */
+    int allocate(final int size) {
+        if (this.pageUsed + size > this.page.length) {
+            this.page = new int[Math.max(this.pageSize, size)];
+            this.pageUsed = 0;
+        }
+        final int offset = this.pageUsed;
+        this.pageUsed += size;
+        this.used += size;
+        return offset;
+    }
+
+    /**
+     * Returns the current page of this arena.
+     * @return the current page
+     */
+    int[] page() {
+        return this.page;
+    }
+
+    /**
+     * Returns the number of literals which were allocated in this arena.  This includes
+     * the literals of clauses which were removed or shrunk in the meantime.
+     * @return the number of allocated literals
+     */
+    public long used() {
+        return this.used;
+    }
+
+    /**
+     * Moves the literals of the given clause to this arena.
+     * @param clause the clause
+     */
+    public void relocate(final MSClause clause) {
+        clause.relocate(this);
+    }
+
+    /**
+     * Returns {@code true} if the fraction of wasted literals of this arena exceeds the
+     * given limit, {@code false} otherwise.
+     * @param live     the number of literals of the clauses which are still in use
+     * @param fraction the maximal fraction of wasted literals
+     * @return {@code true} if the arena should be compacted
+     */
+    public boolean shouldCompact(final long live, final double fraction) {
+        return this.used - live > this.used * fraction;
+    }
+
+    @Override
+    public String toString() {
+        return "MSClauseArena{pageSize=" + this.pageSize + ", used=" + this.used + "}";
+    }
+}
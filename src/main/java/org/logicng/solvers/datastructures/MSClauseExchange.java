@@ -0,0 +1,181 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.datastructures;
+
+import org.logicng.formulas.Variable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free buffer for the exchange of learnt clauses between MiniSAT-style solvers
+ * running on different threads.
+ * <p>
+ * The buffer is a ring of fixed capacity.  A solver publishes a clause by reserving the
+ * next position with a single atomic increment and writing the clause to the slot of this
+ * position.  Every solver keeps its own read position.  Since solvers use their own
+ * variable indices, the literals of a shared clause are stored as variables of the formula
+ * factory together with their phases.  Clauses which were overwritten because a reader
+ * fell behind by more than the capacity or which are not completely written yet are
+ * skipped, i.e. clauses may get lost, but neither publishing nor collecting ever blocks.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class MSClauseExchange {
+
+    private final AtomicReferenceArray<SharedClause> slots;
+    private final AtomicLong head;
+
+    /**
+     * Constructs a new clause exchange with a given capacity.
+     * @param capacity the maximal number of clauses held in the buffer
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public MSClauseExchange(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of a clause exchange must be positive.");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.head = new AtomicLong();
+    }
+
+    /**
+     * Returns the capacity of this clause exchange.
+     * @return the capacity
+     */
+    public int capacity() {
+        return this.slots.length();
+    }
+
+    /**
+     * Returns the number of clauses which were published to this exchange so far.  This is
+     * the read position at which a new reader starts.
+     * @return the number of published clauses
+     */
+    public long published() {
+        return this.head.get();
+    }
+
+    /**
+     * Publishes a clause.
+     * @param source    the id of the publishing solver
+     * @param variables the variables of the clause
+     * @param phases    the phases of the literals of the clause
+     * @param lbd       the literal block distance of the clause
+     */
+    public void publish(final int source, final Variable[] variables, final boolean[] phases, final int lbd) {
+        final long position = this.head.getAndIncrement();
+        this.slots.set((int) (position % this.slots.length()), new SharedClause(position, source, variables, phases, lbd));
+    }
+
+    /**
+     * Collects all clauses which were published by other solvers since a given read position.
+     * @param reader   the id of the reading solver, clauses of this solver are skipped
+     * @param position the read position of the solver
+     * @param result   the list to which the collected clauses are added
+     * @return the new read position of the solver
+     */
+    public long collect(final int reader, final long position, final List<SharedClause> result) {
+        final long end = this.head.get();
+        for (long p = Math.max(position, end - this.slots.length()); p < end; p++) {
+            final SharedClause clause = this.slots.get((int) (p % this.slots.length()));
+            if (clause != null && clause.position == p && clause.source != reader) {
+                result.add(clause);
+            }
+        }
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MSClauseExchange{capacity=%d, published=%d}", this.slots.length(), this.head.get());
+    }
+
+    /**
+     * A clause in a clause exchange.
+     */
+    public static final class SharedClause {
+        private final long position;
+        private final int source;
+        private final Variable[] variables;
+        private final boolean[] phases;
+        private final int lbd;
+
+        private SharedClause(final long position, final int source, final Variable[] variables, final boolean[] phases, final int lbd) {
+            this.position = position;
+            this.source = source;
+            this.variables = variables;
+            this.phases = phases;
+            this.lbd = lbd;
+        }
+
+        /**
+         * Returns the number of literals of this clause.
+         * @return the number of literals
+         */
+        public int size() {
+            return this.variables.length;
+        }
+
+        /**
+         * Returns the variable of the {@code i}-th literal.
+         * @param i the index
+         * @return the variable
+         */
+        public Variable variable(final int i) {
+            return this.variables[i];
+        }
+
+        /**
+         * Returns the phase of the {@code i}-th literal.
+         * @param i the index
+         * @return the phase
+         */
+        public boolean phase(final int i) {
+            return this.phases[i];
+        }
+
+        /**
+         * Returns the literal block distance of this clause in the publishing solver.
+         * @return the literal block distance
+         */
+        public int lbd() {
+            return this.lbd;
+        }
+
+        /**
+         * Returns the id of the publishing solver.
+         * @return the id of the publishing solver
+         */
+        public int source() {
+            return this.source;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.datastructures;
+
+import org.logicng.collections.LNGIntVector;
+
+/**
+ * A read-only store of the clauses of a MiniSAT-style solver.
+ * <p>
+ * The literals of all clauses are stored one after another in a single array, the clauses are
+ * identified by their index.  Additionally, the store holds the literals which are implied on
+ * decision level 0.  A store is never changed after its construction, so it can be shared by
+ * any number of threads without synchronization.  In particular, the watched literals of a
+ * clause are not moved to the front of the clause like in the solvers: a search on the store
+ * keeps the positions of the watched literals in its own state.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class MSClauseStore {
+
+    private final int numVars;
+    private final int[] literals;
+    private final int[] starts;
+    private final int[] units;
+
+    /**
+     * Constructs a new clause store.
+     * @param numVars  the number of variables
+     * @param literals the literals of all clauses one after another
+     * @param starts   the start positions of the clauses in the literals and the number of literals as last element
+     * @param units    the literals which are implied on decision level 0
+     */
+    public MSClauseStore(final int numVars, final LNGIntVector literals, final LNGIntVector starts, final LNGIntVector units) {
+        this.numVars = numVars;
+        this.literals = literals.toArray();
+        this.starts = starts.toArray();
+        this.units = units.toArray();
+    }
+
+    /**
+     * Returns the number of variables of this store.
+     * @return the number of variables
+     */
+    public int numVars() {
+        return this.numVars;
+    }
+
+    /**
+     * Returns the number of clauses of this store.
+     * @return the number of clauses
+     */
+    public int numClauses() {
+        return this.starts.length - 1;
+    }
+
+    /**
+     * Returns the number of literals of all clauses of this store.
+     * @return the number of literals
+     */
+    public int numLiterals() {
+        return this.literals.length;
+    }
+
+    /**
+     * Returns the size of a clause.
+     * @param clause the index of the clause
+     * @return the size of the clause
+     */
+    public int size(final int clause) {
+        return this.starts[clause + 1] - this.starts[clause];
+    }
+
+    /**
+     * Returns a literal of a clause.
+     * @param clause the index of the clause
+     * @param i      the position of the literal in the clause
+     * @return the literal
+     */
+    public int get(final int clause, final int i) {
+        return this.literals[this.starts[clause] + i];
+    }
+
+    /**
+     * Returns the number of literals which are implied on decision level 0.
+     * @return the number of implied literals
+     */
+    public int numUnits() {
+        return this.units.length;
+    }
+
+    /**
+     * Returns a literal which is implied on decision level 0.
+     * @param i the index of the literal
+     * @return the literal
+     */
+    public int unit(final int i) {
+        return this.units[i];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MSClauseStore{vars=%d, clauses=%d, literals=%d, units=%d}", this.numVars, numClauses(),
+                this.literals.length, this.units.length);
+    }
+}
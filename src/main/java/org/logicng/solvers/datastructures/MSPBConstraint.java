@@ -0,0 +1,188 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.datastructures;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
+
+/**
+ * A pseudo-Boolean constraint {@code c_1 * l_1 + ... + c_n * l_n <= rhs} with positive coefficients
+ * for MiniSAT-style solvers which propagate such constraints natively.
+ * <p>
+ * Besides its literals and coefficients, the constraint stores the sum of the coefficients of its
+ * currently satisfied literals.  The solver updates this sum on each assignment and unassignment of
+ * one of the literals, so the slack of the constraint is known without iterating over its literals.
+ * A cardinality constraint is a pseudo-Boolean constraint where all coefficients are 1.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class MSPBConstraint {
+
+    private final int[] lits;
+    private final long[] coefficients;
+    private final long rhs;
+    private final long maxCoefficient;
+    private final MSClause[] reasons;
+    private long sumTrue;
+
+    /**
+     * Constructs a new pseudo-Boolean constraint.  None of its literals may be assigned.
+     * @param lits         the literals
+     * @param coefficients the positive coefficients of the literals
+     * @param rhs          the right-hand side
+     */
+    public MSPBConstraint(final LNGIntVector lits, final LNGLongVector coefficients, final long rhs) {
+        this.lits = lits.toArray();
+        this.coefficients = coefficients.toArray();
+        this.rhs = rhs;
+        long max = 0;
+        for (final long coefficient : this.coefficients) {
+            max = Math.max(max, coefficient);
+        }
+        this.maxCoefficient = max;
+        this.reasons = new MSClause[this.lits.length];
+        this.sumTrue = 0;
+    }
+
+    /**
+     * Constructs a copy of a given constraint.  The reason clauses of the constraint are not copied.
+     * @param other the constraint
+     */
+    public MSPBConstraint(final MSPBConstraint other) {
+        this.lits = other.lits;
+        this.coefficients = other.coefficients;
+        this.rhs = other.rhs;
+        this.maxCoefficient = other.maxCoefficient;
+        this.reasons = new MSClause[other.lits.length];
+        this.sumTrue = other.sumTrue;
+    }
+
+    /**
+     * Returns the number of literals of this constraint.
+     * @return the number of literals
+     */
+    public int size() {
+        return this.lits.length;
+    }
+
+    /**
+     * Returns the literal at index {@code i}.
+     * @param i the index
+     * @return the literal
+     */
+    public int get(final int i) {
+        return this.lits[i];
+    }
+
+    /**
+     * Returns the coefficient of the literal at index {@code i}.
+     * @param i the index
+     * @return the coefficient
+     */
+    public long coefficient(final int i) {
+        return this.coefficients[i];
+    }
+
+    /**
+     * Returns the right-hand side of this constraint.
+     * @return the right-hand side
+     */
+    public long rhs() {
+        return this.rhs;
+    }
+
+    /**
+     * Returns the maximal coefficient of this constraint.
+     * @return the maximal coefficient
+     */
+    public long maxCoefficient() {
+        return this.maxCoefficient;
+    }
+
+    /**
+     * Returns the slack of this constraint, i.e. the right-hand side minus the sum of the coefficients of the
+     * satisfied literals.  A negative slack means that the constraint is violated.  Otherwise, each unassigned
+     * literal with a coefficient greater than the slack must be false.
+     * @return the slack
+     */
+    public long slack() {
+        return this.rhs - this.sumTrue;
+    }
+
+    /**
+     * Updates the sum of the satisfied literals when a literal of this constraint is assigned to true.
+     * @param coefficient the coefficient of the literal
+     */
+    public void assign(final long coefficient) {
+        this.sumTrue += coefficient;
+    }
+
+    /**
+     * Updates the sum of the satisfied literals when a satisfied literal of this constraint is unassigned.
+     * @param coefficient the coefficient of the literal
+     */
+    public void unassign(final long coefficient) {
+        this.sumTrue -= coefficient;
+    }
+
+    /**
+     * Returns the reason clause for the propagation of the negation of the literal at index {@code i} with the given
+     * literals.  The clause object is created on the first propagation of the literal and reused afterwards:  the
+     * literal can only be propagated again after it was unassigned, and then the previous reason is no longer used.
+     * @param i    the index
+     * @param lits the literals of the reason clause, the first one being the propagated literal
+     * @return the reason clause
+     */
+    public MSClause reason(final int i, final LNGIntVector lits) {
+        final MSClause reason = this.reasons[i];
+        if (reason == null) {
+            this.reasons[i] = new MSClause(lits, false);
+            return this.reasons[i];
+        }
+        reason.replaceLiterals(lits);
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MSPBConstraint{");
+        sb.append("rhs=").append(this.rhs).append(", ");
+        sb.append("sumTrue=").append(this.sumTrue).append(", ");
+        sb.append("lits=[");
+        for (int i = 0; i < this.lits.length; i++) {
+            final int lit = this.lits[i];
+            sb.append(this.coefficients[i]).append("*").append((lit & 1) == 1 ? "-" : "").append(lit >> 1);
+            if (i != this.lits.length - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+}
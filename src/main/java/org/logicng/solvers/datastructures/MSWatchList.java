@@ -0,0 +1,163 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.datastructures;
+
+/**
+ * A watch list of a literal for MiniSAT-style solvers.
+ * <p>
+ * Instead of a vector of watcher objects the watchers are stored as pairs of a clause
+ * and its blocking literal in two parallel arrays.  Adding a watcher does not
+ * allocate an object and the blocking literals, which are checked first during unit
+ * propagation, lie next to each other in a primitive array.  During propagation the
+ * list is compacted in place via {@link #set(int, MSClause, int)} and {@link #shrinkTo(int)}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class MSWatchList {
+
+    private MSClause[] clauses;
+    private int[] blockers;
+    private int size;
+
+    /**
+     * Constructs a new empty watch list.
+     */
+    public MSWatchList() {
+        this.clauses = new MSClause[4];
+        this.blockers = new int[4];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of watchers in this list.
+     * @return the number of watchers
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the watched clause of the watcher at index {@code i}.
+     * @param i the index
+     * @return the watched clause
+     */
+    public MSClause clause(final int i) {
+        return this.clauses[i];
+    }
+
+    /**
+     * Returns the blocking literal of the watcher at index {@code i}.
+     * @param i the index
+     * @return the blocking literal
+     */
+    public int blocker(final int i) {
+        return this.blockers[i];
+    }
+
+    /**
+     * Adds a watcher to the end of this list.
+     * @param clause  the watched clause
+     * @param blocker the blocking literal
+     */
+    public void push(final MSClause clause, final int blocker) {
+        if (this.size == this.clauses.length) {
+            final int newCapacity = this.size * 2;
+            final MSClause[] newClauses = new MSClause[newCapacity];
+            final int[] newBlockers = new int[newCapacity];
+            System.arraycopy(this.clauses, 0, newClauses, 0, this.size);
+            System.arraycopy(this.blockers, 0, newBlockers, 0, this.size);
+            this.clauses = newClauses;
+            this.blockers = newBlockers;
+        }
+        this.clauses[this.size] = clause;
+        this.blockers[this.size++] = blocker;
+    }
+
+    /**
+     * Sets the watcher at index {@code i}.
+     * @param i       the index
+     * @param clause  the watched clause
+     * @param blocker the blocking literal
+     */
+    public void set(final int i, final MSClause clause, final int blocker) {
+        this.clauses[i] = clause;
+        this.blockers[i] = blocker;
+    }
+
+    /**
+     * Copies the watcher at index {@code from} to index {@code to}.
+     * @param to   the target index
+     * @param from the source index
+     */
+    public void move(final int to, final int from) {
+        this.clauses[to] = this.clauses[from];
+        this.blockers[to] = this.blockers[from];
+    }
+
+    /**
+     * Shrinks this list to the given size.
+     * @param newSize the new size
+     */
+    public void shrinkTo(final int newSize) {
+        for (int i = newSize; i < this.size; i++) {
+            this.clauses[i] = null;
+        }
+        this.size = newSize;
+    }
+
+    /**
+     * Removes the first watcher of the given clause from this list.  The order of the remaining watchers is kept.
+     * @param clause the watched clause
+     * @return {@code true} if a watcher was removed, {@code false} if there was no watcher for the clause
+     */
+    public boolean remove(final MSClause clause) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.clauses[i] == clause) {
+                System.arraycopy(this.clauses, i + 1, this.clauses, i, this.size - (i + 1));
+                System.arraycopy(this.blockers, i + 1, this.blockers, i, this.size - (i + 1));
+                this.clauses[--this.size] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MSWatchList{");
+        for (int i = 0; i < this.size; i++) {
+            sb.append("(").append(this.clauses[i]).append(", ").append(this.blockers[i]).append(")");
+            if (i != this.size - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+}
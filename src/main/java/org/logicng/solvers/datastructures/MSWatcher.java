@@ -46,9 +46,12 @@ package org.logicng.solvers.datastructures;
 
 /**
  * A watcher for clauses for MiniSAT-style solvers.
- * @version 1.0.1
+ * @version 2.7.0
  * @since 1.0
+ * @deprecated the solvers store their watchers as pairs of a clause and a blocking literal in a {@link MSWatchList}
+ * and no longer use this class
  */
+@Deprecated
 public final class MSWatcher {
     private final MSClause clause;
     private final int blocker;
@@ -0,0 +1,118 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.datastructures;
+
+import org.logicng.collections.LNGIntVector;
+
+/**
+ * An XOR constraint {@code x_1 + ... + x_n = parity (mod 2)} over variables for MiniSAT-style solvers.
+ * <p>
+ * The constraint is watched by its first two variables.  As long as one of them is unassigned, the constraint can
+ * neither imply a variable nor be violated.  The solver swaps the variables of the constraint in order to keep
+ * unassigned variables on the first two positions.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class MSXorConstraint {
+
+    private final int[] vars;
+    private final boolean parity;
+
+    /**
+     * Constructs a new XOR constraint.
+     * @param vars   the variable indices, each variable may only occur once
+     * @param parity {@code true} if an odd number of the variables must be true, {@code false} if an even number of
+     *               the variables must be true
+     */
+    public MSXorConstraint(final LNGIntVector vars, final boolean parity) {
+        this.vars = vars.toArray();
+        this.parity = parity;
+    }
+
+    /**
+     * Constructs a copy of a given constraint.
+     * @param other the constraint
+     */
+    public MSXorConstraint(final MSXorConstraint other) {
+        this.vars = other.vars.clone();
+        this.parity = other.parity;
+    }
+
+    /**
+     * Returns the number of variables of this constraint.
+     * @return the number of variables
+     */
+    public int size() {
+        return this.vars.length;
+    }
+
+    /**
+     * Returns the variable at index {@code i}.
+     * @param i the index
+     * @return the variable index
+     */
+    public int get(final int i) {
+        return this.vars[i];
+    }
+
+    /**
+     * Swaps the variables at indices {@code i} and {@code j}.
+     * @param i the first index
+     * @param j the second index
+     */
+    public void swap(final int i, final int j) {
+        final int var = this.vars[i];
+        this.vars[i] = this.vars[j];
+        this.vars[j] = var;
+    }
+
+    /**
+     * Returns the parity of this constraint.
+     * @return {@code true} if an odd number of the variables must be true, {@code false} if an even number of the
+     * variables must be true
+     */
+    public boolean parity() {
+        return this.parity;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MSXorConstraint{");
+        sb.append("parity=").append(this.parity).append(", ");
+        sb.append("vars=[");
+        for (int i = 0; i < this.vars.length; i++) {
+            sb.append(this.vars[i]);
+            if (i != this.vars.length - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+}
@@ -41,7 +41,10 @@ import org.logicng.formulas.Variable;
 import org.logicng.solvers.MiniSat;
 import org.logicng.solvers.SATSolver;
 import org.logicng.solvers.datastructures.MSClause;
+import org.logicng.solvers.datastructures.MSPBConstraint;
 import org.logicng.solvers.datastructures.MSVariable;
+import org.logicng.solvers.datastructures.MSXorConstraint;
+import org.logicng.solvers.sat.GlucoseSyrup;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
@@ -66,7 +69,12 @@ import java.util.function.Consumer;
  * <p>
  * Also note that formulas are not added to the solver as soon as the
  * solver is known be unsatisfiable.
- * @version 2.0.0
+ * <p>
+ * Cardinality and pseudo-Boolean constraints which are propagated
+ * natively by a Glucose solver are returned as pseudo-Boolean
+ * constraints with comparator {@link CType#LE}.  XOR constraints are
+ * returned as chains of negated equivalences.
+ * @version 2.7.0
  * @since 2.0.0
  */
 public final class FormulaOnSolverFunction implements SolverFunction<Set<Formula>> {
@@ -109,6 +117,25 @@ public final class FormulaOnSolverFunction implements SolverFunction<Set<Formula
                 formulas.add(f.cc(CType.LE, rhs, vars));
             }
         }
+        if (solver.underlyingSolver() instanceof GlucoseSyrup) {
+            for (final MSPBConstraint constraint : ((GlucoseSyrup) solver.underlyingSolver()).pbConstraints()) {
+                final List<Literal> lits = new ArrayList<>();
+                final List<Integer> coefficients = new ArrayList<>();
+                for (int i = 0; i < constraint.size(); i++) {
+                    final int litInt = constraint.get(i);
+                    lits.add(f.literal(solver.underlyingSolver().nameForIdx(litInt >> 1), (litInt & 1) != 1));
+                    coefficients.add(Math.toIntExact(constraint.coefficient(i)));
+                }
+                formulas.add(f.pbc(CType.LE, Math.toIntExact(constraint.rhs()), lits, coefficients));
+            }
+        }
+        for (final MSXorConstraint constraint : solver.underlyingSolver().xors()) {
+            Formula xor = f.constant(!constraint.parity());
+            for (int i = 0; i < constraint.size(); i++) {
+                xor = f.not(f.equivalence(xor, f.variable(solver.underlyingSolver().nameForIdx(constraint.get(i)))));
+            }
+            formulas.add(xor);
+        }
         final LNGVector<MSVariable> variables = solver.underlyingSolver().variables();
         for (int i = 0; i < variables.size(); i++) {
             final MSVariable var = variables.get(i);
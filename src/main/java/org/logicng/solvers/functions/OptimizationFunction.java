@@ -63,7 +63,7 @@ import java.util.function.Consumer;
  * will be returned.
  * <p>
  * Optimization functions are instantiated via their builder {@link #builder()}.
- * @version 2.1.0
+ * @version 2.7.0
  * @since 2.0.0
  */
 public final class OptimizationFunction implements SolverFunction<Assignment> {
@@ -194,7 +194,7 @@ public final class OptimizationFunction implements SolverFunction<Assignment> {
     private Assignment mkResultModel(final MiniSat solver, final LNGBooleanVector internalModel) {
         final LNGIntVector relevantIndices = new LNGIntVector(this.resultModelVariables.size());
         for (final Variable var : this.resultModelVariables) {
-            relevantIndices.push(solver.underlyingSolver().idxForName(var.name()));
+            relevantIndices.push(solver.underlyingSolver().idxForVariable(var));
         }
         return solver.createAssignment(internalModel, relevantIndices);
     }
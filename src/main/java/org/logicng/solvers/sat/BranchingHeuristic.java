@@ -0,0 +1,173 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+/**
+ * A branching heuristic for MiniSAT-style solvers.
+ * <p>
+ * A branching heuristic assigns a score to each variable of a solver.  The solver keeps its unassigned decision
+ * variables in a heap ordered by these scores and branches on the variable with the highest score.  The heuristic is
+ * informed about the events of the search which it needs in order to update its scores:  new variables, assignments
+ * and unassignments of variables, variables involved in a conflict analysis, conflicts, and decisions.  Whenever the
+ * score of a variable changes, the heuristic must call {@link #scoreChanged(int)}, unless the variable was not yet
+ * reported to the heuristic.
+ * <p>
+ * A heuristic instance is attached to exactly one solver.  A solver uses the heuristic configured by
+ * {@link MiniSatConfig.Builder#branchingHeuristic(MiniSatConfig.BranchingHeuristicType)} and can be given a custom
+ * heuristic by {@link MiniSatStyleSolver#setBranchingHeuristic(BranchingHeuristic)}.  If the solver alternates between
+ * two heuristics, both heuristics are informed about all events, so the scores of the inactive heuristic are up to
+ * date when the solver switches to it.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public abstract class BranchingHeuristic {
+
+    protected MiniSatStyleSolver solver;
+
+    /**
+     * Returns a new branching heuristic of the given type.
+     * @param type the type of the heuristic
+     * @return the branching heuristic
+     */
+    public static BranchingHeuristic of(final MiniSatConfig.BranchingHeuristicType type) {
+        switch (type) {
+            case VSIDS:
+                return new VSIDSHeuristic();
+            case VMTF:
+                return new VMTFHeuristic();
+            case LRB:
+                return new LRBHeuristic();
+            case CHB:
+                return new CHBHeuristic();
+            default:
+                throw new IllegalArgumentException("Unknown branching heuristic type: " + type);
+        }
+    }
+
+    /**
+     * Attaches this heuristic to a given solver.
+     * @param solver the solver
+     * @throws IllegalStateException if this heuristic is already attached to another solver
+     */
+    final void attach(final MiniSatStyleSolver solver) {
+        if (this.solver != null && this.solver != solver) {
+            throw new IllegalStateException("A branching heuristic cannot be attached to more than one solver");
+        }
+        this.solver = solver;
+    }
+
+    /**
+     * Returns the score of a given variable.  The solver branches on the unassigned decision variable with the highest
+     * score.
+     * @param var the variable index
+     * @return the score of the variable
+     */
+    public abstract double score(int var);
+
+    /**
+     * Initializes the score of a new variable.  This method is also called for every variable of the solver when the
+     * heuristic is attached to a solver which already has variables.  A solver may reuse the index of a removed
+     * variable for a new variable.
+     * @param var the variable index
+     */
+    public abstract void newVar(int var);
+
+    /**
+     * Bumps a variable which is involved in the analysis of the current conflict.
+     * @param var the variable index
+     */
+    public abstract void bump(int var);
+
+    /**
+     * Is called after a conflict was analyzed and the solver backtracked.
+     */
+    public void conflict() {
+        // does nothing by default
+    }
+
+    /**
+     * Is called when a variable is assigned.
+     * @param var the variable index
+     */
+    public void assigned(final int var) {
+        // does nothing by default
+    }
+
+    /**
+     * Is called when a variable is unassigned during backtracking, before it is reinserted into the heap of the
+     * solver.
+     * @param var the variable index
+     */
+    public void unassigned(final int var) {
+        // does nothing by default
+    }
+
+    /**
+     * Is called before the solver picks the next decision variable.
+     */
+    public void beforeDecision() {
+        // does nothing by default
+    }
+
+    /**
+     * Returns an independent copy of this heuristic which is not attached to any solver.  This method is used when a
+     * solver is forked.
+     * @return the copy of this heuristic
+     */
+    public abstract BranchingHeuristic copy();
+
+    /**
+     * Returns whether this heuristic currently selects the decision variables of its solver.  If the solver alternates
+     * between two heuristics, the inactive heuristic receives all events, but the heap of the solver is ordered by the
+     * scores of the active heuristic.
+     * @return {@code true} if this heuristic is the active heuristic of its solver, {@code false} otherwise
+     */
+    protected final boolean isActive() {
+        return this.solver.branchingHeuristic == this;
+    }
+
+    /**
+     * Restores the position of a variable in the heap of the solver after its score has changed.  Does nothing if
+     * this heuristic is not active, since the heap is rebuilt when the solver switches the heuristic.
+     * @param var the variable index
+     */
+    protected final void scoreChanged(final int var) {
+        if (isActive() && this.solver.orderHeap.inHeap(var)) {
+            this.solver.orderHeap.update(var);
+        }
+    }
+
+    /**
+     * Returns the variable with the highest score in the heap of the solver.  The variable may be assigned.  The heap
+     * is only ordered by the scores of this heuristic if it is {@link #isActive() active}.
+     * @return the variable with the highest score or -1 if the heap is empty
+     */
+    protected final int topVariable() {
+        return this.solver.orderHeap.empty() ? -1 : this.solver.orderHeap.get(0);
+    }
+}
@@ -0,0 +1,136 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.logicng.collections.LNGDoubleVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
+
+/**
+ * The CHB branching heuristic (conflict history-based branching).
+ * <p>
+ * Each assigned variable receives a reward which is inversely proportional to the number of conflicts since the
+ * variable last took part in a conflict analysis.  The reward is multiplied by 1.0 if the propagation in which the
+ * variable was assigned led to a conflict and by 0.9 otherwise.  The score of a variable is the exponential moving
+ * average of its rewards.  The step size of the average decreases from 0.4 to 0.06 by 10^-6 per conflict.  The
+ * variables assigned since the last decision or conflict are rewarded before the next decision or after the next
+ * conflict.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class CHBHeuristic extends BranchingHeuristic {
+
+    private static final double STEP_SIZE_START = 0.4;
+    private static final double STEP_SIZE_MIN = 0.06;
+    private static final double STEP_SIZE_DEC = 1e-6;
+    private static final double CONFLICT_MULTIPLIER = 1.0;
+    private static final double NO_CONFLICT_MULTIPLIER = 0.9;
+
+    private final LNGDoubleVector scores;
+    private final LNGLongVector lastConflict;
+    private final LNGIntVector pending;
+    private long conflicts;
+    private double stepSize;
+
+    /**
+     * Constructs a new CHB heuristic.
+     */
+    public CHBHeuristic() {
+        this.scores = new LNGDoubleVector();
+        this.lastConflict = new LNGLongVector();
+        this.pending = new LNGIntVector();
+        this.conflicts = 0;
+        this.stepSize = STEP_SIZE_START;
+    }
+
+    private CHBHeuristic(final CHBHeuristic other) {
+        this.scores = new LNGDoubleVector(other.scores);
+        this.lastConflict = new LNGLongVector(other.lastConflict);
+        this.pending = new LNGIntVector(other.pending);
+        this.conflicts = other.conflicts;
+        this.stepSize = other.stepSize;
+    }
+
+    @Override
+    public double score(final int var) {
+        return this.scores.get(var);
+    }
+
+    @Override
+    public void newVar(final int var) {
+        this.scores.growTo(var + 1, 0);
+        this.lastConflict.growTo(var + 1, 0);
+        this.scores.set(var, 0);
+        this.lastConflict.set(var, 0);
+    }
+
+    @Override
+    public void bump(final int var) {
+        this.lastConflict.set(var, this.conflicts + 1);
+    }
+
+    @Override
+    public void conflict() {
+        this.conflicts++;
+        reward(CONFLICT_MULTIPLIER);
+        if (this.stepSize > STEP_SIZE_MIN) {
+            this.stepSize -= STEP_SIZE_DEC;
+        }
+    }
+
+    @Override
+    public void assigned(final int var) {
+        this.pending.push(var);
+    }
+
+    @Override
+    public void beforeDecision() {
+        reward(NO_CONFLICT_MULTIPLIER);
+    }
+
+    /**
+     * Rewards the variables assigned since the last reward.
+     * @param multiplier the multiplier of the reward
+     */
+    private void reward(final double multiplier) {
+        for (int i = 0; i < this.pending.size(); i++) {
+            final int var = this.pending.get(i);
+            if (var < this.scores.size()) {
+                final double reward = multiplier / (this.conflicts - this.lastConflict.get(var) + 1);
+                this.scores.set(var, (1 - this.stepSize) * this.scores.get(var) + this.stepSize * reward);
+                scoreChanged(var);
+            }
+        }
+        this.pending.clear();
+    }
+
+    @Override
+    public CHBHeuristic copy() {
+        return new CHBHeuristic(this);
+    }
+}
@@ -33,7 +33,7 @@ import org.logicng.configurations.ConfigurationType;
 
 /**
  * The configuration object for the Glucose SAT solver.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.0
  */
 public final class GlucoseConfig extends Configuration {
@@ -51,6 +51,16 @@ public final class GlucoseConfig extends Configuration {
     final boolean reduceOnSize;
     final int reduceOnSizeSize;
     final double maxVarDecay;
+    final boolean chronologicalBacktracking;
+    final int chronoBacktrackingDistance;
+    final int chronoBacktrackingConflicts;
+    final boolean nativeConstraints;
+    final boolean stableMode;
+    final int modeSwitchConflicts;
+    final double modeSwitchInc;
+    final int lubyRestartBase;
+    final boolean targetPhases;
+    final int rephaseInterval;
 
     /**
      * Constructs a new Glucose configuration from a given builder.
@@ -71,6 +81,16 @@ public final class GlucoseConfig extends Configuration {
         this.reduceOnSize = builder.reduceOnSize;
         this.reduceOnSizeSize = builder.reduceOnSizeSize;
         this.maxVarDecay = builder.maxVarDecay;
+        this.chronologicalBacktracking = builder.chronologicalBacktracking;
+        this.chronoBacktrackingDistance = builder.chronoBacktrackingDistance;
+        this.chronoBacktrackingConflicts = builder.chronoBacktrackingConflicts;
+        this.nativeConstraints = builder.nativeConstraints;
+        this.stableMode = builder.stableMode;
+        this.modeSwitchConflicts = builder.modeSwitchConflicts;
+        this.modeSwitchInc = builder.modeSwitchInc;
+        this.lubyRestartBase = builder.lubyRestartBase;
+        this.targetPhases = builder.targetPhases;
+        this.rephaseInterval = builder.rephaseInterval;
     }
 
     /**
@@ -133,6 +153,46 @@ public final class GlucoseConfig extends Configuration {
         return this.maxVarDecay;
     }
 
+    public boolean isChronologicalBacktracking() {
+        return this.chronologicalBacktracking;
+    }
+
+    public int getChronoBacktrackingDistance() {
+        return this.chronoBacktrackingDistance;
+    }
+
+    public int getChronoBacktrackingConflicts() {
+        return this.chronoBacktrackingConflicts;
+    }
+
+    public boolean isNativeConstraints() {
+        return this.nativeConstraints;
+    }
+
+    public boolean isStableMode() {
+        return this.stableMode;
+    }
+
+    public int getModeSwitchConflicts() {
+        return this.modeSwitchConflicts;
+    }
+
+    public double getModeSwitchInc() {
+        return this.modeSwitchInc;
+    }
+
+    public int getLubyRestartBase() {
+        return this.lubyRestartBase;
+    }
+
+    public boolean isTargetPhases() {
+        return this.targetPhases;
+    }
+
+    public int getRephaseInterval() {
+        return this.rephaseInterval;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("GlucoseConfig{").append(System.lineSeparator());
@@ -149,6 +209,16 @@ public final class GlucoseConfig extends Configuration {
         sb.append("reduceOnSize=").append(this.reduceOnSize).append(System.lineSeparator());
         sb.append("reduceOnSizeSize=").append(this.reduceOnSizeSize).append(System.lineSeparator());
         sb.append("maxVarDecay=").append(this.maxVarDecay).append(System.lineSeparator());
+        sb.append("chronologicalBacktracking=").append(this.chronologicalBacktracking).append(System.lineSeparator());
+        sb.append("chronoBacktrackingDistance=").append(this.chronoBacktrackingDistance).append(System.lineSeparator());
+        sb.append("chronoBacktrackingConflicts=").append(this.chronoBacktrackingConflicts).append(System.lineSeparator());
+        sb.append("nativeConstraints=").append(this.nativeConstraints).append(System.lineSeparator());
+        sb.append("stableMode=").append(this.stableMode).append(System.lineSeparator());
+        sb.append("modeSwitchConflicts=").append(this.modeSwitchConflicts).append(System.lineSeparator());
+        sb.append("modeSwitchInc=").append(this.modeSwitchInc).append(System.lineSeparator());
+        sb.append("lubyRestartBase=").append(this.lubyRestartBase).append(System.lineSeparator());
+        sb.append("targetPhases=").append(this.targetPhases).append(System.lineSeparator());
+        sb.append("rephaseInterval=").append(this.rephaseInterval).append(System.lineSeparator());
         sb.append("}");
         return sb.toString();
     }
@@ -170,6 +240,16 @@ public final class GlucoseConfig extends Configuration {
         private boolean reduceOnSize = false;
         private int reduceOnSizeSize = 12;
         private double maxVarDecay = 0.95;
+        private boolean chronologicalBacktracking = false;
+        private int chronoBacktrackingDistance = 100;
+        private int chronoBacktrackingConflicts = 4000;
+        private boolean nativeConstraints = false;
+        private boolean stableMode = false;
+        private int modeSwitchConflicts = 1000;
+        private double modeSwitchInc = 2.0;
+        private int lubyRestartBase = 512;
+        private boolean targetPhases = true;
+        private int rephaseInterval = 0;
 
         private Builder() {
             // Initialize only via factory
@@ -308,6 +388,128 @@ public final class GlucoseConfig extends Configuration {
             return this;
         }
 
+        /**
+         * Turns on chronological backtracking.  If a conflict would backjump over many decision levels, the solver
+         * only backtracks to the previous decision level instead and keeps the assignments of the levels in between
+         * on the trail.  Thus, they do not have to be propagated again after the conflict.  The default value is
+         * {@code false}.
+         * @param chronologicalBacktracking {@code true} if chronological backtracking is turned on, {@code false}
+         *                                  otherwise
+         * @return the builder
+         */
+        public Builder chronologicalBacktracking(final boolean chronologicalBacktracking) {
+            this.chronologicalBacktracking = chronologicalBacktracking;
+            return this;
+        }
+
+        /**
+         * Sets the minimal number of decision levels a conflict has to backjump over s.t. the solver backtracks
+         * chronologically instead to a given value.  The default value is 100.
+         * @param chronoBacktrackingDistance the value
+         * @return the builder
+         */
+        public Builder chronoBacktrackingDistance(final int chronoBacktrackingDistance) {
+            this.chronoBacktrackingDistance = chronoBacktrackingDistance;
+            return this;
+        }
+
+        /**
+         * Sets the number of conflicts before the solver starts to backtrack chronologically to a given value.  The
+         * default value is 4000.
+         * @param chronoBacktrackingConflicts the value
+         * @return the builder
+         */
+        public Builder chronoBacktrackingConflicts(final int chronoBacktrackingConflicts) {
+            this.chronoBacktrackingConflicts = chronoBacktrackingConflicts;
+            return this;
+        }
+
+        /**
+         * Turns on the native propagation of cardinality and pseudo-Boolean constraints.  Such constraints are not
+         * encoded to CNF, but propagated by counting the coefficients of their satisfied literals.  The explanations
+         * of the propagations and conflicts are created as clauses on demand.  Constraints added to a solver with
+         * proof generation are still encoded to CNF.  The default value is {@code false}.
+         * @param nativeConstraints {@code true} if the native propagation of cardinality and pseudo-Boolean
+         *                          constraints is turned on, {@code false} otherwise
+         * @return the builder
+         */
+        public Builder nativeConstraints(final boolean nativeConstraints) {
+            this.nativeConstraints = nativeConstraints;
+            return this;
+        }
+
+        /**
+         * Turns on the alternation of a focused and a stable search mode.  In the focused mode, the solver restarts
+         * based on the LBD of the learnt clauses like Glucose.  In the stable mode, it restarts rarely according to the
+         * Luby sequence and decides with the target phases.  The default value is {@code false}.
+         * @param stableMode {@code true} if the focused and the stable mode alternate, {@code false} if the solver
+         *                   always stays in the focused mode
+         * @return the builder
+         */
+        public Builder stableMode(final boolean stableMode) {
+            this.stableMode = stableMode;
+            return this;
+        }
+
+        /**
+         * Sets the number of conflicts of the first focused and the first stable mode to a given value.  The default
+         * value is 1000.
+         * @param modeSwitchConflicts the value
+         * @return the builder
+         */
+        public Builder modeSwitchConflicts(final int modeSwitchConflicts) {
+            this.modeSwitchConflicts = modeSwitchConflicts;
+            return this;
+        }
+
+        /**
+         * Sets the factor by which the number of conflicts of a mode grows after each stable mode to a given value.
+         * The default value is 2.0.
+         * @param modeSwitchInc the value (should be at least 1)
+         * @return the builder
+         */
+        public Builder modeSwitchInc(final double modeSwitchInc) {
+            this.modeSwitchInc = modeSwitchInc;
+            return this;
+        }
+
+        /**
+         * Sets the number of conflicts of a unit of the Luby sequence for the restarts in the stable mode to a given
+         * value.  The default value is 512.
+         * @param lubyRestartBase the value
+         * @return the builder
+         */
+        public Builder lubyRestartBase(final int lubyRestartBase) {
+            this.lubyRestartBase = lubyRestartBase;
+            return this;
+        }
+
+        /**
+         * Turns on the target phases in the stable mode.  The target phase of a variable is its value in the largest
+         * assignment without conflict since the last restart.  In the stable mode, the solver decides with the target
+         * phases instead of the saved phases.  The default value is {@code true}.
+         * @param targetPhases {@code true} if the target phases are used in the stable mode, {@code false} otherwise
+         * @return the builder
+         */
+        public Builder targetPhases(final boolean targetPhases) {
+            this.targetPhases = targetPhases;
+            return this;
+        }
+
+        /**
+         * Sets the number of conflicts between the first two rephasings to a given value.  The interval grows by this
+         * value after each rephasing.  A rephasing resets the saved phases alternately to the original phases, to the
+         * best phases, to the inverted original phases, and to the best phases again.  The best phase of a variable
+         * is its value in the largest assignment without conflict since the last rephasing.  A value of 0 or less
+         * disables the rephasing.  The default value is 0.
+         * @param rephaseInterval the value
+         * @return the builder
+         */
+        public Builder rephaseInterval(final int rephaseInterval) {
+            this.rephaseInterval = rephaseInterval;
+            return this;
+        }
+
         /**
          * Builds the Glucose configuration.
          * @return the configuration
@@ -82,6 +82,7 @@ import static org.logicng.handlers.SATHandler.finishSolving;
 
 import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
 import org.logicng.collections.LNGVector;
 import org.logicng.datastructures.Tristate;
 import org.logicng.handlers.SATHandler;
@@ -89,12 +90,18 @@ import org.logicng.propositions.Proposition;
 import org.logicng.solvers.datastructures.LNGBoundedIntQueue;
 import org.logicng.solvers.datastructures.LNGBoundedLongQueue;
 import org.logicng.solvers.datastructures.MSClause;
+import org.logicng.solvers.datastructures.MSClauseStore;
+import org.logicng.solvers.datastructures.MSPBConstraint;
 import org.logicng.solvers.datastructures.MSVariable;
-import org.logicng.solvers.datastructures.MSWatcher;
+import org.logicng.solvers.datastructures.MSWatchList;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Glucose 4.0 solver.
- * @version 2.1.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class GlucoseSyrup extends MiniSatStyleSolver {
@@ -113,7 +120,7 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
     protected final GlucoseConfig glucoseConfig;
 
     // internal solver state
-    protected LNGVector<LNGVector<MSWatcher>> watchesBin;
+    protected LNGVector<MSWatchList> watchesBin;
     protected LNGIntVector permDiff;
     protected LNGIntVector lastDecisionLevel;
     protected LNGBoundedLongQueue lbdQueue;
@@ -127,6 +134,25 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
     protected int conflictsRestarts;
     protected double sumLBD;
     protected int curRestart;
+    protected LNGIntVector keptLiterals;
+    protected boolean conflictLevelUnique;
+    protected LNGVector<MSPBConstraint> pbConstraints;
+    protected LNGVector<LNGVector<MSPBConstraint>> pbWatches;
+    protected LNGVector<LNGLongVector> pbWatchCoefficients;
+    protected LNGIntVector pbExplanation;
+    protected LNGIntVector pbReason;
+    protected boolean stable;
+    protected int modeConflicts;
+    protected double modeLength;
+    protected boolean modeSwitchPending;
+    protected int stableRestarts;
+    protected LNGBooleanVector originalPhases;
+    protected LNGBooleanVector targetPhases;
+    protected LNGBooleanVector bestPhases;
+    protected int targetAssigned;
+    protected int bestAssigned;
+    protected int rephaseCount;
+    protected long nextRephase;
 
     // solver configuration
     protected int lbLBDMinimizingClause;
@@ -142,6 +168,16 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
     protected boolean reduceOnSize;
     protected int reduceOnSizeSize;
     protected double maxVarDecay;
+    protected boolean chronologicalBacktracking;
+    protected int chronoBacktrackingDistance;
+    protected int chronoBacktrackingConflicts;
+    protected boolean nativeConstraints;
+    protected boolean stableMode;
+    protected int modeSwitchConflicts;
+    protected double modeSwitchInc;
+    protected int lubyRestartBase;
+    protected boolean useTargetPhases;
+    protected int rephaseInterval;
 
     /**
      * Constructs a new Glucose 2 solver with the default values for solver configuration.  By default, incremental mode
@@ -162,6 +198,90 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         this.initializeGlucose();
     }
 
+    /**
+     * Constructs a fork of a given Glucose solver.
+     * @param other        the solver
+     * @param clauseCopies the mapping from the clauses of the given solver to their copies
+     */
+    protected GlucoseSyrup(final GlucoseSyrup other, final Map<MSClause, MSClause> clauseCopies) {
+        super(other, clauseCopies);
+        this.glucoseConfig = other.glucoseConfig;
+        this.watchesBin = forkWatches(other.watchesBin, clauseCopies);
+        this.permDiff = new LNGIntVector(other.permDiff);
+        this.lastDecisionLevel = new LNGIntVector(other.lastDecisionLevel);
+        this.lbdQueue = new LNGBoundedLongQueue(new LNGLongVector(other.lbdQueue.getElems()), other.lbdQueue.getFirst(),
+                other.lbdQueue.getLast(), other.lbdQueue.getSumOfQueue(), other.lbdQueue.getMaxSize(), other.lbdQueue.getQueueSize());
+        this.trailQueue = new LNGBoundedIntQueue(new LNGIntVector(other.trailQueue.getElems()), other.trailQueue.getFirst(),
+                other.trailQueue.getLast(), other.trailQueue.getSumOfQueue(), other.trailQueue.getMaxSize(), other.trailQueue.getQueueSize());
+        this.assump = new LNGBooleanVector(other.assump);
+        this.myflag = other.myflag;
+        this.analyzeLBD = other.analyzeLBD;
+        this.analyzeSzWithoutSelectors = other.analyzeSzWithoutSelectors;
+        this.nbclausesbeforereduce = other.nbclausesbeforereduce;
+        this.conflicts = other.conflicts;
+        this.conflictsRestarts = other.conflictsRestarts;
+        this.sumLBD = other.sumLBD;
+        this.curRestart = other.curRestart;
+        this.keptLiterals = new LNGIntVector();
+        this.conflictLevelUnique = other.conflictLevelUnique;
+        this.lbLBDMinimizingClause = other.lbLBDMinimizingClause;
+        this.lbLBDFrozenClause = other.lbLBDFrozenClause;
+        this.lbSizeMinimizingClause = other.lbSizeMinimizingClause;
+        this.firstReduceDB = other.firstReduceDB;
+        this.specialIncReduceDB = other.specialIncReduceDB;
+        this.incReduceDB = other.incReduceDB;
+        this.factorK = other.factorK;
+        this.factorR = other.factorR;
+        this.sizeLBDQueue = other.sizeLBDQueue;
+        this.sizeTrailQueue = other.sizeTrailQueue;
+        this.reduceOnSize = other.reduceOnSize;
+        this.reduceOnSizeSize = other.reduceOnSizeSize;
+        this.maxVarDecay = other.maxVarDecay;
+        this.chronologicalBacktracking = other.chronologicalBacktracking;
+        this.chronoBacktrackingDistance = other.chronoBacktrackingDistance;
+        this.chronoBacktrackingConflicts = other.chronoBacktrackingConflicts;
+        this.nativeConstraints = other.nativeConstraints;
+        this.stableMode = other.stableMode;
+        this.modeSwitchConflicts = other.modeSwitchConflicts;
+        this.modeSwitchInc = other.modeSwitchInc;
+        this.lubyRestartBase = other.lubyRestartBase;
+        this.useTargetPhases = other.useTargetPhases;
+        this.rephaseInterval = other.rephaseInterval;
+        this.stable = other.stable;
+        this.modeConflicts = other.modeConflicts;
+        this.modeLength = other.modeLength;
+        this.modeSwitchPending = other.modeSwitchPending;
+        this.stableRestarts = other.stableRestarts;
+        this.originalPhases = new LNGBooleanVector(other.originalPhases);
+        this.targetPhases = new LNGBooleanVector(other.targetPhases);
+        this.bestPhases = new LNGBooleanVector(other.bestPhases);
+        this.targetAssigned = other.targetAssigned;
+        this.bestAssigned = other.bestAssigned;
+        this.rephaseCount = other.rephaseCount;
+        this.nextRephase = other.nextRephase;
+        final Map<MSPBConstraint, MSPBConstraint> pbCopies = new IdentityHashMap<>();
+        this.pbConstraints = new LNGVector<>(other.pbConstraints.size());
+        for (final MSPBConstraint c : other.pbConstraints) {
+            final MSPBConstraint copy = new MSPBConstraint(c);
+            pbCopies.put(c, copy);
+            this.pbConstraints.push(copy);
+        }
+        this.pbWatches = new LNGVector<>(other.pbWatches.size());
+        for (final LNGVector<MSPBConstraint> ws : other.pbWatches) {
+            final LNGVector<MSPBConstraint> copy = new LNGVector<>(ws.size());
+            for (final MSPBConstraint c : ws) {
+                copy.push(pbCopies.get(c));
+            }
+            this.pbWatches.push(copy);
+        }
+        this.pbWatchCoefficients = new LNGVector<>(other.pbWatchCoefficients.size());
+        for (final LNGLongVector coefficients : other.pbWatchCoefficients) {
+            this.pbWatchCoefficients.push(new LNGLongVector(coefficients));
+        }
+        this.pbExplanation = new LNGIntVector();
+        this.pbReason = new LNGIntVector();
+    }
+
     /**
      * Initializes the additional parameters.
      */
@@ -184,6 +304,25 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         this.conflictsRestarts = 0;
         this.sumLBD = 0;
         this.curRestart = 1;
+        this.keptLiterals = new LNGIntVector();
+        this.conflictLevelUnique = false;
+        this.pbConstraints = new LNGVector<>();
+        this.pbWatches = new LNGVector<>();
+        this.pbWatchCoefficients = new LNGVector<>();
+        this.pbExplanation = new LNGIntVector();
+        this.pbReason = new LNGIntVector();
+        this.stable = false;
+        this.modeConflicts = 0;
+        this.modeLength = this.modeSwitchConflicts;
+        this.modeSwitchPending = false;
+        this.stableRestarts = 0;
+        this.originalPhases = new LNGBooleanVector();
+        this.targetPhases = new LNGBooleanVector();
+        this.bestPhases = new LNGBooleanVector();
+        this.targetAssigned = 0;
+        this.bestAssigned = 0;
+        this.rephaseCount = 0;
+        this.nextRephase = this.rephaseInterval;
     }
 
     /**
@@ -203,28 +342,60 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         this.reduceOnSize = this.glucoseConfig.reduceOnSize;
         this.reduceOnSizeSize = this.glucoseConfig.reduceOnSizeSize;
         this.maxVarDecay = this.glucoseConfig.maxVarDecay;
+        this.chronologicalBacktracking = this.glucoseConfig.chronologicalBacktracking;
+        this.chronoBacktrackingDistance = this.glucoseConfig.chronoBacktrackingDistance;
+        this.chronoBacktrackingConflicts = this.glucoseConfig.chronoBacktrackingConflicts;
+        this.nativeConstraints = this.glucoseConfig.nativeConstraints && !this.config.proofGeneration;
+        this.stableMode = this.glucoseConfig.stableMode;
+        this.modeSwitchConflicts = Math.max(1, this.glucoseConfig.modeSwitchConflicts);
+        this.modeSwitchInc = Math.max(1.0, this.glucoseConfig.modeSwitchInc);
+        this.lubyRestartBase = Math.max(1, this.glucoseConfig.lubyRestartBase);
+        this.useTargetPhases = this.glucoseConfig.targetPhases;
+        this.rephaseInterval = this.glucoseConfig.rephaseInterval;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UnsupportedOperationException if this solver is an instance of a subclass which does not support forking
+     */
+    @Override
+    public GlucoseSyrup fork() {
+        if (this.getClass() != GlucoseSyrup.class) {
+            return (GlucoseSyrup) super.fork();
+        }
+        return new GlucoseSyrup(this, new IdentityHashMap<>());
     }
 
     @Override
     public int newVar(final boolean sign, final boolean dvar) {
         final int v = nVars();
         final MSVariable newVar = new MSVariable(sign);
-        this.watches.push(new LNGVector<>());
-        this.watches.push(new LNGVector<>());
-        this.watchesBin.push(new LNGVector<>());
-        this.watchesBin.push(new LNGVector<>());
+        this.watches.push(new MSWatchList());
+        this.watches.push(new MSWatchList());
+        this.watchesBin.push(new MSWatchList());
+        this.watchesBin.push(new MSWatchList());
         this.vars.push(newVar);
         this.seen.push(false);
         this.permDiff.push(0);
         this.assump.push(false);
+        this.originalPhases.push(sign);
+        this.targetPhases.push(sign);
+        this.bestPhases.push(sign);
+        if (this.nativeConstraints) {
+            this.pbWatches.push(new LNGVector<>());
+            this.pbWatches.push(new LNGVector<>());
+            this.pbWatchCoefficients.push(new LNGLongVector());
+            this.pbWatchCoefficients.push(new LNGLongVector());
+        }
         newVar.setDecision(dvar);
+        initializeBranchingScores(v);
         insertVarOrder(v);
         return v;
     }
 
     @Override
     public boolean addClause(final LNGIntVector ps, final Proposition proposition) {
-        assert decisionLevel() == 0;
+        releaseTrail();
         int p;
         int i;
         int j;
@@ -292,13 +463,119 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
             }
             return this.ok;
         } else {
-            final MSClause c = new MSClause(ps, false);
+            final MSClause c = new MSClause(ps, false, this.clauseArena);
             this.clauses.push(c);
             attachClause(c);
         }
         return true;
     }
 
+    /**
+     * Adds a pseudo-Boolean constraint {@code c_1 * l_1 + ... + c_n * l_n <= rhs} which is propagated natively.  The
+     * coefficients may be negative and a variable may occur more than once.  A cardinality constraint is added with
+     * all coefficients set to 1.
+     * @param ps           the literals of the constraint
+     * @param coefficients the coefficients of the literals
+     * @param rhs          the right-hand side of the constraint
+     * @return {@code false} if the constraint is unsatisfiable together with the unit clauses of the solver,
+     * {@code true} otherwise
+     * @throws IllegalStateException if the native propagation of constraints is not turned on
+     */
+    public boolean addPBConstraint(final LNGIntVector ps, final LNGLongVector coefficients, final long rhs) {
+        if (!this.nativeConstraints) {
+            throw new IllegalStateException("The native propagation of cardinality and pseudo-Boolean constraints is not turned on");
+        }
+        releaseTrail();
+        if (!this.ok) {
+            return false;
+        }
+        long degree = rhs;
+        final Map<Integer, Long> varCoefficients = new LinkedHashMap<>();
+        for (int i = 0; i < ps.size(); i++) {
+            final int lit = ps.get(i);
+            final long coefficient = coefficients.get(i);
+            if (sign(lit)) {
+                degree -= coefficient;
+                varCoefficients.merge(var(lit), -coefficient, Long::sum);
+            } else {
+                varCoefficients.merge(var(lit), coefficient, Long::sum);
+            }
+        }
+        final LNGIntVector lits = new LNGIntVector(varCoefficients.size());
+        final LNGLongVector coeffs = new LNGLongVector(varCoefficients.size());
+        for (final Map.Entry<Integer, Long> entry : varCoefficients.entrySet()) {
+            final long coefficient = entry.getValue();
+            final int lit = coefficient > 0 ? mkLit(entry.getKey(), false) : mkLit(entry.getKey(), true);
+            if (coefficient < 0) {
+                degree -= coefficient;
+            }
+            if (coefficient == 0 || value(lit) == Tristate.FALSE) {
+                continue;
+            }
+            if (value(lit) == Tristate.TRUE) {
+                degree -= Math.abs(coefficient);
+            } else {
+                lits.push(lit);
+                coeffs.push(Math.abs(coefficient));
+            }
+        }
+        if (degree < 0) {
+            this.ok = false;
+            return false;
+        }
+        final LNGIntVector constraintLits = new LNGIntVector(lits.size());
+        final LNGLongVector constraintCoeffs = new LNGLongVector(lits.size());
+        long sum = 0;
+        boolean units = false;
+        for (int i = 0; i < lits.size(); i++) {
+            if (coeffs.get(i) > degree) {
+                uncheckedEnqueue(not(lits.get(i)), null);
+                units = true;
+            } else {
+                constraintLits.push(lits.get(i));
+                constraintCoeffs.push(coeffs.get(i));
+                sum += coeffs.get(i);
+            }
+        }
+        if (sum > degree) {
+            final MSPBConstraint c = new MSPBConstraint(constraintLits, constraintCoeffs, degree);
+            this.pbConstraints.push(c);
+            for (int i = 0; i < c.size(); i++) {
+                this.pbWatches.get(c.get(i)).push(c);
+                this.pbWatchCoefficients.get(c.get(i)).push(c.coefficient(i));
+            }
+        }
+        if (units) {
+            this.ok = propagate() == null;
+        }
+        return this.ok;
+    }
+
+    /**
+     * Returns whether cardinality and pseudo-Boolean constraints are propagated natively by this solver.
+     * @return {@code true} if constraints can be added via {@link #addPBConstraint(LNGIntVector, LNGLongVector, long)},
+     * {@code false} otherwise
+     */
+    public boolean nativeConstraints() {
+        return this.nativeConstraints;
+    }
+
+    /**
+     * Returns the natively propagated pseudo-Boolean constraints of this solver.
+     * @return the pseudo-Boolean constraints
+     */
+    public LNGVector<MSPBConstraint> pbConstraints() {
+        return this.pbConstraints;
+    }
+
+    @Override
+    public MSClauseStore clauseStore() {
+        if (!this.pbConstraints.empty()) {
+            throw new UnsupportedOperationException("A clause store cannot hold pseudo-Boolean constraints.");
+        }
+        return super.clauseStore();
+    }
+
     @Override
     public Tristate solve(final SATHandler handler) {
         if (this.config.incremental && this.config.proofGeneration) {
@@ -306,6 +583,7 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         }
         this.handler = handler;
         start(handler);
+        reuseTrail();
         this.model.clear();
         this.conflict.clear();
         if (!this.ok) {
@@ -316,8 +594,11 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         }
 
         Tristate status = Tristate.UNDEF;
+        int currRestarts = 0;
         while (status == Tristate.UNDEF && !this.canceledByHandler) {
-            status = search();
+            localSearchPhase(currRestarts);
+            status = importSharedClauses() ? search() : Tristate.FALSE;
+            currRestarts++;
         }
 
         if (this.config.proofGeneration && this.assumptions.empty()) {
@@ -335,7 +616,7 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
             this.ok = false;
         }
         finishSolving(handler);
-        cancelUntil(0);
+        retainTrail(status);
         this.handler = null;
         this.canceledByHandler = false;
         for (int i = 0; i < this.assumptions.size(); i++) {
@@ -362,23 +643,85 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
 
     @Override
     protected void uncheckedEnqueue(final int lit, final MSClause reason) {
+        uncheckedEnqueue(lit, reason, decisionLevel());
+    }
+
+    /**
+     * Assigns a literal on a given decision level.  With chronological backtracking, an implied literal is assigned on
+     * the highest level of the other literals of its reason, which can be lower than the current decision level.
+     * @param lit    the literal
+     * @param reason the reason clause of the literal
+     * @param level  the decision level of the literal
+     */
+    protected void uncheckedEnqueue(final int lit, final MSClause reason, final int level) {
         assert value(lit) == Tristate.UNDEF;
         final MSVariable var = v(lit);
         var.assign(Tristate.fromBool(!sign(lit)));
         var.setReason(reason);
-        var.setLevel(decisionLevel());
+        var.setLevel(level);
         this.trail.push(lit);
+        varAssigned(var(lit));
+        if (this.nativeConstraints) {
+            final LNGVector<MSPBConstraint> pbs = this.pbWatches.get(lit);
+            final LNGLongVector coefficients = this.pbWatchCoefficients.get(lit);
+            for (int i = 0; i < pbs.size(); i++) {
+                pbs.get(i).assign(coefficients.get(i));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * With chronological backtracking, the trail is not ordered by decision levels.  Therefore, the assignments on
+     * levels up to the given level are kept on the trail and are propagated again.
+     */
+    @Override
+    protected void cancelUntil(final int level) {
+        if (!this.chronologicalBacktracking) {
+            if (this.nativeConstraints && decisionLevel() > level) {
+                for (int c = this.trail.size() - 1; c >= this.trailLim.get(level); c--) {
+                    unassignPBConstraints(this.trail.get(c));
+                }
+            }
+            super.cancelUntil(level);
+            return;
+        }
+        if (decisionLevel() > level) {
+            this.keptLiterals.clear();
+            for (int c = this.trail.size() - 1; c >= this.trailLim.get(level); c--) {
+                final int lit = this.trail.get(c);
+                final MSVariable v = v(lit);
+                if (v.level() <= level) {
+                    this.keptLiterals.push(lit);
+                } else {
+                    v.assign(Tristate.UNDEF);
+                    v.setPolarity(!this.computingBackbone && sign(lit));
+                    varUnassigned(var(lit));
+                    insertVarOrder(var(lit));
+                    if (this.nativeConstraints) {
+                        unassignPBConstraints(lit);
+                    }
+                }
+            }
+            this.qhead = this.trailLim.get(level);
+            this.trail.removeElements(this.trail.size() - this.trailLim.get(level));
+            this.trailLim.removeElements(this.trailLim.size() - level);
+            for (int i = this.keptLiterals.size() - 1; i >= 0; i--) {
+                this.trail.push(this.keptLiterals.get(i));
+            }
+        }
     }
 
     @Override
     protected void attachClause(final MSClause c) {
         assert c.size() > 1;
         if (c.size() == 2) {
-            this.watchesBin.get(not(c.get(0))).push(new MSWatcher(c, c.get(1)));
-            this.watchesBin.get(not(c.get(1))).push(new MSWatcher(c, c.get(0)));
+            this.watchesBin.get(not(c.get(0))).push(c, c.get(1));
+            this.watchesBin.get(not(c.get(1))).push(c, c.get(0));
         } else {
-            this.watches.get(not(c.get(0))).push(new MSWatcher(c, c.get(1)));
-            this.watches.get(not(c.get(1))).push(new MSWatcher(c, c.get(0)));
+            this.watches.get(not(c.get(0))).push(c, c.get(1));
+            this.watches.get(not(c.get(1))).push(c, c.get(0));
         }
         if (c.learnt()) {
             this.learntsLiterals += c.size();
@@ -391,11 +734,11 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
     protected void detachClause(final MSClause c) {
         assert c.size() > 1;
         if (c.size() == 2) {
-            this.watchesBin.get(not(c.get(0))).remove(new MSWatcher(c, c.get(1)));
-            this.watchesBin.get(not(c.get(1))).remove(new MSWatcher(c, c.get(0)));
+            this.watchesBin.get(not(c.get(0))).remove(c);
+            this.watchesBin.get(not(c.get(1))).remove(c);
         } else {
-            this.watches.get(not(c.get(0))).remove(new MSWatcher(c, c.get(1)));
-            this.watches.get(not(c.get(1))).remove(new MSWatcher(c, c.get(0)));
+            this.watches.get(not(c.get(0))).remove(c);
+            this.watches.get(not(c.get(1))).remove(c);
         }
         if (c.learnt()) {
             this.learntsLiterals -= c.size();
@@ -423,33 +766,33 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
 
     @Override
     protected MSClause propagate() {
-        MSClause confl = null;
+        MSClause confl = this.qhead == this.trail.size() ? eliminateXors() : null;
         int numProps = 0;
         while (this.qhead < this.trail.size()) {
             final int p = this.trail.get(this.qhead++);
-            final LNGVector<MSWatcher> ws = this.watches.get(p);
+            final int pLevel = this.chronologicalBacktracking ? v(p).level() : decisionLevel();
+            final MSWatchList ws = this.watches.get(p);
             int iInd = 0;
             int jInd = 0;
             numProps++;
-            final LNGVector<MSWatcher> wbin = this.watchesBin.get(p);
+            final MSWatchList wbin = this.watchesBin.get(p);
             for (int k = 0; k < wbin.size(); k++) {
-                final int imp = wbin.get(k).blocker();
+                final int imp = wbin.blocker(k);
                 if (value(imp) == Tristate.FALSE) {
-                    return wbin.get(k).clause();
+                    return wbin.clause(k);
                 }
                 if (value(imp) == Tristate.UNDEF) {
-                    uncheckedEnqueue(imp, wbin.get(k).clause());
+                    uncheckedEnqueue(imp, wbin.clause(k), pLevel);
                 }
             }
             while (iInd < ws.size()) {
-                final MSWatcher i = ws.get(iInd);
-                final int blocker = i.blocker();
+                final int blocker = ws.blocker(iInd);
                 if (value(blocker) == Tristate.TRUE) {
-                    ws.set(jInd++, i);
+                    ws.move(jInd++, iInd);
                     iInd++;
                     continue;
                 }
-                final MSClause c = i.clause();
+                final MSClause c = ws.clause(iInd);
                 assert !c.oneWatched();
                 final int falseLit = not(p);
                 if (c.get(0) == falseLit) {
@@ -459,9 +802,8 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                 assert c.get(1) == falseLit;
                 iInd++;
                 final int first = c.get(0);
-                final MSWatcher w = new MSWatcher(c, first);
                 if (first != blocker && value(first) == Tristate.TRUE) {
-                    ws.set(jInd++, w);
+                    ws.set(jInd++, c, first);
                     continue;
                 }
                 boolean foundWatch = false;
@@ -483,7 +825,7 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                     if (choosenPos != -1) {
                         c.set(1, c.get(choosenPos));
                         c.set(choosenPos, falseLit);
-                        this.watches.get(not(c.get(1))).push(w);
+                        this.watches.get(not(c.get(1))).push(c, first);
                         foundWatch = true;
                     }
                 } else {
@@ -491,30 +833,169 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                         if (value(c.get(k)) != Tristate.FALSE) {
                             c.set(1, c.get(k));
                             c.set(k, falseLit);
-                            this.watches.get(not(c.get(1))).push(w);
+                            this.watches.get(not(c.get(1))).push(c, first);
                             foundWatch = true;
                         }
                     }
                 }
                 if (!foundWatch) {
-                    ws.set(jInd++, w);
+                    ws.set(jInd++, c, first);
                     if (value(first) == Tristate.FALSE) {
                         confl = c;
                         this.qhead = this.trail.size();
                         while (iInd < ws.size()) {
-                            ws.set(jInd++, ws.get(iInd++));
+                            ws.move(jInd++, iInd++);
                         }
-                    } else {
+                    } else if (pLevel == decisionLevel()) {
                         uncheckedEnqueue(first, c);
+                    } else {
+                        int maxLevel = pLevel;
+                        int maxInd = 1;
+                        for (int k = 2; k < c.size(); k++) {
+                            final int level = v(c.get(k)).level();
+                            if (level > maxLevel) {
+                                maxLevel = level;
+                                maxInd = k;
+                            }
+                        }
+                        if (maxInd != 1) {
+                            c.set(1, c.get(maxInd));
+                            c.set(maxInd, falseLit);
+                            jInd--;
+                            this.watches.get(not(c.get(1))).push(c, first);
+                        }
+                        uncheckedEnqueue(first, c, maxLevel);
                     }
                 }
             }
-            ws.removeElements(iInd - jInd);
+            ws.shrinkTo(jInd);
+            if (confl == null && this.nativeConstraints) {
+                confl = propagatePBConstraints(p);
+                if (confl != null) {
+                    this.qhead = this.trail.size();
+                }
+            }
+            if (confl == null) {
+                confl = propagateXors(p);
+            }
         }
         this.simpDBProps -= numProps;
         return confl;
     }
 
+    /**
+     * Updates the pseudo-Boolean constraints when a literal is unassigned.
+     * @param lit the literal
+     */
+    protected void unassignPBConstraints(final int lit) {
+        final LNGVector<MSPBConstraint> pbs = this.pbWatches.get(lit);
+        final LNGLongVector coefficients = this.pbWatchCoefficients.get(lit);
+        for (int i = 0; i < pbs.size(); i++) {
+            pbs.get(i).unassign(coefficients.get(i));
+        }
+    }
+
+    /**
+     * Propagates the pseudo-Boolean constraints of a literal which became true.  If the slack of a constraint is
+     * smaller than the coefficient of one of its unassigned literals, the literal is assigned to false.  The reason
+     * of such an assignment is a clause created from the literal and the satisfied literals of the constraint.  The
+     * clause object is reused for later propagations of the same literal by the same constraint.
+     * @param p the literal
+     * @return the conflict clause created from the satisfied literals of a violated constraint or {@code null} if
+     * there is no conflict
+     */
+    protected MSClause propagatePBConstraints(final int p) {
+        final LNGVector<MSPBConstraint> pbs = this.pbWatches.get(p);
+        for (int i = 0; i < pbs.size(); i++) {
+            final MSPBConstraint c = pbs.get(i);
+            final long slack = c.slack();
+            if (slack >= c.maxCoefficient()) {
+                continue;
+            }
+            this.pbExplanation.clear();
+            for (int j = 0; j < c.size(); j++) {
+                if (value(c.get(j)) == Tristate.TRUE) {
+                    this.pbExplanation.push(j);
+                }
+            }
+            if (slack < 0) {
+                return explainPB(c, -1, c.rhs());
+            }
+            for (int j = 0; j < c.size(); j++) {
+                final int lit = c.get(j);
+                if (c.coefficient(j) > slack && value(lit) == Tristate.UNDEF) {
+                    enqueueExplained(not(lit), explainPB(c, j, c.rhs() - c.coefficient(j)));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a clause which explains a propagation or a conflict of a pseudo-Boolean constraint.  The clause
+     * contains the negations of satisfied literals of the constraint whose coefficients sum up to more than the given
+     * bound.  The satisfied literals are taken from {@link #pbExplanation}.
+     * @param c       the constraint
+     * @param implied the index of the literal whose negation is implied and is the first literal of the clause or
+     *                {@code -1} for a conflict
+     * @param bound   the bound
+     * @return the clause
+     */
+    protected MSClause explainPB(final MSPBConstraint c, final int implied, final long bound) {
+        this.pbReason.clear();
+        if (implied >= 0) {
+            this.pbReason.push(not(c.get(implied)));
+        }
+        long sum = 0;
+        for (int k = 0; k < this.pbExplanation.size() && sum <= bound; k++) {
+            final int j = this.pbExplanation.get(k);
+            this.pbReason.push(not(c.get(j)));
+            sum += c.coefficient(j);
+        }
+        return implied < 0 ? conflictExplanation(this.pbReason) : c.reason(implied, this.pbReason);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * With chronological backtracking, the literal is assigned on the highest level of the other literals of the
+     * reason.
+     */
+    @Override
+    protected void enqueueExplained(final int lit, final MSClause reason) {
+        if (!this.chronologicalBacktracking) {
+            uncheckedEnqueue(lit, reason);
+            return;
+        }
+        int level = 0;
+        for (int k = 1; k < reason.size(); k++) {
+            level = Math.max(level, v(reason.get(k)).level());
+        }
+        uncheckedEnqueue(lit, reason, level);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * With chronological backtracking, the literal with the highest level is moved to the front of the clause such
+     * that the conflict level can be determined without changing watches.
+     */
+    @Override
+    protected MSClause conflictExplanation(final LNGIntVector lits) {
+        if (this.chronologicalBacktracking) {
+            int max = 0;
+            for (int k = 1; k < lits.size(); k++) {
+                if (v(lits.get(k)).level() > v(lits.get(max)).level()) {
+                    max = k;
+                }
+            }
+            final int lit = lits.get(max);
+            lits.set(max, lits.get(0));
+            lits.set(0, lit);
+        }
+        return new MSClause(lits, false);
+    }
+
     @Override
     protected boolean litRedundant(final int p, final int abstractLevels, final LNGIntVector analyzeToClear) {
         final LNGIntVector analyzeStack = new LNGIntVector();
@@ -606,6 +1087,8 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
             }
         }
         this.learnts.removeElements(i - j);
+        checkGarbage();
+        this.vivificationPending = this.vivification;
     }
 
     @Override
@@ -647,6 +1130,9 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                 return this.ok = false;
             }
         }
+        if (this.vivificationPending && !vivifyLearnts()) {
+            return false;
+        }
         if (nAssigns() == this.simpDBAssigns || (this.simpDBProps > 0)) {
             return true;
         }
@@ -654,6 +1140,7 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         if (this.shouldRemoveSatsisfied) {
             removeSatisfied(this.clauses);
         }
+        checkGarbage();
         rebuildOrderHeap();
         this.simpDBAssigns = nAssigns();
         this.simpDBProps = this.clausesLiterals + this.learntsLiterals;
@@ -771,8 +1258,9 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                 this.permDiff.set(var(outLearnt.get(i)), this.myflag);
             }
             int nb = 0;
-            for (final MSWatcher wbin : this.watchesBin.get(p)) {
-                final int imp = wbin.blocker();
+            final MSWatchList wbin = this.watchesBin.get(p);
+            for (int k = 0; k < wbin.size(); k++) {
+                final int imp = wbin.blocker(k);
                 if (this.permDiff.get(var(imp)) == this.myflag && value(imp) == Tristate.TRUE) {
                     nb++;
                     this.permDiff.set(var(imp), this.myflag - 1);
@@ -804,7 +1292,9 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         final LNGIntVector learntClause = new LNGIntVector();
         final LNGIntVector selectors = new LNGIntVector();
         boolean blocked = false;
+        int restartConflicts = 0;
         this.selectionOrderIdx = 0;
+        this.targetAssigned = 0;
         while (true) {
             final MSClause confl = propagate();
             if (confl != null) {
@@ -812,14 +1302,31 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                     this.canceledByHandler = true;
                     return Tristate.UNDEF;
                 }
+                if (this.chronologicalBacktracking) {
+                    final int conflictLevel = conflictLevel(confl);
+                    if (conflictLevel == 0) {
+                        return Tristate.FALSE;
+                    }
+                    if (this.conflictLevelUnique) {
+                        cancelUntil(conflictLevel - 1);
+                        uncheckedEnqueue(confl.get(0), confl, confl.size() == 1 ? 0 : v(confl.get(1)).level());
+                        continue;
+                    }
+                    cancelUntil(conflictLevel);
+                }
                 this.conflicts++;
                 this.conflictsRestarts++;
+                restartConflicts++;
                 if (this.conflicts % 5000 == 0 && this.varDecay < this.maxVarDecay) {
                     this.varDecay += 0.01;
                 }
-                if (decisionLevel() == 0) {
+                if (decisionLevel() == 0 || !this.ok) {
                     return Tristate.FALSE;
                 }
+                updateTargetAndBestPhases();
+                if (this.stableMode && ++this.modeConflicts >= this.modeLength) {
+                    this.modeSwitchPending = true;
+                }
                 this.trailQueue.push(this.trail.size());
                 if (this.conflictsRestarts > LB_BLOCKING_RESTART && this.lbdQueue.valid() && this.trail.size() > this.factorR * this.trailQueue.avg()) {
                     this.lbdQueue.fastClear();
@@ -832,9 +1339,10 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                 analyze(confl, learntClause, selectors);
                 this.lbdQueue.push(this.analyzeLBD);
                 this.sumLBD += this.analyzeLBD;
-                cancelUntil(this.analyzeBtLevel);
-                if (this.analyzeBtLevel < this.selectionOrder.size()) {
-                    this.selectionOrderIdx = this.analyzeBtLevel;
+                final int btLevel = backtrackChronologically(learntClause) ? decisionLevel() - 1 : this.analyzeBtLevel;
+                cancelUntil(btLevel);
+                if (btLevel < this.selectionOrder.size()) {
+                    this.selectionOrderIdx = btLevel;
                 }
 
                 if (this.config.proofGeneration) {
@@ -846,28 +1354,35 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                     this.pgProof.push(vec);
                 }
 
+                exportLearnt(learntClause, (int) this.analyzeLBD);
                 if (learntClause.size() == 1) {
                     uncheckedEnqueue(learntClause.get(0), null);
                 } else {
-                    final MSClause cr = new MSClause(learntClause, true);
+                    final MSClause cr = new MSClause(learntClause, true, this.clauseArena);
                     cr.setLBD(this.analyzeLBD);
                     cr.setOneWatched(false);
                     cr.setSizeWithoutSelectors(this.analyzeSzWithoutSelectors);
                     this.learnts.push(cr);
                     attachClause(cr);
                     claBumpActivity(cr);
-                    uncheckedEnqueue(learntClause.get(0), cr);
+                    uncheckedEnqueue(learntClause.get(0), cr, this.analyzeBtLevel);
                 }
                 varDecayActivity();
                 claDecayActivity();
             } else {
-                if (this.lbdQueue.valid() && (this.lbdQueue.avg() * this.factorK) > (this.sumLBD / this.conflictsRestarts)) {
+                if (restartDue(restartConflicts)) {
                     this.lbdQueue.fastClear();
                     int bt = 0;
                     if (this.incremental) {
                         bt = Math.min(decisionLevel(), this.assumptions.size());
                     }
                     cancelUntil(bt);
+                    if (this.modeSwitchPending) {
+                        switchMode();
+                    }
+                    if (this.rephaseInterval > 0 && this.conflicts >= this.nextRephase && !this.computingBackbone) {
+                        rephase();
+                    }
                     return Tristate.UNDEF;
                 }
                 if (decisionLevel() == 0 && !simplify()) {
@@ -903,6 +1418,198 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         }
     }
 
+    /**
+     * Returns whether the solver should restart.  A pending switch of the search mode always forces a restart.  In the
+     * focused mode, the solver restarts if the average LBD of the recent learnt clauses is high compared to the
+     * average LBD of all learnt clauses.  In the stable mode, it restarts according to the Luby sequence.
+     * @param restartConflicts the number of conflicts since the last restart
+     * @return {@code true} if the solver should restart, {@code false} otherwise
+     */
+    protected boolean restartDue(final int restartConflicts) {
+        if (this.modeSwitchPending) {
+            return true;
+        }
+        if (this.stable) {
+            if (restartConflicts >= luby(2, this.stableRestarts) * this.lubyRestartBase) {
+                this.stableRestarts++;
+                return true;
+            }
+            return false;
+        }
+        return this.lbdQueue.valid() && (this.lbdQueue.avg() * this.factorK) > (this.sumLBD / this.conflictsRestarts);
+    }
+
+    /**
+     * Switches between the focused and the stable search mode.  The number of conflicts of the next mode grows after
+     * each stable mode.
+     */
+    protected void switchMode() {
+        if (this.stable) {
+            this.modeLength *= this.modeSwitchInc;
+        }
+        this.stable = !this.stable;
+        this.stableRestarts = 0;
+        this.modeConflicts = 0;
+        this.modeSwitchPending = false;
+    }
+
+    /**
+     * Updates the target phases and the best phases at a conflict.  The assignments below the current decision
+     * level are free of conflicts.  If they are more than the assignments of the target or best phases, their values
+     * become the new target or best phases.
+     */
+    protected void updateTargetAndBestPhases() {
+        final int assigned = this.trailLim.get(decisionLevel() - 1);
+        if (this.stableMode && this.useTargetPhases && this.stable && assigned > this.targetAssigned) {
+            copyPhases(this.targetPhases, assigned);
+            this.targetAssigned = assigned;
+        }
+        if (this.rephaseInterval > 0 && assigned > this.bestAssigned) {
+            copyPhases(this.bestPhases, assigned);
+            this.bestAssigned = assigned;
+        }
+    }
+
+    /**
+     * Copies the phases of the first assignments on the trail to a given vector of phases.
+     * @param phases   the vector of phases
+     * @param assigned the number of assignments
+     */
+    protected void copyPhases(final LNGBooleanVector phases, final int assigned) {
+        for (int i = 0; i < assigned; i++) {
+            final int lit = this.trail.get(i);
+            phases.set(var(lit), sign(lit));
+        }
+    }
+
+    /**
+     * Resets the saved phases of all variables.  The rephasings cycle through the original phases, the best phases,
+     * the inverted original phases, and the best phases again.  The target phases are reset to the new saved phases
+     * and the best phases are tracked anew.
+     */
+    protected void rephase() {
+        final int type = this.rephaseCount % 4;
+        for (int v = 0; v < this.vars.size(); v++) {
+            final boolean phase;
+            if (type == 0) {
+                phase = this.originalPhases.get(v);
+            } else if (type == 2) {
+                phase = !this.originalPhases.get(v);
+            } else {
+                phase = this.bestPhases.get(v);
+            }
+            this.vars.get(v).setPolarity(phase);
+            this.targetPhases.set(v, phase);
+        }
+        this.targetAssigned = 0;
+        this.bestAssigned = 0;
+        this.rephaseCount++;
+        this.nextRephase = this.conflicts + (long) this.rephaseInterval * (this.rephaseCount + 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * In the stable mode with target phases, this is the target phase of the variable.
+     */
+    @Override
+    protected boolean decisionPolarity(final int v) {
+        if (this.stable && this.useTargetPhases && !this.computingBackbone) {
+            return this.targetPhases.get(v);
+        }
+        return super.decisionPolarity(v);
+    }
+
+    /**
+     * Computes the decision level of a conflict clause, i.e. the highest level of its literals, which can be lower than
+     * the current decision level with chronological backtracking.  A literal on this level is moved to the first
+     * position of the clause and a literal with the highest level of the remaining literals to the second position,
+     * and the watches of the clause are moved accordingly.  If the first literal is the only literal on the highest
+     * level, {@link #conflictLevelUnique} is set and the clause becomes unit after backtracking to the previous level.
+     * Since the second literal is then unassigned last of the remaining literals, the two watched literals stay valid
+     * after backtracking.
+     * @param confl the conflict clause
+     * @return the decision level of the conflict
+     */
+    protected int conflictLevel(final MSClause confl) {
+        if (confl.size() < 2) {
+            this.conflictLevelUnique = confl.size() == 1;
+            return confl.size() == 0 ? 0 : v(confl.get(0)).level();
+        }
+        this.conflictLevelUnique = false;
+        if (v(confl.get(0)).level() == decisionLevel() && v(confl.get(1)).level() == decisionLevel()) {
+            return decisionLevel();
+        }
+        final int oldFirst = confl.get(0);
+        final int oldSecond = confl.get(1);
+        moveHighestLevel(confl, 0);
+        moveHighestLevel(confl, 1);
+        final int highestLevel = v(confl.get(0)).level();
+        this.conflictLevelUnique = v(confl.get(1)).level() < highestLevel;
+        if (confl.size() > 2) {
+            moveWatches(confl, oldFirst, oldSecond);
+        }
+        return highestLevel;
+    }
+
+    /**
+     * Moves the literal with the highest level of the literals from a given position on to this position.
+     * @param c    the clause
+     * @param from the position
+     */
+    protected void moveHighestLevel(final MSClause c, final int from) {
+        int highestInd = from;
+        for (int i = from + 1; i < c.size(); i++) {
+            if (v(c.get(i)).level() > v(c.get(highestInd)).level()) {
+                highestInd = i;
+            }
+        }
+        if (highestInd != from) {
+            final int lit = c.get(highestInd);
+            c.set(highestInd, c.get(from));
+            c.set(from, lit);
+        }
+    }
+
+    /**
+     * Moves the watches of a clause with more than two literals from its previous first two literals to its current
+     * first two literals.  A clause which is not attached, e.g. the explanation of a constraint, is not changed.
+     * @param c          the clause
+     * @param oldFirst   the previous first literal
+     * @param oldSecond  the previous second literal
+     */
+    protected void moveWatches(final MSClause c, final int oldFirst, final int oldSecond) {
+        final int first = c.get(0);
+        final int second = c.get(1);
+        boolean attached = false;
+        if (oldFirst != first && oldFirst != second) {
+            attached = this.watches.get(not(oldFirst)).remove(c);
+        }
+        if (oldSecond != first && oldSecond != second) {
+            attached |= this.watches.get(not(oldSecond)).remove(c);
+        }
+        if (!attached) {
+            return;
+        }
+        if (first != oldFirst && first != oldSecond) {
+            this.watches.get(not(first)).push(c, second);
+        }
+        if (second != oldFirst && second != oldSecond) {
+            this.watches.get(not(second)).push(c, first);
+        }
+    }
+
+    /**
+     * Returns whether the solver should backtrack chronologically after learning a given clause, i.e. only to the
+     * previous decision level instead of the asserting level of the clause.
+     * @param learntClause the learnt clause
+     * @return {@code true} if the solver should backtrack chronologically, {@code false} otherwise
+     */
+    protected boolean backtrackChronologically(final LNGIntVector learntClause) {
+        return this.chronologicalBacktracking && learntClause.size() > 1 && this.conflicts >= this.chronoBacktrackingConflicts
+                && decisionLevel() - this.analyzeBtLevel >= this.chronoBacktrackingDistance;
+    }
+
     /**
      * Analyzes a given conflict clause wrt. the current solver state.  A 1-UIP clause is created during this procedure
      * and the new backtracking level is stored in the solver state.
@@ -963,9 +1670,11 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
                     }
                 }
             }
-            while (!this.seen.get(var(this.trail.get(index--)))) {
-            }
-            p = this.trail.get(index + 1);
+            do {
+                while (!this.seen.get(var(this.trail.get(index--)))) {
+                }
+                p = this.trail.get(index + 1);
+            } while (v(p).level() < decisionLevel());
             c = v(p).reason();
             this.seen.set(var(p), false);
             pathC--;
@@ -1065,11 +1774,28 @@ public class GlucoseSyrup extends MiniSatStyleSolver {
         if (!super.isRotatable(lit)) {
             return false;
         }
-        for (final MSWatcher watcher : this.watchesBin.get(not(lit))) {
-            if (isUnit(lit, watcher.clause())) {
+        final MSWatchList wbin = this.watchesBin.get(not(lit));
+        for (int k = 0; k < wbin.size(); k++) {
+            if (isUnit(lit, wbin.clause(k))) {
                 return false;
             }
         }
+        if (this.nativeConstraints) {
+            final LNGVector<MSPBConstraint> pbs = this.pbWatches.get(not(lit));
+            final LNGLongVector coefficients = this.pbWatchCoefficients.get(not(lit));
+            for (int i = 0; i < pbs.size(); i++) {
+                final MSPBConstraint c = pbs.get(i);
+                long sum = coefficients.get(i);
+                for (int j = 0; j < c.size(); j++) {
+                    if (this.model.get(var(c.get(j))) != sign(c.get(j))) {
+                        sum += c.coefficient(j);
+                    }
+                }
+                if (sum > c.rhs()) {
+                    return false;
+                }
+            }
+        }
         return true;
     }
 }
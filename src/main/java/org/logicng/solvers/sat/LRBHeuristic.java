@@ -0,0 +1,161 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.logicng.collections.LNGDoubleVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
+
+/**
+ * The LRB branching heuristic (learning rate based branching) of MapleSAT.
+ * <p>
+ * The learning rate of a variable is the number of conflict analyses the variable took part in while it was assigned,
+ * divided by the number of conflicts during its assignment.  When a variable is unassigned, its score is updated to
+ * the exponential moving average of its learning rates.  The step size of the average decreases from 0.4 to 0.06 by
+ * 10^-6 per conflict.  Additionally, the score of an unassigned variable decays by 0.95 for each conflict since its
+ * last unassignment when it is about to be picked for a decision (locality extension).  The decay is only applied
+ * while this heuristic selects the decisions, since otherwise the top of the heap is not its own candidate.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class LRBHeuristic extends BranchingHeuristic {
+
+    private static final double STEP_SIZE_START = 0.4;
+    private static final double STEP_SIZE_MIN = 0.06;
+    private static final double STEP_SIZE_DEC = 1e-6;
+    private static final double LOCALITY_DECAY = 0.95;
+
+    private final LNGDoubleVector scores;
+    private final LNGLongVector assignedAt;
+    private final LNGLongVector unassignedAt;
+    private final LNGIntVector participated;
+    private long conflicts;
+    private boolean analyzing;
+    private double stepSize;
+
+    /**
+     * Constructs a new LRB heuristic.
+     */
+    public LRBHeuristic() {
+        this.scores = new LNGDoubleVector();
+        this.assignedAt = new LNGLongVector();
+        this.unassignedAt = new LNGLongVector();
+        this.participated = new LNGIntVector();
+        this.conflicts = 0;
+        this.analyzing = false;
+        this.stepSize = STEP_SIZE_START;
+    }
+
+    private LRBHeuristic(final LRBHeuristic other) {
+        this.scores = new LNGDoubleVector(other.scores);
+        this.assignedAt = new LNGLongVector(other.assignedAt);
+        this.unassignedAt = new LNGLongVector(other.unassignedAt);
+        this.participated = new LNGIntVector(other.participated);
+        this.conflicts = other.conflicts;
+        this.analyzing = other.analyzing;
+        this.stepSize = other.stepSize;
+    }
+
+    @Override
+    public double score(final int var) {
+        return this.scores.get(var);
+    }
+
+    @Override
+    public void newVar(final int var) {
+        this.scores.growTo(var + 1, 0);
+        this.assignedAt.growTo(var + 1, 0);
+        this.unassignedAt.growTo(var + 1, 0);
+        this.participated.growTo(var + 1, 0);
+        this.scores.set(var, 0);
+        this.assignedAt.set(var, this.conflicts);
+        this.unassignedAt.set(var, this.conflicts);
+        this.participated.set(var, 0);
+    }
+
+    @Override
+    public void bump(final int var) {
+        this.participated.set(var, this.participated.get(var) + 1);
+        this.analyzing = true;
+    }
+
+    @Override
+    public void conflict() {
+        this.conflicts++;
+        this.analyzing = false;
+        if (this.stepSize > STEP_SIZE_MIN) {
+            this.stepSize -= STEP_SIZE_DEC;
+        }
+    }
+
+    @Override
+    public void assigned(final int var) {
+        this.assignedAt.set(var, currentConflicts());
+        this.participated.set(var, 0);
+    }
+
+    @Override
+    public void unassigned(final int var) {
+        final long interval = currentConflicts() - this.assignedAt.get(var);
+        if (interval > 0) {
+            final double rate = (double) this.participated.get(var) / interval;
+            this.scores.set(var, (1 - this.stepSize) * this.scores.get(var) + this.stepSize * rate);
+            scoreChanged(var);
+        }
+        this.unassignedAt.set(var, this.conflicts);
+    }
+
+    /**
+     * Returns the number of conflicts including the conflict which is currently analyzed.  The solver backtracks
+     * after the analysis of a conflict, but before it reports the conflict via {@link #conflict()}.
+     * @return the number of conflicts
+     */
+    private long currentConflicts() {
+        return this.analyzing ? this.conflicts + 1 : this.conflicts;
+    }
+
+    @Override
+    public void beforeDecision() {
+        if (!isActive()) {
+            return;
+        }
+        int top = topVariable();
+        while (top != -1 && this.unassignedAt.get(top) < this.conflicts) {
+            final long age = this.conflicts - this.unassignedAt.get(top);
+            this.scores.set(top, this.scores.get(top) * Math.pow(LOCALITY_DECAY, age));
+            this.unassignedAt.set(top, this.conflicts);
+            scoreChanged(top);
+            top = topVariable();
+        }
+    }
+
+    @Override
+    public LRBHeuristic copy() {
+        return new LRBHeuristic(this);
+    }
+}
@@ -0,0 +1,367 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.sign;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
+
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.datastructures.MSClause;
+
+import java.util.Random;
+
+/**
+ * A stochastic local search over the clauses of a MiniSAT-style solver in the style of ProbSAT.
+ * <p>
+ * The search starts with the saved phases of the solver and repeatedly picks a random falsified clause and flips one
+ * of its variables.  A variable is picked with a probability which decreases with its break value, i.e. the number of
+ * clauses which would become falsified by the flip.  For clauses with at most three literals the probability is
+ * polynomial in the break value, otherwise it is exponential.  The assignment with the fewest falsified clauses is
+ * kept as best assignment.
+ * <p>
+ * The search only considers the original clauses of the solver.  Learnt clauses, cardinality constraints of MiniCard,
+ * and the native constraints of Glucose are ignored.  Variables which are currently assigned on the solver are
+ * fixed to their values.  The search does not change the solver.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class LocalSearch {
+
+    /**
+     * The number of flips after which the handler is asked whether the search should be continued.
+     */
+    private static final int HANDLER_INTERVAL = 1024;
+
+    private static final double POLY_CB = 2.06;
+    private static final double POLY_EPS = 0.9;
+    private static final double EXP_CB = 2.5;
+
+    private final MiniSatStyleSolver solver;
+    private final Random random;
+
+    private int nVars;
+    private int nClauses;
+    private int[] clauseStart;
+    private int[] clauseLits;
+    private int[] occStart;
+    private int[] occClauses;
+    private boolean[] value;
+    private boolean[] fixed;
+    private int[] numTrue;
+    private int[] falsified;
+    private int[] falsifiedPos;
+    private int numFalsified;
+    private int permanentlyFalsified;
+    private double[] breakProbabilities;
+    private double[] candidateProbabilities;
+
+    private boolean[] best;
+    private boolean[] differsFromBest;
+    private boolean[] changed;
+    private LNGIntVector changedVars;
+    private int bestFalsified;
+    private long flips;
+
+    /**
+     * Constructs a new local search over the clauses of a given solver.
+     * @param solver the solver
+     * @param seed   the seed of the random number generator
+     */
+    public LocalSearch(final MiniSatStyleSolver solver, final long seed) {
+        this.solver = solver;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Searches for an assignment which satisfies all clauses of the solver under the given assumptions.  The search
+     * stops if such an assignment is found, if the maximal number of flips is reached, or if the handler cancels the
+     * search.  The handler is asked via {@link SATHandler#detectedConflict()} every 1024 flips.
+     * @param assumptions the assumptions, may be {@code null}
+     * @param maxFlips    the maximal number of flips
+     * @param handler     the handler, may be {@code null}
+     * @return {@link Tristate#TRUE} if the best assignment satisfies all clauses, {@link Tristate#FALSE} if the
+     * assumptions contradict each other or the current assignment of the solver, and {@link Tristate#UNDEF} otherwise
+     */
+    public Tristate search(final LNGIntVector assumptions, final long maxFlips, final SATHandler handler) {
+        if (!initialize(assumptions)) {
+            return Tristate.FALSE;
+        }
+        this.flips = 0;
+        while (this.numFalsified > 0 && this.flips < maxFlips) {
+            if (handler != null && this.flips % HANDLER_INTERVAL == 0 && !handler.detectedConflict()) {
+                break;
+            }
+            flip(pickVariable(this.falsified[this.random.nextInt(this.numFalsified)]));
+            this.flips++;
+            if (this.numFalsified + this.permanentlyFalsified < this.bestFalsified) {
+                updateBest();
+            }
+        }
+        return this.bestFalsified == 0 ? Tristate.TRUE : Tristate.UNDEF;
+    }
+
+    /**
+     * Returns the best assignment of the last search.  The vector contains a value for every variable of the solver.
+     * @return the best assignment
+     */
+    public LNGBooleanVector bestAssignment() {
+        final LNGBooleanVector assignment = new LNGBooleanVector(this.nVars);
+        for (int v = 0; v < this.nVars; v++) {
+            assignment.push(this.best[v]);
+        }
+        return assignment;
+    }
+
+    /**
+     * Returns the number of clauses which are falsified by the best assignment of the last search.
+     * @return the number of falsified clauses
+     */
+    public int bestFalsified() {
+        return this.bestFalsified;
+    }
+
+    /**
+     * Returns the number of flips of the last search.
+     * @return the number of flips
+     */
+    public long flips() {
+        return this.flips;
+    }
+
+    /**
+     * Initializes the data structures of the search with the original clauses of the solver and the initial
+     * assignment.
+     * @param assumptions the assumptions, may be {@code null}
+     * @return {@code false} if the assumptions contradict each other or the current assignment of the solver,
+     * {@code true} otherwise
+     */
+    private boolean initialize(final LNGIntVector assumptions) {
+        this.nVars = this.solver.nVars();
+        this.value = new boolean[this.nVars];
+        this.fixed = new boolean[this.nVars];
+        for (int v = 0; v < this.nVars; v++) {
+            final Tristate assignment = this.solver.vars.get(v).assignment();
+            this.fixed[v] = assignment != Tristate.UNDEF;
+            this.value[v] = this.fixed[v] ? assignment == Tristate.TRUE : !this.solver.vars.get(v).polarity();
+        }
+        if (assumptions != null) {
+            for (int i = 0; i < assumptions.size(); i++) {
+                final int lit = assumptions.get(i);
+                if (this.fixed[var(lit)] && this.value[var(lit)] == sign(lit)) {
+                    this.best = this.value;
+                    this.bestFalsified = Integer.MAX_VALUE;
+                    return false;
+                }
+                this.fixed[var(lit)] = true;
+                this.value[var(lit)] = !sign(lit);
+            }
+        }
+        final LNGIntVector starts = new LNGIntVector();
+        final LNGIntVector lits = new LNGIntVector();
+        final int[] occCounts = new int[2 * this.nVars + 1];
+        this.permanentlyFalsified = 0;
+        int maxSize = 0;
+        for (final MSClause c : this.solver.clauses) {
+            if (c.isAtMost()) {
+                continue;
+            }
+            final int start = lits.size();
+            boolean satisfied = false;
+            for (int i = 0; i < c.size() && !satisfied; i++) {
+                final int lit = c.get(i);
+                if (!this.fixed[var(lit)]) {
+                    lits.push(lit);
+                } else {
+                    satisfied = this.value[var(lit)] != sign(lit);
+                }
+            }
+            if (satisfied) {
+                lits.shrinkTo(start);
+            } else if (lits.size() == start) {
+                this.permanentlyFalsified++;
+            } else {
+                starts.push(start);
+                maxSize = Math.max(maxSize, lits.size() - start);
+                for (int i = start; i < lits.size(); i++) {
+                    occCounts[lits.get(i) + 1]++;
+                }
+            }
+        }
+        this.nClauses = starts.size();
+        starts.push(lits.size());
+        this.clauseStart = starts.toArray();
+        this.clauseLits = lits.toArray();
+        this.occStart = new int[2 * this.nVars + 1];
+        for (int l = 0; l < 2 * this.nVars; l++) {
+            this.occStart[l + 1] = this.occStart[l] + occCounts[l + 1];
+        }
+        this.occClauses = new int[this.clauseLits.length];
+        final int[] fill = new int[2 * this.nVars];
+        for (int c = 0; c < this.nClauses; c++) {
+            for (int i = this.clauseStart[c]; i < this.clauseStart[c + 1]; i++) {
+                final int lit = this.clauseLits[i];
+                this.occClauses[this.occStart[lit] + fill[lit]++] = c;
+            }
+        }
+        this.numTrue = new int[this.nClauses];
+        this.falsified = new int[this.nClauses];
+        this.falsifiedPos = new int[this.nClauses];
+        this.numFalsified = 0;
+        for (int c = 0; c < this.nClauses; c++) {
+            for (int i = this.clauseStart[c]; i < this.clauseStart[c + 1]; i++) {
+                final int lit = this.clauseLits[i];
+                if (this.value[var(lit)] != sign(lit)) {
+                    this.numTrue[c]++;
+                }
+            }
+            if (this.numTrue[c] == 0) {
+                addFalsified(c);
+            }
+        }
+        initializeProbabilities(maxSize);
+        this.best = this.value.clone();
+        this.bestFalsified = this.numFalsified + this.permanentlyFalsified;
+        this.differsFromBest = new boolean[this.nVars];
+        this.changed = new boolean[this.nVars];
+        this.changedVars = new LNGIntVector();
+        return true;
+    }
+
+    /**
+     * Precomputes the probabilities of the break values.
+     * @param maxSize the maximal size of a clause
+     */
+    private void initializeProbabilities(final int maxSize) {
+        int maxBreak = 0;
+        for (int l = 0; l < 2 * this.nVars; l++) {
+            maxBreak = Math.max(maxBreak, this.occStart[l + 1] - this.occStart[l]);
+        }
+        this.breakProbabilities = new double[maxBreak + 1];
+        for (int b = 0; b <= maxBreak; b++) {
+            this.breakProbabilities[b] = maxSize <= 3 ? Math.pow(POLY_EPS + b, -POLY_CB) : Math.pow(EXP_CB, -b);
+        }
+        this.candidateProbabilities = new double[maxSize];
+    }
+
+    /**
+     * Picks the variable to flip in a falsified clause.
+     * @param c the clause
+     * @return the variable
+     */
+    private int pickVariable(final int c) {
+        final int start = this.clauseStart[c];
+        final int size = this.clauseStart[c + 1] - start;
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += this.breakProbabilities[breakValue(var(this.clauseLits[start + i]))];
+            this.candidateProbabilities[i] = sum;
+        }
+        final double threshold = this.random.nextDouble() * sum;
+        for (int i = 0; i < size - 1; i++) {
+            if (this.candidateProbabilities[i] > threshold) {
+                return var(this.clauseLits[start + i]);
+            }
+        }
+        return var(this.clauseLits[start + size - 1]);
+    }
+
+    /**
+     * Returns the number of clauses which would be falsified by flipping the given variable.
+     * @param v the variable
+     * @return the break value of the variable
+     */
+    private int breakValue(final int v) {
+        final int trueLit = 2 * v + (this.value[v] ? 0 : 1);
+        int result = 0;
+        for (int i = this.occStart[trueLit]; i < this.occStart[trueLit + 1]; i++) {
+            if (this.numTrue[this.occClauses[i]] == 1) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Flips the given variable.
+     * @param v the variable
+     */
+    private void flip(final int v) {
+        final int trueLit = 2 * v + (this.value[v] ? 0 : 1);
+        final int falseLit = trueLit ^ 1;
+        this.value[v] = !this.value[v];
+        for (int i = this.occStart[trueLit]; i < this.occStart[trueLit + 1]; i++) {
+            final int c = this.occClauses[i];
+            if (--this.numTrue[c] == 0) {
+                addFalsified(c);
+            }
+        }
+        for (int i = this.occStart[falseLit]; i < this.occStart[falseLit + 1]; i++) {
+            final int c = this.occClauses[i];
+            if (++this.numTrue[c] == 1) {
+                removeFalsified(c);
+            }
+        }
+        this.differsFromBest[v] = !this.differsFromBest[v];
+        if (!this.changed[v]) {
+            this.changed[v] = true;
+            this.changedVars.push(v);
+        }
+    }
+
+    /**
+     * Makes the current assignment the best assignment.  Only the variables which were flipped since the last
+     * update are copied.
+     */
+    private void updateBest() {
+        for (int i = 0; i < this.changedVars.size(); i++) {
+            final int v = this.changedVars.get(i);
+            if (this.differsFromBest[v]) {
+                this.best[v] = this.value[v];
+                this.differsFromBest[v] = false;
+            }
+            this.changed[v] = false;
+        }
+        this.changedVars.clear();
+        this.bestFalsified = this.numFalsified + this.permanentlyFalsified;
+    }
+
+    private void addFalsified(final int c) {
+        this.falsifiedPos[c] = this.numFalsified;
+        this.falsified[this.numFalsified++] = c;
+    }
+
+    private void removeFalsified(final int c) {
+        final int last = this.falsified[--this.numFalsified];
+        final int pos = this.falsifiedPos[c];
+        this.falsified[pos] = last;
+        this.falsifiedPos[last] = pos;
+    }
+}
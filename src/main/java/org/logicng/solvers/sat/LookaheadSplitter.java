@@ -0,0 +1,224 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.solvers.datastructures.MSClause;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lookahead splitter for MiniSAT-style solvers which splits a problem into cubes for cube-and-conquer solving.
+ * <p>
+ * The splitter works on decision level 0 of a given solver and builds a binary search tree with a fixed maximal
+ * depth.  In each node the most frequent unassigned candidate variables are probed: both of their literals are
+ * assigned and propagated and the number of implied literals is counted.  The variable with the largest product
+ * of both counts is used for the split.  If only one literal of a variable leads to a conflict, the other literal
+ * is implied by the current cube and added to it (failed literal detection).  If both literals lead to a conflict,
+ * the current cube is refuted and dropped.  The leaves of the tree are the resulting cubes.  The disjunction of all
+ * cubes covers all models of the solver's formula under the given assumptions.
+ * <p>
+ * The splitter only changes the trail of the solver temporarily, the solver is always on decision level 0 after
+ * the splitting.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class LookaheadSplitter {
+
+    private final MiniSatStyleSolver solver;
+    private final int maxDepth;
+    private final int lookaheadCandidates;
+    private final LNGVector<LNGIntVector> cubes;
+    private LNGIntVector candidates;
+
+    /**
+     * Constructs a new lookahead splitter.
+     * @param solver              the solver
+     * @param maxDepth            the maximal depth of the search tree, i.e. there are at most {@code 2^maxDepth}
+     *                            cubes
+     * @param lookaheadCandidates the maximal number of variables which are probed in a single node
+     */
+    public LookaheadSplitter(final MiniSatStyleSolver solver, final int maxDepth, final int lookaheadCandidates) {
+        this.solver = solver;
+        this.maxDepth = maxDepth;
+        this.lookaheadCandidates = lookaheadCandidates;
+        this.cubes = new LNGVector<>();
+    }
+
+    /**
+     * Splits the formula of the solver under the given assumptions into cubes.  The cubes do not contain the
+     * assumptions themselves.  An empty result means that the formula is unsatisfiable under the assumptions.
+     * @param variables   the indices of the variables which may be used for the split
+     * @param assumptions the assumptions as solver literals, may be empty
+     * @return the cubes as vectors of solver literals
+     */
+    public LNGVector<LNGIntVector> split(final LNGIntVector variables, final LNGIntVector assumptions) {
+        this.cubes.clear();
+        this.solver.releaseTrail();
+        if (!this.solver.ok || this.solver.propagate() != null) {
+            return this.cubes;
+        }
+        this.candidates = this.sortByOccurrences(variables);
+        boolean consistent = true;
+        for (int i = 0; consistent && i < assumptions.size(); i++) {
+            final int lit = assumptions.get(i);
+            final Tristate value = this.solver.value(lit);
+            if (value == Tristate.FALSE) {
+                consistent = false;
+            } else if (value == Tristate.UNDEF) {
+                consistent = this.assign(lit);
+            }
+        }
+        if (consistent) {
+            this.split(new LNGIntVector(), 0);
+        }
+        this.solver.cancelUntil(0);
+        return this.cubes;
+    }
+
+    /**
+     * Splits the current cube recursively.  The solver is on the same decision level after the call.
+     * @param cube  the current cube
+     * @param depth the depth of the current cube in the search tree
+     */
+    private void split(final LNGIntVector cube, final int depth) {
+        final int level = this.solver.decisionLevel();
+        final int cubeSize = cube.size();
+        int best = -1;
+        if (depth < this.maxDepth) {
+            long bestScore = -1;
+            int probed = 0;
+            for (int i = 0; i < this.candidates.size() && probed < this.lookaheadCandidates; i++) {
+                final int v = this.candidates.get(i);
+                if (this.solver.vars.get(v).assignment() != Tristate.UNDEF) {
+                    continue;
+                }
+                probed++;
+                final int pos = this.probe(mkLit(v, false));
+                final int neg = this.probe(mkLit(v, true));
+                if (pos < 0 && neg < 0) {
+                    this.backtrack(cube, cubeSize, level);
+                    return;
+                } else if (pos < 0 || neg < 0) {
+                    final int implied = mkLit(v, pos < 0);
+                    if (!this.assign(implied)) {
+                        this.backtrack(cube, cubeSize, level);
+                        return;
+                    }
+                    cube.push(implied);
+                    best = -1;
+                    bestScore = -1;
+                    probed = 0;
+                    i = -1;
+                } else {
+                    final long score = (long) (pos + 1) * (neg + 1);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = v;
+                    }
+                }
+            }
+        }
+        if (best == -1) {
+            this.cubes.push(new LNGIntVector(cube));
+        } else {
+            final int branchLevel = this.solver.decisionLevel();
+            for (final boolean sign : new boolean[]{false, true}) {
+                final int lit = mkLit(best, sign);
+                if (this.assign(lit)) {
+                    cube.push(lit);
+                    this.split(cube, depth + 1);
+                    cube.pop();
+                }
+                this.solver.cancelUntil(branchLevel);
+            }
+        }
+        this.backtrack(cube, cubeSize, level);
+    }
+
+    /**
+     * Assigns and propagates a literal on a new decision level.
+     * @param lit the literal
+     * @return {@code false} if the propagation led to a conflict, {@code true} otherwise
+     */
+    private boolean assign(final int lit) {
+        this.solver.trailLim.push(this.solver.trail.size());
+        this.solver.uncheckedEnqueue(lit, null);
+        return this.solver.propagate() == null;
+    }
+
+    /**
+     * Probes a literal.
+     * @param lit the literal
+     * @return the number of literals implied by the literal (including the literal itself) or -1 if the
+     * literal leads to a conflict
+     */
+    private int probe(final int lit) {
+        final int start = this.solver.trail.size();
+        final boolean consistent = this.assign(lit);
+        final int implied = this.solver.trail.size() - start;
+        this.solver.cancelUntil(this.solver.decisionLevel() - 1);
+        return consistent ? implied : -1;
+    }
+
+    private void backtrack(final LNGIntVector cube, final int cubeSize, final int level) {
+        this.solver.cancelUntil(level);
+        cube.shrinkTo(cubeSize);
+    }
+
+    /**
+     * Returns the given variables sorted by their number of occurrences in the original clauses of the solver.
+     * @param variables the variables
+     * @return the sorted variables
+     */
+    private LNGIntVector sortByOccurrences(final LNGIntVector variables) {
+        final int[] occurrences = new int[this.solver.nVars()];
+        for (final MSClause c : this.solver.clauses) {
+            for (int i = 0; i < c.size(); i++) {
+                occurrences[var(c.get(i))]++;
+            }
+        }
+        final List<Integer> sorted = new ArrayList<>(variables.size());
+        for (int i = 0; i < variables.size(); i++) {
+            sorted.add(variables.get(i));
+        }
+        sorted.sort((v1, v2) -> Integer.compare(occurrences[v2], occurrences[v1]));
+        final LNGIntVector result = new LNGIntVector(sorted.size());
+        for (final int v : sorted) {
+            result.push(v);
+        }
+        return result;
+    }
+}
@@ -61,11 +61,14 @@ import org.logicng.handlers.SATHandler;
 import org.logicng.propositions.Proposition;
 import org.logicng.solvers.datastructures.MSClause;
 import org.logicng.solvers.datastructures.MSVariable;
-import org.logicng.solvers.datastructures.MSWatcher;
+import org.logicng.solvers.datastructures.MSWatchList;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * A cardinality solver based on MiniCard.
- * @version 2.1.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class MiniCard extends MiniSatStyleSolver {
@@ -90,6 +93,16 @@ public class MiniCard extends MiniSatStyleSolver {
         this.initializeMiniSAT();
     }
 
+    /**
+     * Constructs a fork of a given MiniCard solver.
+     * @param other        the solver
+     * @param clauseCopies the mapping from the clauses of the given solver to their copies
+     */
+    protected MiniCard(final MiniCard other, final Map<MSClause, MSClause> clauseCopies) {
+        super(other, clauseCopies);
+        this.unitClauses = new LNGIntVector(other.unitClauses);
+    }
+
     /**
      * Initializes the additional parameters.
      */
@@ -102,22 +115,35 @@ public class MiniCard extends MiniSatStyleSolver {
         this.maxLearnts = 0;
     }
 
+    /**
+     * {@inheritDoc}
+     * @throws UnsupportedOperationException if this solver is an instance of a subclass which does not support forking
+     */
+    @Override
+    public MiniCard fork() {
+        if (this.getClass() != MiniCard.class) {
+            return (MiniCard) super.fork();
+        }
+        return new MiniCard(this, new IdentityHashMap<>());
+    }
+
     @Override
     public int newVar(final boolean sign, final boolean dvar) {
         final int v = this.vars.size();
         final MSVariable newVar = new MSVariable(sign);
         this.vars.push(newVar);
-        this.watches.push(new LNGVector<>());
-        this.watches.push(new LNGVector<>());
+        this.watches.push(new MSWatchList());
+        this.watches.push(new MSWatchList());
         this.seen.push(false);
         newVar.setDecision(dvar);
+        initializeBranchingScores(v);
         insertVarOrder(v);
         return v;
     }
 
     @Override
     public boolean addClause(final LNGIntVector ps, final Proposition proposition) {
-        assert decisionLevel() == 0;
+        releaseTrail();
         if (!this.ok) {
             return false;
         }
@@ -145,7 +171,7 @@ public class MiniCard extends MiniSatStyleSolver {
             }
             return this.ok;
         } else {
-            final MSClause c = new MSClause(ps, false);
+            final MSClause c = new MSClause(ps, false, this.clauseArena);
             this.clauses.push(c);
             attachClause(c);
         }
@@ -156,6 +182,7 @@ public class MiniCard extends MiniSatStyleSolver {
     public Tristate solve(final SATHandler handler) {
         this.handler = handler;
         start(handler);
+        reuseTrail();
         this.model.clear();
         this.conflict.clear();
         if (!this.ok) {
@@ -167,8 +194,9 @@ public class MiniCard extends MiniSatStyleSolver {
         Tristate status = Tristate.UNDEF;
         int currRestarts = 0;
         while (status == Tristate.UNDEF && !this.canceledByHandler) {
+            localSearchPhase(currRestarts);
             final double restBase = luby(this.restartInc, currRestarts);
-            status = search((int) (restBase * this.restartFirst));
+            status = importSharedClauses() ? search((int) (restBase * this.restartFirst)) : Tristate.FALSE;
             currRestarts++;
         }
         if (status == Tristate.TRUE) {
@@ -180,7 +208,7 @@ public class MiniCard extends MiniSatStyleSolver {
             this.ok = false;
         }
         finishSolving(handler);
-        cancelUntil(0);
+        retainTrail(status);
         this.handler = null;
         this.canceledByHandler = false;
         return status;
@@ -194,9 +222,9 @@ public class MiniCard extends MiniSatStyleSolver {
 
     /**
      * Saves and returns the solver state expressed as an integer array which stores the length of the internal data
-     * structures.  The array has length 5 and has the following layout:
+     * structures.  The array has length 6 and has the following layout:
      * <p>
-     * {@code | current solver state | #vars | #clauses | #learnt clauses | #unit clauses |}
+     * {@code | current solver state | #vars | #clauses | #learnt clauses | #unit clauses | #xors |}
      * @return the current solver state
      */
     @Override
@@ -205,12 +233,13 @@ public class MiniCard extends MiniSatStyleSolver {
             throw new IllegalStateException("Cannot save a state when the incremental mode is deactivated");
         }
         final int[] state;
-        state = new int[5];
+        state = new int[6];
         state[0] = this.ok ? 1 : 0;
         state[1] = this.vars.size();
         state[2] = this.clauses.size();
         state[3] = this.learnts.size();
         state[4] = this.unitClauses.size();
+        state[5] = this.xors.size();
         return state;
     }
 
@@ -219,6 +248,7 @@ public class MiniCard extends MiniSatStyleSolver {
         if (!this.incremental) {
             throw new IllegalStateException("Cannot save a state when the incremental mode is deactivated");
         }
+        releaseTrail();
         int i;
         completeBacktrack();
         this.ok = state[0] == 1;
@@ -237,11 +267,18 @@ public class MiniCard extends MiniSatStyleSolver {
             simpleRemoveClause(this.learnts.get(i));
         }
         this.learnts.shrinkTo(newLearntsSize);
+        checkGarbage();
         this.watches.shrinkTo(newVarsSize * 2);
+        shrinkXors(Math.min(state[5], this.xors.size()), newVarsSize);
         this.unitClauses.shrinkTo(state[4]);
         for (i = 0; this.ok && i < this.unitClauses.size(); i++) {
-            uncheckedEnqueue(this.unitClauses.get(i), null);
-            this.ok = propagate() == null;
+            final int unit = this.unitClauses.get(i);
+            if (value(unit) == Tristate.UNDEF) {
+                uncheckedEnqueue(unit, null);
+                this.ok = propagate() == null;
+            } else {
+                this.ok = value(unit) == Tristate.TRUE;
+            }
         }
     }
 
@@ -253,6 +290,7 @@ public class MiniCard extends MiniSatStyleSolver {
         var.setReason(reason);
         var.setLevel(decisionLevel());
         this.trail.push(lit);
+        varAssigned(var(lit));
     }
 
     @Override
@@ -260,13 +298,13 @@ public class MiniCard extends MiniSatStyleSolver {
         if (c.isAtMost()) {
             for (int i = 0; i < c.atMostWatchers(); i++) {
                 final int l = c.get(i);
-                this.watches.get(l).push(new MSWatcher(c, LIT_UNDEF));
+                this.watches.get(l).push(c, LIT_UNDEF);
             }
             this.clausesLiterals += c.size();
         } else {
             assert c.size() > 1;
-            this.watches.get(not(c.get(0))).push(new MSWatcher(c, c.get(1)));
-            this.watches.get(not(c.get(1))).push(new MSWatcher(c, c.get(0)));
+            this.watches.get(not(c.get(0))).push(c, c.get(1));
+            this.watches.get(not(c.get(1))).push(c, c.get(0));
             if (c.learnt()) {
                 this.learntsLiterals += c.size();
             } else {
@@ -279,8 +317,8 @@ public class MiniCard extends MiniSatStyleSolver {
     protected void detachClause(final MSClause c) {
         assert !c.isAtMost();
         assert c.size() > 1;
-        this.watches.get(not(c.get(0))).remove(new MSWatcher(c, c.get(1)));
-        this.watches.get(not(c.get(1))).remove(new MSWatcher(c, c.get(0)));
+        this.watches.get(not(c.get(0))).remove(c);
+        this.watches.get(not(c.get(1))).remove(c);
         if (c.learnt()) {
             this.learntsLiterals -= c.size();
         } else {
@@ -307,23 +345,22 @@ public class MiniCard extends MiniSatStyleSolver {
 
     @Override
     protected MSClause propagate() {
-        MSClause confl = null;
+        MSClause confl = this.qhead == this.trail.size() ? eliminateXors() : null;
         int numProps = 0;
         while (this.qhead < this.trail.size()) {
             final int p = this.trail.get(this.qhead++);
-            final LNGVector<MSWatcher> ws = this.watches.get(p);
+            final MSWatchList ws = this.watches.get(p);
             int iInd = 0;
             int jInd = 0;
             numProps++;
             while (iInd < ws.size()) {
-                final MSWatcher i = ws.get(iInd);
-                final int blocker = i.blocker();
+                final int blocker = ws.blocker(iInd);
                 if (blocker != LIT_UNDEF && value(blocker) == Tristate.TRUE) {
-                    ws.set(jInd++, i);
+                    ws.move(jInd++, iInd);
                     iInd++;
                     continue;
                 }
-                final MSClause c = i.clause();
+                final MSClause c = ws.clause(iInd);
 
                 if (c.isAtMost()) {
                     final int newWatch = findNewWatch(c, p);
@@ -334,19 +371,18 @@ public class MiniCard extends MiniSatStyleSolver {
                                 uncheckedEnqueue(not(c.get(k)), c);
                             }
                         }
-                        ws.set(jInd++, ws.get(iInd++));
+                        ws.move(jInd++, iInd++);
                     } else if (newWatch == LIT_ERROR) {
                         confl = c;
                         this.qhead = this.trail.size();
                         while (iInd < ws.size()) {
-                            ws.set(jInd++, ws.get(iInd++));
+                            ws.move(jInd++, iInd++);
                         }
                     } else if (newWatch == p) {
-                        ws.set(jInd++, ws.get(iInd++));
+                        ws.move(jInd++, iInd++);
                     } else {
                         iInd++;
-                        final MSWatcher w = new MSWatcher(c, LIT_UNDEF);
-                        this.watches.get(newWatch).push(w);
+                        this.watches.get(newWatch).push(c, LIT_UNDEF);
                     }
                 } else {
                     final int falseLit = not(p);
@@ -357,9 +393,8 @@ public class MiniCard extends MiniSatStyleSolver {
                     assert c.get(1) == falseLit;
                     iInd++;
                     final int first = c.get(0);
-                    final MSWatcher w = new MSWatcher(c, first);
                     if (first != blocker && value(first) == Tristate.TRUE) {
-                        ws.set(jInd++, w);
+                        ws.set(jInd++, c, first);
                         continue;
                     }
                     boolean foundWatch = false;
@@ -367,17 +402,17 @@ public class MiniCard extends MiniSatStyleSolver {
                         if (value(c.get(k)) != Tristate.FALSE) {
                             c.set(1, c.get(k));
                             c.set(k, falseLit);
-                            this.watches.get(not(c.get(1))).push(w);
+                            this.watches.get(not(c.get(1))).push(c, first);
                             foundWatch = true;
                         }
                     }
                     if (!foundWatch) {
-                        ws.set(jInd++, w);
+                        ws.set(jInd++, c, first);
                         if (value(first) == Tristate.FALSE) {
                             confl = c;
                             this.qhead = this.trail.size();
                             while (iInd < ws.size()) {
-                                ws.set(jInd++, ws.get(iInd++));
+                                ws.move(jInd++, iInd++);
                             }
                         } else {
                             uncheckedEnqueue(first, c);
@@ -385,7 +420,10 @@ public class MiniCard extends MiniSatStyleSolver {
                     }
                 }
             }
-            ws.removeElements(iInd - jInd);
+            ws.shrinkTo(jInd);
+            if (confl == null) {
+                confl = propagateXors(p);
+            }
         }
         this.simpDBProps -= numProps;
         return confl;
@@ -497,6 +535,7 @@ public class MiniCard extends MiniSatStyleSolver {
             }
         }
         this.learnts.removeElements(i - j);
+        checkGarbage();
     }
 
     @Override
@@ -550,6 +589,7 @@ public class MiniCard extends MiniSatStyleSolver {
         if (this.shouldRemoveSatsisfied) {
             removeSatisfied(this.clauses);
         }
+        checkGarbage();
         rebuildOrderHeap();
         this.simpDBAssigns = nAssigns();
         this.simpDBProps = this.clausesLiterals + this.learntsLiterals;
@@ -564,7 +604,7 @@ public class MiniCard extends MiniSatStyleSolver {
      */
     public boolean addAtMost(final LNGIntVector ps, final int rhs) {
         int k = rhs;
-        assert decisionLevel() == 0;
+        releaseTrail();
         if (!this.ok) {
             return false;
         }
@@ -602,7 +642,7 @@ public class MiniCard extends MiniSatStyleSolver {
             this.ok = propagate() == null;
             return this.ok;
         }
-        final MSClause cr = new MSClause(ps, false, true);
+        final MSClause cr = new MSClause(ps, false, true, this.clauseArena);
         cr.setAtMostWatchers(ps.size() - k + 1);
         this.clauses.push(cr);
         attachClause(cr);
@@ -615,7 +655,7 @@ public class MiniCard extends MiniSatStyleSolver {
      */
     protected void detachAtMost(final MSClause c) {
         for (int i = 0; i < c.atMostWatchers(); i++) {
-            this.watches.get(c.get(i)).remove(new MSWatcher(c, c.get(i)));
+            this.watches.get(c.get(i)).remove(c);
         }
         this.clausesLiterals -= c.size();
     }
@@ -640,7 +680,7 @@ public class MiniCard extends MiniSatStyleSolver {
                     return Tristate.UNDEF;
                 }
                 conflictC++;
-                if (decisionLevel() == 0) {
+                if (decisionLevel() == 0 || !this.ok) {
                     return Tristate.FALSE;
                 }
                 final LNGIntVector learntClause = new LNGIntVector();
@@ -649,11 +689,12 @@ public class MiniCard extends MiniSatStyleSolver {
                 if (this.analyzeBtLevel < this.selectionOrder.size()) {
                     this.selectionOrderIdx = this.analyzeBtLevel;
                 }
+                exportLearnt(learntClause, learntClause.size());
                 if (learntClause.size() == 1) {
                     uncheckedEnqueue(learntClause.get(0), null);
                     this.unitClauses.push(learntClause.get(0));
                 } else {
-                    final MSClause cr = new MSClause(learntClause, true);
+                    final MSClause cr = new MSClause(learntClause, true, this.clauseArena);
                     this.learnts.push(cr);
                     attachClause(cr);
                     if (!this.incremental) {
@@ -879,11 +920,11 @@ public class MiniCard extends MiniSatStyleSolver {
     protected void simpleRemoveClause(final MSClause c) {
         if (c.isAtMost()) {
             for (int i = 0; i < c.atMostWatchers(); i++) {
-                this.watches.get(c.get(i)).remove(new MSWatcher(c, c.get(i)));
+                this.watches.get(c.get(i)).remove(c);
             }
         } else {
-            this.watches.get(not(c.get(0))).remove(new MSWatcher(c, c.get(1)));
-            this.watches.get(not(c.get(1))).remove(new MSWatcher(c, c.get(0)));
+            this.watches.get(not(c.get(0))).remove(c);
+            this.watches.get(not(c.get(1))).remove(c);
         }
     }
 }
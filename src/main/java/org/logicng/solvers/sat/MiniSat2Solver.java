@@ -55,7 +55,11 @@ import org.logicng.handlers.SATHandler;
 import org.logicng.propositions.Proposition;
 import org.logicng.solvers.datastructures.MSClause;
 import org.logicng.solvers.datastructures.MSVariable;
-import org.logicng.solvers.datastructures.MSWatcher;
+import org.logicng.solvers.datastructures.MSWatchList;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A solver based on MiniSAT 2.2.0.  If the incremental mode is deactivated, this version should behave exactly
@@ -65,12 +69,17 @@ import org.logicng.solvers.datastructures.MSWatcher;
  * Therefore, clause deletion and simplifications are deactivated in this mode.  This mode is most efficient on small
  * to mid-size industrial formulas (up to 50,000 variables, 100,000 clauses).  Whenever you have lots of small formulas
  * to solve or need the ability to add and delete formulas from the solver, we recommend to consider this mode.
- * @version 2.1.0
+ * <p>
+ * If the incremental mode is deactivated and the preprocessing is activated in the configuration, the original
+ * clauses are simplified by subsumption and bounded variable elimination before solving (cf.
+ * {@link MiniSatPreprocessor}).
+ * @version 2.7.0
  * @since 1.0
  */
 public class MiniSat2Solver extends MiniSatStyleSolver {
 
     protected LNGIntVector unitClauses;
+    protected MiniSatPreprocessor preprocessor;
 
     /**
      * Constructs a new MiniSAT 2 solver with the default values for solver configuration.  By default, incremental mode
@@ -89,6 +98,17 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         this.initializeMiniSAT();
     }
 
+    /**
+     * Constructs a fork of a given MiniSAT 2 solver.
+     * @param other        the solver
+     * @param clauseCopies the mapping from the clauses of the given solver to their copies
+     */
+    protected MiniSat2Solver(final MiniSat2Solver other, final Map<MSClause, MSClause> clauseCopies) {
+        super(other, clauseCopies);
+        this.unitClauses = new LNGIntVector(other.unitClauses);
+        this.preprocessor = other.preprocessor == null ? null : new MiniSatPreprocessor(other.preprocessor, this);
+    }
+
     /**
      * Initializes the additional parameters.
      */
@@ -99,6 +119,20 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         this.learntsizeAdjustStartConfl = 100;
         this.learntsizeAdjustInc = 1.5;
         this.maxLearnts = 0;
+        this.preprocessor = this.config.preprocessing && !this.incremental && !this.config.proofGeneration
+                ? new MiniSatPreprocessor(this) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UnsupportedOperationException if this solver is an instance of a subclass which does not support forking
+     */
+    @Override
+    public MiniSat2Solver fork() {
+        if (this.getClass() != MiniSat2Solver.class) {
+            return (MiniSat2Solver) super.fork();
+        }
+        return new MiniSat2Solver(this, new IdentityHashMap<>());
     }
 
     @Override
@@ -106,17 +140,18 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         final int v = this.vars.size();
         final MSVariable newVar = new MSVariable(sign);
         this.vars.push(newVar);
-        this.watches.push(new LNGVector<>());
-        this.watches.push(new LNGVector<>());
+        this.watches.push(new MSWatchList());
+        this.watches.push(new MSWatchList());
         this.seen.push(false);
         newVar.setDecision(dvar);
+        initializeBranchingScores(v);
         insertVarOrder(v);
         return v;
     }
 
     @Override
     public boolean addClause(final LNGIntVector ps, final Proposition proposition) {
-        assert decisionLevel() == 0;
+        releaseTrail();
         int p;
         int i;
         int j;
@@ -127,6 +162,9 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             }
             this.pgOriginalClauses.push(new ProofInformation(vec, proposition));
         }
+        if (this.preprocessor != null) {
+            this.preprocessor.clauseAdded(ps);
+        }
         if (!this.ok) {
             return false;
         }
@@ -187,7 +225,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             }
             return this.ok;
         } else {
-            final MSClause c = new MSClause(ps, false);
+            final MSClause c = new MSClause(ps, false, this.clauseArena);
             this.clauses.push(c);
             attachClause(c);
         }
@@ -198,8 +236,12 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
     public Tristate solve(final SATHandler handler) {
         this.handler = handler;
         start(handler);
+        reuseTrail();
         this.model.clear();
         this.conflict.clear();
+        if (this.preprocessor != null && !this.preprocessor.preprocess(this.assumptions)) {
+            this.ok = false;
+        }
         if (!this.ok) {
             return Tristate.FALSE;
         }
@@ -209,8 +251,9 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         Tristate status = Tristate.UNDEF;
         int currRestarts = 0;
         while (status == Tristate.UNDEF && !this.canceledByHandler) {
+            localSearchPhase(currRestarts);
             final double restBase = luby(this.restartInc, currRestarts);
-            status = search((int) (restBase * this.restartFirst));
+            status = importSharedClauses() ? search((int) (restBase * this.restartFirst)) : Tristate.FALSE;
             currRestarts++;
         }
 
@@ -225,11 +268,18 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             for (final MSVariable v : this.vars) {
                 this.model.push(v.assignment() == Tristate.TRUE);
             }
+            if (this.preprocessor != null) {
+                this.preprocessor.extendModel(this.model);
+            }
         } else if (status == Tristate.FALSE && this.conflict.empty()) {
             this.ok = false;
         }
         finishSolving(handler);
-        cancelUntil(0);
+        if (this.preprocessor == null) {
+            retainTrail(status);
+        } else {
+            releaseTrail();
+        }
         this.handler = null;
         this.canceledByHandler = false;
         return status;
@@ -241,11 +291,57 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         this.initializeMiniSAT();
     }
 
+    /**
+     * Returns whether this solver preprocesses its clauses before solving.
+     * @return {@code true} if the solver preprocesses its clauses, {@code false} otherwise
+     */
+    public boolean preprocessing() {
+        return this.preprocessor != null;
+    }
+
+    /**
+     * Freezes or unfreezes a variable for the preprocessing.  A frozen variable is never eliminated.  Freezing an
+     * eliminated variable restores it.  This method has no effect if the solver does not preprocess its clauses.
+     * @param var    the variable index
+     * @param frozen {@code true} if the variable should be frozen, {@code false} otherwise
+     */
+    public void setFrozen(final int var, final boolean frozen) {
+        if (this.preprocessor != null) {
+            this.preprocessor.setFrozen(var, frozen);
+        }
+    }
+
+    @Override
+    public boolean isEliminated(final int var) {
+        return this.preprocessor != null && this.preprocessor.isEliminated(var);
+    }
+
+    @Override
+    protected void freezeVariables(final List<Integer> variables) {
+        if (this.preprocessor != null) {
+            this.preprocessor.freezeVars(variables);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The variables of the constraint are frozen for the preprocessing since the preprocessing only eliminates
+     * variables of clauses.
+     */
+    @Override
+    public boolean addXor(final LNGIntVector ps, final boolean parity) {
+        if (this.preprocessor != null) {
+            this.preprocessor.freezeLits(ps);
+        }
+        return super.addXor(ps, parity);
+    }
+
     /**
      * Saves and returns the solver state expressed as an integer array which stores the length of the internal data
-     * structures.  The array has length 5 and has the following layout:
+     * structures.  The array has length 8 and has the following layout:
      * <p>
-     * {@code | current solver state | #vars | #clauses | #learnt clauses | #unit clauses | #pg original | #pg proof}
+     * {@code | current solver state | #vars | #clauses | #learnt clauses | #unit clauses | #pg original | #pg proof | #xors}
      * @return the current solver state
      */
     @Override
@@ -254,7 +350,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             throw new IllegalStateException("Cannot save a state when the incremental mode is deactivated");
         }
         final int[] state;
-        state = new int[7];
+        state = new int[8];
         state[0] = this.ok ? 1 : 0;
         state[1] = this.vars.size();
         state[2] = this.clauses.size();
@@ -264,6 +360,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             state[5] = this.pgOriginalClauses.size();
             state[6] = this.pgProof.size();
         }
+        state[7] = this.xors.size();
         return state;
     }
 
@@ -272,6 +369,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         if (!this.incremental) {
             throw new IllegalStateException("Cannot load a state when the incremental mode is deactivated");
         }
+        releaseTrail();
         int i;
         completeBacktrack();
         this.ok = state[0] == 1;
@@ -290,11 +388,18 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             simpleRemoveClause(this.learnts.get(i));
         }
         this.learnts.shrinkTo(newLearntsSize);
+        checkGarbage();
         this.watches.shrinkTo(newVarsSize * 2);
+        shrinkXors(Math.min(state[7], this.xors.size()), newVarsSize);
         this.unitClauses.shrinkTo(state[4]);
         for (i = 0; this.ok && i < this.unitClauses.size(); i++) {
-            uncheckedEnqueue(this.unitClauses.get(i), null);
-            this.ok = propagate() == null;
+            final int unit = this.unitClauses.get(i);
+            if (value(unit) == Tristate.UNDEF) {
+                uncheckedEnqueue(unit, null);
+                this.ok = propagate() == null;
+            } else {
+                this.ok = value(unit) == Tristate.TRUE;
+            }
         }
         if (this.config.proofGeneration) {
             final int newPgOriginalSize = Math.min(state[5], this.pgOriginalClauses.size());
@@ -312,13 +417,14 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         var.setReason(reason);
         var.setLevel(decisionLevel());
         this.trail.push(lit);
+        varAssigned(var(lit));
     }
 
     @Override
     protected void attachClause(final MSClause c) {
         assert c.size() > 1;
-        this.watches.get(not(c.get(0))).push(new MSWatcher(c, c.get(1)));
-        this.watches.get(not(c.get(1))).push(new MSWatcher(c, c.get(0)));
+        this.watches.get(not(c.get(0))).push(c, c.get(1));
+        this.watches.get(not(c.get(1))).push(c, c.get(0));
         if (c.learnt()) {
             this.learntsLiterals += c.size();
         } else {
@@ -329,8 +435,8 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
     @Override
     protected void detachClause(final MSClause c) {
         assert c.size() > 1;
-        this.watches.get(not(c.get(0))).remove(new MSWatcher(c, c.get(1)));
-        this.watches.get(not(c.get(1))).remove(new MSWatcher(c, c.get(0)));
+        this.watches.get(not(c.get(0))).remove(c);
+        this.watches.get(not(c.get(1))).remove(c);
         if (c.learnt()) {
             this.learntsLiterals -= c.size();
         } else {
@@ -357,23 +463,22 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
 
     @Override
     protected MSClause propagate() {
-        MSClause confl = null;
+        MSClause confl = this.qhead == this.trail.size() ? eliminateXors() : null;
         int numProps = 0;
         while (this.qhead < this.trail.size()) {
             final int p = this.trail.get(this.qhead++);
-            final LNGVector<MSWatcher> ws = this.watches.get(p);
+            final MSWatchList ws = this.watches.get(p);
             int iInd = 0;
             int jInd = 0;
             numProps++;
             while (iInd < ws.size()) {
-                final MSWatcher i = ws.get(iInd);
-                final int blocker = i.blocker();
+                final int blocker = ws.blocker(iInd);
                 if (value(blocker) == Tristate.TRUE) {
-                    ws.set(jInd++, i);
+                    ws.move(jInd++, iInd);
                     iInd++;
                     continue;
                 }
-                final MSClause c = i.clause();
+                final MSClause c = ws.clause(iInd);
                 final int falseLit = not(p);
                 if (c.get(0) == falseLit) {
                     c.set(0, c.get(1));
@@ -382,9 +487,8 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
                 assert c.get(1) == falseLit;
                 iInd++;
                 final int first = c.get(0);
-                final MSWatcher w = new MSWatcher(c, first);
                 if (first != blocker && value(first) == Tristate.TRUE) {
-                    ws.set(jInd++, w);
+                    ws.set(jInd++, c, first);
                     continue;
                 }
                 boolean foundWatch = false;
@@ -392,24 +496,27 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
                     if (value(c.get(k)) != Tristate.FALSE) {
                         c.set(1, c.get(k));
                         c.set(k, falseLit);
-                        this.watches.get(not(c.get(1))).push(w);
+                        this.watches.get(not(c.get(1))).push(c, first);
                         foundWatch = true;
                     }
                 }
                 if (!foundWatch) {
-                    ws.set(jInd++, w);
+                    ws.set(jInd++, c, first);
                     if (value(first) == Tristate.FALSE) {
                         confl = c;
                         this.qhead = this.trail.size();
                         while (iInd < ws.size()) {
-                            ws.set(jInd++, ws.get(iInd++));
+                            ws.move(jInd++, iInd++);
                         }
                     } else {
                         uncheckedEnqueue(first, c);
                     }
                 }
             }
-            ws.removeElements(iInd - jInd);
+            ws.shrinkTo(jInd);
+            if (confl == null) {
+                confl = propagateXors(p);
+            }
         }
         this.simpDBProps -= numProps;
         return confl;
@@ -490,6 +597,8 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             }
         }
         this.learnts.removeElements(i - j);
+        checkGarbage();
+        this.vivificationPending = this.vivification;
     }
 
     @Override
@@ -508,6 +617,11 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
                         if (value(c.get(k)) == Tristate.FALSE) {
                             c.set(k--, c.get(c.size() - 1));
                             c.pop();
+                            if (c.learnt()) {
+                                this.learntsLiterals--;
+                            } else {
+                                this.clausesLiterals--;
+                            }
                         }
                     }
                 }
@@ -534,6 +648,9 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
             this.ok = false;
             return false;
         }
+        if (this.vivificationPending && !vivifyLearnts()) {
+            return false;
+        }
         if (nAssigns() == this.simpDBAssigns || (this.simpDBProps > 0)) {
             return true;
         }
@@ -541,6 +658,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
         if (this.shouldRemoveSatsisfied) {
             removeSatisfied(this.clauses);
         }
+        checkGarbage();
         rebuildOrderHeap();
         this.simpDBAssigns = nAssigns();
         this.simpDBProps = this.clausesLiterals + this.learntsLiterals;
@@ -567,7 +685,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
                     return Tristate.UNDEF;
                 }
                 conflictC++;
-                if (decisionLevel() == 0) {
+                if (decisionLevel() == 0 || !this.ok) {
                     return Tristate.FALSE;
                 }
                 final LNGIntVector learntClause = new LNGIntVector();
@@ -586,11 +704,12 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
                     this.pgProof.push(vec);
                 }
 
+                exportLearnt(learntClause, learntClause.size());
                 if (learntClause.size() == 1) {
                     uncheckedEnqueue(learntClause.get(0), null);
                     this.unitClauses.push(learntClause.get(0));
                 } else {
-                    final MSClause cr = new MSClause(learntClause, true);
+                    final MSClause cr = new MSClause(learntClause, true, this.clauseArena);
                     this.learnts.push(cr);
                     attachClause(cr);
                     if (!this.incremental) {
@@ -753,7 +872,7 @@ public class MiniSat2Solver extends MiniSatStyleSolver {
      * @param c the clause to remove
      */
     protected void simpleRemoveClause(final MSClause c) {
-        this.watches.get(not(c.get(0))).remove(new MSWatcher(c, c.get(1)));
-        this.watches.get(not(c.get(1))).remove(new MSWatcher(c, c.get(0)));
+        this.watches.get(not(c.get(0))).remove(c);
+        this.watches.get(not(c.get(1))).remove(c);
     }
 }
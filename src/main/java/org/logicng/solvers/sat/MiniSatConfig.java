@@ -35,7 +35,7 @@ import org.logicng.solvers.SATSolver;
 
 /**
  * The configuration object for a MiniSAT-style SAT solver.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.0
  */
 public final class MiniSatConfig extends Configuration {
@@ -76,6 +76,19 @@ public final class MiniSatConfig extends Configuration {
         FACTORY_CNF, PG_ON_SOLVER, FULL_PG_ON_SOLVER
     }
 
+    /**
+     * The different branching heuristics.
+     * <ul>
+     * <li> {@code VSIDS} - the variable state independent decaying sum heuristic of MiniSAT, see {@link VSIDSHeuristic}
+     * <li> {@code VMTF} - the variable move to front heuristic, see {@link VMTFHeuristic}
+     * <li> {@code LRB} - the learning rate based heuristic, see {@link LRBHeuristic}
+     * <li> {@code CHB} - the conflict history-based heuristic, see {@link CHBHeuristic}
+     * </ul>
+     */
+    public enum BranchingHeuristicType {
+        VSIDS, VMTF, LRB, CHB
+    }
+
     final double varDecay;
     final double varInc;
     final ClauseMinimization clauseMin;
@@ -93,6 +106,15 @@ public final class MiniSatConfig extends Configuration {
     final boolean bbInitialUBCheckForRotatableLiterals;
     final boolean bbCheckForComplementModelLiterals;
     final boolean bbCheckForRotatableLiterals;
+    final boolean preprocessing;
+    final boolean trailReuse;
+    final boolean vivification;
+    final int gaussMaxLevel;
+    final BranchingHeuristicType branchingHeuristic;
+    final BranchingHeuristicType alternativeBranchingHeuristic;
+    final int branchingSwitchInterval;
+    final int localSearchFlips;
+    final int localSearchInterval;
 
     /**
      * Constructs a new MiniSAT configuration from a given builder.
@@ -117,6 +139,15 @@ public final class MiniSatConfig extends Configuration {
         this.bbInitialUBCheckForRotatableLiterals = builder.bbInitialUBCheckForRotatableLiterals;
         this.bbCheckForComplementModelLiterals = builder.bbCheckForComplementModelLiterals;
         this.bbCheckForRotatableLiterals = builder.bbCheckForRotatableLiterals;
+        this.preprocessing = builder.preprocessing;
+        this.trailReuse = builder.trailReuse;
+        this.vivification = builder.vivification;
+        this.gaussMaxLevel = builder.gaussMaxLevel;
+        this.branchingHeuristic = builder.branchingHeuristic;
+        this.alternativeBranchingHeuristic = builder.alternativeBranchingHeuristic;
+        this.branchingSwitchInterval = builder.branchingSwitchInterval;
+        this.localSearchFlips = builder.localSearchFlips;
+        this.localSearchInterval = builder.localSearchInterval;
     }
 
     /**
@@ -167,6 +198,81 @@ public final class MiniSatConfig extends Configuration {
         return this.auxiliaryVariablesInModels;
     }
 
+    /**
+     * Returns whether the solver should preprocess its clauses before solving or not.
+     * @return {@code true} if the solver should preprocess its clauses, {@code false} otherwise
+     */
+    public boolean preprocessing() {
+        return this.preprocessing;
+    }
+
+    /**
+     * Returns whether the solver should keep the decision levels of the assumptions on the trail between two calls
+     * to {@code solve} or not.
+     * @return {@code true} if the solver should reuse its trail, {@code false} otherwise
+     */
+    public boolean trailReuse() {
+        return this.trailReuse;
+    }
+
+    /**
+     * Returns whether the solver should vivify its learnt clauses.
+     * @return {@code true} if the learnt clauses should be vivified, {@code false} otherwise
+     */
+    public boolean vivification() {
+        return this.vivification;
+    }
+
+    /**
+     * Returns the maximal decision level on which the solver performs the Gauss-Jordan elimination of its XOR
+     * constraints.
+     * @return the maximal decision level of the Gauss-Jordan elimination
+     */
+    public int gaussMaxLevel() {
+        return this.gaussMaxLevel;
+    }
+
+    /**
+     * Returns the branching heuristic of the solver.
+     * @return the branching heuristic
+     */
+    public BranchingHeuristicType branchingHeuristic() {
+        return this.branchingHeuristic;
+    }
+
+    /**
+     * Returns the alternative branching heuristic of the solver.
+     * @return the alternative branching heuristic
+     */
+    public BranchingHeuristicType alternativeBranchingHeuristic() {
+        return this.alternativeBranchingHeuristic;
+    }
+
+    /**
+     * Returns the number of conflicts after which the solver switches between its branching heuristic and its
+     * alternative branching heuristic.
+     * @return the number of conflicts between two switches of the branching heuristic
+     */
+    public int branchingSwitchInterval() {
+        return this.branchingSwitchInterval;
+    }
+
+    /**
+     * Returns the maximal number of flips of a local search phase.  A value of 0 or less disables the local search.
+     * @return the maximal number of flips of a local search phase
+     */
+    public int localSearchFlips() {
+        return this.localSearchFlips;
+    }
+
+    /**
+     * Returns the number of restarts between two local search phases.
+     * @return the number of restarts between two local search phases
+     */
+    public int localSearchInterval() {
+        return this.localSearchInterval;
+    }
+
     public double getVarDecay() {
         return this.varDecay;
     }
@@ -247,13 +353,22 @@ public final class MiniSatConfig extends Configuration {
         sb.append("bbInitialUBCheckForRotatableLiterals=").append(this.bbInitialUBCheckForRotatableLiterals).append(System.lineSeparator());
         sb.append("bbCheckForComplementModelLiterals=").append(this.bbCheckForComplementModelLiterals).append(System.lineSeparator());
         sb.append("bbCheckForRotatableLiterals=").append(this.bbCheckForRotatableLiterals).append(System.lineSeparator());
+        sb.append("preprocessing=").append(this.preprocessing).append(System.lineSeparator());
+        sb.append("trailReuse=").append(this.trailReuse).append(System.lineSeparator());
+        sb.append("vivification=").append(this.vivification).append(System.lineSeparator());
+        sb.append("gaussMaxLevel=").append(this.gaussMaxLevel).append(System.lineSeparator());
+        sb.append("branchingHeuristic=").append(this.branchingHeuristic).append(System.lineSeparator());
+        sb.append("alternativeBranchingHeuristic=").append(this.alternativeBranchingHeuristic).append(System.lineSeparator());
+        sb.append("branchingSwitchInterval=").append(this.branchingSwitchInterval).append(System.lineSeparator());
+        sb.append("localSearchFlips=").append(this.localSearchFlips).append(System.lineSeparator());
+        sb.append("localSearchInterval=").append(this.localSearchInterval).append(System.lineSeparator());
         sb.append("}");
         return sb.toString();
     }
 
     /**
      * The builder for a MiniSAT configuration.
-     * @version 2.0.0
+     * @version 2.7.0
      * @since 1.0
      */
     public static class Builder {
@@ -274,6 +389,15 @@ public final class MiniSatConfig extends Configuration {
         private boolean bbInitialUBCheckForRotatableLiterals = true;
         private boolean bbCheckForComplementModelLiterals = true;
         private boolean bbCheckForRotatableLiterals = true;
+        private boolean preprocessing = false;
+        private boolean trailReuse = false;
+        private boolean vivification = false;
+        private int gaussMaxLevel = 0;
+        private BranchingHeuristicType branchingHeuristic = BranchingHeuristicType.VSIDS;
+        private BranchingHeuristicType alternativeBranchingHeuristic = BranchingHeuristicType.VSIDS;
+        private int branchingSwitchInterval = 0;
+        private int localSearchFlips = 0;
+        private int localSearchInterval = 10;
 
         private Builder() {
             // Initialize only via factory
@@ -466,6 +590,122 @@ public final class MiniSatConfig extends Configuration {
             return this;
         }
 
+        /**
+         * Sets whether the solver should preprocess its clauses before solving.  The preprocessing performs
+         * subsumption, self-subsuming resolution, and bounded variable elimination on the original clauses.
+         * Eliminated variables get their values by model reconstruction and are restored automatically as soon as
+         * they occur in a new clause or an assumption.  The preprocessing is only performed by the MiniSAT solver in
+         * non-incremental mode without proof generation.  The default value is {@code false}.
+         * @param preprocessing {@code true} if the clauses should be preprocessed, {@code false} otherwise
+         * @return the builder
+         */
+        public Builder preprocessing(final boolean preprocessing) {
+            this.preprocessing = preprocessing;
+            return this;
+        }
+
+        /**
+         * Sets whether the solver should reuse its trail between two calls to {@code solve}.  If set, the solver
+         * keeps the decision levels of the assumptions and their unit propagations on the trail after a call and
+         * only backtracks to the longest common prefix of these assumptions and the assumptions of the next call.
+         * Adding clauses or loading a state still backtracks to level 0.  The trail is not reused by a solver with
+         * proof generation or preprocessing.  The default value is {@code false}.
+         * @param trailReuse {@code true} if the trail should be reused, {@code false} otherwise
+         * @return the builder
+         */
+        public Builder trailReuse(final boolean trailReuse) {
+            this.trailReuse = trailReuse;
+            return this;
+        }
+
+        /**
+         * Sets whether the solver should vivify its learnt clauses.  If set, the learnt clauses which survived a
+         * reduction of the clause database are shortened on the next restart:  the negations of the literals of a
+         * clause are propagated one after the other and the clause is cut off as soon as the propagation implies one
+         * of its literals or leads to a conflict.  Literals which are implied to be false are removed.  The
+         * vivification is only performed by the MiniSAT and the Glucose solver in the non-incremental mode without
+         * proof generation.  The default value is {@code false}.
+         * @param vivification {@code true} if the learnt clauses should be vivified, {@code false} otherwise
+         * @return the builder
+         */
+        public Builder vivification(final boolean vivification) {
+            this.vivification = vivification;
+            return this;
+        }
+
+        /**
+         * Sets the maximal decision level on which the solver performs the Gauss-Jordan elimination of its XOR
+         * constraints.  The elimination is performed whenever the unit propagation reaches a fixpoint after a variable
+         * of an XOR constraint was assigned.  It detects implications and conflicts of combinations of XOR
+         * constraints which the propagation of the single XOR constraints misses.  Since the matrix is eliminated
+         * from scratch each time, an elimination on deeper levels usually costs more than it saves.  Therefore, the
+         * elimination is only performed on level 0 by default, where it detects unsatisfiable XOR systems and derives
+         * units.  A negative value disables the elimination.  The default value is 0.
+         * @param gaussMaxLevel the maximal decision level of the Gauss-Jordan elimination
+         * @return the builder
+         */
+        public Builder gaussMaxLevel(final int gaussMaxLevel) {
+            this.gaussMaxLevel = gaussMaxLevel;
+            return this;
+        }
+
+        /**
+         * Sets the branching heuristic which selects the decision variables of the solver.  The default value is
+         * {@code VSIDS}.
+         * @param branchingHeuristic the branching heuristic
+         * @return the builder
+         */
+        public Builder branchingHeuristic(final BranchingHeuristicType branchingHeuristic) {
+            this.branchingHeuristic = branchingHeuristic;
+            return this;
+        }
+
+        /**
+         * Sets the alternative branching heuristic.  If a switch interval is set, the solver alternates between the
+         * branching heuristic and the alternative branching heuristic.  Both heuristics keep their scores while the
+         * other one is active.  The default value is {@code VSIDS}.
+         * @param alternativeBranchingHeuristic the alternative branching heuristic
+         * @return the builder
+         */
+        public Builder alternativeBranchingHeuristic(final BranchingHeuristicType alternativeBranchingHeuristic) {
+            this.alternativeBranchingHeuristic = alternativeBranchingHeuristic;
+            return this;
+        }
+
+        /**
+         * Sets the number of conflicts after which the solver switches between the branching heuristic and the
+         * alternative branching heuristic.  A value of 0 or less disables the switching.  The default value is 0.
+         * @param branchingSwitchInterval the number of conflicts between two switches of the branching heuristic
+         * @return the builder
+         */
+        public Builder branchingSwitchInterval(final int branchingSwitchInterval) {
+            this.branchingSwitchInterval = branchingSwitchInterval;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of flips of a local search phase.  If set, the solver runs a ProbSAT-style local
+         * search on its original clauses every few restarts and uses the best assignment found as saved phases of the
+         * unassigned variables.  A value of 0 or less disables the local search.  The default value is 0.
+         * @param localSearchFlips the maximal number of flips of a local search phase
+         * @return the builder
+         */
+        public Builder localSearchFlips(final int localSearchFlips) {
+            this.localSearchFlips = localSearchFlips;
+            return this;
+        }
+
+        /**
+         * Sets the number of restarts between two local search phases.  The first local search phase is run before
+         * the first restart.  The default value is 10.
+         * @param localSearchInterval the number of restarts between two local search phases
+         * @return the builder
+         */
+        public Builder localSearchInterval(final int localSearchInterval) {
+            this.localSearchInterval = localSearchInterval;
+            return this;
+        }
+
         /**
          * Builds the MiniSAT configuration.
          * @return the configuration
@@ -0,0 +1,686 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.logicng.solvers.sat.MiniSatStyleSolver.LIT_UNDEF;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.sign;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
+
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.solvers.datastructures.MSClause;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A SatELite-style preprocessor for the {@link MiniSat2Solver} (inspired by MiniSat's {@code SimpSolver}).
+ * <p>
+ * The preprocessor works on the original clauses of the solver on decision level 0 and performs
+ * <ul>
+ * <li>backward subsumption: clauses subsumed by another clause are removed</li>
+ * <li>self-subsuming resolution: a literal {@code l} is removed from a clause {@code d} if there is a
+ * clause {@code c} with {@code ~l} in {@code c} and {@code c \ {~l}} a subset of {@code d}</li>
+ * <li>bounded variable elimination: a variable is replaced by all non-tautological resolvents of its
+ * clauses if this does not increase the number of clauses</li>
+ * </ul>
+ * Occurrence lists are only built for the duration of a preprocessing run.  The clauses of an eliminated
+ * variable are stored on an elimination stack which is used to extend the models of the solver to the
+ * eliminated variables.  A variable which is used in a new clause or in an assumption after it was
+ * eliminated is restored by adding its clauses again.  Restored variables and variables used in
+ * assumptions are frozen, i.e. they are never eliminated again.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+final class MiniSatPreprocessor {
+
+    /**
+     * The maximal length of a resolvent during variable elimination.
+     */
+    private static final int RESOLVENT_LENGTH_LIMIT = 20;
+
+    /**
+     * The maximal number of resolution steps which are tested for the elimination of a single variable.
+     */
+    private static final int RESOLUTION_LIMIT = 2500;
+
+    /**
+     * The maximal number of occurrences of a variable whose clauses are tested for subsumption.
+     */
+    private static final int SUBSUMPTION_LIMIT = 1000;
+
+    /**
+     * Marks a failed subsumption check with more than one complementary literal.
+     */
+    private static final int LIT_ERROR = -2;
+
+    private final MiniSat2Solver solver;
+    private final LNGBooleanVector frozen;
+    private final LNGVector<LNGVector<LNGIntVector>> elimClauses;
+    private final LNGIntVector elimOrder;
+    private final LNGVector<LNGVector<LNGIntVector>> clausesToRestore;
+    private LNGVector<LNGVector<MSClause>> occurs;
+    private Set<MSClause> removed;
+    private final LNGIntVector marks;
+    private int stamp;
+    private int clausesAtLastRun;
+    private int addedSinceLastRun;
+
+    /**
+     * Constructs a new preprocessor for the given solver.
+     * @param solver the solver
+     */
+    MiniSatPreprocessor(final MiniSat2Solver solver) {
+        this.solver = solver;
+        this.frozen = new LNGBooleanVector();
+        this.elimClauses = new LNGVector<>();
+        this.elimOrder = new LNGIntVector();
+        this.clausesToRestore = new LNGVector<>();
+        this.marks = new LNGIntVector();
+        this.stamp = 0;
+        this.clausesAtLastRun = -1;
+        this.addedSinceLastRun = 0;
+    }
+
+    /**
+     * Constructs a copy of a given preprocessor for a forked solver.  The stored clauses of eliminated variables
+     * are never changed once they are stored and therefore shared with the given preprocessor.
+     * @param other  the preprocessor
+     * @param solver the forked solver
+     */
+    MiniSatPreprocessor(final MiniSatPreprocessor other, final MiniSat2Solver solver) {
+        this.solver = solver;
+        this.frozen = new LNGBooleanVector(other.frozen);
+        this.elimClauses = copyOf(other.elimClauses);
+        this.elimOrder = new LNGIntVector(other.elimOrder);
+        this.clausesToRestore = copyOf(other.clausesToRestore);
+        this.marks = new LNGIntVector(other.marks);
+        this.stamp = other.stamp;
+        this.clausesAtLastRun = other.clausesAtLastRun;
+        this.addedSinceLastRun = other.addedSinceLastRun;
+    }
+
+    private static LNGVector<LNGVector<LNGIntVector>> copyOf(final LNGVector<LNGVector<LNGIntVector>> vectors) {
+        final LNGVector<LNGVector<LNGIntVector>> copy = new LNGVector<>(vectors.size());
+        for (final LNGVector<LNGIntVector> vector : vectors) {
+            copy.push(vector);
+        }
+        return copy;
+    }
+
+    /**
+     * Sets whether a variable is frozen.  A frozen variable is never eliminated.  Freezing an eliminated variable
+     * restores it.
+     * @param var    the variable index
+     * @param frozen {@code true} if the variable should be frozen, {@code false} otherwise
+     */
+    void setFrozen(final int var, final boolean frozen) {
+        if (frozen) {
+            restoreVar(var);
+        }
+        growTo(var);
+        this.frozen.set(var, frozen);
+    }
+
+    /**
+     * Returns whether a variable is frozen.
+     * @param var the variable index
+     * @return {@code true} if the variable is frozen, {@code false} otherwise
+     */
+    boolean isFrozen(final int var) {
+        return var < this.frozen.size() && this.frozen.get(var);
+    }
+
+    /**
+     * Returns whether a variable is currently eliminated.
+     * @param var the variable index
+     * @return {@code true} if the variable is eliminated, {@code false} otherwise
+     */
+    boolean isEliminated(final int var) {
+        return var < this.elimClauses.size() && this.elimClauses.get(var) != null;
+    }
+
+    /**
+     * Returns the number of currently eliminated variables.
+     * @return the number of currently eliminated variables
+     */
+    int numberOfEliminatedVariables() {
+        return this.elimOrder.size();
+    }
+
+    /**
+     * Restores all eliminated variables of the given literals.  This must be called before a clause with these
+     * literals is added to the solver.
+     * @param lits the literals
+     */
+    void clauseAdded(final LNGIntVector lits) {
+        restoreLits(lits, false);
+        this.addedSinceLastRun++;
+    }
+
+    /**
+     * Restores and freezes the variables of the given literals.
+     * @param lits the literals
+     */
+    void freezeLits(final LNGIntVector lits) {
+        restoreLits(lits, true);
+    }
+
+    /**
+     * Restores and freezes the given variables.
+     * @param vars the variable indices
+     */
+    void freezeVars(final List<Integer> vars) {
+        for (final int var : vars) {
+            setFrozen(var, true);
+        }
+    }
+
+    /**
+     * Preprocesses the original clauses of the solver if enough clauses were added since the last run.  The
+     * variables of the given assumptions are frozen before.
+     * @param assumptions the assumptions of the next solver call
+     * @return {@code false} if the preprocessing found the clauses to be unsatisfiable, {@code true} otherwise
+     */
+    boolean preprocess(final LNGIntVector assumptions) {
+        freezeLits(assumptions);
+        if (!this.solver.ok) {
+            return false;
+        }
+        if (this.clausesAtLastRun >= 0 && this.addedSinceLastRun * 10 <= this.clausesAtLastRun) {
+            return true;
+        }
+        assert this.solver.decisionLevel() == 0;
+        if (this.solver.propagate() != null) {
+            return false;
+        }
+        this.removed = new HashSet<>();
+        this.occurs = new LNGVector<>(this.solver.nVars());
+        for (int i = 0; i < this.solver.nVars(); i++) {
+            this.occurs.push(new LNGVector<>());
+        }
+        final boolean ok = buildOccurrences() && subsume() && eliminate();
+        removeEliminatedLearnts();
+        compact(this.solver.clauses);
+        this.occurs = null;
+        this.removed = null;
+        this.clausesAtLastRun = this.solver.clauses.size();
+        this.addedSinceLastRun = 0;
+        if (ok) {
+            this.solver.checkGarbage();
+        }
+        return ok;
+    }
+
+    /**
+     * Extends a model of the solver to the eliminated variables.
+     * @param model the model which is extended in place
+     */
+    void extendModel(final LNGBooleanVector model) {
+        for (int i = this.elimOrder.size() - 1; i >= 0; i--) {
+            final int var = this.elimOrder.get(i);
+            final LNGVector<LNGIntVector> cs = this.elimClauses.get(var);
+            model.set(var, false);
+            for (final LNGIntVector c : cs) {
+                int varLit = LIT_UNDEF;
+                boolean satisfied = false;
+                for (int j = 0; j < c.size() && !satisfied; j++) {
+                    final int lit = c.get(j);
+                    if (var(lit) == var) {
+                        varLit = lit;
+                    }
+                    satisfied = model.get(var(lit)) != sign(lit);
+                }
+                if (!satisfied) {
+                    model.set(var, !sign(varLit));
+                }
+            }
+        }
+    }
+
+    private boolean buildOccurrences() {
+        final LNGVector<MSClause> clauses = this.solver.clauses;
+        for (int i = 0; i < clauses.size(); i++) {
+            final MSClause c = clauses.get(i);
+            if (this.solver.satisfied(c)) {
+                removeClause(c);
+                continue;
+            }
+            if (hasFalseLit(c)) {
+                this.solver.detachClause(c);
+                if (!normalizeAndAttach(c)) {
+                    return false;
+                }
+                if (this.removed.contains(c)) {
+                    continue;
+                }
+            }
+            addOccurrences(c);
+        }
+        return true;
+    }
+
+    private boolean subsume() {
+        final List<MSClause> queue = new ArrayList<>(this.solver.clauses.size());
+        for (int i = 0; i < this.solver.clauses.size(); i++) {
+            queue.add(this.solver.clauses.get(i));
+        }
+        queue.sort((c1, c2) -> Integer.compare(c1.size(), c2.size()));
+        for (final MSClause c : queue) {
+            if (this.removed.contains(c)) {
+                continue;
+            }
+            if (!backwardSubsume(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean backwardSubsume(final MSClause c) {
+        int best = -1;
+        for (int i = 0; i < c.size(); i++) {
+            final int v = var(c.get(i));
+            if (best == -1 || this.occurs.get(v).size() < this.occurs.get(best).size()) {
+                best = v;
+            }
+        }
+        if (this.occurs.get(best).size() > SUBSUMPTION_LIMIT) {
+            return true;
+        }
+        final int cStamp = mark(c);
+        final LNGVector<MSClause> candidates = this.occurs.get(best);
+        for (int k = 0; k < candidates.size(); k++) {
+            final MSClause d = candidates.get(k);
+            if (d == c || d.size() < c.size() || this.removed.contains(d)) {
+                continue;
+            }
+            int count = 0;
+            int flip = LIT_UNDEF;
+            for (int i = 0; i < d.size() && flip != LIT_ERROR; i++) {
+                final int lit = d.get(i);
+                if (this.marks.get(lit) == cStamp) {
+                    count++;
+                } else if (this.marks.get(not(lit)) == cStamp) {
+                    flip = flip == LIT_UNDEF ? lit : LIT_ERROR;
+                    count++;
+                }
+            }
+            if (count != c.size() || flip == LIT_ERROR) {
+                continue;
+            }
+            if (flip == LIT_UNDEF) {
+                removeClause(d);
+            } else if (!strengthen(d, flip)) {
+                return false;
+            }
+            if (this.removed.contains(c)) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private boolean strengthen(final MSClause d, final int lit) {
+        this.solver.detachClause(d);
+        for (int i = 0; i < d.size(); i++) {
+            if (d.get(i) == lit) {
+                d.set(i, d.get(d.size() - 1));
+                d.pop();
+                break;
+            }
+        }
+        return normalizeAndAttach(d);
+    }
+
+    private boolean eliminate() {
+        final List<Integer> candidates = new ArrayList<>();
+        for (int v = 0; v < this.solver.nVars(); v++) {
+            if (!isFrozen(v) && !isEliminated(v) && this.solver.vars.get(v).decision()) {
+                candidates.add(v);
+            }
+        }
+        candidates.sort((v1, v2) -> Integer.compare(this.occurs.get(v1).size(), this.occurs.get(v2).size()));
+        for (final int v : candidates) {
+            if (this.solver.vars.get(v).assignment() != Tristate.UNDEF) {
+                continue;
+            }
+            if (!tryEliminate(v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean tryEliminate(final int v) {
+        final List<MSClause> pos = new ArrayList<>();
+        final List<MSClause> neg = new ArrayList<>();
+        final int posLit = mkLit(v, false);
+        final LNGVector<MSClause> occ = this.occurs.get(v);
+        for (int i = 0; i < occ.size(); i++) {
+            final MSClause c = occ.get(i);
+            if (this.removed.contains(c)) {
+                continue;
+            }
+            if (this.solver.satisfied(c)) {
+                removeClause(c);
+                continue;
+            }
+            final int lit = litOf(c, v);
+            if (lit == posLit) {
+                pos.add(c);
+            } else if (lit == not(posLit)) {
+                neg.add(c);
+            }
+        }
+        if (pos.isEmpty() && neg.isEmpty() || pos.size() * neg.size() > RESOLUTION_LIMIT) {
+            return true;
+        }
+        int resolvents = 0;
+        final LNGIntVector resolvent = new LNGIntVector();
+        for (final MSClause p : pos) {
+            for (final MSClause n : neg) {
+                if (resolve(p, n, v, resolvent)) {
+                    if (++resolvents > pos.size() + neg.size() || resolvent.size() > RESOLVENT_LENGTH_LIMIT) {
+                        return true;
+                    }
+                }
+            }
+        }
+        final LNGVector<LNGIntVector> stored = new LNGVector<>(pos.size() + neg.size());
+        final List<LNGIntVector> newClauses = new ArrayList<>(resolvents);
+        for (final MSClause p : pos) {
+            for (final MSClause n : neg) {
+                if (resolve(p, n, v, resolvent)) {
+                    newClauses.add(new LNGIntVector(resolvent));
+                }
+            }
+        }
+        for (final MSClause c : pos) {
+            stored.push(c.copyLiterals());
+            removeClause(c);
+        }
+        for (final MSClause c : neg) {
+            stored.push(c.copyLiterals());
+            removeClause(c);
+        }
+        growTo(v);
+        this.elimClauses.set(v, stored);
+        this.elimOrder.push(v);
+        this.solver.vars.get(v).setDecision(false);
+        for (final LNGIntVector r : newClauses) {
+            if (!addClause(r)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean resolve(final MSClause p, final MSClause n, final int v, final LNGIntVector resolvent) {
+        resolvent.clear();
+        final int pStamp = mark(p);
+        for (int i = 0; i < p.size(); i++) {
+            if (var(p.get(i)) != v) {
+                resolvent.push(p.get(i));
+            }
+        }
+        for (int i = 0; i < n.size(); i++) {
+            final int lit = n.get(i);
+            if (var(lit) == v || this.marks.get(lit) == pStamp) {
+                continue;
+            }
+            if (this.marks.get(not(lit)) == pStamp) {
+                return false;
+            }
+            resolvent.push(lit);
+        }
+        return true;
+    }
+
+    private void removeEliminatedLearnts() {
+        if (this.elimOrder.empty()) {
+            return;
+        }
+        final LNGVector<MSClause> learnts = this.solver.learnts;
+        int j = 0;
+        for (int i = 0; i < learnts.size(); i++) {
+            final MSClause c = learnts.get(i);
+            boolean eliminated = false;
+            for (int k = 0; k < c.size() && !eliminated; k++) {
+                eliminated = isEliminated(var(c.get(k)));
+            }
+            if (eliminated) {
+                this.solver.removeClause(c);
+            } else {
+                learnts.set(j++, c);
+            }
+        }
+        learnts.shrinkTo(j);
+    }
+
+    private void restoreLits(final LNGIntVector lits, final boolean freeze) {
+        for (int i = 0; i < lits.size(); i++) {
+            final int var = var(lits.get(i));
+            if (freeze) {
+                setFrozen(var, true);
+            } else {
+                restoreVar(var);
+            }
+        }
+    }
+
+    private void restoreVar(final int var) {
+        if (!isEliminated(var)) {
+            return;
+        }
+        final LNGIntVector stack = new LNGIntVector();
+        stack.push(var);
+        while (!stack.empty()) {
+            final int v = stack.back();
+            stack.pop();
+            if (!isEliminated(v)) {
+                continue;
+            }
+            for (final LNGIntVector c : this.elimClauses.get(v)) {
+                for (int i = 0; i < c.size(); i++) {
+                    if (isEliminated(var(c.get(i))) && var(c.get(i)) != v) {
+                        stack.push(var(c.get(i)));
+                    }
+                }
+            }
+            this.frozen.set(v, true);
+            this.solver.vars.get(v).setDecision(true);
+            this.solver.insertVarOrder(v);
+            this.clausesToRestore.push(this.elimClauses.get(v));
+            this.elimClauses.set(v, null);
+        }
+        int j = 0;
+        for (int i = 0; i < this.elimOrder.size(); i++) {
+            if (isEliminated(this.elimOrder.get(i))) {
+                this.elimOrder.set(j++, this.elimOrder.get(i));
+            }
+        }
+        this.elimOrder.shrinkTo(j);
+        for (final LNGVector<LNGIntVector> cs : this.clausesToRestore) {
+            for (final LNGIntVector c : cs) {
+                if (!addClause(new LNGIntVector(c))) {
+                    break;
+                }
+            }
+        }
+        this.clausesToRestore.clear();
+    }
+
+    private boolean addClause(final LNGIntVector lits) {
+        if (!this.solver.ok) {
+            return false;
+        }
+        int j = 0;
+        for (int i = 0; i < lits.size(); i++) {
+            final Tristate value = this.solver.value(lits.get(i));
+            if (value == Tristate.TRUE) {
+                return true;
+            } else if (value == Tristate.UNDEF) {
+                lits.set(j++, lits.get(i));
+            }
+        }
+        lits.shrinkTo(j);
+        if (lits.empty()) {
+            this.solver.ok = false;
+        } else if (lits.size() == 1) {
+            this.solver.uncheckedEnqueue(lits.get(0), null);
+            this.solver.ok = this.solver.propagate() == null;
+        } else {
+            final MSClause c = new MSClause(lits, false, this.solver.clauseArena);
+            this.solver.clauses.push(c);
+            this.solver.attachClause(c);
+            if (this.occurs != null) {
+                addOccurrences(c);
+            }
+        }
+        return this.solver.ok;
+    }
+
+    private boolean normalizeAndAttach(final MSClause c) {
+        if (!normalize(c)) {
+            return false;
+        }
+        if (c.size() > 1 && !this.removed.contains(c)) {
+            this.solver.attachClause(c);
+        }
+        return this.solver.ok;
+    }
+
+    /**
+     * Removes the false literals of a detached clause.  If the clause is satisfied or becomes a unit, it is marked
+     * as removed and the unit is propagated.
+     * @param c the clause
+     * @return {@code false} if the clause became empty or the unit led to a conflict, {@code true} otherwise
+     */
+    private boolean normalize(final MSClause c) {
+        int j = 0;
+        for (int i = 0; i < c.size(); i++) {
+            final int lit = c.get(i);
+            final Tristate value = this.solver.value(lit);
+            if (value == Tristate.TRUE) {
+                markRemoved(c);
+                return true;
+            } else if (value == Tristate.UNDEF) {
+                c.set(j++, lit);
+            }
+        }
+        while (c.size() > j) {
+            c.pop();
+        }
+        if (c.size() == 0) {
+            this.solver.ok = false;
+            return false;
+        } else if (c.size() == 1) {
+            markRemoved(c);
+            this.solver.uncheckedEnqueue(c.get(0), null);
+            this.solver.ok = this.solver.propagate() == null;
+            return this.solver.ok;
+        }
+        return true;
+    }
+
+    private void removeClause(final MSClause c) {
+        this.solver.removeClause(c);
+        markRemoved(c);
+    }
+
+    private void markRemoved(final MSClause c) {
+        if (this.removed != null) {
+            this.removed.add(c);
+        }
+    }
+
+    private void compact(final LNGVector<MSClause> clauses) {
+        if (this.removed.isEmpty()) {
+            return;
+        }
+        int j = 0;
+        for (int i = 0; i < clauses.size(); i++) {
+            if (!this.removed.contains(clauses.get(i))) {
+                clauses.set(j++, clauses.get(i));
+            }
+        }
+        clauses.shrinkTo(j);
+    }
+
+    private boolean hasFalseLit(final MSClause c) {
+        for (int i = 0; i < c.size(); i++) {
+            if (this.solver.value(c.get(i)) == Tristate.FALSE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addOccurrences(final MSClause c) {
+        for (int i = 0; i < c.size(); i++) {
+            this.occurs.get(var(c.get(i))).push(c);
+        }
+    }
+
+    private static int litOf(final MSClause c, final int v) {
+        for (int i = 0; i < c.size(); i++) {
+            if (var(c.get(i)) == v) {
+                return c.get(i);
+            }
+        }
+        return LIT_UNDEF;
+    }
+
+    private int mark(final MSClause c) {
+        while (this.marks.size() < 2 * this.solver.nVars()) {
+            this.marks.push(0);
+        }
+        final int s = ++this.stamp;
+        for (int i = 0; i < c.size(); i++) {
+            this.marks.set(c.get(i), s);
+        }
+        return s;
+    }
+
+    private void growTo(final int var) {
+        while (this.frozen.size() <= var) {
+            this.frozen.push(false);
+        }
+        while (this.elimClauses.size() <= var) {
+            this.elimClauses.push(null);
+        }
+    }
+}
@@ -53,18 +53,25 @@ import org.logicng.collections.LNGBooleanVector;
 import org.logicng.collections.LNGIntVector;
 import org.logicng.collections.LNGVector;
 import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.Literal;
 import org.logicng.formulas.Variable;
 import org.logicng.handlers.SATHandler;
 import org.logicng.propositions.Proposition;
 import org.logicng.solvers.datastructures.LNGHeap;
 import org.logicng.solvers.datastructures.MSClause;
+import org.logicng.solvers.datastructures.MSClauseArena;
+import org.logicng.solvers.datastructures.MSClauseExchange;
+import org.logicng.solvers.datastructures.MSClauseStore;
 import org.logicng.solvers.datastructures.MSVariable;
-import org.logicng.solvers.datastructures.MSWatcher;
+import org.logicng.solvers.datastructures.MSWatchList;
+import org.logicng.solvers.datastructures.MSXorConstraint;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
@@ -74,7 +81,7 @@ import java.util.TreeSet;
 
 /**
  * The super class for all MiniSAT-style solvers.
- * @version 2.1.0
+ * @version 2.7.0
  * @since 1.0
  */
 public abstract class MiniSatStyleSolver {
@@ -84,6 +91,21 @@ public abstract class MiniSatStyleSolver {
      */
     public static final int LIT_UNDEF = -1;
 
+    /**
+     * The fraction of wasted literals in the clause arena which triggers a compaction
+     */
+    protected static final double GARBAGE_FRACTION = 0.2;
+
+    /**
+     * The inverse of the fraction of the literals of all clauses which may be propagated in one round of vivification
+     */
+    protected static final int VIVIFICATION_EFFORT = 10;
+
+    /**
+     * The minimal number of literals which may be propagated in one round of vivification
+     */
+    protected static final int VIVIFICATION_MIN_BUDGET = 1000;
+
     // external solver configuration
     protected MiniSatConfig config;
 
@@ -92,7 +114,8 @@ public abstract class MiniSatStyleSolver {
     protected int qhead;
     protected LNGVector<MSClause> clauses;
     protected LNGVector<MSClause> learnts;
-    protected LNGVector<LNGVector<MSWatcher>> watches;
+    protected MSClauseArena clauseArena;
+    protected LNGVector<MSWatchList> watches;
     protected LNGVector<MSVariable> vars;
     protected LNGHeap orderHeap;
     protected LNGIntVector trail;
@@ -100,6 +123,7 @@ public abstract class MiniSatStyleSolver {
     protected LNGBooleanVector model;
     protected LNGIntVector conflict;
     protected LNGIntVector assumptions;
+    protected LNGIntVector trailAssumptions;
     protected LNGBooleanVector seen;
     protected int analyzeBtLevel;
     protected double claInc;
@@ -107,6 +131,18 @@ public abstract class MiniSatStyleSolver {
     protected int simpDBProps;
     protected int clausesLiterals;
     protected int learntsLiterals;
+    protected boolean vivificationPending;
+
+    // XOR constraints and their Gauss-Jordan elimination
+    protected LNGVector<MSXorConstraint> xors;
+    protected LNGVector<LNGVector<MSXorConstraint>> xorWatches;
+    protected LNGIntVector xorColumns;
+    protected LNGIntVector xorColumnVars;
+    protected boolean gaussPending;
+    protected long[][] gaussRows;
+    protected boolean[] gaussParities;
+    protected long[] gaussUnassigned;
+    protected long[] gaussTrue;
 
     // solver configuration
     protected double varDecay;
@@ -119,11 +155,17 @@ public abstract class MiniSatStyleSolver {
     protected double learntsizeFactor;
     protected double learntsizeInc;
     protected boolean incremental;
+    protected boolean vivification;
+    protected int gaussMaxLevel;
 
     // mapping of variable names to variable indices
     protected Map<String, Integer> name2idx;
     protected Map<Integer, String> idx2name;
 
+    // cache of variable ids to variable indices and of variable indices to variables
+    protected LNGIntVector varId2idx;
+    protected LNGVector<Variable> idx2variable;
+
     // SAT handler
     protected SATHandler handler;
     protected boolean canceledByHandler;
@@ -142,12 +184,30 @@ public abstract class MiniSatStyleSolver {
     protected LNGIntVector selectionOrder;
     protected int selectionOrderIdx;
 
+    // branching heuristics
+    protected BranchingHeuristic branchingHeuristic;
+    protected BranchingHeuristic alternativeBranchingHeuristic;
+    protected int branchingSwitchInterval;
+    protected int branchingConflicts;
+
+    // local search
+    protected int localSearchFlips;
+    protected int localSearchInterval;
+    protected int localSearchRuns;
+
     protected double learntsizeAdjustConfl;
     protected int learntsizeAdjustCnt;
     protected int learntsizeAdjustStartConfl;
     protected double learntsizeAdjustInc;
     protected double maxLearnts;
 
+    // clause sharing
+    protected MSClauseExchange clauseExchange;
+    protected int clauseExchangeId;
+    protected long clauseExchangePosition;
+    protected int sharedClauseSizeLimit;
+    protected int sharedClauseLbdLimit;
+
     /**
      * Constructs a new MiniSAT-style solver with a given configuration.
      * @param config the configuration
@@ -157,6 +217,152 @@ public abstract class MiniSatStyleSolver {
         this.initialize();
     }
 
+    /**
+     * Constructs a fork of a given solver.  The fork has the same clauses, learnt clauses, variables, activities,
+     * phases, and variable mappings as the given solver.  The clauses share their literals copy-on-write with the
+     * clauses of the given solver.  The solver must be on decision level 0.  Handlers, clause exchanges, and
+     * temporary state of a computation like a backbone computation are not copied.
+     * @param other        the solver
+     * @param clauseCopies the mapping from the clauses of the given solver to their copies, is filled by this
+     *                     constructor
+     */
+    protected MiniSatStyleSolver(final MiniSatStyleSolver other, final Map<MSClause, MSClause> clauseCopies) {
+        this.config = other.config;
+        this.ok = other.ok;
+        this.qhead = other.qhead;
+        this.clauseArena = new MSClauseArena();
+        this.clauses = forkClauses(other.clauses, other.clauseArena, this.clauseArena, clauseCopies);
+        this.learnts = forkClauses(other.learnts, other.clauseArena, this.clauseArena, clauseCopies);
+        this.watches = forkWatches(other.watches, clauseCopies);
+        this.vars = new LNGVector<>(other.vars.size());
+        for (final MSVariable v : other.vars) {
+            this.vars.push(new MSVariable(v.assignment(), v.level(), v.reason() == null ? null : clauseCopies.get(v.reason()),
+                    v.activity(), v.polarity(), v.decision()));
+        }
+        this.orderHeap = new LNGHeap(this, new LNGIntVector(other.orderHeap.getHeap()), new LNGIntVector(other.orderHeap.getIndices()));
+        this.trail = new LNGIntVector(other.trail);
+        this.trailLim = new LNGIntVector(other.trailLim);
+        this.model = new LNGBooleanVector(other.model);
+        this.conflict = new LNGIntVector(other.conflict);
+        this.assumptions = new LNGIntVector(other.assumptions);
+        this.trailAssumptions = new LNGIntVector(other.trailAssumptions);
+        this.seen = new LNGBooleanVector(other.seen);
+        this.analyzeBtLevel = other.analyzeBtLevel;
+        this.claInc = other.claInc;
+        this.simpDBAssigns = other.simpDBAssigns;
+        this.simpDBProps = other.simpDBProps;
+        this.clausesLiterals = other.clausesLiterals;
+        this.learntsLiterals = other.learntsLiterals;
+        this.vivificationPending = other.vivificationPending;
+        this.xors = new LNGVector<>(other.xors.size());
+        final Map<MSXorConstraint, MSXorConstraint> xorCopies = new IdentityHashMap<>();
+        for (final MSXorConstraint c : other.xors) {
+            final MSXorConstraint copy = new MSXorConstraint(c);
+            xorCopies.put(c, copy);
+            this.xors.push(copy);
+        }
+        this.xorWatches = new LNGVector<>(other.xorWatches.size());
+        for (final LNGVector<MSXorConstraint> ws : other.xorWatches) {
+            final LNGVector<MSXorConstraint> copy = new LNGVector<>(ws.size());
+            for (final MSXorConstraint c : ws) {
+                copy.push(xorCopies.get(c));
+            }
+            this.xorWatches.push(copy);
+        }
+        this.xorColumns = new LNGIntVector(other.xorColumns);
+        this.xorColumnVars = new LNGIntVector(other.xorColumnVars);
+        this.gaussPending = other.gaussPending;
+        this.varDecay = other.varDecay;
+        this.varInc = other.varInc;
+        this.ccminMode = other.ccminMode;
+        this.restartFirst = other.restartFirst;
+        this.restartInc = other.restartInc;
+        this.clauseDecay = other.clauseDecay;
+        this.shouldRemoveSatsisfied = other.shouldRemoveSatsisfied;
+        this.learntsizeFactor = other.learntsizeFactor;
+        this.learntsizeInc = other.learntsizeInc;
+        this.incremental = other.incremental;
+        this.vivification = other.vivification;
+        this.gaussMaxLevel = other.gaussMaxLevel;
+        this.name2idx = new TreeMap<>(other.name2idx);
+        this.idx2name = new TreeMap<>(other.idx2name);
+        this.varId2idx = new LNGIntVector(other.varId2idx);
+        this.idx2variable = new LNGVector<>(other.idx2variable.size());
+        for (final Variable var : other.idx2variable) {
+            this.idx2variable.push(var);
+        }
+        this.canceledByHandler = false;
+        if (other.pgOriginalClauses != null) {
+            this.pgOriginalClauses = new LNGVector<>(other.pgOriginalClauses.size());
+            for (final ProofInformation info : other.pgOriginalClauses) {
+                this.pgOriginalClauses.push(info);
+            }
+            this.pgProof = new LNGVector<>(other.pgProof.size());
+            for (final LNGIntVector step : other.pgProof) {
+                this.pgProof.push(step);
+            }
+        }
+        this.computingBackbone = false;
+        this.selectionOrder = new LNGIntVector(other.selectionOrder);
+        this.selectionOrderIdx = other.selectionOrderIdx;
+        this.branchingHeuristic = other.branchingHeuristic.copy();
+        this.branchingHeuristic.attach(this);
+        if (other.alternativeBranchingHeuristic != null) {
+            this.alternativeBranchingHeuristic = other.alternativeBranchingHeuristic.copy();
+            this.alternativeBranchingHeuristic.attach(this);
+        }
+        this.branchingSwitchInterval = other.branchingSwitchInterval;
+        this.branchingConflicts = other.branchingConflicts;
+        this.localSearchFlips = other.localSearchFlips;
+        this.localSearchInterval = other.localSearchInterval;
+        this.localSearchRuns = other.localSearchRuns;
+        this.learntsizeAdjustConfl = other.learntsizeAdjustConfl;
+        this.learntsizeAdjustCnt = other.learntsizeAdjustCnt;
+        this.learntsizeAdjustStartConfl = other.learntsizeAdjustStartConfl;
+        this.learntsizeAdjustInc = other.learntsizeAdjustInc;
+        this.maxLearnts = other.maxLearnts;
+    }
+
+    /**
+     * Forks the given clauses.
+     * @param clauses      the clauses
+     * @param arena        the clause arena of the clauses
+     * @param forkArena    the clause arena of the forked solver
+     * @param clauseCopies the mapping from the clauses to their copies
+     * @return the copies of the clauses
+     */
+    protected static LNGVector<MSClause> forkClauses(final LNGVector<MSClause> clauses, final MSClauseArena arena,
+                                                     final MSClauseArena forkArena, final Map<MSClause, MSClause> clauseCopies) {
+        final LNGVector<MSClause> copies = new LNGVector<>(clauses.size());
+        for (final MSClause c : clauses) {
+            final MSClause copy = c.fork(arena, forkArena);
+            clauseCopies.put(c, copy);
+            copies.push(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Copies the given watch lists.  Watchers of clauses without a copy are dropped.
+     * @param watches      the watch lists
+     * @param clauseCopies the mapping from the clauses to their copies
+     * @return the copies of the watch lists
+     */
+    protected static LNGVector<MSWatchList> forkWatches(final LNGVector<MSWatchList> watches, final Map<MSClause, MSClause> clauseCopies) {
+        final LNGVector<MSWatchList> copies = new LNGVector<>(watches.size());
+        for (final MSWatchList ws : watches) {
+            final MSWatchList copy = new MSWatchList();
+            for (int i = 0; i < ws.size(); i++) {
+                final MSClause c = clauseCopies.get(ws.clause(i));
+                if (c != null) {
+                    copy.push(c, ws.blocker(i));
+                }
+            }
+            copies.push(copy);
+        }
+        return copies;
+    }
+
     /**
      * Returns the name-to-index mapping for variables.
      * @return the name-to-index mapping
@@ -233,6 +439,7 @@ public abstract class MiniSatStyleSolver {
         this.qhead = 0;
         this.clauses = new LNGVector<>();
         this.learnts = new LNGVector<>();
+        this.clauseArena = new MSClauseArena();
         this.watches = new LNGVector<>();
         this.vars = new LNGVector<>();
         this.orderHeap = new LNGHeap(this);
@@ -241,6 +448,7 @@ public abstract class MiniSatStyleSolver {
         this.model = new LNGBooleanVector();
         this.conflict = new LNGIntVector();
         this.assumptions = new LNGIntVector();
+        this.trailAssumptions = new LNGIntVector();
         this.seen = new LNGBooleanVector();
         this.analyzeBtLevel = 0;
         this.claInc = 1;
@@ -248,8 +456,16 @@ public abstract class MiniSatStyleSolver {
         this.simpDBProps = 0;
         this.clausesLiterals = 0;
         this.learntsLiterals = 0;
+        this.vivificationPending = false;
+        this.xors = new LNGVector<>();
+        this.xorWatches = new LNGVector<>();
+        this.xorColumns = new LNGIntVector();
+        this.xorColumnVars = new LNGIntVector();
+        this.gaussPending = false;
         this.name2idx = new TreeMap<>();
         this.idx2name = new TreeMap<>();
+        this.varId2idx = new LNGIntVector();
+        this.idx2variable = new LNGVector<>();
         this.canceledByHandler = false;
         if (this.config.proofGeneration) {
             this.pgOriginalClauses = new LNGVector<>();
@@ -258,6 +474,15 @@ public abstract class MiniSatStyleSolver {
         this.computingBackbone = false;
         this.selectionOrder = new LNGIntVector();
         this.selectionOrderIdx = 0;
+        this.branchingHeuristic = BranchingHeuristic.of(this.config.branchingHeuristic);
+        this.branchingHeuristic.attach(this);
+        this.alternativeBranchingHeuristic = null;
+        if (this.branchingSwitchInterval > 0) {
+            this.alternativeBranchingHeuristic = BranchingHeuristic.of(this.config.alternativeBranchingHeuristic);
+            this.alternativeBranchingHeuristic.attach(this);
+        }
+        this.branchingConflicts = 0;
+        this.localSearchRuns = 0;
     }
 
     /**
@@ -274,6 +499,11 @@ public abstract class MiniSatStyleSolver {
         this.learntsizeFactor = this.config.learntsizeFactor;
         this.learntsizeInc = this.config.learntsizeInc;
         this.incremental = this.config.incremental;
+        this.vivification = this.config.vivification && !this.config.incremental && !this.config.proofGeneration;
+        this.gaussMaxLevel = this.config.gaussMaxLevel;
+        this.branchingSwitchInterval = this.config.branchingSwitchInterval;
+        this.localSearchFlips = this.config.localSearchFlips;
+        this.localSearchInterval = Math.max(1, this.config.localSearchInterval);
     }
 
     /**
@@ -295,13 +525,13 @@ public abstract class MiniSatStyleSolver {
     }
 
     /**
-     * Compares two variables by their activity.
+     * Compares two variables by their score of the current branching heuristic.
      * @param x the first variable
      * @param y the second variable
-     * @return {@code true} if the first variable's activity is larger than the second one's
+     * @return {@code true} if the first variable's score is larger than the second one's
      */
     public boolean lt(final int x, final int y) {
-        return this.vars.get(x).activity() > this.vars.get(y).activity();
+        return this.branchingHeuristic.score(x) > this.branchingHeuristic.score(y);
     }
 
     /**
@@ -323,6 +553,57 @@ public abstract class MiniSatStyleSolver {
         return this.idx2name.get(var);
     }
 
+    /**
+     * Returns the variable index for a given variable.  In contrast to {@link #idxForName(String)}
+     * repeated lookups of the same variable are answered via its {@link Variable#id() id} without
+     * a lookup of its name.
+     * @param var the variable
+     * @return the variable index for the variable or -1 if the variable is unknown
+     */
+    public int idxForVariable(final Variable var) {
+        final int id = var.id();
+        if (id >= 0 && id < this.varId2idx.size()) {
+            final int idx = this.varId2idx.get(id);
+            if (idx >= 0 && idx < this.vars.size() && idx < this.idx2variable.size() && this.idx2variable.get(idx) == var) {
+                return idx;
+            }
+        }
+        final int idx = this.idxForName(var.name());
+        if (idx != -1) {
+            this.cacheVariable(var, idx);
+        }
+        return idx;
+    }
+
+    /**
+     * Returns the variable for a given variable index if it was added or looked up as variable before.
+     * @param idx the variable index
+     * @return the variable for the index or {@code null} if the variable for this index is not known
+     */
+    public Variable variableForIdx(final int idx) {
+        return idx < this.idx2variable.size() && idx < this.vars.size() ? this.idx2variable.get(idx) : null;
+    }
+
+    /**
+     * Returns the variable of the given formula factory for a given variable index.
+     * @param idx the variable index
+     * @param f   the formula factory
+     * @return the variable for the index or {@code null} if the index has no name
+     */
+    public Variable variableForIdx(final int idx, final FormulaFactory f) {
+        final Variable cached = this.variableForIdx(idx);
+        if (cached != null && cached.factory() == f) {
+            return cached;
+        }
+        final String name = this.nameForIdx(idx);
+        if (name == null) {
+            return null;
+        }
+        final Variable var = f.variable(name);
+        this.cacheVariable(var, idx);
+        return var;
+    }
+
     /**
      * Adds a new variable name with a given variable index to this solver.
      * @param name the variable name
@@ -331,6 +612,34 @@ public abstract class MiniSatStyleSolver {
     public void addName(final String name, final int id) {
         this.name2idx.put(name, id);
         this.idx2name.put(id, name);
+        if (id < this.idx2variable.size()) {
+            this.idx2variable.set(id, null);
+        }
+    }
+
+    /**
+     * Adds a new variable with a given variable index to this solver.
+     * @param var the variable
+     * @param idx the variable index
+     */
+    public void addVariable(final Variable var, final int idx) {
+        this.addName(var.name(), idx);
+        this.cacheVariable(var, idx);
+    }
+
+    private void cacheVariable(final Variable var, final int idx) {
+        final int id = var.id();
+        if (id < 0) {
+            return;
+        }
+        if (id >= this.varId2idx.size()) {
+            this.varId2idx.growTo(id + 1, -1);
+        }
+        this.varId2idx.set(id, idx);
+        if (idx >= this.idx2variable.size()) {
+            this.idx2variable.growTo(idx + 1, null);
+        }
+        this.idx2variable.set(idx, var);
     }
 
     /**
@@ -362,6 +671,108 @@ public abstract class MiniSatStyleSolver {
      */
     public abstract boolean addClause(final LNGIntVector ps, final Proposition proposition);
 
+    /**
+     * Adds an XOR constraint to the solver.  The constraint is satisfied if an odd number of the given literals is
+     * true for parity {@code true} and if an even number of them is true for parity {@code false}.  The constraint
+     * is normalized before it is added:  negative literals are replaced by their variables and flip the parity,
+     * variables occurring twice cancel each other out, and variables assigned on level 0 are replaced by their values.
+     * An XOR constraint over a single variable is added as unit clause.
+     * @param ps     the literals of the constraint
+     * @param parity the parity of the constraint
+     * @return {@code false} if the solver is in a conflicting state after adding the constraint, {@code true} otherwise
+     * @throws IllegalStateException if the solver generates proofs
+     */
+    public boolean addXor(final LNGIntVector ps, final boolean parity) {
+        if (this.config.proofGeneration) {
+            throw new IllegalStateException("XOR constraints cannot be added to a solver with proof generation");
+        }
+        releaseTrail();
+        if (!this.ok) {
+            return false;
+        }
+        boolean p = parity;
+        final LNGIntVector vs = new LNGIntVector(ps.size());
+        for (int i = 0; i < ps.size(); i++) {
+            if (sign(ps.get(i))) {
+                p = !p;
+            }
+            vs.push(var(ps.get(i)));
+        }
+        vs.sort();
+        int j = 0;
+        for (int i = 0; i < vs.size(); i++) {
+            final int var = vs.get(i);
+            if (i + 1 < vs.size() && vs.get(i + 1) == var) {
+                i++;
+            } else if (this.vars.get(var).assignment() == Tristate.TRUE) {
+                p = !p;
+            } else if (this.vars.get(var).assignment() == UNDEF) {
+                vs.set(j++, var);
+            }
+        }
+        vs.removeElements(vs.size() - j);
+        if (vs.empty()) {
+            this.ok = !p;
+            return this.ok;
+        } else if (vs.size() == 1) {
+            return addClause(mkLit(vs.get(0), !p), null);
+        }
+        final MSXorConstraint c = new MSXorConstraint(vs, p);
+        while (this.xorWatches.size() < this.vars.size()) {
+            this.xorWatches.push(new LNGVector<>());
+        }
+        this.xorColumns.growTo(this.vars.size(), -1);
+        for (int i = 0; i < c.size(); i++) {
+            if (this.xorColumns.get(c.get(i)) == -1) {
+                this.xorColumns.set(c.get(i), this.xorColumnVars.size());
+                this.xorColumnVars.push(c.get(i));
+            }
+        }
+        this.xors.push(c);
+        this.xorWatches.get(c.get(0)).push(c);
+        this.xorWatches.get(c.get(1)).push(c);
+        this.gaussPending = true;
+        return true;
+    }
+
+    /**
+     * Removes the XOR constraints which were added after the given number of XOR constraints and the variables which
+     * were added after the given number of variables from the XOR data structures.  This method is used when a
+     * state is loaded.
+     * @param newXorsSize the number of XOR constraints to keep
+     * @param newVarsSize the number of variables to keep
+     */
+    protected void shrinkXors(final int newXorsSize, final int newVarsSize) {
+        for (int i = this.xors.size() - 1; i >= newXorsSize; i--) {
+            final MSXorConstraint c = this.xors.get(i);
+            this.xorWatches.get(c.get(0)).remove(c);
+            this.xorWatches.get(c.get(1)).remove(c);
+        }
+        this.xors.shrinkTo(newXorsSize);
+        this.xorWatches.shrinkTo(newVarsSize);
+        this.xorColumns.clear();
+        this.xorColumnVars.clear();
+        for (final MSXorConstraint c : this.xors) {
+            for (int i = 0; i < c.size(); i++) {
+                this.xorColumns.growTo(c.get(i) + 1, -1);
+                if (this.xorColumns.get(c.get(i)) == -1) {
+                    this.xorColumns.set(c.get(i), this.xorColumnVars.size());
+                    this.xorColumnVars.push(c.get(i));
+                }
+            }
+        }
+        this.gaussPending = true;
+    }
+
+    /**
+     * Returns whether a given variable occurs in an XOR constraint.
+     * @param var the variable index
+     * @return {@code true} if the variable occurs in an XOR constraint, {@code false} otherwise
+     */
+    protected boolean isXorVariable(final int var) {
+        return var < this.xorColumns.size() && this.xorColumns.get(var) != -1;
+    }
+
     /**
      * Solves the formula currently stored in the solver.  Returns {@link Tristate#TRUE} if the formula is satisfiable (SAT),
      * {@link Tristate#FALSE} if the formula is unsatisfiable (UNSAT), or {@link Tristate#UNDEF} if the computation was canceled
@@ -389,6 +800,51 @@ public abstract class MiniSatStyleSolver {
         return result;
     }
 
+    /**
+     * Backtracks to the longest common prefix of the current assumptions and the assumptions whose decision levels
+     * were kept on the trail by the last call to {@link #solve(SATHandler)}.  Since each assumption has its own
+     * decision level, the search continues with the first assumption which differs from the last call.
+     */
+    protected void reuseTrail() {
+        int level = 0;
+        if (decisionLevel() == this.trailAssumptions.size()) {
+            while (level < this.trailAssumptions.size() && level < this.assumptions.size()
+                    && this.trailAssumptions.get(level) == this.assumptions.get(level)) {
+                level++;
+            }
+        }
+        cancelUntil(level);
+        this.trailAssumptions.shrinkTo(level);
+    }
+
+    /**
+     * Backtracks at the end of a call to {@link #solve(SATHandler)}.  If the trail should be reused, the decision
+     * levels of the assumptions are kept on the trail, otherwise the solver backtracks to level 0.  The trail is only
+     * kept if the search ended in a consistent state, i.e. with a result which was not canceled by a handler.
+     * @param status the result of the search
+     */
+    protected void retainTrail(final Tristate status) {
+        this.trailAssumptions.clear();
+        if (this.config.trailReuse && !this.config.proofGeneration && this.ok && status != Tristate.UNDEF) {
+            final int level = Math.min(decisionLevel(), this.assumptions.size());
+            cancelUntil(level);
+            for (int i = 0; i < level; i++) {
+                this.trailAssumptions.push(this.assumptions.get(i));
+            }
+        } else {
+            cancelUntil(0);
+        }
+    }
+
+    /**
+     * Backtracks to level 0 and discards the decision levels which were kept on the trail for reuse.  Must be called
+     * before each operation which requires the solver to be on level 0.
+     */
+    protected void releaseTrail() {
+        cancelUntil(0);
+        this.trailAssumptions.clear();
+    }
+
     /**
      * Resets the solver state.
      */
@@ -481,6 +937,17 @@ public abstract class MiniSatStyleSolver {
         return 1 << (this.vars.get(x).level() & 31);
     }
 
+    /**
+     * Initializes the scores of a new variable in the branching heuristics.
+     * @param x the variable index
+     */
+    protected void initializeBranchingScores(final int x) {
+        this.branchingHeuristic.newVar(x);
+        if (this.alternativeBranchingHeuristic != null) {
+            this.alternativeBranchingHeuristic.newVar(x);
+        }
+    }
+
     /**
      * Inserts a variable (given by its index) into the heap of decision variables.
      * @param x the variable index
@@ -506,6 +973,10 @@ public abstract class MiniSatStyleSolver {
                 }
             }
         }
+        this.branchingHeuristic.beforeDecision();
+        if (this.alternativeBranchingHeuristic != null) {
+            this.alternativeBranchingHeuristic.beforeDecision();
+        }
         int next = -1;
         while (next == -1 || this.vars.get(next).assignment() != UNDEF || !this.vars.get(next).decision()) {
             if (this.orderHeap.empty()) {
@@ -514,26 +985,97 @@ public abstract class MiniSatStyleSolver {
                 next = this.orderHeap.removeMin();
             }
         }
-        return mkLit(next, this.vars.get(next).polarity());
+        return mkLit(next, decisionPolarity(next));
     }
 
     /**
-     * Decays the variable activity increment by the variable decay factor.
+     * Returns the polarity of a decision on the variable at a given index.  By default, this is the saved phase of
+     * the variable.
+     * @param v the variable index
+     * @return the polarity of the decision, {@code true} for a negative literal
+     */
+    protected boolean decisionPolarity(final int v) {
+        return this.vars.get(v).polarity();
+    }
+
+    /**
+     * Reports a conflict to the branching heuristics, e.g. in order to decay the variable activity increment by the
+     * variable decay factor.  If a switch interval for the branching heuristics is configured and the interval is
+     * reached, the branching heuristic and the alternative branching heuristic are swapped and the heap of decision
+     * variables is rebuilt with the scores of the new heuristic.
      */
     protected void varDecayActivity() {
-        this.varInc *= (1 / this.varDecay);
+        this.branchingHeuristic.conflict();
+        if (this.alternativeBranchingHeuristic != null) {
+            this.alternativeBranchingHeuristic.conflict();
+        }
+        if (this.alternativeBranchingHeuristic != null && ++this.branchingConflicts >= this.branchingSwitchInterval) {
+            final BranchingHeuristic active = this.branchingHeuristic;
+            this.branchingHeuristic = this.alternativeBranchingHeuristic;
+            this.alternativeBranchingHeuristic = active;
+            this.branchingConflicts = 0;
+            rebuildOrderHeap();
+        }
+    }
+
+    /**
+     * Runs a local search phase on the original clauses if a local search is configured and the given number of
+     * restarts is a multiple of the local search interval.  The best assignment of the local search is stored as saved
+     * phases of the currently unassigned variables, so that the following search starts close to it.
+     * @param restarts the number of restarts of the current solver call
+     */
+    protected void localSearchPhase(final int restarts) {
+        if (this.localSearchFlips <= 0 || this.computingBackbone || restarts % this.localSearchInterval != 0) {
+            return;
+        }
+        final LocalSearch localSearch = new LocalSearch(this, this.localSearchRuns++);
+        if (localSearch.search(this.assumptions, this.localSearchFlips, null) == Tristate.FALSE) {
+            return;
+        }
+        final LNGBooleanVector best = localSearch.bestAssignment();
+        for (int v = 0; v < this.vars.size(); v++) {
+            final MSVariable var = this.vars.get(v);
+            if (var.assignment() == UNDEF) {
+                var.setPolarity(!best.get(v));
+            }
+        }
     }
 
     /**
-     * Bumps the activity of the variable at a given index.
+     * Bumps the variable at a given index in the branching heuristics.
      * @param v the variable index
      */
     protected void varBumpActivity(final int v) {
-        this.varBumpActivity(v, this.varInc);
+        this.branchingHeuristic.bump(v);
+        if (this.alternativeBranchingHeuristic != null) {
+            this.alternativeBranchingHeuristic.bump(v);
+        }
+    }
+
+    /**
+     * Reports the assignment of the variable at a given index to the branching heuristics.
+     * @param v the variable index
+     */
+    protected void varAssigned(final int v) {
+        this.branchingHeuristic.assigned(v);
+        if (this.alternativeBranchingHeuristic != null) {
+            this.alternativeBranchingHeuristic.assigned(v);
+        }
+    }
+
+    /**
+     * Reports the unassignment of the variable at a given index to the branching heuristics.
+     * @param v the variable index
+     */
+    protected void varUnassigned(final int v) {
+        this.branchingHeuristic.unassigned(v);
+        if (this.alternativeBranchingHeuristic != null) {
+            this.alternativeBranchingHeuristic.unassigned(v);
+        }
     }
 
     /**
-     * Bumps the activity of the variable at a given index by a given value.
+     * Bumps the VSIDS activity of the variable at a given index by a given value.
      * @param v   the variable index
      * @param inc the increment value
      */
@@ -634,6 +1176,261 @@ public abstract class MiniSatStyleSolver {
      */
     protected abstract boolean litRedundant(int p, int abstractLevels, LNGIntVector analyzeToClear);
 
+    /**
+     * Enqueues a literal which is implied by a given reason clause which is not attached to the solver.  The first
+     * literal of the reason is the implied literal, all other literals of the reason are false.
+     * @param lit    the literal
+     * @param reason the reason
+     */
+    protected void enqueueExplained(final int lit, final MSClause reason) {
+        uncheckedEnqueue(lit, reason);
+    }
+
+    /**
+     * Creates a conflict clause which is not attached to the solver from the given literals which are all false.
+     * @param lits the literals
+     * @return the conflict clause
+     */
+    protected MSClause conflictExplanation(final LNGIntVector lits) {
+        return new MSClause(lits, false);
+    }
+
+    /**
+     * Propagates the XOR constraints after a literal became true.  First the XOR constraints watching the variable of
+     * the literal are visited:  if a constraint has no other unassigned variable than its second watched variable,
+     * this variable is implied, and if all its variables are assigned, the parity of the constraint is checked.  Then
+     * the Gauss-Jordan elimination is performed if the propagation queue is empty.  The reason of an implied variable
+     * and a conflict is a clause which consists of the implied literal and the negations of the current values of the
+     * other variables of the (combined) constraint.  On a conflict, the propagation queue is emptied.
+     * @param p the literal
+     * @return the conflict clause or {@code null} if there is no conflict
+     */
+    protected MSClause propagateXors(final int p) {
+        if (this.xors.empty()) {
+            return null;
+        }
+        final int x = var(p);
+        MSClause confl = null;
+        if (isXorVariable(x)) {
+            this.gaussPending = true;
+            final LNGVector<MSXorConstraint> ws = this.xorWatches.get(x);
+            int i = 0;
+            int j = 0;
+            while (i < ws.size()) {
+                final MSXorConstraint c = ws.get(i++);
+                if (confl != null) {
+                    ws.set(j++, c);
+                    continue;
+                }
+                if (c.get(0) == x) {
+                    c.swap(0, 1);
+                }
+                boolean foundWatch = false;
+                int maxInd = 1;
+                for (int k = 2; k < c.size() && !foundWatch; k++) {
+                    final MSVariable v = this.vars.get(c.get(k));
+                    if (v.assignment() == UNDEF) {
+                        c.swap(1, k);
+                        this.xorWatches.get(c.get(1)).push(c);
+                        foundWatch = true;
+                    } else if (v.level() > this.vars.get(c.get(maxInd)).level()) {
+                        maxInd = k;
+                    }
+                }
+                if (foundWatch) {
+                    continue;
+                }
+                if (maxInd != 1) {
+                    c.swap(1, maxInd);
+                    this.xorWatches.get(c.get(1)).push(c);
+                } else {
+                    ws.set(j++, c);
+                }
+                final LNGIntVector lits = new LNGIntVector(c.size());
+                boolean parity = c.parity();
+                for (int k = 1; k < c.size(); k++) {
+                    final boolean value = this.vars.get(c.get(k)).assignment() == Tristate.TRUE;
+                    parity ^= value;
+                    lits.push(mkLit(c.get(k), value));
+                }
+                final Tristate first = this.vars.get(c.get(0)).assignment();
+                if (first == UNDEF) {
+                    final int implied = mkLit(c.get(0), !parity);
+                    lits.push(implied);
+                    lits.set(lits.size() - 1, lits.get(0));
+                    lits.set(0, implied);
+                    enqueueExplained(implied, new MSClause(lits, false));
+                } else if (parity != (first == Tristate.TRUE)) {
+                    lits.push(mkLit(c.get(0), first == Tristate.TRUE));
+                    confl = conflictExplanation(lits);
+                }
+            }
+            ws.shrinkTo(j);
+        }
+        if (confl == null && this.qhead == this.trail.size()) {
+            confl = eliminateXors();
+        }
+        if (confl != null) {
+            this.qhead = this.trail.size();
+        }
+        return confl;
+    }
+
+    /**
+     * Performs the Gauss-Jordan elimination on the matrix of the XOR constraints if a variable of an XOR constraint
+     * was assigned since the last elimination and the current decision level is not greater than the configured
+     * maximal level.  Only unassigned variables are eliminated.  Afterwards, a row without unassigned variables is
+     * either satisfied or a conflict, and a row with a single unassigned variable implies this variable.  A row
+     * without any variables and with odd parity shows that the XOR constraints are unsatisfiable on their own.  In
+     * this case, {@link #ok} is set to {@code false} and an empty conflict clause is returned, which the search
+     * treats as a conflict on level 0 regardless of the current decision level.
+     * @return the conflict clause or {@code null} if there is no conflict
+     */
+    protected MSClause eliminateXors() {
+        if (!this.gaussPending || this.xors.empty() || decisionLevel() > this.gaussMaxLevel) {
+            return null;
+        }
+        this.gaussPending = false;
+        final int rows = this.xors.size();
+        final int words = (this.xorColumnVars.size() + 63) >>> 6;
+        if (this.gaussRows == null || this.gaussRows.length < rows || this.gaussUnassigned.length != words) {
+            this.gaussRows = new long[rows][words];
+            this.gaussParities = new boolean[rows];
+            this.gaussUnassigned = new long[words];
+            this.gaussTrue = new long[words];
+        }
+        Arrays.fill(this.gaussUnassigned, 0);
+        Arrays.fill(this.gaussTrue, 0);
+        for (int col = 0; col < this.xorColumnVars.size(); col++) {
+            final Tristate value = this.vars.get(this.xorColumnVars.get(col)).assignment();
+            if (value == UNDEF) {
+                this.gaussUnassigned[col >>> 6] |= 1L << col;
+            } else if (value == Tristate.TRUE) {
+                this.gaussTrue[col >>> 6] |= 1L << col;
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            final long[] row = this.gaussRows[r];
+            Arrays.fill(row, 0);
+            final MSXorConstraint c = this.xors.get(r);
+            for (int k = 0; k < c.size(); k++) {
+                final int col = this.xorColumns.get(c.get(k));
+                row[col >>> 6] |= 1L << col;
+            }
+            this.gaussParities[r] = c.parity();
+        }
+        int rank = 0;
+        for (int w = 0; w < words && rank < rows; w++) {
+            long candidates = this.gaussUnassigned[w];
+            while (candidates != 0 && rank < rows) {
+                final long bit = Long.lowestOneBit(candidates);
+                candidates ^= bit;
+                int pivot = rank;
+                while (pivot < rows && (this.gaussRows[pivot][w] & bit) == 0) {
+                    pivot++;
+                }
+                if (pivot == rows) {
+                    continue;
+                }
+                final long[] pivotRow = this.gaussRows[pivot];
+                final boolean pivotParity = this.gaussParities[pivot];
+                this.gaussRows[pivot] = this.gaussRows[rank];
+                this.gaussParities[pivot] = this.gaussParities[rank];
+                this.gaussRows[rank] = pivotRow;
+                this.gaussParities[rank] = pivotParity;
+                for (int r = 0; r < rows; r++) {
+                    final long[] row = this.gaussRows[r];
+                    if (r != rank && (row[w] & bit) != 0) {
+                        for (int k = 0; k < words; k++) {
+                            row[k] ^= pivotRow[k];
+                        }
+                        this.gaussParities[r] ^= pivotParity;
+                    }
+                }
+                rank++;
+            }
+        }
+        for (int r = rank; r < rows; r++) {
+            if (this.gaussParities[r] != oddNumberOfTrueColumns(this.gaussRows[r])) {
+                final LNGIntVector lits = gaussExplanation(this.gaussRows[r], LIT_UNDEF);
+                if (lits.empty()) {
+                    this.ok = false;
+                    return new MSClause(lits, false);
+                }
+                return conflictExplanation(lits);
+            }
+        }
+        for (int r = 0; r < rank; r++) {
+            final long[] row = this.gaussRows[r];
+            int unassigned = 0;
+            int col = -1;
+            for (int k = 0; k < words && unassigned < 2; k++) {
+                final long bits = row[k] & this.gaussUnassigned[k];
+                if (bits != 0) {
+                    unassigned += Long.bitCount(bits);
+                    col = (k << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+            if (unassigned == 1) {
+                final boolean value = this.gaussParities[r] != oddNumberOfTrueColumns(row);
+                final int implied = mkLit(this.xorColumnVars.get(col), !value);
+                enqueueExplained(implied, new MSClause(gaussExplanation(row, implied), false));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether an odd number of the assigned variables of a row of the Gauss-Jordan elimination is true.
+     * @param row the row
+     * @return {@code true} if an odd number of the variables is true, {@code false} otherwise
+     */
+    private boolean oddNumberOfTrueColumns(final long[] row) {
+        int count = 0;
+        for (int k = 0; k < row.length; k++) {
+            count += Long.bitCount(row[k] & this.gaussTrue[k]);
+        }
+        return (count & 1) == 1;
+    }
+
+    /**
+     * Creates the literals of a clause which explains an implication or a conflict of a row of the Gauss-Jordan
+     * elimination.  The clause consists of the implied literal and the negations of the current values of the
+     * assigned variables of the row.
+     * @param row     the row
+     * @param implied the implied literal or {@link #LIT_UNDEF} for a conflict
+     * @return the literals of the clause
+     */
+    private LNGIntVector gaussExplanation(final long[] row, final int implied) {
+        final LNGIntVector lits = new LNGIntVector();
+        if (implied != LIT_UNDEF) {
+            lits.push(implied);
+        }
+        for (int k = 0; k < row.length; k++) {
+            long bits = row[k] & ~this.gaussUnassigned[k];
+            while (bits != 0) {
+                final int col = (k << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                lits.push(mkLit(this.xorColumnVars.get(col), (this.gaussTrue[k] & (1L << col)) != 0));
+            }
+        }
+        return lits;
+    }
+
+    /**
+     * Returns a fork of this solver, i.e. an independent solver with the same state which can be used on another
+     * thread than this solver.  The clauses of the fork share their literals copy-on-write with the clauses of this
+     * solver, so forking is considerably cheaper than adding all clauses to a new solver.  The solver must not be
+     * forked during a computation.
+     * <p>
+     * The default implementation does not support forking.
+     * @return the fork
+     * @throws UnsupportedOperationException if this solver cannot be forked
+     */
+    public MiniSatStyleSolver fork() {
+        throw new UnsupportedOperationException("Solvers of type " + this.getClass().getSimpleName() + " cannot be forked.");
+    }
+
     /**
      * Analysis the final conflict if there were assumptions.
      * @param p           the conflicting literal
@@ -649,6 +1446,7 @@ public abstract class MiniSatStyleSolver {
                     final MSVariable v = this.vars.get(x);
                     v.assign(Tristate.UNDEF);
                     v.setPolarity(sign(this.trail.get(c)));
+                    varUnassigned(x);
                     insertVarOrder(x);
                 }
             } else {
@@ -657,6 +1455,7 @@ public abstract class MiniSatStyleSolver {
                     final MSVariable v = this.vars.get(x);
                     v.assign(Tristate.UNDEF);
                     v.setPolarity(!this.computingBackbone && sign(this.trail.get(c)));
+                    varUnassigned(x);
                     insertVarOrder(x);
                 }
             }
@@ -673,6 +1472,209 @@ public abstract class MiniSatStyleSolver {
      */
     protected abstract void reduceDB();
 
+    /**
+     * Vivifies the learnt clauses which were not vivified yet, starting with the last learnt clause.  The negations of
+     * the literals of a clause are assigned and propagated one after the other on a new decision level.  A literal
+     * which is already false is removed from the clause.  If a literal is already true or the propagation leads to a
+     * conflict, the remaining literals are removed.  The vivification stops once the number of propagated literals
+     * exceeds a fraction of the literals of all clauses, but at least a minimal budget.  The number of learnt literals
+     * is kept up to date by detaching each clause before and attaching it again after it was shortened.  Must be
+     * called on decision level 0 after all literals have been propagated.
+     * @return {@code false} if a vivified clause led to a conflict on level 0, {@code true} otherwise
+     */
+    protected boolean vivifyLearnts() {
+        assert decisionLevel() == 0 && this.qhead == this.trail.size();
+        this.vivificationPending = false;
+        long budget = Math.max(VIVIFICATION_MIN_BUDGET, ((long) this.clausesLiterals + this.learntsLiterals) / VIVIFICATION_EFFORT);
+        for (int i = this.learnts.size() - 1; i >= 0 && budget > 0; i--) {
+            final MSClause c = this.learnts.get(i);
+            if (c.vivified() || c.size() <= 2 || locked(c)) {
+                continue;
+            }
+            c.setVivified(true);
+            detachClause(c);
+            this.trailLim.push(this.trail.size());
+            int size = 0;
+            for (int k = 0; k < c.size(); k++) {
+                final int lit = c.get(k);
+                final Tristate value = value(lit);
+                if (value == Tristate.FALSE) {
+                    continue;
+                }
+                if (size != k) {
+                    c.set(size, lit);
+                }
+                size++;
+                if (value == Tristate.TRUE || k == c.size() - 1) {
+                    break;
+                }
+                uncheckedEnqueue(not(lit), null);
+                if (propagate() != null) {
+                    break;
+                }
+            }
+            budget -= this.trail.size() - this.trailLim.get(0);
+            cancelUntil(0);
+            assert size > 0;
+            while (c.size() > size) {
+                c.pop();
+            }
+            if (c.lbd() > c.size()) {
+                c.setLBD(c.size());
+            }
+            if (c.size() > 1) {
+                attachClause(c);
+            } else {
+                this.learnts.set(i, this.learnts.back());
+                this.learnts.pop();
+                if (value(c.get(0)) == Tristate.UNDEF) {
+                    uncheckedEnqueue(c.get(0), null);
+                    if (propagate() != null) {
+                        this.ok = false;
+                        return false;
+                    }
+                }
+            }
+        }
+        return this.ok;
+    }
+
+    /**
+     * Compacts the clause arena if too many of its literals belong to removed clauses.  All clauses and learnt
+     * clauses are moved to a fresh arena, in this order.
+     */
+    protected void checkGarbage() {
+        long live = 0;
+        for (int i = 0; i < this.clauses.size(); i++) {
+            live += this.clauses.get(i).size();
+        }
+        for (int i = 0; i < this.learnts.size(); i++) {
+            live += this.learnts.get(i).size();
+        }
+        if (this.clauseArena.shouldCompact(live, GARBAGE_FRACTION)) {
+            final MSClauseArena to = new MSClauseArena();
+            for (int i = 0; i < this.clauses.size(); i++) {
+                to.relocate(this.clauses.get(i));
+            }
+            for (int i = 0; i < this.learnts.size(); i++) {
+                to.relocate(this.learnts.get(i));
+            }
+            this.clauseArena = to;
+        }
+    }
+
+    /**
+     * Attaches this solver to a clause exchange or detaches it if the exchange is {@code null}.  An attached solver
+     * publishes each learnt clause with at most {@code sizeLimit} literals or an LBD of at most {@code lbdLimit} and,
+     * in the non-incremental mode, adds the clauses published by other solvers as learnt clauses before each restart.
+     * The solver only collects clauses which are published after it was attached.  All solvers of an exchange must
+     * work on the same formulas, and clauses are only exchanged over variables which are known to both solvers.
+     * Clause sharing is disabled for solvers with proof generation.
+     * @param exchange  the clause exchange, may be {@code null}
+     * @param id        the id of this solver in the exchange
+     * @param sizeLimit the maximal size of a published clause
+     * @param lbdLimit  the maximal LBD of a published clause exceeding the size limit
+     */
+    public void setClauseExchange(final MSClauseExchange exchange, final int id, final int sizeLimit, final int lbdLimit) {
+        this.clauseExchange = exchange;
+        this.clauseExchangeId = id;
+        this.clauseExchangePosition = exchange == null ? 0 : exchange.published();
+        this.sharedClauseSizeLimit = sizeLimit;
+        this.sharedClauseLbdLimit = lbdLimit;
+    }
+
+    /**
+     * Publishes a new learnt clause to the clause exchange if it is short enough or has a small LBD.
+     * @param learnt the learnt clause
+     * @param lbd    the LBD of the learnt clause
+     */
+    protected void exportLearnt(final LNGIntVector learnt, final int lbd) {
+        if (this.clauseExchange == null || this.config.proofGeneration
+                || learnt.size() > this.sharedClauseSizeLimit && lbd > this.sharedClauseLbdLimit) {
+            return;
+        }
+        final Variable[] variables = new Variable[learnt.size()];
+        final boolean[] phases = new boolean[learnt.size()];
+        for (int i = 0; i < learnt.size(); i++) {
+            variables[i] = this.variableForIdx(var(learnt.get(i)));
+            if (variables[i] == null) {
+                return;
+            }
+            phases[i] = !sign(learnt.get(i));
+        }
+        this.clauseExchange.publish(this.clauseExchangeId, variables, phases, lbd);
+    }
+
+    /**
+     * Adds the clauses published by other solvers to the clause exchange since the last call as learnt clauses.  The
+     * clauses are only imported on decision level 0 in the non-incremental mode.
+     * @return {@code false} if an imported clause led to a conflict, {@code true} otherwise
+     */
+    protected boolean importSharedClauses() {
+        if (this.clauseExchange == null || this.incremental || this.config.proofGeneration || !this.ok || decisionLevel() != 0) {
+            return this.ok;
+        }
+        final List<MSClauseExchange.SharedClause> shared = new ArrayList<>();
+        this.clauseExchangePosition = this.clauseExchange.collect(this.clauseExchangeId, this.clauseExchangePosition, shared);
+        final LNGIntVector ps = new LNGIntVector();
+        for (final MSClauseExchange.SharedClause clause : shared) {
+            if (!sharedClauseLits(clause, ps)) {
+                continue;
+            }
+            if (ps.empty()) {
+                this.ok = false;
+            } else if (ps.size() == 1) {
+                uncheckedEnqueue(ps.get(0), null);
+                this.ok = propagate() == null;
+            } else {
+                final MSClause c = new MSClause(ps, true, this.clauseArena);
+                c.setLBD(Math.min(clause.lbd(), ps.size()));
+                this.learnts.push(c);
+                attachClause(c);
+                claBumpActivity(c);
+            }
+            if (!this.ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the unassigned literals of a shared clause in this solver.
+     * @param clause the shared clause
+     * @param ps     the vector for the unassigned literals
+     * @return {@code false} if the clause is satisfied or contains variables which are unknown or eliminated in this
+     * solver, {@code true} otherwise
+     */
+    private boolean sharedClauseLits(final MSClauseExchange.SharedClause clause, final LNGIntVector ps) {
+        ps.clear();
+        for (int i = 0; i < clause.size(); i++) {
+            final int idx = this.idxForVariable(clause.variable(i));
+            if (idx == -1 || this.isEliminated(idx)) {
+                return false;
+            }
+            final int lit = mkLit(idx, !clause.phase(i));
+            final Tristate value = value(lit);
+            if (value == Tristate.TRUE) {
+                return false;
+            } else if (value == Tristate.UNDEF) {
+                ps.push(lit);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a variable is currently eliminated by a preprocessing of this solver.  The default
+     * implementation returns {@code false}.
+     * @param var the variable index
+     * @return {@code true} if the variable is eliminated, {@code false} otherwise
+     */
+    public boolean isEliminated(final int var) {
+        return false;
+    }
+
     /**
      * Removes all clauses which are satisfied under the current assignment of a set of clauses.
      * @param cs the set of clauses
@@ -799,9 +1801,7 @@ public abstract class MiniSatStyleSolver {
         final LNGIntVector upZeroLiterals = new LNGIntVector();
         for (int i = 0; i < this.trail.size(); ++i) {
             final int lit = this.trail.get(i);
-            if (v(lit).level() > 0) {
-                break;
-            } else {
+            if (v(lit).level() == 0) {
                 upZeroLiterals.push(lit);
             }
         }
@@ -828,13 +1828,14 @@ public abstract class MiniSatStyleSolver {
      * @return the backbone projected to the relevant variables or {@code null} if the computation was aborted by the handler
      */
     public Backbone computeBackbone(final Collection<Variable> variables, final BackboneType type, final SATHandler handler) {
+        final List<Integer> relevantVarIndices = getRelevantVarIndices(variables);
+        freezeVariables(relevantVarIndices);
         final boolean sat = solve(handler) == Tristate.TRUE;
         if (aborted(handler)) {
             return null;
         }
         if (sat) {
             this.computingBackbone = true;
-            final List<Integer> relevantVarIndices = getRelevantVarIndices(variables);
             initBackboneDS(relevantVarIndices);
             computeBackbone(relevantVarIndices, type, handler);
             if (aborted(handler)) {
@@ -856,16 +1857,25 @@ public abstract class MiniSatStyleSolver {
     protected List<Integer> getRelevantVarIndices(final Collection<Variable> variables) {
         final List<Integer> relevantVarIndices = new ArrayList<>(variables.size());
         for (final Variable var : variables) {
-            final Integer idx = this.name2idx.get(var.name());
+            final int idx = this.idxForVariable(var);
             // Note: Unknown variables are variables added to the solver yet. Thus, these are optional variables and can
             // be left out for the backbone computation.
-            if (idx != null) {
+            if (idx != -1) {
                 relevantVarIndices.add(idx);
             }
         }
         return relevantVarIndices;
     }
 
+    /**
+     * Protects the given variables from being removed by a preprocessing of the solver.  The default implementation
+     * does nothing.
+     * @param variables the variable indices
+     */
+    protected void freezeVariables(final List<Integer> variables) {
+        // no preprocessing by default
+    }
+
     /**
      * Initializes the internal solver state for backbones.
      * @param variables to test
@@ -966,8 +1976,8 @@ public abstract class MiniSatStyleSolver {
         final SortedSet<Variable> negBackboneVars = isBothOrNegativeType(type) ? new TreeSet<>() : null;
         final SortedSet<Variable> optionalVars = isBothType(type) ? new TreeSet<>() : null;
         for (final Variable var : variables) {
-            final Integer idx = this.name2idx.get(var.name());
-            if (idx == null) {
+            final int idx = this.idxForVariable(var);
+            if (idx == -1) {
                 if (isBothType(type)) {
                     optionalVars.add(var);
                 }
@@ -1047,9 +2057,14 @@ public abstract class MiniSatStyleSolver {
         if (v(lit).reason() != null) {
             return false;
         }
+        // A rotatable literal MUST NOT occur in an XOR constraint
+        if (isXorVariable(var(lit))) {
+            return false;
+        }
         // A rotatable literal MUST NOT be unit
-        for (final MSWatcher watcher : this.watches.get(not(lit))) {
-            if (isUnit(lit, watcher.clause())) {
+        final MSWatchList ws = this.watches.get(not(lit));
+        for (int k = 0; k < ws.size(); k++) {
+            if (isUnit(lit, ws.clause(k))) {
                 return false;
             }
         }
@@ -1085,6 +2100,77 @@ public abstract class MiniSatStyleSolver {
         return this.clauses;
     }
 
+    /**
+     * Returns the XOR constraints loaded on the solver.
+     * @return the XOR constraints loaded on the solver
+     */
+    public LNGVector<MSXorConstraint> xors() {
+        return this.xors;
+    }
+
+    /**
+     * Creates a read-only store of the original and learnt clauses of this solver.  The clauses are simplified by the
+     * literals on decision level 0, i.e. satisfied clauses are skipped and false literals are removed.  The literals on
+     * decision level 0 are stored as units.  The store is a snapshot, later changes of this solver do not affect it.
+     * This method must only be called on decision level 0 of a solver whose clauses are not unsatisfiable on level 0.
+     * @return the clause store
+     * @throws UnsupportedOperationException if the solver has constraints which are no clauses, i.e. XOR, cardinality,
+     *                                       or pseudo-Boolean constraints, or eliminated variables
+     */
+    public MSClauseStore clauseStore() {
+        if (!this.xors.empty()) {
+            throw new UnsupportedOperationException("A clause store cannot hold XOR constraints.");
+        }
+        for (int v = 0; v < nVars(); v++) {
+            if (isEliminated(v)) {
+                throw new UnsupportedOperationException("A clause store cannot be created with eliminated variables.");
+            }
+        }
+        final LNGIntVector literals = new LNGIntVector(this.clausesLiterals + this.learntsLiterals);
+        final LNGIntVector starts = new LNGIntVector(this.clauses.size() + this.learnts.size() + 1);
+        final LNGIntVector units = new LNGIntVector();
+        for (int i = 0; i < this.trail.size(); i++) {
+            units.push(this.trail.get(i));
+        }
+        starts.push(0);
+        for (final LNGVector<MSClause> cs : Arrays.asList(this.clauses, this.learnts)) {
+            for (final MSClause c : cs) {
+                if (c.isAtMost()) {
+                    throw new UnsupportedOperationException("A clause store cannot hold cardinality constraints.");
+                }
+                storeClause(c, literals, starts, units);
+            }
+        }
+        return new MSClauseStore(nVars(), literals, starts, units);
+    }
+
+    /**
+     * Adds a clause simplified by the literals on decision level 0 to the literals of a clause store.  A clause which
+     * is reduced to a single literal is added to the units instead.
+     * @param c        the clause
+     * @param literals the literals of the clause store
+     * @param starts   the start positions of the clauses of the clause store
+     * @param units    the units of the clause store
+     */
+    private void storeClause(final MSClause c, final LNGIntVector literals, final LNGIntVector starts, final LNGIntVector units) {
+        final int start = literals.size();
+        for (int i = 0; i < c.size(); i++) {
+            final Tristate value = value(c.get(i));
+            if (value == Tristate.TRUE) {
+                literals.shrinkTo(start);
+                return;
+            } else if (value == Tristate.UNDEF) {
+                literals.push(c.get(i));
+            }
+        }
+        if (literals.size() - start == 1) {
+            units.push(literals.back());
+            literals.shrinkTo(start);
+        } else if (literals.size() > start) {
+            starts.push(literals.size());
+        }
+    }
+
     /**
      * Returns the variables known by the solver.
      * @return the variables
@@ -1104,8 +2190,8 @@ public abstract class MiniSatStyleSolver {
     public void setSelectionOrder(final List<? extends Literal> selectionOrder) {
         this.selectionOrder.clear();
         for (final Literal literal : selectionOrder) {
-            final Integer var = this.name2idx.get(literal.name());
-            if (var != null) {
+            final int var = this.idxForVariable(literal.variable());
+            if (var != -1) {
                 this.selectionOrder.push(mkLit(var, !literal.phase()));
             }
         }
@@ -1118,6 +2204,31 @@ public abstract class MiniSatStyleSolver {
         this.selectionOrder.clear();
     }
 
+    /**
+     * Returns the branching heuristic which currently selects the decision variables of the solver.
+     * @return the current branching heuristic
+     */
+    public BranchingHeuristic branchingHeuristic() {
+        return this.branchingHeuristic;
+    }
+
+    /**
+     * Sets a custom branching heuristic.  The heuristic replaces the current branching heuristic and is initialized
+     * with all variables of the solver.  If the solver switches between two heuristics, the alternative heuristic is
+     * kept.
+     * @param branchingHeuristic the branching heuristic, which must not be attached to another solver
+     * @throws IllegalStateException if the heuristic is already attached to another solver
+     */
+    public void setBranchingHeuristic(final BranchingHeuristic branchingHeuristic) {
+        releaseTrail();
+        branchingHeuristic.attach(this);
+        for (int v = 0; v < this.vars.size(); v++) {
+            branchingHeuristic.newVar(v);
+        }
+        this.branchingHeuristic = branchingHeuristic;
+        rebuildOrderHeap();
+    }
+
     /**
      * Returns the solver config.
      * @return the solver config
@@ -0,0 +1,727 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import static org.logicng.handlers.Handler.start;
+import static org.logicng.handlers.SATHandler.finishSolving;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.luby;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.not;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.sign;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
+
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.datastructures.MSClauseExchange;
+import org.logicng.solvers.datastructures.MSClauseStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The search state of satisfiability queries under assumptions on a shared {@link MSClauseStore}.
+ * <p>
+ * A query context is a small CDCL solver with VSIDS decisions, phase saving, and Luby restarts.  It never changes the
+ * clauses of the store.  Instead of moving the watched literals of a clause to its first two positions, the context
+ * keeps the positions of the two watched literals of each clause in its own array.  The assignment, the trail, the
+ * watch lists, the variable activities, and the learnt clauses belong to the context.  Since the assumptions of a
+ * query are decisions, the learnt clauses only depend on the clauses of the store and are kept from one query to the
+ * next.  Optionally, short learnt clauses are exchanged with other contexts on the same store via a
+ * {@link MSClauseExchange}.
+ * <p>
+ * A context must only be used by one thread at a time, but any number of contexts can share the same store.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class QueryContext {
+
+    private static final byte FALSE = 0;
+    private static final byte TRUE = 1;
+    private static final byte UNDEF = 2;
+    private static final int RESTART_FIRST = 100;
+    private static final double RESTART_INC = 2;
+    private static final double VAR_DECAY = 0.95;
+    private static final int MIN_LEARNTS = 1000;
+    private static final double LEARNTS_INC = 1.1;
+
+    private final MSClauseStore store;
+    private final int numShared;
+    private final byte[] values;
+    private final int[] levels;
+    private final int[] reasons;
+    private final boolean[] phases;
+    private final boolean[] seen;
+    private final boolean[] model;
+    private final int[] trail;
+    private int trailSize;
+    private final LNGIntVector trailLim;
+    private int qhead;
+    private final LNGIntVector[] watches;
+    private final LNGIntVector watchPositions;
+    private final LNGIntVector learntLiterals;
+    private final LNGIntVector learntStarts;
+    private int maxLearnts;
+    private final double[] activities;
+    private double varInc;
+    private final int[] heap;
+    private final int[] heapIndices;
+    private int heapSize;
+    private final LNGIntVector learnt;
+    private final int[] levelStamps;
+    private int stamp;
+    private boolean ok;
+
+    private MSClauseExchange clauseExchange;
+    private int clauseExchangeId;
+    private long clauseExchangePosition;
+    private int sharedClauseSizeLimit;
+    private int sharedClauseLbdLimit;
+    private Variable[] variables;
+    private Map<String, Integer> name2idx;
+
+    /**
+     * Constructs a new query context on a clause store.  The clauses of the store are watched and the units of the
+     * store are propagated on decision level 0.
+     * @param store the clause store
+     */
+    public QueryContext(final MSClauseStore store) {
+        this.store = store;
+        this.numShared = store.numClauses();
+        final int numVars = store.numVars();
+        this.values = new byte[numVars];
+        Arrays.fill(this.values, UNDEF);
+        this.levels = new int[numVars];
+        this.reasons = new int[numVars];
+        Arrays.fill(this.reasons, -1);
+        this.phases = new boolean[numVars];
+        Arrays.fill(this.phases, true);
+        this.seen = new boolean[numVars];
+        this.model = new boolean[numVars];
+        this.trail = new int[numVars];
+        this.trailLim = new LNGIntVector();
+        this.watches = new LNGIntVector[2 * numVars];
+        for (int i = 0; i < this.watches.length; i++) {
+            this.watches[i] = new LNGIntVector(2);
+        }
+        this.watchPositions = new LNGIntVector(2 * this.numShared);
+        this.learntLiterals = new LNGIntVector();
+        this.learntStarts = new LNGIntVector();
+        this.learntStarts.push(0);
+        this.maxLearnts = Math.max(MIN_LEARNTS, this.numShared / 3);
+        this.activities = new double[numVars];
+        this.varInc = 1;
+        this.heap = new int[numVars];
+        this.heapIndices = new int[numVars];
+        for (int v = 0; v < numVars; v++) {
+            this.heap[v] = v;
+            this.heapIndices[v] = v;
+        }
+        this.heapSize = numVars;
+        this.learnt = new LNGIntVector();
+        this.levelStamps = new int[numVars + 1];
+        for (int c = 0; c < this.numShared; c++) {
+            watch(c, 0, 1);
+        }
+        this.ok = true;
+        for (int i = 0; i < store.numUnits() && this.ok; i++) {
+            this.ok = enqueueOnLevelZero(store.unit(i));
+        }
+    }
+
+    /**
+     * Sets the clause exchange with the other contexts on the same store.
+     * @param exchange  the clause exchange
+     * @param id        the id of this context in the exchange
+     * @param sizeLimit the maximal size of a published clause
+     * @param lbdLimit  the maximal LBD of a published clause exceeding the size limit
+     * @param variables the variables of the store, used to publish clauses
+     * @param name2idx  the mapping from variable names to variables of the store, used to import clauses
+     */
+    public void setClauseExchange(final MSClauseExchange exchange, final int id, final int sizeLimit, final int lbdLimit,
+                                  final Variable[] variables, final Map<String, Integer> name2idx) {
+        this.clauseExchange = exchange;
+        this.clauseExchangeId = id;
+        this.clauseExchangePosition = exchange.published();
+        this.sharedClauseSizeLimit = sizeLimit;
+        this.sharedClauseLbdLimit = lbdLimit;
+        this.variables = variables;
+        this.name2idx = name2idx;
+    }
+
+    /**
+     * Returns the clause store of this context.
+     * @return the clause store
+     */
+    public MSClauseStore store() {
+        return this.store;
+    }
+
+    /**
+     * Returns the number of learnt clauses of this context.
+     * @return the number of learnt clauses
+     */
+    public int numLearnts() {
+        return this.learntStarts.size() - 1;
+    }
+
+    /**
+     * Solves the clauses of the store under the given assumptions.  Afterwards, the context is back on decision
+     * level 0.  If the result is {@code TRUE}, the model can be read via {@link #modelValue(int)}.
+     * @param handler     the SAT handler, may be {@code null}
+     * @param assumptions the assumptions as literals of the store
+     * @return the result, {@code UNDEF} if the computation was canceled by the handler
+     */
+    public Tristate solve(final SATHandler handler, final LNGIntVector assumptions) {
+        start(handler);
+        Tristate status = this.ok && importSharedClauses() ? Tristate.UNDEF : Tristate.FALSE;
+        boolean canceled = false;
+        int restarts = 0;
+        while (status == Tristate.UNDEF && !canceled) {
+            final int budget = (int) (luby(RESTART_INC, restarts++) * RESTART_FIRST);
+            final int conflicts = search(handler, assumptions, budget);
+            if (conflicts == -1) {
+                status = Tristate.TRUE;
+                for (int v = 0; v < this.model.length; v++) {
+                    this.model[v] = this.values[v] == TRUE;
+                }
+            } else if (conflicts == -2) {
+                status = Tristate.FALSE;
+            } else if (conflicts == -3) {
+                canceled = true;
+            }
+            cancelUntil(0);
+            if (status == Tristate.UNDEF && !canceled) {
+                reduceLearnts();
+                if (!importSharedClauses()) {
+                    status = Tristate.FALSE;
+                }
+            }
+        }
+        finishSolving(handler);
+        return status;
+    }
+
+    /**
+     * Returns the value of a variable in the model of the last satisfiable query.
+     * @param var the variable
+     * @return the value of the variable
+     */
+    public boolean modelValue(final int var) {
+        return this.model[var];
+    }
+
+    /**
+     * Searches for a model until the conflict budget is exhausted.
+     * @param handler     the SAT handler, may be {@code null}
+     * @param assumptions the assumptions
+     * @param budget      the conflict budget
+     * @return -1 if a model was found, -2 if there is no model under the assumptions, -3 if the handler canceled the
+     * search, or the number of conflicts if the budget is exhausted
+     */
+    private int search(final SATHandler handler, final LNGIntVector assumptions, final int budget) {
+        int conflicts = 0;
+        while (true) {
+            final int confl = propagate();
+            if (confl != -1) {
+                conflicts++;
+                if (handler != null && !handler.detectedConflict()) {
+                    return -3;
+                }
+                if (decisionLevel() == 0) {
+                    this.ok = false;
+                    return -2;
+                }
+                final int backtrackLevel = analyze(confl);
+                cancelUntil(backtrackLevel);
+                if (this.learnt.size() == 1) {
+                    uncheckedEnqueue(this.learnt.get(0), -1);
+                } else {
+                    final int c = addLearnt(this.learnt);
+                    uncheckedEnqueue(this.learnt.get(0), c);
+                }
+                this.varInc /= VAR_DECAY;
+            } else {
+                if (conflicts >= budget) {
+                    return conflicts;
+                }
+                int next = -1;
+                while (next == -1 && decisionLevel() < assumptions.size()) {
+                    final int p = assumptions.get(decisionLevel());
+                    final byte value = value(p);
+                    if (value == TRUE) {
+                        this.trailLim.push(this.trailSize);
+                    } else if (value == FALSE) {
+                        return -2;
+                    } else {
+                        next = p;
+                    }
+                }
+                if (next == -1) {
+                    next = pickBranchLit();
+                    if (next == -1) {
+                        return -1;
+                    }
+                }
+                this.trailLim.push(this.trailSize);
+                uncheckedEnqueue(next, -1);
+            }
+        }
+    }
+
+    /**
+     * Propagates all enqueued facts.  When a watched literal of a clause becomes false, the context looks for a new
+     * non-false literal of the clause and only changes its own watch position, the clause itself is not changed.
+     * @return the conflict clause or -1 if there is no conflict
+     */
+    private int propagate() {
+        int confl = -1;
+        while (this.qhead < this.trailSize) {
+            final int falseLit = not(this.trail[this.qhead++]);
+            final LNGIntVector ws = this.watches[falseLit];
+            final int n = ws.size();
+            int i = 0;
+            int j = 0;
+            while (i < n) {
+                final int c = ws.get(i++);
+                final int slot = lit(c, this.watchPositions.get(2 * c)) == falseLit ? 0 : 1;
+                final int falsePos = this.watchPositions.get(2 * c + slot);
+                final int otherPos = this.watchPositions.get(2 * c + 1 - slot);
+                final int other = lit(c, otherPos);
+                if (value(other) == TRUE) {
+                    ws.set(j++, c);
+                    continue;
+                }
+                final int size = size(c);
+                boolean moved = false;
+                for (int k = 0; k < size && !moved; k++) {
+                    if (k != falsePos && k != otherPos) {
+                        final int l = lit(c, k);
+                        if (value(l) != FALSE) {
+                            this.watchPositions.set(2 * c + slot, k);
+                            this.watches[l].push(c);
+                            moved = true;
+                        }
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                ws.set(j++, c);
+                if (value(other) == FALSE) {
+                    confl = c;
+                    this.qhead = this.trailSize;
+                    while (i < n) {
+                        ws.set(j++, ws.get(i++));
+                    }
+                } else {
+                    uncheckedEnqueue(other, c);
+                }
+            }
+            ws.shrinkTo(j);
+        }
+        return confl;
+    }
+
+    /**
+     * Analyzes a conflict and computes the first UIP clause in {@link #learnt}.  The asserting literal is at position
+     * 0 and a literal of the backtrack level is at position 1.
+     * @param conflict the conflict clause
+     * @return the backtrack level
+     */
+    private int analyze(final int conflict) {
+        this.learnt.clear();
+        this.learnt.push(-1);
+        int confl = conflict;
+        int pathC = 0;
+        int p = -1;
+        int index = this.trailSize - 1;
+        do {
+            final int size = size(confl);
+            for (int k = 0; k < size; k++) {
+                final int q = lit(confl, k);
+                final int x = var(q);
+                if (q != p && !this.seen[x] && this.levels[x] > 0) {
+                    bumpActivity(x);
+                    this.seen[x] = true;
+                    if (this.levels[x] >= decisionLevel()) {
+                        pathC++;
+                    } else {
+                        this.learnt.push(q);
+                    }
+                }
+            }
+            while (!this.seen[var(this.trail[index--])]) {
+                // skip the literals which are not part of the conflict
+            }
+            p = this.trail[index + 1];
+            confl = this.reasons[var(p)];
+            this.seen[var(p)] = false;
+            pathC--;
+        } while (pathC > 0);
+        this.learnt.set(0, not(p));
+        for (int i = 1; i < this.learnt.size(); i++) {
+            this.seen[var(this.learnt.get(i))] = false;
+        }
+        if (this.learnt.size() == 1) {
+            return 0;
+        }
+        int max = 1;
+        for (int i = 2; i < this.learnt.size(); i++) {
+            if (this.levels[var(this.learnt.get(i))] > this.levels[var(this.learnt.get(max))]) {
+                max = i;
+            }
+        }
+        final int tmp = this.learnt.get(1);
+        this.learnt.set(1, this.learnt.get(max));
+        this.learnt.set(max, tmp);
+        exportLearnt(this.learnt);
+        return this.levels[var(this.learnt.get(1))];
+    }
+
+    /**
+     * Adds a learnt clause to this context and watches its first two literals.
+     * @param lits the literals of the clause
+     * @return the clause
+     */
+    private int addLearnt(final LNGIntVector lits) {
+        final int c = this.numShared + numLearnts();
+        for (int i = 0; i < lits.size(); i++) {
+            this.learntLiterals.push(lits.get(i));
+        }
+        this.learntStarts.push(this.learntLiterals.size());
+        watch(c, 0, 1);
+        return c;
+    }
+
+    /**
+     * Removes the older half of the learnt clauses with more than two literals if there are more learnt clauses than
+     * allowed.  This method must only be called on decision level 0, where no learnt clause is needed as reason.
+     */
+    private void reduceLearnts() {
+        if (numLearnts() <= this.maxLearnts) {
+            return;
+        }
+        int longClauses = 0;
+        for (int l = 0; l < numLearnts(); l++) {
+            if (size(this.numShared + l) > 2) {
+                longClauses++;
+            }
+        }
+        int toRemove = longClauses / 2;
+        final LNGIntVector keptPositions = new LNGIntVector();
+        int literalsEnd = 0;
+        int kept = 0;
+        for (int l = 0; l < numLearnts(); l++) {
+            final int c = this.numShared + l;
+            final int start = this.learntStarts.get(l);
+            final int size = this.learntStarts.get(l + 1) - start;
+            if (size > 2 && toRemove > 0) {
+                toRemove--;
+                continue;
+            }
+            for (int i = 0; i < size; i++) {
+                this.learntLiterals.set(literalsEnd + i, this.learntLiterals.get(start + i));
+            }
+            keptPositions.push(this.watchPositions.get(2 * c));
+            keptPositions.push(this.watchPositions.get(2 * c + 1));
+            this.learntStarts.set(kept, literalsEnd);
+            literalsEnd += size;
+            kept++;
+        }
+        this.learntLiterals.shrinkTo(literalsEnd);
+        this.learntStarts.set(kept, literalsEnd);
+        this.learntStarts.shrinkTo(kept + 1);
+        this.watchPositions.shrinkTo(2 * this.numShared);
+        for (final LNGIntVector ws : this.watches) {
+            int j = 0;
+            for (int i = 0; i < ws.size(); i++) {
+                if (ws.get(i) < this.numShared) {
+                    ws.set(j++, ws.get(i));
+                }
+            }
+            ws.shrinkTo(j);
+        }
+        for (int l = 0; l < kept; l++) {
+            watch(this.numShared + l, keptPositions.get(2 * l), keptPositions.get(2 * l + 1));
+        }
+        for (int i = 0; i < this.trailSize; i++) {
+            this.reasons[var(this.trail[i])] = -1;
+        }
+        this.maxLearnts = (int) (this.maxLearnts * LEARNTS_INC);
+    }
+
+    /**
+     * Publishes a learnt clause to the clause exchange if it is short enough or has a small LBD.
+     * @param lits the literals of the learnt clause
+     */
+    private void exportLearnt(final LNGIntVector lits) {
+        if (this.clauseExchange == null) {
+            return;
+        }
+        final int lbd = lbd(lits);
+        if (lits.size() > this.sharedClauseSizeLimit && lbd > this.sharedClauseLbdLimit) {
+            return;
+        }
+        final Variable[] vars = new Variable[lits.size()];
+        final boolean[] litPhases = new boolean[lits.size()];
+        for (int i = 0; i < lits.size(); i++) {
+            vars[i] = this.variables[var(lits.get(i))];
+            if (vars[i] == null) {
+                return;
+            }
+            litPhases[i] = !sign(lits.get(i));
+        }
+        this.clauseExchange.publish(this.clauseExchangeId, vars, litPhases, lbd);
+    }
+
+    /**
+     * Adds the clauses published by other contexts since the last call as learnt clauses.  This method must only be
+     * called on decision level 0.
+     * @return {@code false} if an imported clause led to a conflict, {@code true} otherwise
+     */
+    private boolean importSharedClauses() {
+        if (this.clauseExchange == null) {
+            return true;
+        }
+        final List<MSClauseExchange.SharedClause> shared = new ArrayList<>();
+        this.clauseExchangePosition = this.clauseExchange.collect(this.clauseExchangeId, this.clauseExchangePosition, shared);
+        for (final MSClauseExchange.SharedClause clause : shared) {
+            if (!sharedClauseLits(clause, this.learnt)) {
+                continue;
+            }
+            if (this.learnt.size() == 1) {
+                if (!enqueueOnLevelZero(this.learnt.get(0))) {
+                    this.ok = false;
+                    return false;
+                }
+            } else if (this.learnt.size() > 1) {
+                addLearnt(this.learnt);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the unassigned literals of a shared clause.
+     * @param clause the shared clause
+     * @param lits   the vector for the unassigned literals
+     * @return {@code false} if the clause is satisfied on level 0 or contains unknown variables, {@code true} otherwise
+     */
+    private boolean sharedClauseLits(final MSClauseExchange.SharedClause clause, final LNGIntVector lits) {
+        lits.clear();
+        for (int i = 0; i < clause.size(); i++) {
+            final Integer idx = this.name2idx.get(clause.variable(i).name());
+            if (idx == null || idx >= this.values.length) {
+                return false;
+            }
+            final int lit = mkLit(idx, !clause.phase(i));
+            final byte value = value(lit);
+            if (value == TRUE) {
+                return false;
+            } else if (value == UNDEF) {
+                lits.push(lit);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Enqueues a literal on decision level 0 and propagates it.
+     * @param lit the literal
+     * @return {@code false} if the literal or its propagation led to a conflict, {@code true} otherwise
+     */
+    private boolean enqueueOnLevelZero(final int lit) {
+        final byte value = value(lit);
+        if (value == FALSE) {
+            return false;
+        }
+        if (value == UNDEF) {
+            uncheckedEnqueue(lit, -1);
+        }
+        return propagate() == -1;
+    }
+
+    /**
+     * Computes the number of different decision levels of the literals of a clause.
+     * @param lits the literals
+     * @return the LBD of the clause
+     */
+    private int lbd(final LNGIntVector lits) {
+        this.stamp++;
+        int lbd = 0;
+        for (int i = 0; i < lits.size(); i++) {
+            final int level = this.levels[var(lits.get(i))];
+            if (this.levelStamps[level] != this.stamp) {
+                this.levelStamps[level] = this.stamp;
+                lbd++;
+            }
+        }
+        return lbd;
+    }
+
+    private void watch(final int c, final int pos0, final int pos1) {
+        this.watchPositions.push(pos0);
+        this.watchPositions.push(pos1);
+        this.watches[lit(c, pos0)].push(c);
+        this.watches[lit(c, pos1)].push(c);
+    }
+
+    private int size(final int c) {
+        if (c < this.numShared) {
+            return this.store.size(c);
+        }
+        final int l = c - this.numShared;
+        return this.learntStarts.get(l + 1) - this.learntStarts.get(l);
+    }
+
+    private int lit(final int c, final int i) {
+        return c < this.numShared ? this.store.get(c, i) : this.learntLiterals.get(this.learntStarts.get(c - this.numShared) + i);
+    }
+
+    private byte value(final int lit) {
+        final byte value = this.values[var(lit)];
+        return value == UNDEF ? UNDEF : (byte) (value ^ (lit & 1));
+    }
+
+    private int decisionLevel() {
+        return this.trailLim.size();
+    }
+
+    private void uncheckedEnqueue(final int lit, final int reason) {
+        final int x = var(lit);
+        this.values[x] = sign(lit) ? FALSE : TRUE;
+        this.levels[x] = decisionLevel();
+        this.reasons[x] = reason;
+        this.trail[this.trailSize++] = lit;
+    }
+
+    private void cancelUntil(final int level) {
+        if (decisionLevel() <= level) {
+            return;
+        }
+        final int limit = this.trailLim.get(level);
+        for (int i = this.trailSize - 1; i >= limit; i--) {
+            final int x = var(this.trail[i]);
+            this.values[x] = UNDEF;
+            this.reasons[x] = -1;
+            this.phases[x] = sign(this.trail[i]);
+            if (this.heapIndices[x] == -1) {
+                heapInsert(x);
+            }
+        }
+        this.trailSize = limit;
+        this.qhead = limit;
+        this.trailLim.shrinkTo(level);
+    }
+
+    private int pickBranchLit() {
+        while (this.heapSize > 0) {
+            final int x = heapRemoveMax();
+            if (this.values[x] == UNDEF) {
+                return mkLit(x, this.phases[x]);
+            }
+        }
+        return -1;
+    }
+
+    private void bumpActivity(final int x) {
+        this.activities[x] += this.varInc;
+        if (this.activities[x] > 1e100) {
+            for (int v = 0; v < this.activities.length; v++) {
+                this.activities[v] *= 1e-100;
+            }
+            this.varInc *= 1e-100;
+        }
+        if (this.heapIndices[x] != -1) {
+            percolateUp(this.heapIndices[x]);
+        }
+    }
+
+    private void heapInsert(final int x) {
+        this.heap[this.heapSize] = x;
+        this.heapIndices[x] = this.heapSize;
+        percolateUp(this.heapSize++);
+    }
+
+    private int heapRemoveMax() {
+        final int x = this.heap[0];
+        this.heapIndices[x] = -1;
+        final int last = this.heap[--this.heapSize];
+        if (this.heapSize > 0) {
+            this.heap[0] = last;
+            this.heapIndices[last] = 0;
+            percolateDown(0);
+        }
+        return x;
+    }
+
+    private void percolateUp(final int pos) {
+        final int x = this.heap[pos];
+        int i = pos;
+        while (i > 0) {
+            final int parent = (i - 1) >> 1;
+            if (this.activities[this.heap[parent]] >= this.activities[x]) {
+                break;
+            }
+            this.heap[i] = this.heap[parent];
+            this.heapIndices[this.heap[i]] = i;
+            i = parent;
+        }
+        this.heap[i] = x;
+        this.heapIndices[x] = i;
+    }
+
+    private void percolateDown(final int pos) {
+        final int x = this.heap[pos];
+        int i = pos;
+        while (2 * i + 1 < this.heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < this.heapSize && this.activities[this.heap[child + 1]] > this.activities[this.heap[child]]) {
+                child++;
+            }
+            if (this.activities[this.heap[child]] <= this.activities[x]) {
+                break;
+            }
+            this.heap[i] = this.heap[child];
+            this.heapIndices[this.heap[i]] = i;
+            i = child;
+        }
+        this.heap[i] = x;
+        this.heapIndices[x] = i;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryContext{vars=%d, clauses=%d, learnts=%d, trail=%d}", this.values.length, this.numShared,
+                numLearnts(), this.trailSize);
+    }
+}
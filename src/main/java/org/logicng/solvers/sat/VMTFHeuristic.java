@@ -0,0 +1,81 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import org.logicng.collections.LNGDoubleVector;
+
+/**
+ * The VMTF branching heuristic (variable move to front).
+ * <p>
+ * Each variable involved in a conflict analysis is moved to the front of the decision queue, i.e. the heuristic
+ * always branches on the unassigned variable which was bumped most recently.  The queue is represented by a
+ * time stamp per variable which orders the variables in the heap of the solver.  New variables are enqueued at the
+ * front.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class VMTFHeuristic extends BranchingHeuristic {
+
+    private final LNGDoubleVector stamps;
+    private double stamp;
+
+    /**
+     * Constructs a new VMTF heuristic.
+     */
+    public VMTFHeuristic() {
+        this.stamps = new LNGDoubleVector();
+        this.stamp = 0;
+    }
+
+    private VMTFHeuristic(final VMTFHeuristic other) {
+        this.stamps = new LNGDoubleVector(other.stamps);
+        this.stamp = other.stamp;
+    }
+
+    @Override
+    public double score(final int var) {
+        return this.stamps.get(var);
+    }
+
+    @Override
+    public void newVar(final int var) {
+        this.stamps.growTo(var + 1, 0);
+        this.stamps.set(var, ++this.stamp);
+    }
+
+    @Override
+    public void bump(final int var) {
+        this.stamps.set(var, ++this.stamp);
+        scoreChanged(var);
+    }
+
+    @Override
+    public VMTFHeuristic copy() {
+        return new VMTFHeuristic(this);
+    }
+}
@@ -0,0 +1,66 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+/**
+ * The VSIDS branching heuristic of MiniSAT (variable state independent decaying sum).
+ * <p>
+ * Each variable involved in a conflict analysis is bumped by the current increment and the increment grows by the
+ * inverse of the variable decay factor after each conflict.  The scores are the activities of the
+ * {@link org.logicng.solvers.datastructures.MSVariable variables} of the solver, the increment and the decay factor
+ * are the ones of the solver.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public final class VSIDSHeuristic extends BranchingHeuristic {
+
+    @Override
+    public double score(final int var) {
+        return this.solver.vars.get(var).activity();
+    }
+
+    @Override
+    public void newVar(final int var) {
+        // the activity is stored in the variable of the solver
+    }
+
+    @Override
+    public void bump(final int var) {
+        this.solver.varBumpActivity(var, this.solver.varInc);
+    }
+
+    @Override
+    public void conflict() {
+        this.solver.varInc *= (1 / this.solver.varDecay);
+    }
+
+    @Override
+    public VSIDSHeuristic copy() {
+        return new VSIDSHeuristic();
+    }
+}
@@ -28,17 +28,13 @@
 
 package org.logicng.transformations;
 
-import org.logicng.formulas.BinaryOperator;
 import org.logicng.formulas.Formula;
-import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.FormulaTransformation;
 import org.logicng.formulas.Literal;
-import org.logicng.formulas.Not;
 import org.logicng.formulas.PBConstraint;
+import org.logicng.util.FormulaHelper;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -48,7 +44,7 @@ import java.util.Map;
  * {@code a -> b} and {@code ~a -> c}.  Then {@code ~a} will be mapped to
  * {@code c} and not to {@code ~b}.  On the other hand if there is only the
  * mapping {@code a -> b}, the literal {@code ~a} will be mapped to {@code ~b}.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 2.0.0
  */
 public final class LiteralSubstitution implements FormulaTransformation {
@@ -82,45 +78,38 @@ public final class LiteralSubstitution implements FormulaTransformation {
 
     @Override
     public Formula apply(final Formula formula, final boolean cache) {
-        final FormulaFactory f = formula.factory();
+        return FormulaHelper.transformAtoms(formula, this::substituteAtom);
+    }
+
+    private Formula substituteAtom(final Formula formula) {
         switch (formula.type()) {
             case TRUE:
             case FALSE:
                 return formula;
             case LITERAL:
-                final Literal literal = (Literal) formula;
-                Literal lit = this.substitution.get(literal);
-                if (lit != null) {
-                    return lit;
-                }
-                if (!literal.phase()) {
-                    lit = this.substitution.get(literal.variable());
-                    return lit != null ? lit.negate() : formula;
-                }
-                return formula;
-            case NOT:
-                return f.not(apply(((Not) formula).operand(), cache));
-            case EQUIV:
-            case IMPL:
-                final BinaryOperator binOp = (BinaryOperator) formula;
-                return f.binaryOperator(formula.type(), apply(binOp.left(), cache), apply(binOp.right(), cache));
-            case OR:
-            case AND:
-                final List<Formula> operands = new ArrayList<>();
-                for (final Formula op : formula) {
-                    operands.add(apply(op, cache));
-                }
-                return f.naryOperator(formula.type(), operands);
+                return this.substituteLiteral((Literal) formula);
             case PBC:
                 final PBConstraint pbc = (PBConstraint) formula;
                 final Literal[] originalOperands = pbc.operands();
                 final Literal[] literals = new Literal[originalOperands.length];
                 for (int i = 0; i < literals.length; i++) {
-                    literals[i] = (Literal) apply(originalOperands[i], false);
+                    literals[i] = this.substituteLiteral(originalOperands[i]);
                 }
-                return f.pbc(pbc.comparator(), pbc.rhs(), literals, pbc.coefficients());
+                return formula.factory().pbc(pbc.comparator(), pbc.rhs(), literals, pbc.coefficients());
             default:
                 throw new IllegalArgumentException("Unknown formula type: " + formula.type());
         }
     }
+
+    private Literal substituteLiteral(final Literal literal) {
+        Literal lit = this.substitution.get(literal);
+        if (lit != null) {
+            return lit;
+        }
+        if (!literal.phase()) {
+            lit = this.substitution.get(literal.variable());
+            return lit != null ? lit.negate() : literal;
+        }
+        return literal;
+    }
 }
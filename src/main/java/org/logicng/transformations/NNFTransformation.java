@@ -3,6 +3,7 @@ package org.logicng.transformations;
 import static org.logicng.formulas.FType.dual;
 import static org.logicng.formulas.cache.TransformationCacheEntry.NNF;
 
+import org.logicng.collections.LNGBooleanVector;
 import org.logicng.formulas.Equivalence;
 import org.logicng.formulas.FType;
 import org.logicng.formulas.Formula;
@@ -11,14 +12,18 @@ import org.logicng.formulas.FormulaTransformation;
 import org.logicng.formulas.Implication;
 import org.logicng.formulas.Not;
 import org.logicng.formulas.PBConstraint;
+import org.logicng.util.FormulaHelper;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Transformation of a formula in NNF.
- * @version 2.2.0
+ * @version 2.7.0
  * @since 2.2.0
  */
 public class NNFTransformation implements FormulaTransformation {
@@ -42,10 +47,10 @@ public class NNFTransformation implements FormulaTransformation {
 
     @Override
     public Formula apply(final Formula formula, final boolean cache) {
-        return applyRec(formula, true);
+        return applyRec(formula, true, 0);
     }
 
-    private Formula applyRec(final Formula formula, final boolean polarity) {
+    private Formula applyRec(final Formula formula, final boolean polarity, final int depth) {
         final FormulaFactory f = formula.factory();
         Formula nnf;
         if (polarity) {
@@ -54,6 +59,9 @@ public class NNFTransformation implements FormulaTransformation {
                 return nnf;
             }
         }
+        if (depth >= FormulaHelper.MAX_RECURSION_DEPTH) {
+            return applyIteratively(formula, polarity);
+        }
         final FType type = formula.type();
         switch (type) {
             case TRUE:
@@ -62,37 +70,37 @@ public class NNFTransformation implements FormulaTransformation {
                 nnf = polarity ? formula : formula.negate();
                 break;
             case NOT:
-                nnf = applyRec(((Not) formula).operand(), !polarity);
+                nnf = applyRec(((Not) formula).operand(), !polarity, depth + 1);
                 break;
             case OR:
             case AND:
-                nnf = applyRec(formula.iterator(), formula.type(), polarity, f);
+                nnf = applyRec(formula.iterator(), formula.type(), polarity, f, depth + 1);
                 break;
             case EQUIV:
                 final Equivalence equiv = (Equivalence) formula;
                 if (polarity) {
-                    nnf = f.and(f.or(applyRec(equiv.left(), false), applyRec(equiv.right(), true)),
-                            f.or(applyRec(equiv.left(), true), applyRec(equiv.right(), false)));
+                    nnf = f.and(f.or(applyRec(equiv.left(), false, depth + 1), applyRec(equiv.right(), true, depth + 1)),
+                            f.or(applyRec(equiv.left(), true, depth + 1), applyRec(equiv.right(), false, depth + 1)));
                 } else {
-                    nnf = f.and(f.or(applyRec(equiv.left(), false), applyRec(equiv.right(), false)),
-                            f.or(applyRec(equiv.left(), true), applyRec(equiv.right(), true)));
+                    nnf = f.and(f.or(applyRec(equiv.left(), false, depth + 1), applyRec(equiv.right(), false, depth + 1)),
+                            f.or(applyRec(equiv.left(), true, depth + 1), applyRec(equiv.right(), true, depth + 1)));
                 }
                 break;
             case IMPL:
                 final Implication impl = (Implication) formula;
                 if (polarity) {
-                    nnf = f.or(applyRec(impl.left(), false), applyRec(impl.right(), true));
+                    nnf = f.or(applyRec(impl.left(), false, depth + 1), applyRec(impl.right(), true, depth + 1));
                 } else {
-                    nnf = f.and(applyRec(impl.left(), true), applyRec(impl.right(), false));
+                    nnf = f.and(applyRec(impl.left(), true, depth + 1), applyRec(impl.right(), false, depth + 1));
                 }
                 break;
             case PBC:
                 final PBConstraint pbc = (PBConstraint) formula;
                 if (polarity) {
                     final List<Formula> encoding = pbc.getEncoding();
-                    nnf = applyRec(encoding.iterator(), FType.AND, true, f);
+                    nnf = applyRec(encoding.iterator(), FType.AND, true, f, depth + 1);
                 } else {
-                    nnf = applyRec(pbc.negate(), true);
+                    nnf = applyRec(pbc.negate(), true, depth + 1);
                 }
                 break;
             default:
@@ -104,12 +112,173 @@ public class NNFTransformation implements FormulaTransformation {
         return nnf;
     }
 
-    private Formula applyRec(final Iterator<Formula> formulas, final FType type, final boolean polarity, final FormulaFactory f) {
+    private Formula applyRec(final Iterator<Formula> formulas, final FType type, final boolean polarity, final FormulaFactory f, final int depth) {
         final LinkedHashSet<Formula> nops = new LinkedHashSet<>();
         while (formulas.hasNext()) {
             final Formula formula = formulas.next();
-            nops.add(applyRec(formula, polarity));
+            nops.add(applyRec(formula, polarity, depth));
         }
         return f.naryOperator(polarity ? type : dual(type), nops);
     }
+
+    private static Formula applyIteratively(final Formula formula, final boolean polarity) {
+        final Map<Formula, Formula> positive = new IdentityHashMap<>();
+        final Map<Formula, Formula> negative = new IdentityHashMap<>();
+        final List<Formula> stack = new ArrayList<>();
+        final LNGBooleanVector polarities = new LNGBooleanVector();
+        final List<Formula> ops = new ArrayList<>();
+        final LNGBooleanVector opPolarities = new LNGBooleanVector();
+        stack.add(formula);
+        polarities.push(polarity);
+        while (!stack.isEmpty()) {
+            final Formula current = stack.get(stack.size() - 1);
+            final boolean currentPolarity = polarities.back();
+            final Map<Formula, Formula> results = currentPolarity ? positive : negative;
+            if (results.containsKey(current)) {
+                stack.remove(stack.size() - 1);
+                polarities.pop();
+                continue;
+            }
+            if (currentPolarity) {
+                final Formula cachedOp = current.transformationCacheEntry(NNF);
+                if (cachedOp != null) {
+                    stack.remove(stack.size() - 1);
+                    polarities.pop();
+                    results.put(current, cachedOp);
+                    continue;
+                }
+            }
+            ops.clear();
+            opPolarities.clear();
+            operands(current, currentPolarity, ops, opPolarities);
+            final int sizeBefore = stack.size();
+            for (int i = ops.size() - 1; i >= 0; i--) {
+                if (!(opPolarities.get(i) ? positive : negative).containsKey(ops.get(i))) {
+                    stack.add(ops.get(i));
+                    polarities.push(opPolarities.get(i));
+                }
+            }
+            if (stack.size() > sizeBefore) {
+                continue;
+            }
+            stack.remove(stack.size() - 1);
+            polarities.pop();
+            final Formula nnf = computeNNF(current, currentPolarity, positive, negative);
+            if (currentPolarity) {
+                current.setTransformationCacheEntry(NNF, nnf);
+            }
+            results.put(current, nnf);
+        }
+        return (polarity ? positive : negative).get(formula);
+    }
+
+    /**
+     * Collects the operands (and their polarities) whose NNF is required for the NNF of the given
+     * formula in the given polarity.  The order is the same as in a recursive computation.
+     * @param formula      the formula
+     * @param polarity     the polarity of the formula
+     * @param ops          the list for the operands
+     * @param opPolarities the list for the polarities of the operands
+     */
+    private static void operands(final Formula formula, final boolean polarity, final List<Formula> ops, final LNGBooleanVector opPolarities) {
+        switch (formula.type()) {
+            case TRUE:
+            case FALSE:
+            case LITERAL:
+                break;
+            case NOT:
+                ops.add(((Not) formula).operand());
+                opPolarities.push(!polarity);
+                break;
+            case OR:
+            case AND:
+                for (final Formula op : formula) {
+                    ops.add(op);
+                    opPolarities.push(polarity);
+                }
+                break;
+            case EQUIV:
+                final Equivalence equiv = (Equivalence) formula;
+                ops.add(equiv.left());
+                opPolarities.push(false);
+                ops.add(equiv.right());
+                opPolarities.push(polarity);
+                ops.add(equiv.left());
+                opPolarities.push(true);
+                ops.add(equiv.right());
+                opPolarities.push(!polarity);
+                break;
+            case IMPL:
+                final Implication impl = (Implication) formula;
+                ops.add(impl.left());
+                opPolarities.push(!polarity);
+                ops.add(impl.right());
+                opPolarities.push(polarity);
+                break;
+            case PBC:
+                final PBConstraint pbc = (PBConstraint) formula;
+                if (polarity) {
+                    for (final Formula op : pbc.getEncoding()) {
+                        ops.add(op);
+                        opPolarities.push(true);
+                    }
+                } else {
+                    ops.add(pbc.negate());
+                    opPolarities.push(true);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown formula type = " + formula.type());
+        }
+    }
+
+    private static Formula computeNNF(final Formula formula, final boolean polarity, final Map<Formula, Formula> positive,
+                                      final Map<Formula, Formula> negative) {
+        final FormulaFactory f = formula.factory();
+        final FType type = formula.type();
+        switch (type) {
+            case TRUE:
+            case FALSE:
+            case LITERAL:
+                return polarity ? formula : formula.negate();
+            case NOT:
+                return (polarity ? negative : positive).get(((Not) formula).operand());
+            case OR:
+            case AND:
+                final LinkedHashSet<Formula> nops = new LinkedHashSet<>();
+                for (final Formula op : formula) {
+                    nops.add((polarity ? positive : negative).get(op));
+                }
+                return f.naryOperator(polarity ? type : dual(type), nops);
+            case EQUIV:
+                final Equivalence equiv = (Equivalence) formula;
+                if (polarity) {
+                    return f.and(f.or(negative.get(equiv.left()), positive.get(equiv.right())),
+                            f.or(positive.get(equiv.left()), negative.get(equiv.right())));
+                } else {
+                    return f.and(f.or(negative.get(equiv.left()), negative.get(equiv.right())),
+                            f.or(positive.get(equiv.left()), positive.get(equiv.right())));
+                }
+            case IMPL:
+                final Implication impl = (Implication) formula;
+                if (polarity) {
+                    return f.or(negative.get(impl.left()), positive.get(impl.right()));
+                } else {
+                    return f.and(positive.get(impl.left()), negative.get(impl.right()));
+                }
+            case PBC:
+                final PBConstraint pbc = (PBConstraint) formula;
+                if (polarity) {
+                    final LinkedHashSet<Formula> encoding = new LinkedHashSet<>();
+                    for (final Formula op : pbc.getEncoding()) {
+                        encoding.add(positive.get(op));
+                    }
+                    return f.and(encoding);
+                } else {
+                    return positive.get(pbc.negate());
+                }
+            default:
+                throw new IllegalStateException("Unknown formula type = " + type);
+        }
+    }
 }
@@ -37,13 +37,19 @@ import org.logicng.formulas.Formula;
 import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.FormulaTransformation;
 import org.logicng.handlers.FactorizationHandler;
+import org.logicng.util.FormulaHelper;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Transformation of a formula in CNF by factorization.
- * @version 2.1.0
+ * @version 2.7.0
  * @since 1.0
  */
 public final class CNFFactorization implements FormulaTransformation {
@@ -72,10 +78,10 @@ public final class CNFFactorization implements FormulaTransformation {
     public Formula apply(final Formula formula, final boolean cache) {
         start(this.handler);
         this.proceed = true;
-        return applyRec(formula, cache);
+        return applyRec(formula, cache, 0);
     }
 
-    private Formula applyRec(final Formula formula, final boolean cache) {
+    private Formula applyRec(final Formula formula, final boolean cache, final int depth) {
         if (!this.proceed) {
             return null;
         }
@@ -86,11 +92,14 @@ public final class CNFFactorization implements FormulaTransformation {
         if (cached != null) {
             return cached;
         }
+        if (depth >= FormulaHelper.MAX_RECURSION_DEPTH) {
+            return this.applyIteratively(formula, cache);
+        }
         switch (formula.type()) {
             case NOT:
             case IMPL:
             case EQUIV:
-                cached = this.applyRec(formula.nnf(), cache);
+                cached = this.applyRec(formula.nnf(), cache, depth + 1);
                 break;
             case OR:
                 LinkedHashSet<Formula> nops = new LinkedHashSet<>();
@@ -98,7 +107,7 @@ public final class CNFFactorization implements FormulaTransformation {
                     if (!this.proceed) {
                         return null;
                     }
-                    nops.add(this.applyRec(op, cache));
+                    nops.add(this.applyRec(op, cache, depth + 1));
                 }
                 final Iterator<Formula> it = nops.iterator();
                 cached = it.next();
@@ -112,7 +121,7 @@ public final class CNFFactorization implements FormulaTransformation {
             case AND:
                 nops = new LinkedHashSet<>();
                 for (final Formula op : formula) {
-                    final Formula apply = this.applyRec(op, cache);
+                    final Formula apply = this.applyRec(op, cache, depth + 1);
                     if (!this.proceed) {
                         return null;
                     }
@@ -135,6 +144,107 @@ public final class CNFFactorization implements FormulaTransformation {
         return null;
     }
 
+    private Formula applyIteratively(final Formula formula, final boolean cache) {
+        final Map<Formula, Formula> results = new IdentityHashMap<>();
+        final List<Formula> stack = new ArrayList<>();
+        stack.add(formula);
+        while (!stack.isEmpty()) {
+            if (!this.proceed) {
+                return null;
+            }
+            final Formula current = stack.get(stack.size() - 1);
+            if (results.containsKey(current)) {
+                stack.remove(stack.size() - 1);
+                continue;
+            }
+            if (current.type().precedence() >= LITERAL.precedence()) {
+                stack.remove(stack.size() - 1);
+                results.put(current, current);
+                continue;
+            }
+            final Formula cached = current.transformationCacheEntry(FACTORIZED_CNF);
+            if (cached != null) {
+                stack.remove(stack.size() - 1);
+                results.put(current, cached);
+                continue;
+            }
+            final int sizeBefore = stack.size();
+            switch (current.type()) {
+                case NOT:
+                case IMPL:
+                case EQUIV:
+                    final Formula nnf = current.nnf();
+                    if (!results.containsKey(nnf)) {
+                        stack.add(nnf);
+                    }
+                    break;
+                case OR:
+                case AND:
+                    for (final Formula op : current) {
+                        if (!results.containsKey(op)) {
+                            stack.add(op);
+                        }
+                    }
+                    Collections.reverse(stack.subList(sizeBefore, stack.size()));
+                    break;
+                default:
+                    break;
+            }
+            if (stack.size() > sizeBefore) {
+                continue;
+            }
+            stack.remove(stack.size() - 1);
+            final Formula result = this.factorize(current, results);
+            if (!this.proceed) {
+                return null;
+            }
+            if (cache) {
+                current.setTransformationCacheEntry(FACTORIZED_CNF, result);
+            }
+            results.put(current, result);
+        }
+        return results.get(formula);
+    }
+
+    /**
+     * Computes the factorized CNF of a formula whose operands are already factorized.
+     * @param formula the formula
+     * @param results the factorized CNFs of the operands
+     * @return the factorized CNF of the formula or {@code null} if the computation was aborted
+     */
+    private Formula factorize(final Formula formula, final Map<Formula, Formula> results) {
+        switch (formula.type()) {
+            case NOT:
+            case IMPL:
+            case EQUIV:
+                return results.get(formula.nnf());
+            case OR:
+                final LinkedHashSet<Formula> nops = new LinkedHashSet<>();
+                for (final Formula op : formula) {
+                    nops.add(results.get(op));
+                }
+                final Iterator<Formula> it = nops.iterator();
+                Formula result = it.next();
+                while (it.hasNext()) {
+                    if (!this.proceed) {
+                        return null;
+                    }
+                    result = this.distribute(result, it.next());
+                }
+                return result;
+            case AND:
+                final LinkedHashSet<Formula> cnfOps = new LinkedHashSet<>();
+                for (final Formula op : formula) {
+                    cnfOps.add(results.get(op));
+                }
+                return formula.factory().and(cnfOps);
+            case PBC:
+                return formula.nnf();
+            default:
+                throw new IllegalArgumentException("Could not process the formula type " + formula.type());
+        }
+    }
+
     /**
      * Computes the distribution (factorization) of two formulas.
      * @param f1 the first formula
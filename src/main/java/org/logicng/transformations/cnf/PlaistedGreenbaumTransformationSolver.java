@@ -48,7 +48,7 @@ import java.util.Map;
 /**
  * A Plaisted-Greenbaum CNF conversion which is performed directly on the internal SAT solver,
  * not on a formula factory.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.6.0
  */
 public final class PlaistedGreenbaumTransformationSolver {
@@ -71,6 +71,20 @@ public final class PlaistedGreenbaumTransformationSolver {
         this.initialPhase = initialPhase;
     }
 
+    /**
+     * Returns a copy of this transformation for a fork of its solver.  The copy has its own copy of the variable
+     * cache, so subformulas which were already added to the solver are not added again to the fork.
+     * @param solver the forked solver
+     * @return the copy of this transformation
+     */
+    public PlaistedGreenbaumTransformationSolver fork(final MiniSatStyleSolver solver) {
+        final PlaistedGreenbaumTransformationSolver copy = new PlaistedGreenbaumTransformationSolver(this.performNNF, solver, this.initialPhase);
+        for (final Map.Entry<Formula, VarCacheEntry> entry : this.variableCache.entrySet()) {
+            copy.variableCache.put(entry.getKey(), new VarCacheEntry(entry.getValue()));
+        }
+        return copy;
+    }
+
     /**
      * Adds the CNF of the given formula (and its optional proposition) to the solver,
      * @param formula     the formula to add to the solver
@@ -119,7 +133,7 @@ public final class PlaistedGreenbaumTransformationSolver {
         switch (formula.type()) {
             case LITERAL:
                 final Literal lit = (Literal) formula;
-                return polarity ? vector(solverLiteral(lit.name(), lit.phase())) : vector(solverLiteral(lit.name(), lit.phase()) ^ 1);
+                return polarity ? vector(solverLiteral(lit)) : vector(solverLiteral(lit) ^ 1);
             case NOT:
                 return computeTransformation(((Not) formula).operand(), !polarity, proposition, topLevel);
             case OR:
@@ -291,18 +305,18 @@ public final class PlaistedGreenbaumTransformationSolver {
     private LNGIntVector generateClauseVector(final Collection<Literal> literals) {
         final LNGIntVector clauseVec = new LNGIntVector(literals.size());
         for (final Literal lit : literals) {
-            clauseVec.unsafePush(solverLiteral(lit.name(), lit.phase()));
+            clauseVec.unsafePush(solverLiteral(lit));
         }
         return clauseVec;
     }
 
-    private int solverLiteral(final String name, final boolean phase) {
-        int index = this.solver.idxForName(name);
+    private int solverLiteral(final Literal lit) {
+        int index = this.solver.idxForVariable(lit.variable());
         if (index == -1) {
             index = this.solver.newVar(!this.initialPhase, true);
-            this.solver.addName(name, index);
+            this.solver.addVariable(lit.variable(), index);
         }
-        return phase ? index * 2 : (index * 2) ^ 1;
+        return lit.phase() ? index * 2 : (index * 2) ^ 1;
     }
 
     private int newSolverVariable() {
@@ -357,6 +371,12 @@ public final class PlaistedGreenbaumTransformationSolver {
             this.pgVar = pgVar;
         }
 
+        public VarCacheEntry(final VarCacheEntry other) {
+            this.pgVar = other.pgVar;
+            this.posPolarityCached = other.posPolarityCached;
+            this.negPolarityCached = other.negPolarityCached;
+        }
+
         public boolean setPolarityCached(final boolean polarity) {
             final boolean wasCached;
             if (polarity) {
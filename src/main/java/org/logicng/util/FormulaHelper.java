@@ -31,27 +31,40 @@ package org.logicng.util;
 import static org.logicng.util.CollectionHelper.nullOrEmpty;
 
 import org.logicng.formulas.And;
+import org.logicng.formulas.BinaryOperator;
 import org.logicng.formulas.FType;
 import org.logicng.formulas.Formula;
 import org.logicng.formulas.FormulaFactory;
 import org.logicng.formulas.Literal;
+import org.logicng.formulas.Not;
 import org.logicng.formulas.Variable;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * A class which contains utility methods for {@link Formula} objects.
- * @version 2.2.0
+ * @version 2.7.0
  * @since 1.5.1
  */
 public final class FormulaHelper {
 
+    /**
+     * The maximum depth up to which the core formula traversals recurse on the formula structure.
+     * Deeper subformulas are processed with an explicit stack, s.t. the native stack required for
+     * a traversal is bounded independently of the depth of the formula.
+     */
+    public static final int MAX_RECURSION_DEPTH = 250;
+
     /**
      * Private empty constructor.  Class only contains static utility methods.
      */
@@ -171,6 +184,100 @@ public final class FormulaHelper {
         }
     }
 
+    /**
+     * Replaces all atomic subformulas (constants, literals, and pseudo-Boolean constraints) of the
+     * given formula by the result of the given mapping and rebuilds the formula bottom-up.
+     * <p>
+     * Subformulas deeper than {@link #MAX_RECURSION_DEPTH} are traversed with an explicit stack
+     * instead of recursion, so this method also works for very deep formulas.  The atoms are
+     * processed in the same left-to-right order as in a purely recursive traversal.
+     * @param formula     the formula
+     * @param atomMapping the mapping for the atomic subformulas
+     * @return the rebuilt formula
+     */
+    public static Formula transformAtoms(final Formula formula, final Function<Formula, Formula> atomMapping) {
+        return transformAtomsRec(formula, atomMapping, 0);
+    }
+
+    private static Formula transformAtomsRec(final Formula formula, final Function<Formula, Formula> atomMapping, final int depth) {
+        if (formula.isAtomicFormula()) {
+            return atomMapping.apply(formula);
+        }
+        if (depth >= MAX_RECURSION_DEPTH) {
+            return transformAtomsIteratively(formula, atomMapping);
+        }
+        final FormulaFactory f = formula.factory();
+        switch (formula.type()) {
+            case NOT:
+                return f.not(transformAtomsRec(((Not) formula).operand(), atomMapping, depth + 1));
+            case IMPL:
+            case EQUIV:
+                final BinaryOperator binary = (BinaryOperator) formula;
+                final Formula left = transformAtomsRec(binary.left(), atomMapping, depth + 1);
+                return f.binaryOperator(formula.type(), left, transformAtomsRec(binary.right(), atomMapping, depth + 1));
+            case AND:
+            case OR:
+                final LinkedHashSet<Formula> nops = new LinkedHashSet<>();
+                for (final Formula op : formula) {
+                    nops.add(transformAtomsRec(op, atomMapping, depth + 1));
+                }
+                return f.naryOperator(formula.type(), nops);
+            default:
+                throw new IllegalStateException("Unknown formula type " + formula.type());
+        }
+    }
+
+    private static Formula transformAtomsIteratively(final Formula formula, final Function<Formula, Formula> atomMapping) {
+        final FormulaFactory f = formula.factory();
+        final Map<Formula, Formula> results = new IdentityHashMap<>();
+        final List<Formula> stack = new ArrayList<>();
+        stack.add(formula);
+        while (!stack.isEmpty()) {
+            final Formula current = stack.get(stack.size() - 1);
+            if (results.containsKey(current)) {
+                stack.remove(stack.size() - 1);
+                continue;
+            }
+            if (current.isAtomicFormula()) {
+                stack.remove(stack.size() - 1);
+                results.put(current, atomMapping.apply(current));
+                continue;
+            }
+            final int sizeBefore = stack.size();
+            for (final Formula op : current) {
+                if (!results.containsKey(op)) {
+                    stack.add(op);
+                }
+            }
+            if (stack.size() > sizeBefore) {
+                Collections.reverse(stack.subList(sizeBefore, stack.size()));
+                continue;
+            }
+            stack.remove(stack.size() - 1);
+            switch (current.type()) {
+                case NOT:
+                    results.put(current, f.not(results.get(((Not) current).operand())));
+                    break;
+                case IMPL:
+                case EQUIV:
+                    final BinaryOperator binary = (BinaryOperator) current;
+                    results.put(current, f.binaryOperator(current.type(), results.get(binary.left()), results.get(binary.right())));
+                    break;
+                case AND:
+                case OR:
+                    final LinkedHashSet<Formula> nops = new LinkedHashSet<>();
+                    for (final Formula op : current) {
+                        nops.add(results.get(op));
+                    }
+                    results.put(current, f.naryOperator(current.type(), nops));
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown formula type " + current.type());
+            }
+        }
+        return results.get(formula);
+    }
+
     /**
      * Returns a sorted variable set from a given collection of strings which will be used as variable names
      * and a formula factory. The given collection is treated in a null-safe manner,
@@ -0,0 +1,214 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.datastructures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.TestWithExampleFormulas;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.io.parsers.PseudoBooleanParser;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SolverState;
+import org.logicng.solvers.sat.MiniSatConfig;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the classes {@link DenseAssignment} and {@link VariableIndex}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class DenseAssignmentTest extends TestWithExampleFormulas {
+
+    @Test
+    public void testVariableIndex() {
+        final VariableIndex index = new VariableIndex(Arrays.asList(this.A, this.B));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.index(this.A)).isEqualTo(0);
+        assertThat(index.index(this.B)).isEqualTo(1);
+        assertThat(index.index(this.X)).isEqualTo(-1);
+        assertThat(index.add(this.X)).isEqualTo(2);
+        assertThat(index.add(this.A)).isEqualTo(0);
+        assertThat((Formula) index.variable(2)).isSameAs(this.X);
+        assertThat(index.variables()).containsExactly(this.A, this.B, this.X);
+    }
+
+    @Test
+    public void testAssignAndUnassign() {
+        final VariableIndex index = new VariableIndex();
+        final DenseAssignment assignment = new DenseAssignment(index);
+        assertThat(assignment.size()).isZero();
+        assignment.addLiteral(this.A);
+        assignment.addLiteral(this.NB);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(assignment.size()).isEqualTo(2);
+        assertThat(assignment.isAssigned(this.A)).isTrue();
+        assertThat(assignment.isAssigned(this.X)).isFalse();
+        assertThat(assignment.value(0)).isTrue();
+        assertThat(assignment.value(1)).isFalse();
+        assignment.assign(1, true);
+        assertThat(assignment.value(1)).isTrue();
+        assignment.unassign(0);
+        assertThat(assignment.isAssigned(0)).isFalse();
+        assertThat(assignment.toAssignment()).isEqualTo(new Assignment(this.B));
+        assignment.assign(200, false);
+        assertThat(assignment.isAssigned(200)).isTrue();
+        assertThat(assignment.isAssigned(-1)).isFalse();
+        assertThat(assignment.value(1000)).isFalse();
+    }
+
+    @Test
+    public void testEvaluateAndRestrictLit() {
+        final DenseAssignment assignment = new DenseAssignment(new VariableIndex(), new Assignment(this.A, this.NX));
+        assertThat(assignment.evaluateLit(this.A)).isTrue();
+        assertThat(assignment.evaluateLit(this.NA)).isFalse();
+        assertThat(assignment.evaluateLit(this.X)).isFalse();
+        assertThat(assignment.evaluateLit(this.NX)).isTrue();
+        assertThat(assignment.evaluateLit(this.B)).isFalse();
+        assertThat(assignment.evaluateLit(this.NB)).isTrue();
+        assertThat(assignment.restrictLit(this.A)).isEqualTo(this.TRUE);
+        assertThat(assignment.restrictLit(this.NA)).isEqualTo(this.FALSE);
+        assertThat(assignment.restrictLit(this.X)).isEqualTo(this.FALSE);
+        assertThat(assignment.restrictLit(this.NX)).isEqualTo(this.TRUE);
+        assertThat(assignment.restrictLit(this.B)).isEqualTo(this.B);
+        assertThat(assignment.restrictLit(this.NB)).isEqualTo(this.NB);
+    }
+
+    @Test
+    public void testEvaluateAndRestrictFormulas() throws ParserException {
+        final PseudoBooleanParser p = new PseudoBooleanParser(this.f);
+        final Assignment assignment = new Assignment(this.A, this.NB, this.X);
+        final DenseAssignment dense = new DenseAssignment(new VariableIndex(), assignment);
+        final List<Formula> formulas = new ArrayList<>(Arrays.asList(this.TRUE, this.FALSE, this.AND3, this.OR3, this.NOT1, this.NOT2,
+                this.IMP3, this.IMP4, this.EQ3, this.EQ4, this.PBC1, this.PBC2, this.PBC3, this.PBC4, this.PBC5));
+        formulas.add(p.parse("a & (b | c) => ~(x <=> y) | 3 * a + 2 * c + b >= 3"));
+        formulas.add(p.parse("c + d + x <= 1 & y"));
+        for (final Formula formula : formulas) {
+            assertThat(dense.evaluate(formula)).isEqualTo(formula.evaluate(assignment));
+            assertThat(dense.restrict(formula)).isEqualTo(formula.restrict(assignment));
+        }
+    }
+
+    @Test
+    public void testRandomFormulas() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(42).numVars(10).weightPbc(1).weightCc(1).build());
+        final Random random = new Random(42);
+        final VariableIndex index = new VariableIndex();
+        for (int i = 0; i < 200; i++) {
+            final List<Literal> literals = new ArrayList<>();
+            for (final Variable var : f.variables("v0", "v1", "v2", "v3", "v4", "v5", "v6", "v7", "v8", "v9")) {
+                final int choice = random.nextInt(3);
+                if (choice < 2) {
+                    literals.add(choice == 0 ? var : var.negate());
+                }
+            }
+            final Assignment assignment = new Assignment(literals);
+            final DenseAssignment dense = new DenseAssignment(index, assignment);
+            final Formula formula = randomizer.formula(4);
+            assertThat(dense.evaluate(formula)).isEqualTo(formula.evaluate(assignment));
+            assertThat(dense.restrict(formula)).isEqualTo(formula.restrict(assignment));
+        }
+    }
+
+    @Test
+    public void testConversion() {
+        final Assignment assignment = new Assignment(this.A, this.NB, this.X, this.NY);
+        final DenseAssignment dense = new DenseAssignment(new VariableIndex(), assignment);
+        assertThat(dense.toAssignment()).isEqualTo(assignment);
+        assertThat(dense.toAssignment(true)).isEqualTo(assignment);
+        assertThat(dense.toAssignment(true).fastEvaluable()).isTrue();
+        assertThat(dense.literals().equals(assignment.literals())).isTrue();
+        assertThat(dense.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        final VariableIndex index = new VariableIndex();
+        final DenseAssignment dense1 = new DenseAssignment(index, new Assignment(this.A, this.NB));
+        final DenseAssignment dense2 = new DenseAssignment(index, new Assignment(this.NB, this.A));
+        final DenseAssignment dense3 = new DenseAssignment(new VariableIndex(), new Assignment(this.NB, this.A));
+        final DenseAssignment dense4 = new DenseAssignment(index, new Assignment(this.A));
+        dense2.assign(130, true);
+        dense2.unassign(130);
+        assertThat(dense1).isEqualTo(dense1);
+        assertThat(dense1).isEqualTo(dense2);
+        assertThat(dense1).isEqualTo(dense3);
+        assertThat(dense1.hashCode()).isEqualTo(dense2.hashCode()).isEqualTo(dense3.hashCode());
+        assertThat(dense1).isNotEqualTo(dense4);
+        assertThat(dense1).isNotEqualTo(null);
+        assertThat(dense1).isNotEqualTo(dense1.toAssignment());
+        assertThat(dense1.toString()).isEqualTo("DenseAssignment{[a, ~b]}");
+    }
+
+    @Test
+    public void testSolverDenseModel() throws ParserException {
+        final PropositionalParser p = new PropositionalParser(this.f);
+        for (final MiniSat solver : Arrays.asList(
+                MiniSat.miniSat(this.f),
+                MiniSat.glucose(this.f),
+                MiniSat.miniCard(this.f),
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().cnfMethod(MiniSatConfig.CNFMethod.PG_ON_SOLVER).build()),
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().cnfMethod(MiniSatConfig.CNFMethod.PG_ON_SOLVER).auxiliaryVariablesInModels(false).build()))) {
+            assertThatThrownBy(solver::denseModel).isInstanceOf(IllegalStateException.class);
+            solver.add(p.parse("(a | b) & (~a | c) & (x <=> ~y) & (a & b | c & d)"));
+            solver.sat();
+            assertThat(solver.denseModel()).isEqualTo(new DenseAssignment(new VariableIndex(), solver.model()));
+            assertThat(solver.denseModel().toAssignment()).isEqualTo(solver.model());
+            final List<Variable> relevant = Arrays.asList(this.A, this.X, this.f.variable("unknown"));
+            assertThat(solver.denseModel(relevant).toAssignment()).isEqualTo(solver.model(relevant));
+            assertThat(solver.denseModel().variableIndex()).isSameAs(solver.denseModel(relevant).variableIndex());
+            if (solver.getStyle() != MiniSat.SolverStyle.GLUCOSE) {
+                final SolverState state = solver.saveState();
+                solver.add(p.parse("e & ~f"));
+                solver.sat();
+                assertThat(solver.denseModel().toAssignment()).isEqualTo(solver.model());
+                solver.loadState(state);
+                solver.add(p.parse("~a & g"));
+                solver.sat();
+                assertThat(solver.denseModel().toAssignment()).isEqualTo(solver.model());
+            }
+            solver.add(p.parse("~c"));
+            solver.sat();
+            assertThat(solver.denseModel()).isNull();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.LongRunningTag;
+import org.logicng.datastructures.Assignment;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for the class {@link BatchEvaluator}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class BatchEvaluatorTest {
+
+    @Test
+    public void testSimpleFormulas() {
+        final FormulaFactory f = new FormulaFactory();
+        final Variable a = f.variable("a");
+        final Variable b = f.variable("b");
+        final List<Assignment> assignments = new ArrayList<>();
+        assignments.add(new Assignment(a, b));
+        assignments.add(new Assignment(a, b.negate()));
+        assignments.add(new Assignment(a.negate(), b));
+        assignments.add(new Assignment());
+        assertThat(new BatchEvaluator(f.verum()).evaluate(assignments)).isEqualTo(bits(0, 1, 2, 3));
+        assertThat(new BatchEvaluator(f.falsum()).evaluate(assignments)).isEqualTo(bits());
+        assertThat(new BatchEvaluator(a).evaluate(assignments)).isEqualTo(bits(0, 1));
+        assertThat(new BatchEvaluator(b.negate()).evaluate(assignments)).isEqualTo(bits(1, 3));
+        assertThat(new BatchEvaluator(f.and(a, b)).evaluate(assignments)).isEqualTo(bits(0));
+        assertThat(new BatchEvaluator(f.or(a, b)).evaluate(assignments)).isEqualTo(bits(0, 1, 2));
+        assertThat(new BatchEvaluator(f.implication(a, b)).evaluate(assignments)).isEqualTo(bits(0, 2, 3));
+        assertThat(new BatchEvaluator(f.equivalence(a, b)).evaluate(assignments)).isEqualTo(bits(0, 3));
+        assertThat(new BatchEvaluator(f.not(f.and(a, b))).evaluate(assignments)).isEqualTo(bits(1, 2, 3));
+        assertThat(new BatchEvaluator(f.and(a, b)).evaluate(Collections.emptyList())).isEqualTo(bits());
+    }
+
+    @Test
+    public void testSharedSubformulas() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula shared = f.or(f.variable("a"), f.variable("b"));
+        final Formula formula = f.and(f.implication(shared, f.variable("c")), f.equivalence(f.not(shared), f.variable("d")));
+        final BatchEvaluator evaluator = new BatchEvaluator(formula);
+        assertThat(evaluator.formula()).isSameAs(formula);
+        assertThat(evaluator.size()).isEqualTo(9);
+    }
+
+    @Test
+    public void testRestrict() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula formula = f.and(f.or(f.variable("a"), f.variable("b")), f.or(f.variable("c"), f.variable("d")));
+        final List<Assignment> assignments = new ArrayList<>();
+        assignments.add(new Assignment(f.variable("a")));
+        assignments.add(new Assignment(f.literal("a", false), f.literal("b", false)));
+        assignments.add(new Assignment(f.variable("e")));
+        final List<Formula> restricted = new BatchEvaluator(formula).restrict(assignments);
+        assertThat(restricted).containsExactly(f.or(f.variable("c"), f.variable("d")), f.falsum(), formula);
+        assertThat(restricted.get(2)).isSameAs(formula);
+    }
+
+    @Test
+    public void testRandomFormulas() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(42).numVars(10).weightPbc(1).weightCc(1).build());
+        final Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            final Formula formula = randomizer.formula(4);
+            final List<Assignment> assignments = randomAssignments(f, f.variable("unknown"), formula, random, 150);
+            final BatchEvaluator evaluator = new BatchEvaluator(formula);
+            final BitSet results = evaluator.evaluate(assignments);
+            final List<Formula> restrictions = evaluator.restrict(assignments);
+            for (int j = 0; j < assignments.size(); j++) {
+                assertThat(results.get(j)).isEqualTo(formula.evaluate(assignments.get(j)));
+                assertThat(restrictions.get(j)).isSameAs(formula.restrict(assignments.get(j)));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelEvaluation() {
+        final FormulaFactory f = new ConcurrentFormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(7).numVars(20).weightPbc(1).build());
+        final Formula formula = f.and(randomizer.constraintSet(20, 4));
+        final List<Assignment> assignments = randomAssignments(f, null, formula, new Random(7), 5000);
+        final BatchEvaluator evaluator = new BatchEvaluator(formula);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final BitSet results = evaluator.evaluate(assignments, pool);
+            final List<Formula> restrictions = evaluator.restrict(assignments, pool);
+            for (int j = 0; j < assignments.size(); j++) {
+                assertThat(results.get(j)).isEqualTo(formula.evaluate(assignments.get(j)));
+                assertThat(restrictions.get(j)).isSameAs(formula.restrict(assignments.get(j)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @LongRunningTag
+    public void testPerformance() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(42).numVars(50).build());
+        final Formula formula = f.or(f.and(randomizer.constraintSet(10, 4)), f.and(randomizer.constraintSet(10, 4)), randomizer.formula(6));
+        final List<Assignment> assignments = randomAssignments(f, null, formula, new Random(42), 200_000);
+        final BatchEvaluator evaluator = new BatchEvaluator(formula);
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            final BitSet expected = new BitSet();
+            for (int i = 0; i < assignments.size(); i++) {
+                expected.set(i, formula.evaluate(assignments.get(i)));
+            }
+            final long singleTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            final BitSet results = evaluator.evaluate(assignments);
+            final long batchTime = System.nanoTime() - start;
+            System.out.printf("Evaluation of %d assignments on %d instructions: single %5d ms, batch %5d ms%n",
+                    assignments.size(), evaluator.size(), singleTime / 1_000_000, batchTime / 1_000_000);
+            assertThat(results).isEqualTo(expected);
+        }
+    }
+
+    private static List<Assignment> randomAssignments(final FormulaFactory f, final Variable extra, final Formula formula, final Random random, final int num) {
+        final SortedSet<Variable> variables = formula.variables();
+        final List<Assignment> assignments = new ArrayList<>(num);
+        for (int i = 0; i < num; i++) {
+            final List<Literal> literals = new ArrayList<>();
+            for (final Variable var : variables) {
+                final int choice = random.nextInt(3);
+                if (choice < 2) {
+                    literals.add(choice == 0 ? var : var.negate());
+                }
+            }
+            if (extra != null && random.nextBoolean()) {
+                literals.add(f.variable("unknown"));
+            }
+            assignments.add(new Assignment(literals, random.nextBoolean()));
+        }
+        return assignments;
+    }
+
+    private static BitSet bits(final int... indices) {
+        final BitSet bits = new BitSet();
+        for (final int index : indices) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -31,6 +31,8 @@ package org.logicng.formulas;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
+import org.logicng.LongRunningTag;
+import org.logicng.datastructures.Tristate;
 import org.logicng.formulas.cache.FunctionCacheEntry;
 import org.logicng.formulas.cache.PredicateCacheEntry;
 import org.logicng.formulas.cache.TransformationCacheEntry;
@@ -40,7 +42,7 @@ import java.util.List;
 
 /**
  * Unit tests for the package formulas.cache.
- * @version 2.3.0
+ * @version 2.7.0
  * @since 1.1
  */
 public class CacheTest {
@@ -82,4 +84,79 @@ public class CacheTest {
         assertThat(valuesFunc.contains(FunctionCacheEntry.valueOf("LITPROFILE"))).isTrue();
         assertThat(valuesFunc.contains(FunctionCacheEntry.valueOf("SUBFORMULAS"))).isTrue();
     }
+
+    @Test
+    public void testCacheSlots() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula formula = f.not(f.and(f.variable("a"), f.or(f.variable("b"), f.variable("c"))));
+        final Formula clause = f.or(f.variable("b"), f.variable("c"));
+        assertThat(clause.predicateCacheEntry(PredicateCacheEntry.IS_CNF)).isEqualTo(Tristate.TRUE);
+        assertThat(clause.transformationCacheEntry(TransformationCacheEntry.FACTORIZED_CNF)).isSameAs(clause);
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_CNF)).isEqualTo(Tristate.UNDEF);
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_NNF)).isEqualTo(Tristate.UNDEF);
+        final Formula nnf = formula.nnf();
+        final Object variables = formula.variables();
+        assertThat(formula.transformationCacheEntry(TransformationCacheEntry.NNF)).isSameAs(nnf);
+        assertThat(formula.functionCacheEntry(FunctionCacheEntry.VARIABLES)).isSameAs(variables);
+        formula.setPredicateCacheEntry(PredicateCacheEntry.IS_NNF, false);
+        formula.setPredicateCacheEntry(PredicateCacheEntry.IS_CNF, Tristate.TRUE);
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_NNF)).isEqualTo(Tristate.FALSE);
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_CNF)).isEqualTo(Tristate.TRUE);
+        formula.setPredicateCacheEntry(PredicateCacheEntry.IS_CNF, Tristate.UNDEF);
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_NNF)).isEqualTo(Tristate.FALSE);
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_CNF)).isEqualTo(Tristate.UNDEF);
+        assertThat(f.transformationCache).doesNotContainKey(formula);
+        assertThat(f.predicateCache).doesNotContainKey(formula);
+        assertThat(f.functionCache).doesNotContainKey(formula);
+        formula.clearCaches();
+        assertThat(formula.transformationCacheEntry(TransformationCacheEntry.NNF)).isNull();
+        assertThat(formula.functionCacheEntry(FunctionCacheEntry.VARIABLES)).isNull();
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_NNF)).isEqualTo(Tristate.FALSE);
+    }
+
+    @Test
+    public void testCacheSlotsWithExtendedFormulaFactory() {
+        final ExtendedFormulaFactory f = new ExtendedFormulaFactory();
+        final Formula formula = f.not(f.and(f.variable("a"), f.variable("b")));
+        final FormulaFactoryState state = f.save();
+        formula.nnf();
+        formula.variables();
+        assertThat(formula.transformationCacheEntry(TransformationCacheEntry.NNF)).isNotNull();
+        f.load(state);
+        assertThat(formula.transformationCacheEntry(TransformationCacheEntry.NNF)).isNull();
+        assertThat(formula.functionCacheEntry(FunctionCacheEntry.VARIABLES)).isNull();
+        assertThat(formula.nnf().toString()).isEqualTo("~a | ~b");
+    }
+
+    @Test
+    @LongRunningTag
+    public void testCacheSlotPerformance() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula[] formulas = new Formula[1000];
+        for (int i = 0; i < formulas.length; i++) {
+            formulas[i] = f.not(f.and(f.variable("a" + i), f.or(f.variable("b" + i), f.literal("c" + i, false))));
+            formulas[i].nnf();
+            formulas[i].variables();
+            formulas[i].setTransformationCacheEntry(TransformationCacheEntry.AIG, formulas[i]);
+        }
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int hits = 0;
+            for (int i = 0; i < 10_000; i++) {
+                for (final Formula formula : formulas) {
+                    hits += formula.transformationCacheEntry(TransformationCacheEntry.NNF) != null ? 1 : 0;
+                }
+            }
+            final long slotTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) {
+                for (final Formula formula : formulas) {
+                    hits += formula.transformationCacheEntry(TransformationCacheEntry.AIG) != null ? 1 : 0;
+                }
+            }
+            final long mapTime = System.nanoTime() - start;
+            System.out.printf("Cache hits via slot: %4d ms, via map: %4d ms%n", slotTime / 1_000_000, mapTime / 1_000_000);
+            assertThat(hits).isEqualTo(2 * 10_000 * formulas.length);
+        }
+    }
 }
@@ -0,0 +1,360 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.LongRunningTag;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.predicates.CNFPredicate;
+import org.logicng.solvers.MiniSat;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the class {@link ConcurrentFormulaFactory}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class ConcurrentFormulaFactoryTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void testCanonicalFormulasFromManyThreads() throws Exception {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory(FormulaFactoryConfig.builder().name("F").build());
+        final List<List<Formula>> results = generateConcurrently(f, 1000, 42);
+        for (int i = 1; i < THREADS; i++) {
+            assertThat(results.get(i)).hasSameSizeAs(results.get(0));
+            for (int j = 0; j < results.get(0).size(); j++) {
+                assertThat(results.get(i).get(j)).isSameAs(results.get(0).get(j));
+                assertThat(results.get(i).get(j).nnf()).isSameAs(results.get(0).get(j).nnf());
+            }
+        }
+        final FormulaFactory sequential = new FormulaFactory(FormulaFactoryConfig.builder().name("F").build());
+        final List<Formula> sequentialFormulas = randomizer(sequential, 42).constraintSet(1000, 4);
+        sequentialFormulas.forEach(Formula::nnf);
+        assertThat(f.statistics()).isEqualTo(sequential.statistics());
+    }
+
+    @Test
+    public void testAuxiliaryVariablesFromManyThreads() throws Exception {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Variable>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    final List<Variable> vars = new ArrayList<>();
+                    for (int j = 0; j < 1000; j++) {
+                        vars.add(f.newCNFVariable());
+                        vars.add(f.newCCVariable());
+                        vars.add(f.newPBVariable());
+                    }
+                    return vars;
+                }));
+            }
+            final Set<Variable> all = new HashSet<>();
+            for (final Future<List<Variable>> future : futures) {
+                all.addAll(future.get());
+            }
+            assertThat(all).hasSize(3 * 1000 * THREADS);
+            assertThat(f.statistics().cnfCounter()).isEqualTo(1000 * THREADS);
+            assertThat(f.statistics().ccCounter()).isEqualTo(1000 * THREADS);
+            assertThat(f.statistics().pbCounter()).isEqualTo(1000 * THREADS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testVariableIdsFromManyThreads() throws Exception {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Variable>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    final List<Variable> vars = new ArrayList<>();
+                    for (int j = 0; j < 1000; j++) {
+                        vars.add(f.variable("v" + j));
+                        vars.add(f.newCNFVariable());
+                    }
+                    return vars;
+                }));
+            }
+            final Set<Integer> ids = new HashSet<>();
+            for (final Future<List<Variable>> future : futures) {
+                for (final Variable var : future.get()) {
+                    ids.add(var.id());
+                }
+            }
+            final int numVariables = 1000 + 1000 * THREADS;
+            assertThat(ids).hasSize(numVariables);
+            assertThat(f.numberOfVariableIds()).isEqualTo(numVariables);
+            assertThat(ids).allMatch(id -> id >= 0 && id < numVariables);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testVariablesAndAuxiliaryVariablesFromManyThreads() throws Exception {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        f.variable("v" + (j * THREADS + thread));
+                        switch (j % 3) {
+                            case 0:
+                                f.newCCVariable();
+                                break;
+                            case 1:
+                                f.newPBVariable();
+                                break;
+                            default:
+                                f.newCNFVariable();
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            assertThat(f.numberOfVariableIds()).isEqualTo(2 * 10_000 * THREADS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClear() {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final Formula formula = f.and(f.variable("a"), f.or(f.literal("b", false), f.variable("c")));
+        assertThat(f.statistics().formulas()).isGreaterThan(0);
+        f.clear();
+        assertThat(f.statistics().formulas()).isZero();
+        assertThat(f.and(f.variable("a"), f.or(f.literal("b", false), f.variable("c"))).toString()).isEqualTo(formula.toString());
+    }
+
+    @Test
+    public void testCacheSlots() {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final Formula cnf = f.and(f.or(f.variable("a"), f.variable("b")), f.or(f.literal("a", false), f.variable("c")));
+        final Formula nonCnf = f.or(cnf, f.variable("d"));
+        assertThat(cnf.isCNF()).isTrue();
+        assertThat(nonCnf.isCNF()).isFalse();
+        assertThat(nonCnf.nnf()).isSameAs(nonCnf.nnf());
+        assertThat(cnf.variables()).hasSize(3);
+        assertThat(nonCnf.cnf().isCNF()).isTrue();
+    }
+
+    @Test
+    public void testCnfFlagsFromManyThreads() throws Exception {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final CNFPredicate cnfPredicate = CNFPredicate.get();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (final Formula formula : randomizer(f, 42).constraintSet(2000, 3)) {
+                        assertThat(formula.isCNF()).isEqualTo(cnfPredicate.test(formula, false));
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCnfFromManyThreads() throws Exception {
+        final FormulaFactory sequential = new FormulaFactory();
+        final List<Formula> sequentialFormulas = randomizer(sequential, 42).constraintSet(400, 4);
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Formula>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int offset = i * 47;
+                futures.add(executor.submit(() -> {
+                    final List<Formula> formulas = randomizer(f, 42).constraintSet(400, 4);
+                    final List<Formula> cnfs = new ArrayList<>(formulas);
+                    for (int j = 0; j < formulas.size(); j++) {
+                        final int index = (j + offset) % formulas.size();
+                        cnfs.set(index, formulas.get(index).cnf());
+                    }
+                    return cnfs;
+                }));
+            }
+            int factorized = 0;
+            for (int j = 0; j < sequentialFormulas.size(); j++) {
+                final Formula formula = sequentialFormulas.get(j);
+                final Formula cnf = formula.cnf();
+                if (formula.variables().containsAll(cnf.variables())) {
+                    factorized++;
+                    for (final Future<List<Formula>> future : futures) {
+                        final Formula concurrentCnf = future.get().get(j);
+                        assertThat(concurrentCnf.isCNF()).isTrue();
+                        assertThat(clauses(concurrentCnf)).isEqualTo(clauses(cnf));
+                    }
+                }
+            }
+            assertThat(factorized).isGreaterThan(100);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Set<Set<String>> clauses(final Formula cnf) {
+        final Set<Set<String>> clauses = new HashSet<>();
+        final Iterable<Formula> operands = cnf.type() == FType.AND ? cnf : Collections.singletonList(cnf);
+        for (final Formula clause : operands) {
+            clauses.add(clause.literals().stream().map(Literal::toString).collect(Collectors.toSet()));
+        }
+        return clauses;
+    }
+
+    @Test
+    public void testPBEncodingsFromManyThreads() throws Exception {
+        final ConcurrentFormulaFactory f = new ConcurrentFormulaFactory();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int seed = i % 2;
+                futures.add(executor.submit(() -> {
+                    final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder()
+                            .seed(seed).numVars(8).maximumOperandsPbc(6).maximumCoefficientPbc(5).build());
+                    for (int j = 0; j < 100; j++) {
+                        final Formula formula = randomizer.pbc();
+                        if (formula instanceof PBConstraint) {
+                            assertCorrectEncoding(f, (PBConstraint) formula);
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @LongRunningTag
+    public void testLargeConstraintSetsFromManyThreads() throws Exception {
+        final int numFormulas = 20_000;
+        final FormulaFactory sequential = new FormulaFactory();
+        final List<List<Formula>> sequentialFormulas = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            sequentialFormulas.add(randomizer(sequential, i).constraintSet(numFormulas, 5));
+        }
+        final ConcurrentFormulaFactory concurrent = new ConcurrentFormulaFactory();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Formula>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int seed = i;
+                futures.add(executor.submit(() -> randomizer(concurrent, seed).constraintSet(numFormulas, 5)));
+            }
+            for (int i = 0; i < THREADS; i++) {
+                final List<Formula> formulas = futures.get(i).get();
+                assertThat(formulas).hasSameSizeAs(sequentialFormulas.get(i));
+                for (int j = 0; j < formulas.size(); j++) {
+                    assertThat(formulas.get(j).toString()).isEqualTo(sequentialFormulas.get(i).get(j).toString());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(concurrent.statistics().formulas()).isEqualTo(sequential.statistics().formulas());
+    }
+
+    private static void assertCorrectEncoding(final FormulaFactory f, final PBConstraint constraint) {
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(constraint.getEncoding());
+        final Variable[] vars = constraint.variables().toArray(new Variable[0]);
+        for (int bits = 0; bits < 1 << vars.length; bits++) {
+            final List<Literal> assumptions = new ArrayList<>();
+            for (int k = 0; k < vars.length; k++) {
+                assumptions.add((bits & (1 << k)) == 0 ? vars[k].negate() : vars[k]);
+            }
+            final boolean expected = constraint.evaluate(new Assignment(assumptions));
+            assertThat(solver.sat(assumptions)).isEqualTo(Tristate.fromBool(expected));
+        }
+    }
+
+    private static List<List<Formula>> generateConcurrently(final FormulaFactory f, final int numFormulas, final long seed) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Formula>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    final List<Formula> formulas = randomizer(f, seed).constraintSet(numFormulas, 4);
+                    formulas.forEach(Formula::nnf);
+                    return formulas;
+                }));
+            }
+            final List<List<Formula>> results = new ArrayList<>();
+            for (final Future<List<Formula>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static FormulaRandomizer randomizer(final FormulaFactory f, final long seed) {
+        return new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(seed).numVars(20).build());
+    }
+}
@@ -0,0 +1,221 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.LongRunningTag;
+import org.logicng.datastructures.Assignment;
+import org.logicng.functions.NumberOfNodesFunction;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.functions.VariablesFunction;
+import org.logicng.transformations.LiteralSubstitution;
+import org.logicng.transformations.NNFTransformation;
+import org.logicng.transformations.cnf.CNFFactorization;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tests for the core traversals on very deep formulas.  All traversals are run
+ * in a thread with a small stack to ensure that they do not recurse on the
+ * formula structure.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class DeepFormulaTest {
+
+    private static final long STACK_SIZE = 256 * 1024;
+
+    @Test
+    public void testNNF() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula chain = implicationChain(f, 20_000);
+        final Formula nnf = runWithSmallStack(() -> NNFTransformation.get().apply(chain, true));
+        assertThat(nnf.type()).isEqualTo(FType.OR);
+        assertThat(runWithSmallStack(() -> NumberOfNodesFunction.get().apply(nnf, false))).isEqualTo(40_001L);
+        assertThat(runWithSmallStack(() -> NNFTransformation.get().apply(f.not(chain), true)).type()).isEqualTo(FType.AND);
+        assertThat(runWithSmallStack(() -> NNFTransformation.get().apply(f.equivalence(chain, f.variable("x")), true)).type()).isEqualTo(FType.AND);
+    }
+
+    @Test
+    public void testCNFFactorization() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula alternating = alternatingChain(f, 20_000);
+        final Formula cnf = runWithSmallStack(() -> new CNFFactorization().apply(alternating, true));
+        assertThat(cnf.isCNF()).isTrue();
+        assertThat(runWithSmallStack(() -> new CNFFactorization().apply(implicationChain(f, 20_000), false)).isCNF()).isTrue();
+    }
+
+    @Test
+    public void testRestrict() throws ParserException {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula alternating = alternatingChain(f, 20_000);
+        final Assignment assignment = new Assignment(f.variable("w1"));
+        final Formula restricted = runWithSmallStack(() -> alternating.restrict(assignment));
+        assertThat(restricted).isEqualTo(new PropositionalParser(f).parse("v0 & (w9 | v8 & (w7 | v6 & (w5 | v4 & (w3 | v2))))"));
+        final Formula chain = implicationChain(f, 20_000);
+        final Assignment noVars = new Assignment(f.variable("x"));
+        assertThat(runWithSmallStack(() -> chain.restrict(noVars))).isSameAs(chain);
+    }
+
+    @Test
+    public void testLiteralSubstitution() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula alternating = alternatingChain(f, 20_000);
+        final Map<Literal, Literal> mapping = new HashMap<>();
+        mapping.put(f.variable("v0"), f.variable("x"));
+        final Formula substituted = runWithSmallStack(() -> new LiteralSubstitution(mapping).apply(alternating, false));
+        assertThat(runWithSmallStack(() -> VariablesFunction.get().apply(substituted, false))).contains(f.variable("x")).doesNotContain(f.variable("v0"));
+    }
+
+    @Test
+    public void testNumberOfNodesAndVariables() {
+        final FormulaFactory f = new FormulaFactory();
+        final Formula alternating = alternatingChain(f, 20_000);
+        assertThat(runWithSmallStack(() -> NumberOfNodesFunction.get().apply(alternating, true))).isEqualTo(40_001L);
+        assertThat(runWithSmallStack(alternating::numberOfNodes)).isEqualTo(40_001L);
+        assertThat(runWithSmallStack(() -> VariablesFunction.get().apply(alternating, false))).hasSize(10);
+        assertThat(runWithSmallStack(alternating::variables)).hasSize(10);
+        final Formula chain = implicationChain(f, 20_000);
+        assertThat(runWithSmallStack(() -> NumberOfNodesFunction.get().apply(chain, false))).isEqualTo(40_001L);
+        assertThat(runWithSmallStack(() -> VariablesFunction.get().apply(chain, true))).hasSize(100);
+    }
+
+    @Test
+    @LongRunningTag
+    public void testPerformanceOnDeepFormulas() {
+        for (final int depth : new int[]{10_000, 100_000, 1_000_000}) {
+            final Map<String, Long> times = new LinkedHashMap<>();
+            times.put("nnf", timeOnChain(depth, DeepFormulaTest::implicationChain, formula -> NNFTransformation.get().apply(formula, false)));
+            times.put("cnf", timeOnChain(depth, DeepFormulaTest::alternatingChain, formula -> new CNFFactorization().apply(formula, false)));
+            times.put("restrict", timeOnChain(depth, DeepFormulaTest::alternatingChain, formula -> formula.restrict(new Assignment(formula.factory().variable("w1")))));
+            times.put("substitution", timeOnChain(depth, DeepFormulaTest::alternatingChain, formula -> {
+                final Map<Literal, Literal> mapping = new HashMap<>();
+                mapping.put(formula.factory().variable("v0"), formula.factory().variable("x"));
+                return new LiteralSubstitution(mapping).apply(formula, false);
+            }));
+            times.put("nodes", timeOnChain(depth, DeepFormulaTest::implicationChain, formula -> NumberOfNodesFunction.get().apply(formula, false)));
+            times.put("variables", timeOnChain(depth, DeepFormulaTest::implicationChain, formula -> VariablesFunction.get().apply(formula, false)));
+            System.out.printf("Depth %7d: %s%n", depth, times);
+        }
+    }
+
+    @Test
+    @LongRunningTag
+    public void testPerformanceOnShallowFormulas() {
+        for (int round = 0; round < 3; round++) {
+            final long[] times = new long[6];
+            for (int i = 0; i < 10; i++) {
+                final FormulaFactory f = new FormulaFactory();
+                final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(i + 1).numVars(20).build());
+                final List<Formula> formulas = randomizer.constraintSet(500, 3);
+                final Map<Literal, Literal> mapping = new HashMap<>();
+                mapping.put(f.variable("v01"), f.variable("x"));
+                final Assignment assignment = new Assignment(f.variable("v02"), f.literal("v03", false));
+                times[0] += timeAll(formulas, formula -> NNFTransformation.get().apply(formula, false));
+                times[1] += timeAll(formulas, formula -> new CNFFactorization().apply(formula, false));
+                times[2] += timeAll(formulas, formula -> formula.restrict(assignment));
+                times[3] += timeAll(formulas, formula -> new LiteralSubstitution(mapping).apply(formula, false));
+                times[4] += timeAll(formulas, formula -> NumberOfNodesFunction.get().apply(formula, false));
+                times[5] += timeAll(formulas, formula -> VariablesFunction.get().apply(formula, false));
+            }
+            System.out.printf("Shallow: nnf %5d ms, cnf %5d ms, restrict %5d ms, substitution %5d ms, nodes %5d ms, variables %5d ms%n",
+                    times[0], times[1], times[2], times[3], times[4], times[5]);
+        }
+    }
+
+    private static Formula implicationChain(final FormulaFactory f, final int depth) {
+        Formula formula = f.variable("v0");
+        for (int i = 1; i <= depth; i++) {
+            formula = f.implication(formula, f.variable("v" + (i % 100)));
+        }
+        return formula;
+    }
+
+    private static Formula alternatingChain(final FormulaFactory f, final int depth) {
+        Formula formula = f.variable("v0");
+        for (int i = 1; i <= depth; i++) {
+            formula = i % 2 == 0 ? f.and(f.variable("v" + (i % 10)), formula) : f.or(f.variable("w" + (i % 10)), formula);
+        }
+        return formula;
+    }
+
+    private static <T> T runWithSmallStack(final Supplier<T> supplier) {
+        final AtomicReference<T> result = new AtomicReference<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread thread = new Thread(null, () -> {
+            try {
+                result.set(supplier.get());
+            } catch (final Throwable t) {
+                error.set(t);
+            }
+        }, "small-stack", STACK_SIZE);
+        thread.start();
+        try {
+            thread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertThat(error.get()).isNull();
+        return result.get();
+    }
+
+    private static long timeOnChain(final int depth, final BiFunction<FormulaFactory, Integer, Formula> generator,
+                                    final Function<Formula, Object> function) {
+        final Formula formula = generator.apply(new FormulaFactory(), depth);
+        final long start = System.nanoTime();
+        final Object result = runWithSmallStack(() -> function.apply(formula));
+        final long time = System.nanoTime() - start;
+        assertThat(result).isNotNull();
+        return time / 1_000_000;
+    }
+
+    private static long timeAll(final List<Formula> formulas, final Function<Formula, Object> function) {
+        final List<Object> results = new ArrayList<>(formulas.size());
+        final long start = System.nanoTime();
+        for (final Formula formula : formulas) {
+            results.add(function.apply(formula));
+        }
+        final long time = System.nanoTime() - start;
+        assertThat(results).hasSize(formulas.size());
+        return time / 1_000_000;
+    }
+}
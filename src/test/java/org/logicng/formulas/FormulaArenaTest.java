@@ -0,0 +1,265 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.LongRunningTag;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Unit tests for the class {@link FormulaArena}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class FormulaArenaTest {
+
+    @Test
+    public void testConstantsAndLiterals() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaArena arena = new FormulaArena();
+        assertThat(arena.add(f.falsum())).isEqualTo(FormulaArena.FALSE);
+        assertThat(arena.add(f.verum())).isEqualTo(FormulaArena.TRUE);
+        final int a = arena.add(f.variable("a"));
+        final int na = arena.add(f.literal("a", false));
+        assertThat(arena.add(f.variable("a"))).isEqualTo(a);
+        assertThat(arena.type(a)).isEqualTo(FType.LITERAL);
+        assertThat(arena.literalCode(a)).isEqualTo(0);
+        assertThat(arena.literalCode(na)).isEqualTo(1);
+        assertThat(arena.numberOfVariables()).isEqualTo(1);
+        assertThat(arena.variableName(0)).isEqualTo("a");
+        assertThat(arena.variableIndex("a")).isEqualTo(0);
+        assertThat(arena.variableIndex("b")).isEqualTo(-1);
+        assertThat(arena.size()).isEqualTo(4);
+        assertThatThrownBy(() -> arena.literalCode(FormulaArena.TRUE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> arena.evaluate(4, new boolean[1])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testSharing() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaArena arena = new FormulaArena();
+        final Formula shared = f.or(f.variable("a"), f.literal("b", false));
+        final Formula formula = f.and(f.implication(shared, f.variable("c")), f.equivalence(f.not(shared), f.variable("d")));
+        final int node = arena.add(formula);
+        assertThat(arena.size()).isEqualTo(11);
+        assertThat(arena.type(node)).isEqualTo(FType.AND);
+        assertThat(arena.numberOfOperands(node)).isEqualTo(2);
+        assertThat(arena.type(arena.operand(node, 0))).isEqualTo(FType.IMPL);
+        assertThat(arena.numberOfNodes(node)).isEqualTo(formula.numberOfNodes());
+        assertThat(arena.toFormula(node, f)).isSameAs(formula);
+        assertThat(arena.add(formula)).isEqualTo(node);
+        assertThat(arena.add(f.not(shared))).isEqualTo(arena.operand(arena.operand(node, 1), 0));
+        assertThat(arena.size()).isEqualTo(11);
+    }
+
+    @Test
+    public void testPBConstraints() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaArena arena = new FormulaArena();
+        final Literal[] literals = {f.variable("a"), f.literal("b", false), f.variable("c")};
+        final Formula pbc = f.pbc(CType.GE, 3, literals, new int[]{2, 1, -1});
+        final int node = arena.add(pbc);
+        assertThat(arena.type(node)).isEqualTo(FType.PBC);
+        assertThat(arena.numberOfOperands(node)).isEqualTo(3);
+        assertThat(arena.operand(node, 1)).isEqualTo(3);
+        assertThat(arena.toFormula(node, f)).isSameAs(pbc);
+        assertThat(arena.numberOfNodes(node)).isEqualTo(4);
+        final Assignment assignment = new Assignment(f.variable("a"));
+        assertThat(arena.evaluate(node, assignment)).isTrue();
+        assertThat(arena.toFormula(arena.restrict(node, assignment), f)).isSameAs(pbc.restrict(assignment));
+        final Assignment assignment2 = new Assignment(f.literal("a", false), f.variable("b"));
+        assertThat(arena.restrict(node, assignment2)).isEqualTo(FormulaArena.FALSE);
+    }
+
+    @Test
+    public void testRestrictReusesUnaffectedNodes() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaArena arena = new FormulaArena();
+        final Formula unaffected = f.or(f.variable("b"), f.variable("c"));
+        final int node = arena.add(f.and(f.or(f.variable("a"), f.variable("d")), unaffected));
+        final int size = arena.size();
+        assertThat(arena.restrict(node, new Assignment(f.variable("e")))).isEqualTo(node);
+        assertThat(arena.size()).isEqualTo(size);
+        final int restricted = arena.restrict(node, new Assignment(f.literal("a", false)));
+        final int restrictedSize = arena.size();
+        assertThat(arena.restrict(node, new Assignment(f.literal("a", false)))).isEqualTo(restricted);
+        assertThat(arena.size()).isEqualTo(restrictedSize);
+        assertThat(arena.add(f.and(f.variable("d"), unaffected))).isEqualTo(restricted);
+        assertThat(arena.toFormula(restricted, f)).isSameAs(f.and(f.variable("d"), unaffected));
+        assertThat(arena.operand(restricted, 1)).isEqualTo(arena.operand(node, 1));
+        assertThat(arena.restrict(node, new Assignment(f.literal("b", false), f.literal("c", false)))).isEqualTo(FormulaArena.FALSE);
+    }
+
+    @Test
+    public void testClauses() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaArena arena = new FormulaArena();
+        final List<List<Integer>> clauses = new ArrayList<>();
+        final int cnf = arena.add(f.and(f.or(f.variable("a"), f.literal("b", false)), f.variable("c")));
+        arena.forEachClause(cnf, clause -> clauses.add(toList(clause)));
+        assertThat(clauses).containsExactly(asList(0, 3), asList(4));
+        clauses.clear();
+        arena.forEachClause(FormulaArena.TRUE, clause -> clauses.add(toList(clause)));
+        assertThat(clauses).isEmpty();
+        arena.forEachClause(FormulaArena.FALSE, clause -> clauses.add(toList(clause)));
+        assertThat(clauses).containsExactly(new ArrayList<>());
+        final int nonCnf = arena.add(f.or(f.variable("a"), f.and(f.variable("b"), f.variable("c"))));
+        assertThatThrownBy(() -> arena.forEachClause(nonCnf, clause -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRandomFormulas() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(42).numVars(10).weightPbc(1).weightCc(1).build());
+        final Random random = new Random(42);
+        final List<Variable> vars = variables(f, "v%d", 10);
+        final FormulaArena arena = new FormulaArena();
+        for (int i = 0; i < 200; i++) {
+            final Formula formula = randomizer.formula(4);
+            final int node = arena.add(formula);
+            assertThat(arena.toFormula(node, f)).isSameAs(formula);
+            assertThat(arena.numberOfNodes(node)).isEqualTo(formula.numberOfNodes());
+            final SortedSet<String> variables = new TreeSet<>();
+            final BitSet indices = arena.variables(node);
+            indices.stream().forEach(index -> variables.add(arena.variableName(index)));
+            final SortedSet<String> expected = new TreeSet<>();
+            formula.variables().forEach(v -> expected.add(v.name()));
+            assertThat(variables).isEqualTo(expected);
+            for (int j = 0; j < 10; j++) {
+                final Assignment assignment = randomAssignment(vars, random);
+                assertThat(arena.evaluate(node, assignment)).isEqualTo(formula.evaluate(assignment));
+                assertThat(arena.toFormula(arena.restrict(node, assignment), f)).isSameAs(formula.restrict(assignment));
+            }
+            final Formula cnf = formula.cnf();
+            final List<List<Integer>> clauses = new ArrayList<>();
+            arena.forEachClause(arena.add(cnf), clause -> clauses.add(toList(clause)));
+            final List<List<Integer>> expectedClauses = new ArrayList<>();
+            if (cnf.type() != FType.TRUE) {
+                final Iterable<Formula> cnfClauses = cnf.type() == FType.AND ? cnf : Collections.singletonList(cnf);
+                for (final Formula clause : cnfClauses) {
+                    final List<Integer> lits = new ArrayList<>();
+                    for (final Literal lit : clause.literals()) {
+                        lits.add(2 * arena.variableIndex(lit.name()) + (lit.phase() ? 0 : 1));
+                    }
+                    expectedClauses.add(lits);
+                }
+            }
+            assertThat(clauses).hasSize(expectedClauses.size());
+            for (int k = 0; k < clauses.size(); k++) {
+                assertThat(clauses.get(k)).containsExactlyInAnyOrderElementsOf(expectedClauses.get(k));
+            }
+        }
+    }
+
+    @Test
+    @LongRunningTag
+    public void testPerformance() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(42).numVars(50).build());
+        final List<Formula> formulas = randomizer.constraintSet(2000, 5);
+        final FormulaArena arena = new FormulaArena();
+        final int[] nodes = formulas.stream().mapToInt(arena::add).toArray();
+        final Random random = new Random(42);
+        final List<Variable> vars = variables(f, "v%02d", 50);
+        final List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            assignments.add(randomAssignment(vars, random));
+        }
+        long start = System.nanoTime();
+        int trueFormulas = 0;
+        for (final Assignment assignment : assignments) {
+            for (final Formula formula : formulas) {
+                trueFormulas += formula.evaluate(assignment) ? 1 : 0;
+            }
+        }
+        final long formulaTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        int trueNodes = 0;
+        for (final Assignment assignment : assignments) {
+            final boolean[] values = new boolean[arena.numberOfVariables()];
+            assignment.positiveVariables().forEach(v -> values[arena.variableIndex(v.name())] = true);
+            for (final int node : nodes) {
+                trueNodes += arena.evaluate(node, values) ? 1 : 0;
+            }
+        }
+        final long arenaTime = System.nanoTime() - start;
+        System.out.printf("Evaluation of %d formulas with %d arena nodes: formulas %d ms, arena %d ms%n",
+                formulas.size(), arena.size(), formulaTime / 1_000_000, arenaTime / 1_000_000);
+        assertThat(trueNodes).isEqualTo(trueFormulas);
+    }
+
+    private static List<Variable> variables(final FormulaFactory f, final String format, final int numVars) {
+        final List<Variable> variables = new ArrayList<>();
+        for (int i = 0; i < numVars; i++) {
+            variables.add(f.variable(String.format(format, i)));
+        }
+        return variables;
+    }
+
+    private static Assignment randomAssignment(final List<Variable> variables, final Random random) {
+        final List<Literal> literals = new ArrayList<>();
+        for (final Variable var : variables) {
+            if (random.nextBoolean()) {
+                literals.add(random.nextBoolean() ? var : var.negate());
+            }
+        }
+        return new Assignment(literals);
+    }
+
+    private static List<Integer> toList(final LNGIntVector vector) {
+        final List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < vector.size(); i++) {
+            list.add(vector.get(i));
+        }
+        return list;
+    }
+
+    private static List<Integer> asList(final int... elements) {
+        final List<Integer> list = new ArrayList<>();
+        for (final int element : elements) {
+            list.add(element);
+        }
+        return list;
+    }
+}
@@ -36,7 +36,7 @@ import org.logicng.datastructures.Substitution;
 
 /**
  * Unit Tests for the class {@link Literal}.
- * @version 2.3.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class LiteralTest extends TestWithExampleFormulas {
@@ -206,4 +206,22 @@ public class LiteralTest extends TestWithExampleFormulas {
         assertThat(this.A.variable() == this.A).isTrue();
         assertThat(this.NA.variable() == this.A).isTrue();
     }
+
+    @Test
+    public void testVariableIds() {
+        final FormulaFactory f = new FormulaFactory();
+        final Variable a = f.variable("a");
+        final Literal nb = f.literal("b", false);
+        final Variable c = f.variable("c");
+        assertThat(a.id()).isEqualTo(0);
+        assertThat(nb.variable().id()).isEqualTo(1);
+        assertThat(c.id()).isEqualTo(2);
+        assertThat(f.variable("a").id()).isEqualTo(0);
+        assertThat(f.numberOfVariableIds()).isEqualTo(3);
+        assertThat(f.newCNFVariable().id()).isEqualTo(3);
+        assertThat(f.numberOfVariableIds()).isEqualTo(4);
+        f.clear();
+        assertThat(f.variable("a").id()).isEqualTo(4);
+        assertThat(new FormulaFactory().variable("c").id()).isEqualTo(0);
+    }
 }
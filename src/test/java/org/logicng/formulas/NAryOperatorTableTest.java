@@ -0,0 +1,271 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.LongRunningTag;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the class {@link NAryOperatorTable}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class NAryOperatorTableTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+    private final Variable a = this.f.variable("a");
+    private final Variable b = this.f.variable("b");
+    private final Variable c = this.f.variable("c");
+    private final Literal nc = this.f.literal("c", false);
+
+    @Test
+    public void testPutAndGet() {
+        final NAryOperatorTable<And> table = new NAryOperatorTable<>();
+        final And and = (And) this.f.and(this.a, this.b, this.nc);
+        assertThat(table.isEmpty()).isTrue();
+        assertThat(table.get(set(this.a, this.b, this.nc))).isNull();
+        assertThat(table.put(set(this.a, this.b, this.nc), and)).isNull();
+        assertThat(table).hasSize(1);
+        assertThat(table.get(set(this.a, this.b, this.nc))).isSameAs(and);
+        assertThat(table.get(set(this.nc, this.a, this.b))).isSameAs(and);
+        assertThat(table.get(set(this.a, this.b, this.c))).isNull();
+        assertThat(table.get(set(this.a, this.b))).isNull();
+        assertThat(table.get("a & b & ~c")).isNull();
+        assertThat(table.containsKey(set(this.b, this.nc, this.a))).isTrue();
+        assertThat(table.containsValue(and)).isTrue();
+        assertThat(table.containsValue(this.f.and(this.a, this.b))).isFalse();
+        assertThat(table.put(set(this.a, this.b, this.nc), and)).isSameAs(and);
+        assertThat(table).hasSize(1);
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        final NAryOperatorTable<Or> table = new NAryOperatorTable<>();
+        final Or or = (Or) this.f.or(this.a, this.b);
+        assertThat(table.putIfAbsent(set(this.a, this.b), or)).isNull();
+        assertThat(table.putIfAbsent(set(this.b, this.a), or)).isSameAs(or);
+        assertThat(table).hasSize(1);
+    }
+
+    @Test
+    public void testNonMatchingOperandsAreNotStored() {
+        final NAryOperatorTable<And> table = new NAryOperatorTable<>();
+        final And and = (And) this.f.and(this.a, this.b);
+        assertThat(table.put(set(this.a, this.b, this.f.verum()), and)).isNull();
+        assertThat(table.put(set(this.a, this.c), and)).isNull();
+        assertThat(table).isEmpty();
+        assertThat(table.get(set(this.a, this.b, this.f.verum()))).isNull();
+    }
+
+    @Test
+    public void testManyEntries() {
+        final NAryOperatorTable<Or> table = new NAryOperatorTable<>();
+        final List<Or> clauses = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            final Or clause = (Or) this.f.or(this.f.variable("x" + i), this.f.literal("y" + (i % 100), false), this.f.variable("z" + (i % 7)));
+            clauses.add(clause);
+            table.put(set(clause.operands), clause);
+        }
+        final Or large = (Or) this.f.or(this.a, this.b, this.c, this.f.variable("d"), this.f.variable("e"), this.f.variable("f"));
+        table.put(set(large.operands), large);
+        assertThat(table).hasSize(10_001);
+        for (final Or clause : clauses) {
+            final Formula[] reversed = clause.operands.clone();
+            Collections.reverse(Arrays.asList(reversed));
+            assertThat(table.get(set(reversed))).isSameAs(clause);
+        }
+        assertThat(table.get(set(this.f.variable("f"), this.f.variable("e"), this.f.variable("d"), this.c, this.b, this.a))).isSameAs(large);
+        int count = 0;
+        for (final Map.Entry<LinkedHashSet<? extends Formula>, Or> entry : table.entrySet()) {
+            assertThat(new ArrayList<Formula>(entry.getKey())).containsExactlyInAnyOrder(entry.getValue().operands);
+            count++;
+        }
+        assertThat(count).isEqualTo(10_001);
+        table.clear();
+        assertThat(table).isEmpty();
+        assertThat(table.get(set(large.operands))).isNull();
+    }
+
+    @Test
+    public void testCompactFactory() {
+        final FormulaFactory compact = new FormulaFactory(FormulaFactoryConfig.builder().compactOperatorTables(true).build());
+        assertThat(compact.ands2).isInstanceOf(NAryOperatorTable.class);
+        assertThat(compact.orsN).isInstanceOf(NAryOperatorTable.class);
+        final FormulaFactory standard = new FormulaFactory();
+        final List<Formula> compactFormulas = randomizer(compact).constraintSet(200, 4);
+        final List<Formula> standardFormulas = randomizer(standard).constraintSet(200, 4);
+        for (int i = 0; i < compactFormulas.size(); i++) {
+            assertThat(compactFormulas.get(i).toString()).isEqualTo(standardFormulas.get(i).toString());
+            assertThat(compactFormulas.get(i).cnf().toString()).isEqualTo(standardFormulas.get(i).cnf().toString());
+        }
+        final List<Formula> again = randomizer(compact).constraintSet(200, 4);
+        for (int i = 0; i < compactFormulas.size(); i++) {
+            assertThat(again.get(i)).isSameAs(compactFormulas.get(i));
+        }
+        final And and = (And) compact.and(compact.variable("a"), compact.variable("b"));
+        assertThat(compact.and(compact.variable("b"), compact.verum(), compact.variable("a"))).isSameAs(and);
+        compact.clear();
+        assertThat(compact.ands2).isInstanceOf(NAryOperatorTable.class).isEmpty();
+    }
+
+    @Test
+    public void testBufferLookup() {
+        final NAryOperatorTable<And> table = new NAryOperatorTable<>();
+        final And and = (And) this.f.and(this.a, this.b, this.nc);
+        table.put(set(this.a, this.b, this.nc), and);
+        final OperandBuffer buffer = new OperandBuffer();
+        buffer.add(this.nc);
+        buffer.add(this.a);
+        assertThat(buffer.add(this.a)).isFalse();
+        assertThat(table.get(buffer)).isNull();
+        buffer.add(this.b);
+        assertThat(buffer).hasSize(3);
+        assertThat(buffer.hashCode()).isEqualTo(set(this.a, this.b, this.nc).hashCode());
+        assertThat(buffer).isEqualTo(set(this.a, this.b, this.nc));
+        assertThat(set(this.b, this.nc, this.a)).isEqualTo(buffer);
+        assertThat(table.get(buffer)).isSameAs(and);
+        buffer.reset();
+        assertThat(buffer).isEmpty();
+        for (int i = 0; i < OperandBuffer.CAPACITY; i++) {
+            assertThat(buffer.add(this.f.variable("x" + i))).isTrue();
+        }
+        assertThat(buffer.isValid()).isTrue();
+        assertThat(buffer.add(this.a)).isFalse();
+        assertThat(buffer.isValid()).isFalse();
+        buffer.reset();
+        assertThat(buffer.isValid()).isTrue();
+    }
+
+    @Test
+    public void testBufferedFactoryLookups() {
+        for (final boolean compactTables : new boolean[]{false, true}) {
+            final FormulaFactory factory = new FormulaFactory(FormulaFactoryConfig.builder().compactOperatorTables(compactTables).build());
+            final Variable x = factory.variable("x");
+            final Variable y = factory.variable("y");
+            final Variable z = factory.variable("z");
+            final Literal nz = factory.literal("z", false);
+            final Formula and = factory.and(x, y, z);
+            final Formula or = factory.or(x, y, nz);
+            assertThat(factory.and(z, y, x, y)).isSameAs(and);
+            assertThat(factory.and(Arrays.asList(z, factory.verum(), factory.and(x, y)))).isSameAs(and);
+            assertThat(factory.term(z, x, y)).isSameAs(and);
+            assertThat(factory.or(nz, factory.falsum(), factory.or(y, x))).isSameAs(or);
+            assertThat(factory.clause(Arrays.asList(y, nz, x, y))).isSameAs(or);
+            assertThat(factory.and(x)).isSameAs(x);
+            assertThat(factory.and()).isSameAs(factory.verum());
+            assertThat(factory.or()).isSameAs(factory.falsum());
+            assertThat(factory.and(x, factory.falsum(), y)).isSameAs(factory.falsum());
+            assertThat(factory.or(x, factory.verum(), y)).isSameAs(factory.verum());
+            assertThat(factory.and(z, x, nz)).isSameAs(factory.falsum());
+            assertThat(factory.or(z, x, nz)).isSameAs(factory.verum());
+            final Formula foreign = this.f.and(this.f.variable("x"), this.f.variable("y"));
+            assertThatThrownBy(() -> factory.or(foreign, nz)).isInstanceOf(UnsupportedOperationException.class);
+            final List<Variable> vars = new ArrayList<>();
+            for (int i = 0; i < OperandBuffer.CAPACITY + 10; i++) {
+                vars.add(factory.variable("v" + i));
+            }
+            final Formula large = factory.or(vars);
+            assertThat(factory.or(vars)).isSameAs(large);
+            assertThat(factory.clause(vars)).isSameAs(large);
+        }
+    }
+
+    @Test
+    public void testBufferedLookupsDoNotAllocate() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        for (final boolean compactTables : new boolean[]{false, true}) {
+            final FormulaFactory factory = new FormulaFactory(FormulaFactoryConfig.builder().compactOperatorTables(compactTables).build());
+            final Formula[][] operands = new Formula[100][];
+            for (int i = 0; i < operands.length; i++) {
+                operands[i] = new Formula[]{factory.variable("x" + i), factory.literal("y" + i, false), factory.variable("z" + (i % 7))};
+                factory.or(operands[i]);
+                factory.and(operands[i]);
+            }
+            final long threadId = Thread.currentThread().getId();
+            final long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int run = 0; run < 1000; run++) {
+                for (final Formula[] ops : operands) {
+                    factory.or(ops);
+                    factory.and(ops);
+                }
+            }
+            final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+            assertThat(allocated).isLessThan(1024 * 1024);
+        }
+    }
+
+    @Test
+    @LongRunningTag
+    public void testPerformance() {
+        for (final boolean compactTables : new boolean[]{false, true}) {
+            System.gc();
+            final Runtime runtime = Runtime.getRuntime();
+            final long memBefore = runtime.totalMemory() - runtime.freeMemory();
+            final long start = System.currentTimeMillis();
+            final FormulaFactory factory = new FormulaFactory(FormulaFactoryConfig.builder().compactOperatorTables(compactTables).build());
+            final List<Variable> vars = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                vars.add(factory.variable("v" + i));
+            }
+            for (int i = 0; i < 2_000_000; i++) {
+                factory.or(vars.get(i % 1000), vars.get((i / 1000) % 1000).negate(), vars.get((i * 7 + 3) % 1000));
+            }
+            final long time = System.currentTimeMillis() - start;
+            System.gc();
+            final long memAfter = runtime.totalMemory() - runtime.freeMemory();
+            System.out.printf("Compact tables: %-5s  time: %5d ms  retained heap: %4d MB%n", compactTables, time, (memAfter - memBefore) / 1024 / 1024);
+            assertThat(factory.ors3.size()).isGreaterThan(0);
+        }
+    }
+
+    private static LinkedHashSet<Formula> set(final Formula... operands) {
+        return new LinkedHashSet<>(Arrays.asList(operands));
+    }
+
+    private static FormulaRandomizer randomizer(final FormulaFactory f) {
+        return new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(42).numVars(10).build());
+    }
+}
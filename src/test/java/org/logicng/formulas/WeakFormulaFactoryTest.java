@@ -0,0 +1,158 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.cache.FunctionCacheEntry;
+import org.logicng.formulas.cache.PredicateCacheEntry;
+import org.logicng.formulas.cache.TransformationCacheEntry;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Unit tests for the class {@link WeakFormulaFactory}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class WeakFormulaFactoryTest {
+
+    @Test
+    public void testCanonicity() {
+        final WeakFormulaFactory f = new WeakFormulaFactory();
+        final Formula and = f.and(f.variable("a"), f.or(f.literal("b", false), f.variable("c")));
+        final Formula impl = f.implication(and, f.not(f.variable("d")));
+        garbageCollect(() -> false);
+        assertThat(f.and(f.or(f.variable("c"), f.literal("b", false)), f.variable("a"))).isSameAs(and);
+        assertThat(f.implication(and, f.not(f.variable("d")))).isSameAs(impl);
+        final List<Formula> formulas = randomizer(f).constraintSet(200, 4);
+        garbageCollect(() -> false);
+        final List<Formula> again = randomizer(f).constraintSet(200, 4);
+        for (int i = 0; i < formulas.size(); i++) {
+            assertThat(again.get(i)).isSameAs(formulas.get(i));
+        }
+    }
+
+    @Test
+    public void testUnreferencedFormulasAreReclaimed() {
+        final WeakFormulaFactory f = new WeakFormulaFactory();
+        final Formula kept = f.or(f.variable("a"), f.variable("b"));
+        List<Formula> formulas = randomizer(f).constraintSet(500, 4);
+        formulas.forEach(Formula::nnf);
+        final int literals = f.statistics().positiveLiterals() + f.statistics().negativeLiterals();
+        assertThat(f.statistics().formulas()).isGreaterThan(literals + 500);
+        formulas = null;
+        final boolean reclaimed = garbageCollect(() -> f.statistics().formulas() <= literals + 1);
+        assertThat(formulas).isNull();
+        assertThat(reclaimed).isTrue();
+        assertThat(f.statistics().disjunctions2()).isEqualTo(1);
+        assertThat(f.statistics().positiveLiterals() + f.statistics().negativeLiterals()).isEqualTo(literals);
+        assertThat(f.or(f.variable("b"), f.variable("a"))).isSameAs(kept);
+    }
+
+    @Test
+    public void testNodeCaches() {
+        final WeakFormulaFactory f = new WeakFormulaFactory();
+        final Formula formula = f.not(f.and(f.variable("a"), f.variable("b")));
+        assertThat(formula.transformationCacheEntry(TransformationCacheEntry.NNF)).isNull();
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_NNF)).isEqualTo(Tristate.UNDEF);
+        assertThat(formula.functionCacheEntry(FunctionCacheEntry.VARIABLES)).isNull();
+        final Formula nnf = formula.nnf();
+        formula.setPredicateCacheEntry(PredicateCacheEntry.IS_NNF, false);
+        final Object variables = formula.variables();
+        assertThat(formula.transformationCacheEntry(TransformationCacheEntry.NNF)).isSameAs(nnf);
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_NNF)).isEqualTo(Tristate.FALSE);
+        assertThat(formula.functionCacheEntry(FunctionCacheEntry.VARIABLES)).isSameAs(variables);
+        assertThat(f.transformationCache).isEmpty();
+        assertThat(f.predicateCache).isEmpty();
+        assertThat(f.functionCache).isEmpty();
+        formula.clearCaches();
+        assertThat(formula.transformationCacheEntry(TransformationCacheEntry.NNF)).isNull();
+        assertThat(formula.functionCacheEntry(FunctionCacheEntry.VARIABLES)).isNull();
+        assertThat(formula.predicateCacheEntry(PredicateCacheEntry.IS_NNF)).isEqualTo(Tristate.FALSE);
+    }
+
+    @Test
+    public void testPBEncodingCache() {
+        final WeakFormulaFactory f = new WeakFormulaFactory();
+        final PBConstraint pbc = (PBConstraint) f.pbc(CType.LE, 2, new Literal[]{f.variable("a"), f.variable("b"), f.variable("c")}, new int[]{1, 1, 2});
+        final List<Formula> encoding = pbc.getEncoding();
+        assertThat(f.pbEncodingCache).containsKey(pbc);
+        assertThat(f.pbEncodingCache.get(pbc)).containsExactlyElementsOf(encoding);
+        assertThat(f.pbEncodingCache).isInstanceOf(WeakHashMap.class);
+    }
+
+    @Test
+    public void testWeakValueMap() {
+        final WeakValueMap<String, Formula> map = new WeakValueMap<>();
+        final FormulaFactory f = new FormulaFactory();
+        final Formula a = f.variable("a");
+        assertThat(map.put("a", a)).isNull();
+        assertThat(map.putIfAbsent("a", f.variable("b"))).isSameAs(a);
+        assertThat(map.get("a")).isSameAs(a);
+        assertThat(map.containsKey("a")).isTrue();
+        assertThat(map.containsValue(a)).isTrue();
+        assertThat(map).hasSize(1);
+        map.put("x", new FormulaFactory().variable("x"));
+        assertThat(garbageCollect(() -> map.size() == 1)).isTrue();
+        assertThat(map.get("x")).isNull();
+        assertThat(map.entrySet()).hasSize(1);
+        assertThat(map.remove("a")).isSameAs(a);
+        assertThat(map).isEmpty();
+        map.put("a", a);
+        map.clear();
+        assertThat(map).isEmpty();
+    }
+
+    private static boolean garbageCollect(final BooleanSupplier condition) {
+        for (int i = 0; i < 50; i++) {
+            System.gc();
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static FormulaRandomizer randomizer(final FormulaFactory f) {
+        return new FormulaRandomizer(f, FormulaRandomizerConfig.builder().seed(42).numVars(10).build());
+    }
+}
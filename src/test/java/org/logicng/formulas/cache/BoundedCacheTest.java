@@ -0,0 +1,177 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.formulas.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.logicng.formulas.cache.TransformationCacheEntry.NNF;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.formulas.ExtendedFormulaFactory;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.FormulaFactoryConfig;
+import org.logicng.formulas.FormulaFactoryState;
+import org.logicng.formulas.Variable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for {@link BoundedCache} and the bounded caches of the formula factory.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class BoundedCacheTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+    private final Variable a = this.f.variable("a");
+    private final Variable b = this.f.variable("b");
+    private final Variable c = this.f.variable("c");
+    private final Variable d = this.f.variable("d");
+
+    @Test
+    public void testIllegalSize() {
+        assertThatThrownBy(() -> BoundedCache.create(NNF, 0, CacheEvictionPolicy.LRU)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FormulaFactoryConfig.builder().cacheLimit(NNF, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testLRU() {
+        final BoundedCache<String> cache = BoundedCache.create(NNF, 2, CacheEvictionPolicy.LRU);
+        cache.put(this.a, "A");
+        cache.put(this.b, "B");
+        assertThat(cache.get(this.a)).isEqualTo("A");
+        cache.put(this.c, "C");
+        assertThat(cache.get(this.b)).isNull();
+        assertThat(cache.get(this.a)).isEqualTo("A");
+        assertThat(cache.get(this.c)).isEqualTo("C");
+        assertThat(cache.statistics()).isEqualTo(new CacheStatistics(NNF, 2, 2, 3, 1, 1));
+        cache.remove(this.a);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.statistics().hits()).isEqualTo(3);
+    }
+
+    @Test
+    public void testLFU() {
+        final BoundedCache<String> cache = BoundedCache.create(NNF, 2, CacheEvictionPolicy.LFU);
+        cache.put(this.a, "A");
+        cache.put(this.b, "B");
+        cache.get(this.a);
+        cache.get(this.a);
+        cache.get(this.b);
+        cache.put(this.c, "C");
+        assertThat(cache.get(this.b)).isNull();
+        assertThat(cache.get(this.a)).isEqualTo("A");
+        assertThat(cache.get(this.c)).isEqualTo("C");
+        cache.put(this.d, "D");
+        assertThat(cache.get(this.c)).isNull();
+        assertThat(cache.get(this.d)).isEqualTo("D");
+        assertThat(cache.get(this.a)).isEqualTo("A");
+        cache.put(this.a, "A2");
+        assertThat(cache.get(this.a)).isEqualTo("A2");
+        cache.remove(this.d);
+        cache.put(this.b, "B");
+        cache.put(this.c, "C");
+        assertThat(cache.get(this.a)).isEqualTo("A2");
+        assertThat(cache.get(this.b)).isNull();
+        assertThat(cache.get(this.c)).isEqualTo("C");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.statistics().evictions()).isEqualTo(3);
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        cache.put(this.a, "A");
+        assertThat(cache.get(this.a)).isEqualTo("A");
+    }
+
+    @Test
+    public void testSizeWeighted() {
+        final BoundedCache<Object> cache = BoundedCache.create(NNF, 7, CacheEvictionPolicy.SIZE_WEIGHTED);
+        cache.put(this.a, this.f.and(this.a, this.b));
+        cache.put(this.b, "B");
+        cache.put(this.c, Arrays.asList(1, 2));
+        assertThat(cache.size()).isEqualTo(3);
+        cache.put(this.d, "D");
+        assertThat(cache.get(this.a)).isNull();
+        assertThat(cache.size()).isEqualTo(3);
+        cache.put(this.a, this.f.and(this.a, this.b, this.c, this.d, this.f.variable("e"), this.f.variable("g")));
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(this.a)).isNotNull();
+        assertThat(cache.statistics().evictions()).isEqualTo(4);
+    }
+
+    @Test
+    public void testFormulaFactoryWithCacheLimits() {
+        final FormulaFactory factory = new FormulaFactory(FormulaFactoryConfig.builder()
+                .cacheLimit(NNF, 10)
+                .cacheLimit(FunctionCacheEntry.VARIABLES, 5, CacheEvictionPolicy.LFU)
+                .build());
+        final List<Formula> formulas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final Formula formula = factory.not(factory.and(factory.variable("x" + i), factory.variable("y" + i)));
+            formulas.add(formula);
+            formula.nnf();
+            formula.variables();
+        }
+        final List<CacheStatistics> statistics = factory.cacheStatistics();
+        assertThat(statistics).hasSize(2);
+        final CacheStatistics nnfStatistics = statistics.stream().filter(s -> s.entry() == NNF).findAny().get();
+        assertThat(nnfStatistics.size()).isEqualTo(10);
+        assertThat(nnfStatistics.evictions()).isGreaterThanOrEqualTo(40);
+        final CacheStatistics varStatistics = statistics.stream().filter(s -> s.entry() == FunctionCacheEntry.VARIABLES).findAny().get();
+        assertThat(varStatistics.size()).isEqualTo(5);
+        assertThat(varStatistics.maximumSize()).isEqualTo(5);
+        final Formula last = formulas.get(49);
+        final long hits = nnfStatistics.hits();
+        assertThat(last.transformationCacheEntry(NNF)).isEqualTo(last.nnf());
+        assertThat(factory.cacheStatistics().stream().filter(s -> s.entry() == NNF).findAny().get().hits()).isGreaterThan(hits);
+        assertThat(formulas.get(0).transformationCacheEntry(NNF)).isNull();
+        assertThat(formulas.get(0).nnf()).isEqualTo(factory.or(factory.literal("x0", false), factory.literal("y0", false)));
+        last.clearCaches();
+        assertThat(last.transformationCacheEntry(NNF)).isNull();
+        factory.clear();
+        assertThat(factory.cacheStatistics()).isEmpty();
+        assertThat(this.f.cacheStatistics()).isEmpty();
+    }
+
+    @Test
+    public void testExtendedFormulaFactoryWithCacheLimits() {
+        final ExtendedFormulaFactory factory = new ExtendedFormulaFactory(FormulaFactoryConfig.builder().cacheLimit(NNF, 10).build());
+        final FormulaFactoryState state = factory.save();
+        final Formula formula = factory.not(factory.and(factory.variable("x"), factory.variable("y")));
+        formula.nnf();
+        assertThat(formula.transformationCacheEntry(NNF)).isNotNull();
+        factory.load(state);
+        assertThat(factory.cacheStatistics()).hasSize(1);
+        assertThat(factory.cacheStatistics().get(0).size()).isZero();
+    }
+}
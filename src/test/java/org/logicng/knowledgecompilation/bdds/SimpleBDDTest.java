@@ -46,7 +46,7 @@ import java.util.List;
 
 /**
  * Unit tests for {@link BDDFactory}.
- * @version 2.3.0
+ * @version 2.7.0
  * @since 1.4.0
  */
 public class SimpleBDDTest {
@@ -83,6 +83,27 @@ public class SimpleBDDTest {
         assertThat(bdd.toLngBdd()).isEqualTo(BDDConstant.getFalsumNode(f));
     }
 
+    @Test
+    public void testKernelVariableIndices() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaFactory g = new FormulaFactory();
+        g.variable("unused");
+        final BDDKernel kernel = new BDDKernel(f, 3, 100, 100);
+        final Variable a = f.variable("a");
+        assertThat(kernel.getIndexForVariable(a)).isEqualTo(-1);
+        assertThat(kernel.getOrAddVarIndex(a)).isEqualTo(0);
+        assertThat(kernel.getOrAddVarIndex(g.variable("b"))).isEqualTo(1);
+        assertThat(kernel.getOrAddVarIndex(f.variable("b"))).isEqualTo(1);
+        assertThat(kernel.getOrAddVarIndex(g.variable("a"))).isEqualTo(0);
+        assertThat(kernel.getIndexForVariable(a)).isEqualTo(0);
+        assertThat(kernel.getIndexForVariable(f.variable("c"))).isEqualTo(-1);
+        assertThat(kernel.getVariableForIndex(0) == a).isTrue();
+        assertThat(kernel.getVariableForIndex(2) == null).isTrue();
+        assertThat(kernel.getVariableForIndex(-1) == null).isTrue();
+        final BDD bdd = BDDFactory.build(g.and(g.variable("a"), g.literal("b", false)), kernel, null);
+        assertThat(bdd.enumerateAllModels()).containsExactly(new Assignment(a, f.literal("b", false)));
+    }
+
     @Test
     public void testPositiveLiteral() {
         final FormulaFactory f = new FormulaFactory();
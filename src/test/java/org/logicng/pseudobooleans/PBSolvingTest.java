@@ -39,13 +39,14 @@ import org.logicng.formulas.PBConstraint;
 import org.logicng.formulas.Variable;
 import org.logicng.solvers.MiniSat;
 import org.logicng.solvers.SATSolver;
+import org.logicng.solvers.sat.GlucoseConfig;
 import org.logicng.solvers.sat.MiniSatConfig;
 
 import java.util.List;
 
 /**
  * Test the solving (via encoding) of pseudo-Boolean constraints.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class PBSolvingTest implements LogicNGTest {
@@ -54,6 +55,7 @@ public class PBSolvingTest implements LogicNGTest {
     private final Variable[] literals100;
     private final Variable[] literals10;
     private final SATSolver[] solvers;
+    private final SATSolver[] nativeSolvers;
 
     private final PBEncoder[] encoders;
 
@@ -67,11 +69,16 @@ public class PBSolvingTest implements LogicNGTest {
         for (int i = 0; i < 10; i++) {
             this.literals10[i] = this.f.variable("v" + i);
         }
-        this.solvers = new SATSolver[4];
+        this.solvers = new SATSolver[5];
         this.solvers[0] = MiniSat.miniSat(this.f);
         this.solvers[1] = MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(false).build());
         this.solvers[2] = MiniSat.miniCard(this.f);
         this.solvers[3] = MiniSat.glucose(this.f);
+        this.solvers[4] = MiniSat.glucose(this.f, MiniSatConfig.builder().build(), GlucoseConfig.builder().nativeConstraints(true).build());
+        this.nativeSolvers = new SATSolver[2];
+        this.nativeSolvers[0] = this.solvers[4];
+        this.nativeSolvers[1] = MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(false).build(),
+                GlucoseConfig.builder().nativeConstraints(true).chronologicalBacktracking(true).chronoBacktrackingDistance(1).chronoBacktrackingConflicts(0).build());
         this.encoders = new PBEncoder[10];
         this.encoders[0] = new PBEncoder(this.f, PBConfig.builder().pbEncoding(PBConfig.PB_ENCODER.SWC).build());
         this.encoders[1] = new PBEncoder(this.f, PBConfig.builder().pbEncoding(PBConfig.PB_ENCODER.BINARY_MERGE).binaryMergeUseGAC(true).binaryMergeNoSupportForSingleBit(true).binaryMergeUseWatchDog(true).build());
@@ -401,4 +408,59 @@ public class PBSolvingTest implements LogicNGTest {
             assertThat(pbc.evaluate(solver.model())).isTrue();
         }
     }
+
+    @Test
+    public void testNativePBs() {
+        final int[] coeffs10 = new int[]{3, 2, 2, 2, 2, 2, 2, 2, 2, 2};
+        for (final SATSolver solver : this.nativeSolvers) {
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 5, this.literals10, coeffs10), 9);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 7, this.literals10, coeffs10), 36);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 0, this.literals10, coeffs10), 1);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 1, this.literals10, coeffs10), 0);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 22, this.literals10, coeffs10), 0);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.LE, 6, this.literals10, coeffs10), 140);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.LT, 7, this.literals10, coeffs10), 140);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.LE, 1, this.literals10, coeffs10), 1);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.GE, 17, this.literals10, coeffs10), 47);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.GT, 16, this.literals10, coeffs10), 47);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.GE, 21, this.literals10, coeffs10), 1);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.GE, 22, this.literals10, coeffs10), 0);
+            final int[] negative1 = new int[]{2, 2, 2, 2, 2, 2, 2, 2, 2, -2};
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 2, this.literals10, negative1), 45);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 4, this.literals10, negative1), 120);
+            final int[] negative2 = new int[]{2, 2, -3, 2, -7, 2, 2, 2, 2, -2};
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, 4, this.literals10, negative2), 57);
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, -10, this.literals10, negative2), 8);
+            final int[] negative3 = new int[]{2, 2, -4, 2, -6, 2, 2, 2, 2, -2};
+            testNativePB(solver, (PBConstraint) this.f.pbc(CType.EQ, -12, this.literals10, negative3), 1);
+        }
+    }
+
+    @Test
+    public void testNativeLargePBs() {
+        for (final SATSolver solver : this.nativeSolvers) {
+            solver.reset();
+            final int numLits = 100;
+            final Variable[] lits = new Variable[numLits];
+            final int[] coeffs = new int[numLits];
+            for (int i = 0; i < numLits; i++) {
+                lits[i] = this.f.variable("v" + i);
+                coeffs[i] = i + 1;
+            }
+            final PBConstraint pbc = (PBConstraint) this.f.pbc(CType.GE, 5000, lits, coeffs);
+            final PBConstraint pbc2 = (PBConstraint) this.f.pbc(CType.LE, 5010, lits, coeffs);
+            solver.add(pbc);
+            solver.add(pbc2);
+            assertSolverSat(solver);
+            assertThat(pbc.evaluate(solver.model())).isTrue();
+            assertThat(pbc2.evaluate(solver.model())).isTrue();
+            assertThat(solver.knownVariables()).hasSize(numLits);
+        }
+    }
+
+    private void testNativePB(final SATSolver solver, final PBConstraint pbc, final int expected) {
+        solver.reset();
+        solver.add(pbc);
+        assertThat(solver.enumerateAllModels(this.literals10)).hasSize(expected).allMatch(pbc::evaluate);
+    }
 }
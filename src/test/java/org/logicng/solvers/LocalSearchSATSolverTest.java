@@ -0,0 +1,179 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.CardinalityConstraint;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.TimeoutSATHandler;
+import org.logicng.io.parsers.ParserException;
+import org.logicng.io.parsers.PropositionalParser;
+import org.logicng.io.readers.DimacsReader;
+import org.logicng.solvers.functions.ModelEnumerationFunction;
+import org.logicng.testutils.PigeonHoleGenerator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link LocalSearchSATSolver}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class LocalSearchSATSolverTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+    private final PropositionalParser parser = new PropositionalParser(this.f);
+
+    @Test
+    public void testSimple() throws ParserException {
+        final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, 10000);
+        final Formula formula = this.parser.parse("(a | b) & (~a | c) & (~b | ~c) & (c => d) & (d <=> ~e)");
+        solver.add(formula);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        assertThat(formula.evaluate(solver.model())).isTrue();
+        assertThat(solver.model(Arrays.asList(this.f.variable("a"), this.f.variable("x"))).size()).isEqualTo(1);
+        assertThat(solver.knownVariables()).extracting(Variable::name).contains("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    public void testAssumptions() throws ParserException {
+        final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, 10000);
+        solver.add(this.parser.parse("(a => b) & (b => c)"));
+        assertThat(solver.sat(this.f.variable("a"))).isEqualTo(Tristate.TRUE);
+        assertThat(solver.model().positiveVariables()).extracting(Variable::name).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(solver.sat(Arrays.asList(this.f.literal("c", false), this.f.literal("a", false)))).isEqualTo(Tristate.TRUE);
+        assertThat(solver.model().negativeVariables()).extracting(Variable::name).contains("a", "c");
+        assertThat(solver.sat(Arrays.asList(this.f.variable("a"), this.f.literal("c", false)))).isEqualTo(Tristate.UNDEF);
+        assertThat(solver.model()).isNull();
+    }
+
+    @Test
+    public void testUnsatisfiable() throws ParserException {
+        final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, 1000);
+        solver.add(this.parser.parse("a & (a => b)"));
+        assertThat(solver.sat(this.f.literal("b", false))).isEqualTo(Tristate.FALSE);
+        assertThat(solver.model()).isNull();
+        solver.add(this.parser.parse("~b"));
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        solver.reset();
+        assertThat(solver.knownVariables()).isEmpty();
+        solver.add(new PigeonHoleGenerator(this.f).generate(5));
+        assertThat(solver.sat()).isEqualTo(Tristate.UNDEF);
+    }
+
+    @Test
+    public void testCardinalityConstraints() {
+        final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, 100000);
+        final List<Variable> vars = Arrays.asList(this.f.variable("a"), this.f.variable("b"), this.f.variable("c"),
+                this.f.variable("d"), this.f.variable("e"));
+        final Formula exo = this.f.exo(vars);
+        final Formula amk = this.f.cc(CType.GE, 2, this.f.variable("c"), this.f.variable("d"), this.f.variable("x"));
+        solver.add(exo);
+        solver.add(amk);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        final Assignment model = solver.model();
+        assertThat(exo.evaluate(model)).isTrue();
+        assertThat(amk.evaluate(model)).isTrue();
+    }
+
+    @Test
+    public void testSaveLoadState() throws ParserException {
+        final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, 10000);
+        solver.add(this.parser.parse("a | b"));
+        final SolverState state = solver.saveState();
+        solver.add(this.parser.parse("~a & ~b"));
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        solver.loadState(state);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        assertThat(solver.canSaveLoadState()).isTrue();
+        assertThat(solver.canGenerateProof()).isFalse();
+    }
+
+    @Test
+    public void testHandler() {
+        final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, Integer.MAX_VALUE);
+        solver.add(new PigeonHoleGenerator(this.f).generate(8));
+        final TimeoutSATHandler handler = new TimeoutSATHandler(100);
+        assertThat(solver.sat(handler)).isEqualTo(Tristate.UNDEF);
+        assertThat(handler.aborted()).isTrue();
+    }
+
+    @Test
+    public void testUnsupportedOperations() {
+        final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, 1000);
+        assertThatThrownBy(() -> solver.execute(ModelEnumerationFunction.builder().build())).isInstanceOf(UnsupportedOperationException.class);
+        final CardinalityConstraint cc = (CardinalityConstraint) this.f.cc(CType.LE, 2, this.f.variable("a"), this.f.variable("b"), this.f.variable("c"));
+        assertThatThrownBy(() -> solver.addIncrementalCC(cc)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> solver.satWithSelectionOrder(Arrays.asList(this.f.variable("a"))))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        try (final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"))) {
+            while (reader.ready()) {
+                final String[] tokens = reader.readLine().split(";");
+                expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+            }
+        }
+        final File[] files = new File("src/test/resources/sat").listFiles((dir, name) -> name.endsWith(".cnf"));
+        assert files != null;
+        int found = 0;
+        for (final File file : files) {
+            final List<Formula> cnf = DimacsReader.readCNF(file, this.f);
+            final LocalSearchSATSolver solver = LocalSearchSATSolver.localSearch(this.f, 100000);
+            solver.add(cnf);
+            final Tristate result = solver.sat();
+            if (result == Tristate.TRUE) {
+                assertThat(expectedResults.get(file.getName())).isTrue();
+                final Assignment model = solver.model();
+                assertThat(cnf).allMatch(clause -> clause.evaluate(model));
+                found++;
+            } else if (result == Tristate.FALSE) {
+                assertThat(expectedResults.get(file.getName())).isFalse();
+            }
+        }
+        assertThat(found).isGreaterThan(0);
+    }
+}
@@ -0,0 +1,326 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.configurations.ConfigurationType;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.CardinalityConstraint;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.TimeoutSATHandler;
+import org.logicng.io.readers.DimacsReader;
+import org.logicng.solvers.sat.GlucoseConfig;
+import org.logicng.solvers.sat.MiniSatConfig;
+import org.logicng.testutils.PigeonHoleGenerator;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+
+/**
+ * Unit tests for {@link PortfolioSATSolver}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class PortfolioSATSolverTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+
+    private PortfolioSATSolver portfolio(final int workers, final boolean clauseSharing) {
+        return PortfolioSATSolver.portfolio(this.f, PortfolioConfig.builder().numberOfWorkers(workers).clauseSharing(clauseSharing).build());
+    }
+
+    private PortfolioSATSolver cubeAndConquer(final int workers, final int cubeDepth) {
+        return PortfolioSATSolver.portfolio(this.f, PortfolioConfig.builder().numberOfWorkers(workers)
+                .solvingMode(PortfolioConfig.SolvingMode.CUBE_AND_CONQUER).cubeDepth(cubeDepth).build());
+    }
+
+    @Test
+    public void testConfig() {
+        final PortfolioConfig config = (PortfolioConfig) this.f.configurationFor(ConfigurationType.PORTFOLIO);
+        assertThat(config.workers()).hasSize(Runtime.getRuntime().availableProcessors());
+        assertThat(config.clauseSharing()).isTrue();
+        assertThat(config.sharedClauseSizeLimit()).isEqualTo(8);
+        assertThat(config.sharedClauseLbdLimit()).isEqualTo(2);
+        assertThat(config.exchangeCapacity()).isEqualTo(4096);
+        assertThat(config.solvingMode()).isEqualTo(PortfolioConfig.SolvingMode.PORTFOLIO);
+        assertThat(config.cubeDepth()).isEqualTo(8);
+        assertThat(config.lookaheadCandidates()).isEqualTo(20);
+        final List<PortfolioConfig.Worker> workers = PortfolioConfig.defaultWorkers(10);
+        assertThat(workers).hasSize(10);
+        assertThat(workers.get(0).style()).isEqualTo(MiniSat.SolverStyle.MINISAT);
+        assertThat(workers.get(0).miniSatConfig().incremental()).isTrue();
+        assertThat(workers.get(1).style()).isEqualTo(MiniSat.SolverStyle.GLUCOSE);
+        assertThat(workers.get(1).glucoseConfig()).isNotNull();
+        assertThat(workers.get(3).style()).isEqualTo(MiniSat.SolverStyle.MINICARD);
+        assertThat(workers.get(8).toString()).isEqualTo(workers.get(1).toString());
+        assertThat(workers.subList(1, 10)).allMatch(w -> !w.miniSatConfig().incremental());
+        final PortfolioConfig custom = PortfolioConfig.builder()
+                .addWorker(MiniSat.SolverStyle.MINICARD, MiniSatConfig.builder().build(), null)
+                .numberOfWorkers(5).solvingMode(PortfolioConfig.SolvingMode.CUBE_AND_CONQUER).cubeDepth(3).lookaheadCandidates(5)
+                .clauseSharing(false).sharedClauseSizeLimit(3).sharedClauseLbdLimit(1).exchangeCapacity(10).build();
+        assertThat(custom.workers()).hasSize(1);
+        assertThat(custom.toString()).isEqualTo(String.format("PortfolioConfig{%n" +
+                "workers=1%n" +
+                "solvingMode=CUBE_AND_CONQUER%n" +
+                "cubeDepth=3%n" +
+                "lookaheadCandidates=5%n" +
+                "clauseSharing=false%n" +
+                "sharedClauseSizeLimit=3%n" +
+                "sharedClauseLbdLimit=1%n" +
+                "exchangeCapacity=10%n" +
+                "}"));
+        assertThat(custom.workers().get(0).toString()).isEqualTo("Worker{style=MINICARD, incremental=true, initialPhase=false}");
+        assertThatThrownBy(() -> PortfolioConfig.builder().numberOfWorkers(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PortfolioConfig.builder().cubeDepth(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"));
+        while (reader.ready()) {
+            final String[] tokens = reader.readLine().split(";");
+            expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+        }
+        final File[] files = new File("src/test/resources/sat").listFiles();
+        assert files != null;
+        for (final File file : files) {
+            if (file.getName().endsWith(".cnf")) {
+                final List<Formula> clauses = DimacsReader.readCNF(file, this.f);
+                final PortfolioSATSolver solver = portfolio(4, true);
+                solver.add(clauses);
+                final boolean sat = solver.sat() == Tristate.TRUE;
+                assertThat(sat).isEqualTo(expectedResults.get(file.getName()));
+                assertThat(solver.winner()).isNotNull();
+                if (sat) {
+                    final Assignment model = solver.model();
+                    for (final Formula clause : clauses) {
+                        assertThat(clause.evaluate(model)).isTrue();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCubeAndConquerDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"));
+        while (reader.ready()) {
+            final String[] tokens = reader.readLine().split(";");
+            expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+        }
+        final File[] files = new File("src/test/resources/sat").listFiles();
+        assert files != null;
+        for (final File file : files) {
+            if (file.getName().endsWith(".cnf")) {
+                final List<Formula> clauses = DimacsReader.readCNF(file, this.f);
+                final PortfolioSATSolver solver = cubeAndConquer(2, 3);
+                solver.add(clauses);
+                final boolean sat = solver.sat() == Tristate.TRUE;
+                assertThat(sat).isEqualTo(expectedResults.get(file.getName()));
+                if (sat) {
+                    assertThat(solver.winner()).isNotNull();
+                    final Assignment model = solver.model();
+                    for (final Formula clause : clauses) {
+                        assertThat(clause.evaluate(model)).isTrue();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCubeAndConquer() {
+        final PortfolioSATSolver solver = cubeAndConquer(4, 6);
+        solver.add(new PigeonHoleGenerator(this.f).generate(7));
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(solver.winner()).isNull();
+        assertThat(solver.model()).isNull();
+        for (int i = 0; i < 20; i++) {
+            final FormulaRandomizer randomizer = new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder()
+                    .numVars(15).weightPbc(1).weightCc(1).weightAmo(1).seed(i).build());
+            final Formula formula = randomizer.formula(4);
+            final PortfolioSATSolver cubeSolver = cubeAndConquer(3, i % 5);
+            final MiniSat reference = MiniSat.miniSat(this.f);
+            cubeSolver.add(formula);
+            reference.add(formula);
+            assertThat(cubeSolver.sat()).isEqualTo(reference.sat());
+            for (int j = 0; j < 5; j++) {
+                final List<Literal> assumptions = Arrays.asList(randomizer.literal(), randomizer.literal());
+                final Tristate expected = reference.sat(assumptions);
+                assertThat(cubeSolver.sat(assumptions)).isEqualTo(expected);
+                if (expected == Tristate.TRUE) {
+                    assertThat(this.f.and(formula, this.f.and(assumptions)).evaluate(cubeSolver.model())).isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCubeAndConquerHandler() {
+        final PortfolioSATSolver solver = cubeAndConquer(2, 4);
+        solver.add(new PigeonHoleGenerator(this.f).generate(12));
+        final TimeoutSATHandler handler = new TimeoutSATHandler(100);
+        assertThat(solver.sat(handler)).isEqualTo(Tristate.UNDEF);
+        assertThat(handler.aborted()).isTrue();
+        assertThat(solver.winner()).isNull();
+    }
+
+    @Test
+    public void testPigeonHoleWithClauseSharing() {
+        final PortfolioSATSolver solver = portfolio(3, true);
+        solver.add(new PigeonHoleGenerator(this.f).generate(7));
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(solver.clauseExchange.published()).isPositive();
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(solver.model()).isNull();
+        solver.reset();
+        assertThatThrownBy(solver::model).isInstanceOf(IllegalStateException.class);
+        assertThat(solver.clauseExchange.published()).isZero();
+        solver.add(this.f.variable("a"));
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        assertThat(solver.model().literals()).containsExactly(this.f.variable("a"));
+    }
+
+    @Test
+    public void testRandomFormulasWithAssumptions() {
+        for (int i = 0; i < 20; i++) {
+            final FormulaRandomizer randomizer = new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder()
+                    .numVars(15).weightPbc(1).weightCc(1).weightAmo(1).seed(i).build());
+            final Formula formula = randomizer.formula(4);
+            final PortfolioSATSolver solver = portfolio(4, i % 2 == 0);
+            final MiniSat reference = MiniSat.miniSat(this.f);
+            solver.add(formula);
+            reference.add(formula);
+            assertThat(solver.sat()).isEqualTo(reference.sat());
+            for (int j = 0; j < 5; j++) {
+                final List<Literal> assumptions = Arrays.asList(randomizer.literal(), randomizer.literal());
+                final Tristate expected = reference.sat(assumptions);
+                assertThat(solver.sat(assumptions)).isEqualTo(expected);
+                if (expected == Tristate.TRUE) {
+                    assertThat(this.f.and(formula, this.f.and(assumptions)).evaluate(solver.model())).isTrue();
+                }
+                final Literal lit = randomizer.literal();
+                assertThat(solver.sat(lit)).isEqualTo(reference.sat(lit));
+            }
+        }
+    }
+
+    @Test
+    public void testHandler() {
+        final PortfolioSATSolver solver = portfolio(2, true);
+        solver.add(new PigeonHoleGenerator(this.f).generate(12));
+        final TimeoutSATHandler handler = new TimeoutSATHandler(100);
+        assertThat(solver.sat(handler)).isEqualTo(Tristate.UNDEF);
+        assertThat(handler.aborted()).isTrue();
+        assertThat(solver.winner()).isNull();
+    }
+
+    @Test
+    public void testSolverFunctions() {
+        final FormulaRandomizer randomizer = new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder().numVars(8).seed(42).build());
+        final Formula formula = randomizer.formula(3);
+        final SortedSet<Variable> vars = formula.variables();
+        final PortfolioSATSolver solver = portfolio(3, true);
+        final MiniSat reference = MiniSat.miniSat(this.f);
+        solver.add(formula);
+        reference.add(formula);
+        assertThat(new HashSet<>(solver.enumerateAllModels(vars))).isEqualTo(new HashSet<>(reference.enumerateAllModels(vars)));
+        assertThat(solver.backbone(vars)).isEqualTo(reference.backbone(vars));
+        assertThat(solver.toString()).isEqualTo("PortfolioSATSolver{result=UNDEF, workers=3, inSync=true}");
+        assertThat(solver.sat()).isEqualTo(reference.sat());
+        assertThat(solver.knownVariables()).containsAll(vars);
+    }
+
+    @Test
+    public void testNonIncrementalPrimary() {
+        final MiniSatConfig nonIncremental = MiniSatConfig.builder().incremental(false).build();
+        final PortfolioSATSolver solver = PortfolioSATSolver.portfolio(this.f, PortfolioConfig.builder()
+                .addWorker(MiniSat.SolverStyle.MINISAT, nonIncremental, null)
+                .addWorker(MiniSat.SolverStyle.GLUCOSE, nonIncremental, GlucoseConfig.builder().build())
+                .build());
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        solver.add(this.f.or(a, b));
+        assertThat(solver.enumerateAllModels(a, b)).hasSize(3);
+        assertThat(solver.toString()).isEqualTo("PortfolioSATSolver{result=UNDEF, workers=2, inSync=false}");
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(solver.winner()).isSameAs(solver.workers().get(0));
+        assertThatThrownBy(solver::saveState).isInstanceOf(UnsupportedOperationException.class);
+        solver.reset();
+        assertThat(solver.toString()).isEqualTo("PortfolioSATSolver{result=UNDEF, workers=2, inSync=true}");
+        solver.add(this.f.or(a, b));
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+    }
+
+    @Test
+    public void testSaveAndLoadState() {
+        final MiniSatConfig incremental = MiniSatConfig.builder().build();
+        final PortfolioSATSolver solver = PortfolioSATSolver.portfolio(this.f, PortfolioConfig.builder()
+                .addWorker(MiniSat.SolverStyle.MINISAT, incremental, null)
+                .addWorker(MiniSat.SolverStyle.MINICARD, incremental, null)
+                .build());
+        assertThat(solver.canSaveLoadState()).isTrue();
+        assertThat(solver.canGenerateProof()).isFalse();
+        final Variable a = this.f.variable("a");
+        solver.add(this.f.or(a, this.f.variable("b")));
+        final SolverState state1 = solver.saveState();
+        solver.add(a.negate());
+        final SolverState state2 = solver.saveState();
+        solver.add(this.f.variable("b").negate());
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        solver.loadState(state2);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        solver.loadState(state1);
+        assertThat(solver.sat(a)).isEqualTo(Tristate.TRUE);
+        assertThatThrownBy(() -> solver.loadState(state2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> solver.addIncrementalCC((CardinalityConstraint) this.f.cc(CType.LE, 1, a, this.f.variable("b"))))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(portfolio(2, false).canSaveLoadState()).isFalse();
+    }
+}
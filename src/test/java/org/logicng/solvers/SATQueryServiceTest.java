@@ -0,0 +1,282 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.ConcurrentFormulaFactory;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.handlers.BoundedSatHandler;
+import org.logicng.handlers.SATHandler;
+import org.logicng.solvers.datastructures.MSClauseStore;
+import org.logicng.solvers.sat.QueryContext;
+import org.logicng.solvers.sat.MiniSatConfig;
+import org.logicng.solvers.sat.MiniSatStyleSolver;
+import org.logicng.testutils.PigeonHoleGenerator;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for {@link SATQueryService}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class SATQueryServiceTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    public void testQueries() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().numVars(15).seed(7).build());
+        final Formula formula = randomizer.formula(4);
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(formula);
+        final SATQueryService service = new SATQueryService(solver);
+        assertThat(service.result()).isEqualTo(Tristate.TRUE);
+        for (int i = 0; i < 50; i++) {
+            final List<Literal> query = Arrays.asList(randomizer.literal(), randomizer.literal(), randomizer.literal());
+            final Tristate expected = solver.sat(query);
+            assertThat(service.sat(query)).isEqualTo(expected);
+            final Assignment model = service.model(query, f.and(formula, f.and(query)).variables());
+            if (expected == Tristate.TRUE) {
+                assertThat(formula.evaluate(model)).isTrue();
+                assertThat(f.and(query).evaluate(model)).isTrue();
+            } else {
+                assertThat(model).isNull();
+            }
+        }
+        assertThat(service.sat(f.literal("unknown", false))).isEqualTo(service.result());
+        assertThat(service.numberOfContexts()).isEqualTo(1);
+        assertThat(service.toString()).isEqualTo(String.format("SATQueryService{result=%s, contexts=1, sharing=false}", service.result()));
+    }
+
+    @Test
+    public void testUnsatisfiableKnowledgeBase() {
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(new PigeonHoleGenerator(f).generate(4));
+        final SATQueryService service = new SATQueryService(solver);
+        assertThat(service.result()).isEqualTo(Tristate.FALSE);
+        assertThat(service.sat(f.variable("v1"))).isEqualTo(Tristate.FALSE);
+        assertThat(service.model(Collections.emptyList(), Collections.singletonList(f.variable("v1")))).isNull();
+        assertThat(service.numberOfContexts()).isZero();
+    }
+
+    @Test
+    public void testSolverIsNotChanged() {
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(f.or(f.variable("a"), f.variable("b")));
+        final SATQueryService service = new SATQueryService(solver);
+        solver.add(f.literal("a", false));
+        solver.add(f.literal("b", false));
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(service.sat(f.literal("a", false))).isEqualTo(Tristate.TRUE);
+        assertThat(service.sat(Arrays.asList(f.literal("a", false), f.literal("b", false)))).isEqualTo(Tristate.FALSE);
+    }
+
+    @Test
+    public void testHandler() {
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(f.or(new PigeonHoleGenerator(f).generate(6), f.variable("y")));
+        final SATQueryService service = new SATQueryService(solver);
+        final List<Literal> query = Collections.singletonList(f.literal("y", false));
+        assertThat(service.sat(new BoundedSatHandler(1), query)).isEqualTo(Tristate.UNDEF);
+        assertThat(service.sat(query)).isEqualTo(Tristate.FALSE);
+        assertThat(service.sat(new BoundedSatHandler(-1), Collections.singletonList(f.variable("y")))).isEqualTo(Tristate.TRUE);
+    }
+
+    @Test
+    public void testContextIsDiscardedOnException() {
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(f.or(f.variable("a"), f.variable("b")));
+        final SATQueryService service = new SATQueryService(solver);
+        final SATHandler failingHandler = new SATHandler() {
+            @Override
+            public void started() {
+                throw new IllegalStateException("failing handler");
+            }
+        };
+        assertThatThrownBy(() -> service.sat(failingHandler, Collections.singletonList(f.variable("a"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(service.numberOfContexts()).isEqualTo(1);
+        assertThat(service.sat(f.literal("a", false))).isEqualTo(Tristate.TRUE);
+        assertThat(service.numberOfContexts()).isEqualTo(2);
+        assertThat(service.sat(f.literal("b", false))).isEqualTo(Tristate.TRUE);
+        assertThat(service.numberOfContexts()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUnknownVariables() {
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(f.or(f.variable("a"), f.variable("b")));
+        final SATQueryService service = new SATQueryService(solver);
+        final Variable x = f.variable("x");
+        assertThat(service.sat(Arrays.asList(x, x.negate()))).isEqualTo(Tristate.FALSE);
+        final Assignment model = service.model(Arrays.asList(x.negate(), f.literal("a", false)), Arrays.asList(f.variable("a"), f.variable("b"), x));
+        assertThat(model.literals()).containsExactlyInAnyOrder(f.literal("a", false), f.variable("b"), x.negate());
+    }
+
+    @Test
+    public void testEliminatedVariablesAreRestored() {
+        final FormulaFactory f = new FormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().numVars(15).seed(7).build());
+        final Formula formula = randomizer.formula(4);
+        final MiniSat solver = MiniSat.miniSat(f, MiniSatConfig.builder().incremental(false).preprocessing(true).build());
+        solver.add(formula);
+        solver.sat();
+        final MiniSatStyleSolver underlying = solver.underlyingSolver();
+        assertThat(IntStream.range(0, underlying.nVars()).filter(underlying::isEliminated)).isNotEmpty();
+        final SATQueryService service = new SATQueryService(solver);
+        assertThat(service.result()).isEqualTo(Tristate.TRUE);
+        assertThat(service.clauseStore().numVars()).isEqualTo(solver.underlyingSolver().nVars());
+        for (int i = 0; i < 50; i++) {
+            final List<Literal> query = Arrays.asList(randomizer.literal(), randomizer.literal(), randomizer.literal());
+            final Tristate expected = solver.sat(query);
+            assertThat(service.sat(query)).isEqualTo(expected);
+            final Assignment model = service.model(query, f.and(formula, f.and(query)).variables());
+            if (expected == Tristate.TRUE) {
+                assertThat(formula.evaluate(model)).isTrue();
+            } else {
+                assertThat(model).isNull();
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedConstraints() {
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSat solver = MiniSat.miniCard(f);
+        solver.add(f.amo(f.variable("a"), f.variable("b"), f.variable("c")));
+        assertThatThrownBy(() -> new SATQueryService(solver)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testClauseStoreIsShared() throws Exception {
+        final FormulaFactory f = new ConcurrentFormulaFactory();
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(f.or(new PigeonHoleGenerator(f).generate(5, "q"), f.variable("y")));
+        final SATQueryService service = new SATQueryService(solver, true);
+        final MSClauseStore store = service.clauseStore();
+        final List<List<Integer>> literals = storeLiterals(store);
+        final List<Literal> query = Collections.singletonList(f.literal("y", false));
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Tristate>> futures = new ArrayList<>();
+            for (int i = 0; i < 4 * THREADS; i++) {
+                futures.add(executor.submit(() -> service.sat(query)));
+            }
+            for (final Future<Tristate> future : futures) {
+                assertThat(future.get()).isEqualTo(Tristate.FALSE);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(service.idleContexts).hasSize(service.numberOfContexts());
+        for (final QueryContext context : service.idleContexts) {
+            assertThat(context.store()).isSameAs(store);
+        }
+        assertThat(storeLiterals(store)).isEqualTo(literals);
+    }
+
+    private static List<List<Integer>> storeLiterals(final MSClauseStore store) {
+        final List<List<Integer>> literals = new ArrayList<>();
+        for (int c = 0; c < store.numClauses(); c++) {
+            final List<Integer> clause = new ArrayList<>();
+            for (int i = 0; i < store.size(c); i++) {
+                clause.add(store.get(c, i));
+            }
+            literals.add(clause);
+        }
+        return literals;
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        for (final boolean incremental : new boolean[]{true, false}) {
+            for (final boolean shareLearnts : new boolean[]{false, true}) {
+                final FormulaFactory f = new ConcurrentFormulaFactory();
+                final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().numVars(25).seed(42).build());
+                final Formula formula = f.and(randomizer.formula(4), randomizer.formula(3));
+                final MiniSat solver = MiniSat.miniSat(f, MiniSatConfig.builder().incremental(incremental).build());
+                solver.add(formula);
+                final List<List<Literal>> queries = new ArrayList<>();
+                final List<Tristate> expected = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    final List<Literal> query = Arrays.asList(randomizer.literal(), randomizer.literal(), randomizer.literal());
+                    queries.add(query);
+                    expected.add(solver.sat(query));
+                }
+                final SATQueryService service = new SATQueryService(solver, shareLearnts);
+                assertThat(service.result()).isEqualTo(Tristate.TRUE);
+                final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+                try {
+                    final List<Future<Boolean>> futures = new ArrayList<>();
+                    for (int i = 0; i < queries.size(); i++) {
+                        final List<Literal> query = queries.get(i);
+                        final Tristate result = expected.get(i);
+                        futures.add(executor.submit(() -> {
+                            if (service.sat(query) != result) {
+                                return false;
+                            }
+                            final Assignment model = service.model(query, f.and(formula, f.and(query)).variables());
+                            return result == Tristate.TRUE ? formula.evaluate(model) && f.and(query).evaluate(model) : model == null;
+                        }));
+                    }
+                    for (final Future<Boolean> future : futures) {
+                        assertThat(future.get()).isTrue();
+                    }
+                } finally {
+                    executor.shutdown();
+                }
+                assertThat(service.numberOfContexts()).isBetween(1, THREADS + 1);
+            }
+        }
+    }
+}
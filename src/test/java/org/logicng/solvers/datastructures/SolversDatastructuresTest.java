@@ -29,14 +29,21 @@
 package org.logicng.solvers.datastructures;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.jupiter.api.Test;
 import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
 import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Variable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Unit tests for the toString() methods of the solver data structures.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class SolversDatastructuresTest {
@@ -82,6 +89,88 @@ public class SolversDatastructuresTest {
         assertThat(clause.equals("Test")).isFalse();
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testMSClauseArena() {
+        final MSClauseArena arena = new MSClauseArena(4);
+        final LNGIntVector vec = new LNGIntVector(2, 4, 6);
+        final MSClause c1 = new MSClause(vec, false, arena);
+        final MSClause c2 = new MSClause(new LNGIntVector(new int[]{3, 5}), true, arena);
+        final MSClause c3 = new MSClause(new LNGIntVector(1, 2, 3, 4, 5, 6), true, arena);
+        assertThat(arena.used()).isEqualTo(11L);
+        assertThat(c1.copyLiterals().toArray()).containsExactly(2, 4, 6);
+        assertThat(c1.getData().toArray()).containsExactly(2, 4, 6);
+        assertThat(c2.get(1)).isEqualTo(5);
+        assertThat(c3.size()).isEqualTo(6);
+        c1.set(0, 8);
+        c1.pop();
+        assertThat(c1.toString()).endsWith("lits=[4, 2]}");
+        assertThat(c2.get(0)).isEqualTo(3);
+        assertThat(arena.shouldCompact(10, 0.2)).isFalse();
+        assertThat(arena.shouldCompact(8, 0.2)).isTrue();
+        final MSClauseArena to = new MSClauseArena(4);
+        to.relocate(c1);
+        to.relocate(c2);
+        assertThat(to.used()).isEqualTo(4L);
+        assertThat(c1.copyLiterals().toArray()).containsExactly(8, 4);
+        assertThat(c2.copyLiterals().toArray()).containsExactly(3, 5);
+        assertThat(c2.learnt()).isTrue();
+        assertThatThrownBy(() -> new MSClauseArena(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testMSClauseFork() {
+        final MSClauseArena arena = new MSClauseArena(4);
+        final MSClauseArena forkArena = new MSClauseArena(4);
+        final MSClause clause = new MSClause(new LNGIntVector(2, 4, 6), true, arena);
+        clause.setLBD(3);
+        final MSClause copy = clause.fork(arena, forkArena);
+        assertThat(copy.copyLiterals().toArray()).containsExactly(2, 4, 6);
+        assertThat(copy.learnt()).isTrue();
+        assertThat(copy.lbd()).isEqualTo(3L);
+        assertThat(forkArena.used()).isEqualTo(0L);
+        copy.set(0, 8);
+        assertThat(forkArena.used()).isEqualTo(3L);
+        assertThat(copy.copyLiterals().toArray()).containsExactly(8, 4, 6);
+        assertThat(clause.copyLiterals().toArray()).containsExactly(2, 4, 6);
+        final long used = arena.used();
+        clause.set(1, 10);
+        assertThat(arena.used()).isEqualTo(used + 3);
+        assertThat(clause.copyLiterals().toArray()).containsExactly(2, 10, 6);
+        assertThat(copy.copyLiterals().toArray()).containsExactly(8, 4, 6);
+        clause.set(2, 12);
+        assertThat(arena.used()).isEqualTo(used + 3);
+    }
+
+    @Test
+    public void testMSClauseExchange() {
+        final FormulaFactory f = new FormulaFactory();
+        final Variable[] vars = {f.variable("a"), f.variable("b")};
+        final MSClauseExchange exchange = new MSClauseExchange(3);
+        assertThat(exchange.capacity()).isEqualTo(3);
+        exchange.publish(0, vars, new boolean[]{true, false}, 2);
+        exchange.publish(1, vars, new boolean[]{false, false}, 1);
+        final List<MSClauseExchange.SharedClause> collected = new ArrayList<>();
+        long position = exchange.collect(0, 0, collected);
+        assertThat(position).isEqualTo(2L);
+        assertThat(collected).hasSize(1);
+        final MSClauseExchange.SharedClause clause = collected.get(0);
+        assertThat(clause.size()).isEqualTo(2);
+        assertThat(clause.variable(1) == vars[1]).isTrue();
+        assertThat(clause.phase(0)).isFalse();
+        assertThat(clause.lbd()).isEqualTo(1);
+        assertThat(clause.source()).isEqualTo(1);
+        for (int i = 0; i < 5; i++) {
+            exchange.publish(1, vars, new boolean[]{true, true}, i);
+        }
+        collected.clear();
+        position = exchange.collect(0, position, collected);
+        assertThat(position).isEqualTo(7L);
+        assertThat(collected).extracting(MSClauseExchange.SharedClause::lbd).containsExactly(2, 3, 4);
+        assertThat(exchange.toString()).isEqualTo("MSClauseExchange{capacity=3, published=7}");
+        assertThatThrownBy(() -> new MSClauseExchange(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void testMSHardClause() {
         final LNGIntVector vec = new LNGIntVector();
@@ -93,6 +182,44 @@ public class SolversDatastructuresTest {
         assertThat(clause.toString()).isEqualTo(expected);
     }
 
+    @Test
+    public void testMSPBConstraint() {
+        final MSPBConstraint constraint = new MSPBConstraint(new LNGIntVector(new int[]{2, 5, 6}), new LNGLongVector(new long[]{3, 1, 2}), 4);
+        assertThat(constraint.size()).isEqualTo(3);
+        assertThat(constraint.get(1)).isEqualTo(5);
+        assertThat(constraint.coefficient(2)).isEqualTo(2);
+        assertThat(constraint.maxCoefficient()).isEqualTo(3);
+        constraint.assign(3);
+        constraint.assign(2);
+        assertThat(constraint.slack()).isEqualTo(-1L);
+        constraint.unassign(2);
+        assertThat(constraint.slack()).isEqualTo(1L);
+        final MSPBConstraint copy = new MSPBConstraint(constraint);
+        copy.unassign(3);
+        assertThat(copy.slack()).isEqualTo(4L);
+        assertThat(constraint.slack()).isEqualTo(1L);
+        assertThat(constraint.toString()).isEqualTo("MSPBConstraint{rhs=4, sumTrue=3, lits=[3*1, 1*-2, 2*3]}");
+        final MSClause reason = constraint.reason(1, new LNGIntVector(new int[]{4, 3}));
+        assertThat(reason.copyLiterals().toArray()).containsExactly(4, 3);
+        assertThat(constraint.reason(1, new LNGIntVector(new int[]{4, 3, 7}))).isSameAs(reason);
+        assertThat(reason.copyLiterals().toArray()).containsExactly(4, 3, 7);
+        assertThat(copy.reason(1, new LNGIntVector(new int[]{4}))).isNotSameAs(reason);
+    }
+
+    @Test
+    public void testMSXorConstraint() {
+        final MSXorConstraint constraint = new MSXorConstraint(new LNGIntVector(new int[]{1, 4, 7}), true);
+        assertThat(constraint.size()).isEqualTo(3);
+        assertThat(constraint.get(1)).isEqualTo(4);
+        assertThat(constraint.parity()).isTrue();
+        final MSXorConstraint copy = new MSXorConstraint(constraint);
+        copy.swap(0, 2);
+        assertThat(copy.get(0)).isEqualTo(7);
+        assertThat(constraint.get(0)).isEqualTo(1);
+        assertThat(constraint.toString()).isEqualTo("MSXorConstraint{parity=true, vars=[1, 4, 7]}");
+        assertThat(copy.toString()).isEqualTo("MSXorConstraint{parity=true, vars=[7, 4, 1]}");
+    }
+
     @Test
     public void testMSSoftClause() {
         final LNGIntVector vec = new LNGIntVector();
@@ -116,6 +243,7 @@ public class SolversDatastructuresTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     public void testMSWatcher() {
         final LNGIntVector vec = new LNGIntVector();
         vec.push(2);
@@ -127,4 +255,31 @@ public class SolversDatastructuresTest {
         assertThat(watcher.toString()).isEqualTo(expected);
         assertThat(watcher.hashCode()).isEqualTo(watcher.hashCode());
     }
+
+    @Test
+    public void testMSWatchList() {
+        final MSClause c1 = new MSClause(new LNGIntVector(2, 4, 6), false);
+        final MSClause c2 = new MSClause(new LNGIntVector(new int[]{3, 5}), true);
+        final MSWatchList ws = new MSWatchList();
+        for (int i = 0; i < 5; i++) {
+            ws.push(c1, i);
+        }
+        ws.push(c2, 7);
+        assertThat(ws.size()).isEqualTo(6);
+        assertThat(ws.clause(5)).isSameAs(c2);
+        assertThat(ws.blocker(5)).isEqualTo(7);
+        assertThat(ws.remove(c1)).isTrue();
+        assertThat(ws.size()).isEqualTo(5);
+        assertThat(ws.blocker(0)).isEqualTo(1);
+        assertThat(ws.blocker(4)).isEqualTo(7);
+        ws.move(0, 4);
+        ws.set(1, c2, 9);
+        ws.shrinkTo(2);
+        assertThat(ws.size()).isEqualTo(2);
+        assertThat(ws.clause(0)).isSameAs(c2);
+        assertThat(ws.blocker(0)).isEqualTo(7);
+        assertThat(ws.blocker(1)).isEqualTo(9);
+        assertThat(ws.remove(c1)).isFalse();
+        assertThat(ws.toString()).startsWith("MSWatchList{(MSClause{").endsWith("lits=[-1, -2]}, 9)}");
+    }
 }
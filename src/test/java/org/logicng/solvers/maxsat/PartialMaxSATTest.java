@@ -37,6 +37,8 @@ import org.junit.jupiter.api.Test;
 import org.logicng.TestWithExampleFormulas;
 import org.logicng.formulas.Formula;
 import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
 import org.logicng.handlers.TimeoutMaxSATHandler;
 import org.logicng.solvers.MaxSATSolver;
 import org.logicng.solvers.maxsat.algorithms.MaxSAT;
@@ -49,7 +51,7 @@ import java.io.PrintStream;
 
 /**
  * Unit tests for the MaxSAT solvers.
- * @version 2.4.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class PartialMaxSATTest extends TestWithExampleFormulas {
@@ -95,6 +97,25 @@ public class PartialMaxSATTest extends TestWithExampleFormulas {
                 .hasMessage("Error: Currently iterative encoding in MSU3 only supports the Totalizer encoding.");
     }
 
+    @Test
+    public void testModelWithoutSelectorVariables() {
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        final Variable x = this.f.variable("x");
+        final Variable y = this.f.variable("y");
+        final MaxSATSolver solver = MaxSATSolver.oll(this.f);
+        solver.addHardFormula(this.f.or(a, b));
+        solver.addHardFormula(this.f.or(a.negate(), x.negate()));
+        solver.addSoftFormula(a, 1);
+        solver.addSoftFormula(this.f.and(x, y), 1);
+        solver.addSoftFormula(b.negate(), 1);
+        assertThat(solver.solve()).isEqualTo(MaxSAT.MaxSATResult.OPTIMUM);
+        assertThat(solver.result()).isEqualTo(1);
+        assertThat(solver.model().literals()).extracting(Literal::variable).containsExactlyInAnyOrder(a, b, x, y);
+        assertThat(solver.model().evaluateLit(a) || solver.model().evaluateLit(b)).isTrue();
+        assertThat(solver.model().evaluateLit(a) && solver.model().evaluateLit(x)).isFalse();
+    }
+
     @Test
     public void testWBO() throws IOException {
         final MaxSATConfig[] configs = new MaxSATConfig[1];
@@ -45,7 +45,7 @@ import java.util.List;
 
 /**
  * Unit tests for the assume functionality of the MiniSat style SAT solvers.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class AssumeTest {
@@ -57,7 +57,7 @@ public class AssumeTest {
     public AssumeTest() {
         this.f = new FormulaFactory();
         this.parser = new PropositionalParser(this.f);
-        this.solvers = new SATSolver[6];
+        this.solvers = new SATSolver[10];
         this.solvers[0] = MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(true).build());
         this.solvers[1] = MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(false).build());
         this.solvers[2] = MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(true).build(),
@@ -66,6 +66,12 @@ public class AssumeTest {
                 GlucoseConfig.builder().build());
         this.solvers[4] = MiniSat.miniCard(this.f, MiniSatConfig.builder().incremental(true).build());
         this.solvers[5] = MiniSat.miniCard(this.f, MiniSatConfig.builder().incremental(false).build());
+        this.solvers[6] = MiniSat.miniSat(this.f, MiniSatConfig.builder().trailReuse(true).build());
+        this.solvers[7] = MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(false).trailReuse(true).build(),
+                GlucoseConfig.builder().build());
+        this.solvers[8] = MiniSat.miniCard(this.f, MiniSatConfig.builder().trailReuse(true).build());
+        this.solvers[9] = MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(true).trailReuse(true).build(),
+                GlucoseConfig.builder().chronologicalBacktracking(true).chronoBacktrackingDistance(1).chronoBacktrackingConflicts(0).build());
     }
 
     @Test
@@ -0,0 +1,224 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.io.readers.DimacsReader;
+import org.logicng.solvers.MiniSat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the branching heuristics of the MiniSAT-style solvers.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class BranchingHeuristicsTest {
+
+    @Test
+    public void testConfiguredHeuristic() {
+        assertThat(new MiniSat2Solver(MiniSatConfig.builder().build()).branchingHeuristic()).isInstanceOf(VSIDSHeuristic.class);
+        for (final MiniSatConfig.BranchingHeuristicType type : MiniSatConfig.BranchingHeuristicType.values()) {
+            final MiniSatConfig config = MiniSatConfig.builder().branchingHeuristic(type).build();
+            assertThat(new MiniSat2Solver(config).branchingHeuristic()).isInstanceOf(BranchingHeuristic.of(type).getClass());
+            assertThat(new MiniCard(config).branchingHeuristic()).isInstanceOf(BranchingHeuristic.of(type).getClass());
+            assertThat(new GlucoseSyrup(config, GlucoseConfig.builder().build()).branchingHeuristic()).isInstanceOf(BranchingHeuristic.of(type).getClass());
+        }
+    }
+
+    @Test
+    public void testVMTF() {
+        final MiniSat2Solver solver = solverWithVars(MiniSatConfig.BranchingHeuristicType.VMTF, 4);
+        final BranchingHeuristic heuristic = solver.branchingHeuristic();
+        assertThat(heuristic.score(3)).isGreaterThan(heuristic.score(2));
+        solver.varBumpActivity(1);
+        solver.varBumpActivity(0);
+        assertThat(heuristic.score(0)).isGreaterThan(heuristic.score(1));
+        assertThat(heuristic.score(1)).isGreaterThan(heuristic.score(3));
+        assertThat(solver.pickBranchLit()).isEqualTo(mkLit(0, true));
+        assertThat(solver.pickBranchLit()).isEqualTo(mkLit(1, true));
+        assertThat(solver.pickBranchLit()).isEqualTo(mkLit(3, true));
+    }
+
+    @Test
+    public void testLRB() {
+        final MiniSat2Solver solver = solverWithVars(MiniSatConfig.BranchingHeuristicType.LRB, 3);
+        final BranchingHeuristic heuristic = solver.branchingHeuristic();
+        solver.trailLim.push(solver.trail.size());
+        solver.uncheckedEnqueue(mkLit(0, false), null);
+        solver.uncheckedEnqueue(mkLit(1, false), null);
+        solver.varBumpActivity(0);
+        solver.cancelUntil(0);
+        solver.varDecayActivity();
+        assertThat(heuristic.score(0)).isEqualTo(0.4);
+        assertThat(heuristic.score(1)).isEqualTo(0.0);
+        assertThat(heuristic.score(2)).isEqualTo(0.0);
+        assertThat(solver.pickBranchLit()).isEqualTo(mkLit(0, false));
+        assertThat(heuristic.score(0)).isLessThan(0.4);
+    }
+
+    @Test
+    public void testCHB() {
+        final MiniSat2Solver solver = solverWithVars(MiniSatConfig.BranchingHeuristicType.CHB, 3);
+        final BranchingHeuristic heuristic = solver.branchingHeuristic();
+        solver.trailLim.push(solver.trail.size());
+        solver.uncheckedEnqueue(mkLit(0, false), null);
+        solver.uncheckedEnqueue(mkLit(1, false), null);
+        solver.varBumpActivity(0);
+        solver.cancelUntil(0);
+        solver.varDecayActivity();
+        assertThat(heuristic.score(0)).isEqualTo(0.4);
+        assertThat(heuristic.score(1)).isEqualTo(0.4 * 0.5);
+        solver.uncheckedEnqueue(mkLit(2, false), null);
+        solver.pickBranchLit();
+        assertThat(heuristic.score(2)).isGreaterThan(0.0).isLessThan(heuristic.score(1));
+    }
+
+    @Test
+    public void testSwitching() {
+        final MiniSatConfig config = MiniSatConfig.builder()
+                .branchingHeuristic(MiniSatConfig.BranchingHeuristicType.LRB)
+                .alternativeBranchingHeuristic(MiniSatConfig.BranchingHeuristicType.VMTF)
+                .branchingSwitchInterval(2)
+                .build();
+        final MiniSat2Solver solver = new MiniSat2Solver(config);
+        assertThat(solver.branchingHeuristic()).isInstanceOf(LRBHeuristic.class);
+        solver.varDecayActivity();
+        assertThat(solver.branchingHeuristic()).isInstanceOf(LRBHeuristic.class);
+        solver.varDecayActivity();
+        assertThat(solver.branchingHeuristic()).isInstanceOf(VMTFHeuristic.class);
+        solver.varDecayActivity();
+        solver.varDecayActivity();
+        assertThat(solver.branchingHeuristic()).isInstanceOf(LRBHeuristic.class);
+        assertThat(new MiniSat2Solver(MiniSatConfig.builder().build()).alternativeBranchingHeuristic).isNull();
+    }
+
+    @Test
+    public void testAlternativeHeuristicReceivesEvents() {
+        final MiniSatConfig config = MiniSatConfig.builder()
+                .branchingHeuristic(MiniSatConfig.BranchingHeuristicType.VMTF)
+                .alternativeBranchingHeuristic(MiniSatConfig.BranchingHeuristicType.LRB)
+                .branchingSwitchInterval(1000)
+                .build();
+        final MiniSat2Solver solver = new MiniSat2Solver(config);
+        for (int i = 0; i < 3; i++) {
+            solver.newVar(true, true);
+        }
+        final BranchingHeuristic alternative = solver.alternativeBranchingHeuristic;
+        solver.trailLim.push(solver.trail.size());
+        solver.uncheckedEnqueue(mkLit(0, false), null);
+        solver.uncheckedEnqueue(mkLit(1, false), null);
+        solver.varBumpActivity(0);
+        solver.cancelUntil(0);
+        solver.varDecayActivity();
+        assertThat(solver.branchingHeuristic()).isInstanceOf(VMTFHeuristic.class);
+        assertThat(alternative.score(0)).isEqualTo(0.4);
+        assertThat(alternative.score(1)).isEqualTo(0.0);
+        assertThat(solver.pickBranchLit()).isEqualTo(mkLit(0, false));
+        assertThat(alternative.score(0)).isEqualTo(0.4);
+    }
+
+    @Test
+    public void testCustomHeuristic() {
+        final MiniSat2Solver solver = solverWithVars(MiniSatConfig.BranchingHeuristicType.VSIDS, 3);
+        final BranchingHeuristic heuristic = new VMTFHeuristic();
+        solver.setBranchingHeuristic(heuristic);
+        assertThat(solver.branchingHeuristic()).isSameAs(heuristic);
+        assertThat(solver.pickBranchLit()).isEqualTo(mkLit(2, true));
+        assertThatThrownBy(() -> solverWithVars(MiniSatConfig.BranchingHeuristicType.VSIDS, 1).setBranchingHeuristic(heuristic))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testFork() {
+        final MiniSat2Solver solver = solverWithVars(MiniSatConfig.BranchingHeuristicType.VMTF, 3);
+        solver.varBumpActivity(0);
+        final MiniSat2Solver fork = solver.fork();
+        assertThat(fork.branchingHeuristic()).isNotSameAs(solver.branchingHeuristic());
+        fork.varBumpActivity(1);
+        assertThat(fork.branchingHeuristic().score(1)).isGreaterThan(fork.branchingHeuristic().score(0));
+        assertThat(solver.branchingHeuristic().score(1)).isLessThan(solver.branchingHeuristic().score(0));
+    }
+
+    @Test
+    public void testDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        try (final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"))) {
+            while (reader.ready()) {
+                final String[] tokens = reader.readLine().split(";");
+                expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+            }
+        }
+        final FormulaFactory f = new FormulaFactory();
+        final File[] files = new File("src/test/resources/sat").listFiles((dir, name) -> name.endsWith(".cnf"));
+        assert files != null;
+        for (final MiniSatConfig.BranchingHeuristicType type : MiniSatConfig.BranchingHeuristicType.values()) {
+            final MiniSatConfig config = MiniSatConfig.builder()
+                    .branchingHeuristic(type)
+                    .alternativeBranchingHeuristic(MiniSatConfig.BranchingHeuristicType.VSIDS)
+                    .branchingSwitchInterval(type == MiniSatConfig.BranchingHeuristicType.VSIDS ? 0 : 1000)
+                    .build();
+            for (final File file : files) {
+                final List<Formula> cnf = DimacsReader.readCNF(file, f);
+                for (final MiniSat solver : Arrays.asList(MiniSat.miniSat(f, config), MiniSat.glucose(f, config, GlucoseConfig.builder().build()))) {
+                    solver.add(cnf);
+                    final boolean sat = solver.sat() == Tristate.TRUE;
+                    assertThat(sat).isEqualTo(expectedResults.get(file.getName()));
+                    if (sat) {
+                        final Assignment model = solver.model();
+                        assertThat(cnf).allMatch(clause -> clause.evaluate(model));
+                    }
+                }
+            }
+        }
+    }
+
+    private static MiniSat2Solver solverWithVars(final MiniSatConfig.BranchingHeuristicType type, final int numVars) {
+        final MiniSat2Solver solver = new MiniSat2Solver(MiniSatConfig.builder().branchingHeuristic(type).build());
+        for (int i = 0; i < numVars; i++) {
+            solver.newVar(true, true);
+        }
+        return solver;
+    }
+}
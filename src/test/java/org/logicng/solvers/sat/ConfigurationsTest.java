@@ -39,7 +39,7 @@ import java.util.Arrays;
 
 /**
  * Unit tests for the solver configurations.
- * @version 2.0.0
+ * @version 2.7.0
  * @since 1.0
  */
 public class ConfigurationsTest extends TestWithExampleFormulas {
@@ -58,6 +58,15 @@ public class ConfigurationsTest extends TestWithExampleFormulas {
                 .lsInc(1.5)
                 .incremental(false)
                 .initialPhase(true)
+                .preprocessing(true)
+                .trailReuse(true)
+                .vivification(true)
+                .gaussMaxLevel(5)
+                .branchingHeuristic(MiniSatConfig.BranchingHeuristicType.LRB)
+                .alternativeBranchingHeuristic(MiniSatConfig.BranchingHeuristicType.VMTF)
+                .branchingSwitchInterval(10000)
+                .localSearchFlips(50000)
+                .localSearchInterval(5)
                 .build();
         final String expected = String.format("MiniSatConfig{%n" +
                 "varDecay=1.2%n" +
@@ -77,6 +86,15 @@ public class ConfigurationsTest extends TestWithExampleFormulas {
                 "bbInitialUBCheckForRotatableLiterals=true%n" +
                 "bbCheckForComplementModelLiterals=true%n" +
                 "bbCheckForRotatableLiterals=true%n" +
+                "preprocessing=true%n" +
+                "trailReuse=true%n" +
+                "vivification=true%n" +
+                "gaussMaxLevel=5%n" +
+                "branchingHeuristic=LRB%n" +
+                "alternativeBranchingHeuristic=VMTF%n" +
+                "branchingSwitchInterval=10000%n" +
+                "localSearchFlips=50000%n" +
+                "localSearchInterval=5%n" +
                 "}");
         assertThat(config.toString()).isEqualTo(expected);
     }
@@ -97,6 +115,16 @@ public class ConfigurationsTest extends TestWithExampleFormulas {
                 .reduceOnSize(true)
                 .reduceOnSizeSize(10)
                 .maxVarDecay(0.99)
+                .chronologicalBacktracking(true)
+                .chronoBacktrackingDistance(50)
+                .chronoBacktrackingConflicts(1000)
+                .nativeConstraints(true)
+                .stableMode(true)
+                .modeSwitchConflicts(2000)
+                .modeSwitchInc(1.5)
+                .lubyRestartBase(256)
+                .targetPhases(false)
+                .rephaseInterval(500)
                 .build();
         final String expected = String.format("GlucoseConfig{%n" +
                 "lbLBDMinimizingClause=3%n" +
@@ -112,6 +140,16 @@ public class ConfigurationsTest extends TestWithExampleFormulas {
                 "reduceOnSize=true%n" +
                 "reduceOnSizeSize=10%n" +
                 "maxVarDecay=0.99%n" +
+                "chronologicalBacktracking=true%n" +
+                "chronoBacktrackingDistance=50%n" +
+                "chronoBacktrackingConflicts=1000%n" +
+                "nativeConstraints=true%n" +
+                "stableMode=true%n" +
+                "modeSwitchConflicts=2000%n" +
+                "modeSwitchInc=1.5%n" +
+                "lubyRestartBase=256%n" +
+                "targetPhases=false%n" +
+                "rephaseInterval=500%n" +
                 "}");
         assertThat(config.toString()).isEqualTo(expected);
     }
@@ -63,9 +63,9 @@ public class IncDecTest implements LogicNGTest {
             s.add(this.f.variable("a"));
             final SolverState state1 = s.saveState();
             if (s.underlyingSolver() instanceof MiniCard) {
-                assertThat(state1.toString()).isEqualTo("SolverState{id=0, state=[1, 1, 0, 0, 1]}");
+                assertThat(state1.toString()).isEqualTo("SolverState{id=0, state=[1, 1, 0, 0, 1, 0]}");
             } else {
-                assertThat(state1.toString()).isEqualTo("SolverState{id=0, state=[1, 1, 0, 0, 1, 0, 0]}");
+                assertThat(state1.toString()).isEqualTo("SolverState{id=0, state=[1, 1, 0, 0, 1, 0, 0, 0]}");
             }
             assertSolverSat(s);
             s.add(this.pg.generate(5));
@@ -79,9 +79,9 @@ public class IncDecTest implements LogicNGTest {
             s.add(this.pg.generate(5));
             final SolverState state2 = s.saveState();
             if (s.underlyingSolver() instanceof MiniCard) {
-                assertThat(state2.toString()).isEqualTo("SolverState{id=1, state=[1, 31, 81, 0, 1]}");
+                assertThat(state2.toString()).isEqualTo("SolverState{id=1, state=[1, 31, 81, 0, 1, 0]}");
             } else {
-                assertThat(state2.toString()).isEqualTo("SolverState{id=1, state=[1, 31, 81, 0, 1, 0, 0]}");
+                assertThat(state2.toString()).isEqualTo("SolverState{id=1, state=[1, 31, 81, 0, 1, 0, 0, 0]}");
             }
             s.add(this.pg.generate(4));
             assertSolverUnsat(s);
@@ -0,0 +1,210 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.collections.LNGBooleanVector;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.handlers.SATHandler;
+import org.logicng.io.readers.DimacsReader;
+import org.logicng.solvers.MiniSat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the local search and the local search phases of the MiniSAT-style solvers.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class LocalSearchTest {
+
+    @Test
+    public void testSatisfiable() {
+        final MiniSat2Solver solver = solverWithVars(4);
+        addClause(solver, mkLit(0, false), mkLit(1, false));
+        addClause(solver, mkLit(0, true), mkLit(2, false));
+        addClause(solver, mkLit(1, true), mkLit(3, true));
+        addClause(solver, mkLit(2, true), mkLit(3, false));
+        final LocalSearch localSearch = new LocalSearch(solver, 42);
+        assertThat(localSearch.search(null, 1000, null)).isEqualTo(Tristate.TRUE);
+        assertThat(localSearch.bestFalsified()).isEqualTo(0);
+        final LNGBooleanVector best = localSearch.bestAssignment();
+        assertThat(best.size()).isEqualTo(4);
+        assertThat(best.get(0) || best.get(1)).isTrue();
+        assertThat(!best.get(0) || best.get(2)).isTrue();
+        assertThat(!best.get(1) || !best.get(3)).isTrue();
+        assertThat(!best.get(2) || best.get(3)).isTrue();
+    }
+
+    @Test
+    public void testInitialAssignmentFromPhases() {
+        final MiniSat2Solver solver = solverWithVars(3);
+        addClause(solver, mkLit(0, false), mkLit(1, false), mkLit(2, false));
+        solver.vars.get(1).setPolarity(false);
+        final LocalSearch localSearch = new LocalSearch(solver, 42);
+        assertThat(localSearch.search(null, 1000, null)).isEqualTo(Tristate.TRUE);
+        assertThat(localSearch.flips()).isEqualTo(0);
+        assertThat(localSearch.bestAssignment().toArray()).containsExactly(false, true, false);
+    }
+
+    @Test
+    public void testUnsatisfiable() {
+        final MiniSat2Solver solver = solverWithVars(2);
+        addClause(solver, mkLit(0, false), mkLit(1, false));
+        addClause(solver, mkLit(0, false), mkLit(1, true));
+        addClause(solver, mkLit(0, true), mkLit(1, false));
+        addClause(solver, mkLit(0, true), mkLit(1, true));
+        final LocalSearch localSearch = new LocalSearch(solver, 42);
+        assertThat(localSearch.search(null, 100, null)).isEqualTo(Tristate.UNDEF);
+        assertThat(localSearch.flips()).isEqualTo(100);
+        assertThat(localSearch.bestFalsified()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAssumptions() {
+        final MiniSat2Solver solver = solverWithVars(3);
+        addClause(solver, mkLit(0, true), mkLit(1, false));
+        addClause(solver, mkLit(1, true), mkLit(2, false));
+        final LocalSearch localSearch = new LocalSearch(solver, 42);
+        assertThat(localSearch.search(assumptions(mkLit(0, false)), 1000, null)).isEqualTo(Tristate.TRUE);
+        assertThat(localSearch.bestAssignment().toArray()).containsExactly(true, true, true);
+        assertThat(localSearch.search(assumptions(mkLit(0, false), mkLit(2, true)), 1000, null)).isEqualTo(Tristate.UNDEF);
+        assertThat(localSearch.bestFalsified()).isEqualTo(1);
+        assertThat(localSearch.search(assumptions(mkLit(0, false), mkLit(0, true)), 1000, null)).isEqualTo(Tristate.FALSE);
+    }
+
+    @Test
+    public void testFixedVariables() {
+        final MiniSat2Solver solver = solverWithVars(3);
+        addClause(solver, mkLit(0, true), mkLit(1, false));
+        addClause(solver, mkLit(2, true));
+        assertThat(solver.value(mkLit(2, false))).isEqualTo(Tristate.FALSE);
+        final LocalSearch localSearch = new LocalSearch(solver, 42);
+        assertThat(localSearch.search(assumptions(mkLit(2, false)), 1000, null)).isEqualTo(Tristate.FALSE);
+        assertThat(localSearch.search(assumptions(mkLit(1, true)), 1000, null)).isEqualTo(Tristate.TRUE);
+        assertThat(localSearch.bestAssignment().toArray()).containsExactly(false, false, false);
+    }
+
+    @Test
+    public void testHandler() {
+        final MiniSat2Solver solver = solverWithVars(2);
+        addClause(solver, mkLit(0, false), mkLit(1, false));
+        addClause(solver, mkLit(0, false), mkLit(1, true));
+        addClause(solver, mkLit(0, true), mkLit(1, false));
+        addClause(solver, mkLit(0, true), mkLit(1, true));
+        final SATHandler handler = new SATHandler() {
+            private int calls;
+
+            @Override
+            public boolean detectedConflict() {
+                return ++this.calls < 3;
+            }
+        };
+        final LocalSearch localSearch = new LocalSearch(solver, 42);
+        assertThat(localSearch.search(null, 100000, handler)).isEqualTo(Tristate.UNDEF);
+        assertThat(localSearch.flips()).isEqualTo(2048);
+    }
+
+    @Test
+    public void testLocalSearchPhase() {
+        final MiniSat2Solver solver = new MiniSat2Solver(MiniSatConfig.builder().localSearchFlips(1000).build());
+        for (int i = 0; i < 3; i++) {
+            solver.newVar(true, true);
+        }
+        addClause(solver, mkLit(0, false), mkLit(1, false));
+        addClause(solver, mkLit(0, false), mkLit(1, true));
+        addClause(solver, mkLit(1, false), mkLit(2, true));
+        solver.localSearchPhase(1);
+        assertThat(solver.vars.get(0).polarity()).isTrue();
+        solver.localSearchPhase(0);
+        assertThat(solver.vars.get(0).polarity()).isFalse();
+        assertThat(!solver.vars.get(1).polarity() || solver.vars.get(2).polarity()).isTrue();
+    }
+
+    @Test
+    public void testDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        try (final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"))) {
+            while (reader.ready()) {
+                final String[] tokens = reader.readLine().split(";");
+                expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+            }
+        }
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSatConfig config = MiniSatConfig.builder().localSearchFlips(10000).localSearchInterval(2).build();
+        final File[] files = new File("src/test/resources/sat").listFiles((dir, name) -> name.endsWith(".cnf"));
+        assert files != null;
+        for (final File file : files) {
+            final List<Formula> cnf = DimacsReader.readCNF(file, f);
+            for (final MiniSat solver : Arrays.asList(MiniSat.miniSat(f, config), MiniSat.miniCard(f, config),
+                    MiniSat.glucose(f, config, GlucoseConfig.builder().build()))) {
+                solver.add(cnf);
+                final boolean sat = solver.sat() == Tristate.TRUE;
+                assertThat(sat).isEqualTo(expectedResults.get(file.getName()));
+                if (sat) {
+                    final Assignment model = solver.model();
+                    assertThat(cnf).allMatch(clause -> clause.evaluate(model));
+                }
+            }
+        }
+    }
+
+    private static MiniSat2Solver solverWithVars(final int numVars) {
+        final MiniSat2Solver solver = new MiniSat2Solver(MiniSatConfig.builder().build());
+        for (int i = 0; i < numVars; i++) {
+            solver.newVar(true, true);
+        }
+        return solver;
+    }
+
+    private static LNGIntVector assumptions(final int... lits) {
+        final LNGIntVector assumptions = new LNGIntVector(lits.length);
+        for (final int lit : lits) {
+            assumptions.push(lit);
+        }
+        return assumptions;
+    }
+
+    private static void addClause(final MiniSat2Solver solver, final int... lits) {
+        solver.addClause(new LNGIntVector(lits), null);
+    }
+}
@@ -0,0 +1,143 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.sign;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.var;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.solvers.MiniSat;
+import org.logicng.testutils.PigeonHoleGenerator;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link LookaheadSplitter}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class LookaheadSplitterTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+
+    private static LNGIntVector variables(final MiniSatStyleSolver solver) {
+        final LNGIntVector variables = new LNGIntVector();
+        for (int i = 0; i < solver.nVars(); i++) {
+            final Variable var = solver.variableForIdx(i);
+            if (var != null && !var.name().startsWith("@RESERVED")) {
+                variables.push(i);
+            }
+        }
+        return variables;
+    }
+
+    @Test
+    public void testCubesCoverAllModels() {
+        for (int i = 0; i < 20; i++) {
+            final FormulaRandomizer randomizer = new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder().numVars(10).seed(i).build());
+            final Formula formula = randomizer.formula(4);
+            final MiniSat solver = MiniSat.miniSat(this.f);
+            solver.add(formula);
+            final MiniSatStyleSolver underlying = solver.underlyingSolver();
+            final LNGVector<LNGIntVector> cubes = new LookaheadSplitter(underlying, 3, 5).split(variables(underlying), new LNGIntVector());
+            assertThat(cubes.size()).isLessThanOrEqualTo(8);
+            assertThat(underlying.decisionLevel()).isZero();
+            final List<Assignment> models = solver.enumerateAllModels(formula.variables());
+            for (final Assignment model : models) {
+                boolean covered = false;
+                for (final LNGIntVector cube : cubes) {
+                    covered |= satisfies(underlying, model, cube);
+                }
+                assertThat(covered).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void testAssumptions() {
+        final MiniSat solver = MiniSat.miniSat(this.f);
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        final Variable c = this.f.variable("c");
+        solver.add(this.f.or(a.negate(), b));
+        solver.add(this.f.or(b.negate(), c));
+        final MiniSatStyleSolver underlying = solver.underlyingSolver();
+        final int litA = mkLit(underlying.idxForVariable(a), false);
+        final int notC = mkLit(underlying.idxForVariable(c), true);
+        final LookaheadSplitter splitter = new LookaheadSplitter(underlying, 4, 10);
+        assertThat(splitter.split(variables(underlying), new LNGIntVector(new int[]{litA})).size()).isEqualTo(1);
+        assertThat(splitter.split(variables(underlying), new LNGIntVector(new int[]{litA, notC})).empty()).isTrue();
+        assertThat(splitter.split(variables(underlying), new LNGIntVector()).size()).isBetween(1, 16);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+    }
+
+    @Test
+    public void testPigeonHole() {
+        final MiniSat solver = MiniSat.miniSat(this.f);
+        solver.add(new PigeonHoleGenerator(this.f).generate(5));
+        final MiniSatStyleSolver underlying = solver.underlyingSolver();
+        final LNGVector<LNGIntVector> cubes = new LookaheadSplitter(underlying, 4, 10).split(variables(underlying), new LNGIntVector());
+        assertThat(cubes.size()).isLessThanOrEqualTo(16);
+        for (final LNGIntVector cube : cubes) {
+            assertThat(solver.sat(cubeLiterals(underlying, cube))).isEqualTo(Tristate.FALSE);
+        }
+    }
+
+    private static boolean satisfies(final MiniSatStyleSolver solver, final Assignment model, final LNGIntVector cube) {
+        for (int i = 0; i < cube.size(); i++) {
+            final Variable var = solver.variableForIdx(var(cube.get(i)));
+            if (model.evaluateLit(var) == sign(cube.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Literal> cubeLiterals(final MiniSatStyleSolver solver, final LNGIntVector cube) {
+        final List<Literal> literals = new ArrayList<>();
+        for (int i = 0; i < cube.size(); i++) {
+            final Variable var = solver.variableForIdx(var(cube.get(i)));
+            literals.add(sign(cube.get(i)) ? var.negate() : var);
+        }
+        return literals;
+    }
+}
@@ -0,0 +1,215 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.io.readers.DimacsReader;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATSolver;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedSet;
+
+/**
+ * Unit tests for {@link MiniSatPreprocessor}.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class MiniSatPreprocessorTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+
+    private MiniSat preprocessingSolver() {
+        return MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(false).preprocessing(true).build());
+    }
+
+    private MiniSat plainSolver() {
+        return MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(false).build());
+    }
+
+    private static int eliminated(final MiniSat solver) {
+        final MiniSat2Solver underlying = (MiniSat2Solver) solver.underlyingSolver();
+        int count = 0;
+        for (int i = 0; i < underlying.nVars(); i++) {
+            if (underlying.isEliminated(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private FormulaRandomizer randomizer(final int seed) {
+        return new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder().numVars(10).weightPbc(1).weightCc(1).weightAmo(1).seed(seed).build());
+    }
+
+    @Test
+    public void testConfiguration() {
+        assertThat(((MiniSat2Solver) preprocessingSolver().underlyingSolver()).preprocessing()).isTrue();
+        assertThat(((MiniSat2Solver) plainSolver().underlyingSolver()).preprocessing()).isFalse();
+        final MiniSatConfig incremental = MiniSatConfig.builder().preprocessing(true).build();
+        assertThat(((MiniSat2Solver) MiniSat.miniSat(this.f, incremental).underlyingSolver()).preprocessing()).isFalse();
+        final MiniSatConfig proof = MiniSatConfig.builder().incremental(false).proofGeneration(true).preprocessing(true).build();
+        assertThat(((MiniSat2Solver) MiniSat.miniSat(this.f, proof).underlyingSolver()).preprocessing()).isFalse();
+    }
+
+    @Test
+    public void testDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"));
+        while (reader.ready()) {
+            final String[] tokens = reader.readLine().split(";");
+            expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+        }
+        final File[] files = new File("src/test/resources/sat").listFiles();
+        assert files != null;
+        int eliminated = 0;
+        for (final File file : files) {
+            if (file.getName().endsWith(".cnf")) {
+                final List<Formula> clauses = DimacsReader.readCNF(file, this.f);
+                final MiniSat solver = preprocessingSolver();
+                solver.add(clauses);
+                final boolean sat = solver.sat() == Tristate.TRUE;
+                assertThat(sat).isEqualTo(expectedResults.get(file.getName()));
+                eliminated += eliminated(solver);
+                if (sat) {
+                    final Assignment model = solver.model();
+                    for (final Formula clause : clauses) {
+                        assertThat(clause.evaluate(model)).isTrue();
+                    }
+                }
+            }
+        }
+        assertThat(eliminated).isPositive();
+    }
+
+    @Test
+    public void testModelEnumeration() {
+        for (int i = 0; i < 50; i++) {
+            final Formula formula = randomizer(i).formula(4);
+            final SortedSet<Variable> vars = formula.variables();
+            final MiniSat solver = preprocessingSolver();
+            final MiniSat reference = plainSolver();
+            solver.add(formula);
+            reference.add(formula);
+            final List<Assignment> models = solver.enumerateAllModels(vars);
+            final List<Assignment> expected = reference.enumerateAllModels(vars);
+            assertThat(new HashSet<>(models)).isEqualTo(new HashSet<>(expected));
+            assertThat(models).hasSize(expected.size());
+            for (final Assignment model : models) {
+                assertThat(formula.evaluate(model)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void testBackbones() {
+        int eliminated = 0;
+        for (int i = 0; i < 50; i++) {
+            final Formula formula = randomizer(100 + i).formula(4);
+            final SortedSet<Variable> vars = formula.variables();
+            final MiniSat solver = preprocessingSolver();
+            final MiniSat reference = plainSolver();
+            solver.add(formula);
+            reference.add(formula);
+            assertThat(solver.sat()).isEqualTo(reference.sat());
+            eliminated += eliminated(solver);
+            assertThat(solver.backbone(vars)).isEqualTo(reference.backbone(vars));
+        }
+        assertThat(eliminated).isPositive();
+    }
+
+    @Test
+    public void testIncrementalClausesAndAssumptions() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            Formula formula = randomizer(200 + i).formula(4);
+            final List<Variable> vars = new ArrayList<>(formula.variables());
+            final MiniSat solver = preprocessingSolver();
+            final MiniSat reference = plainSolver();
+            solver.add(formula);
+            reference.add(formula);
+            for (int j = 0; j < 10 && !vars.isEmpty(); j++) {
+                final Literal lit1 = vars.get(random.nextInt(vars.size())).negate();
+                final Literal lit2 = random.nextBoolean() ? vars.get(random.nextInt(vars.size())) : lit1;
+                final Tristate expected = reference.sat(Arrays.asList(lit1, lit2));
+                assertThat(solver.sat(Arrays.asList(lit1, lit2))).isEqualTo(expected);
+                if (expected == Tristate.TRUE) {
+                    assertThat(this.f.and(formula, lit1, lit2).evaluate(solver.model())).isTrue();
+                }
+                final Formula clause = this.f.or(lit1, vars.get(random.nextInt(vars.size())));
+                solver.add(clause);
+                reference.add(clause);
+                assertThat(solver.sat()).isEqualTo(reference.sat());
+                if (reference.sat() == Tristate.TRUE) {
+                    assertThat(this.f.and(formula, clause).evaluate(solver.model())).isTrue();
+                }
+                formula = this.f.and(formula, clause);
+            }
+        }
+    }
+
+    @Test
+    public void testFrozenVariables() {
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        final Variable c = this.f.variable("c");
+        final Formula formula = this.f.and(this.f.or(a.negate(), b), this.f.or(b.negate(), c), this.f.or(a, c));
+        final MiniSat solver = preprocessingSolver();
+        solver.add(formula);
+        solver.setFrozen(b, true);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        final MiniSat2Solver underlying = (MiniSat2Solver) solver.underlyingSolver();
+        assertThat(underlying.isEliminated(underlying.idxForVariable(b))).isFalse();
+        assertThat(eliminated(solver)).isPositive();
+        assertThat(formula.evaluate(solver.model())).isTrue();
+        solver.add(this.f.or(a.negate(), c.negate()));
+        solver.add(a);
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+    }
+}
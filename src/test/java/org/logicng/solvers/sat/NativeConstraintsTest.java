@@ -0,0 +1,260 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.backbones.Backbone;
+import org.logicng.backbones.BackboneType;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.collections.LNGLongVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.CType;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.propositions.StandardProposition;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATSolver;
+import org.logicng.solvers.functions.BackboneFunction;
+import org.logicng.solvers.functions.FormulaOnSolverFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the native propagation of cardinality and pseudo-Boolean constraints in the Glucose solver.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class NativeConstraintsTest {
+
+    private static final GlucoseConfig NATIVE = GlucoseConfig.builder().nativeConstraints(true).build();
+    private static final GlucoseConfig NATIVE_CHRONO = GlucoseConfig.builder().nativeConstraints(true)
+            .chronologicalBacktracking(true).chronoBacktrackingDistance(1).chronoBacktrackingConflicts(0).build();
+
+    private final FormulaFactory f = new FormulaFactory();
+
+    @Test
+    public void testNormalization() {
+        final GlucoseSyrup solver = new GlucoseSyrup(MiniSatConfig.builder().build(), NATIVE);
+        for (int i = 0; i < 4; i++) {
+            solver.newVar(true, true);
+        }
+        // 2 * x0 + 1 * -x0 + 1 * x1 <= 1  <=>  x0 + x1 <= 0
+        assertThat(solver.addPBConstraint(new LNGIntVector(new int[]{mkLit(0, false), mkLit(0, true), mkLit(1, false)}), new LNGLongVector(new long[]{2, 1, 1}), 1)).isTrue();
+        assertThat(solver.pbConstraints().empty()).isTrue();
+        // -1 * x2 - 1 * x3 <= -1  <=>  -x2 + -x3 <= 1
+        assertThat(solver.addPBConstraint(new LNGIntVector(new int[]{mkLit(2, false), mkLit(3, false)}), new LNGLongVector(new long[]{-1, -1}), -1)).isTrue();
+        assertThat(solver.pbConstraints().size()).isEqualTo(1);
+        assertThat(solver.pbConstraints().get(0).rhs()).isEqualTo(1);
+        assertThat(solver.pbConstraints().get(0).get(0)).isEqualTo(mkLit(2, true));
+        assertThat(solver.solve(null)).isEqualTo(Tristate.TRUE);
+        assertThat(solver.model().get(0)).isFalse();
+        assertThat(solver.model().get(1)).isFalse();
+        assertThat(solver.model().get(2) || solver.model().get(3)).isTrue();
+        assertThat(solver.addPBConstraint(new LNGIntVector(new int[]{mkLit(2, false), mkLit(3, false)}), new LNGLongVector(new long[]{1, 1}), 0)).isFalse();
+        assertThat(solver.solve(null)).isEqualTo(Tristate.FALSE);
+    }
+
+    @Test
+    public void testNotEnabled() {
+        final GlucoseSyrup solver = new GlucoseSyrup(MiniSatConfig.builder().build(), GlucoseConfig.builder().build());
+        solver.newVar(true, true);
+        assertThat(solver.nativeConstraints()).isFalse();
+        assertThatThrownBy(() -> solver.addPBConstraint(new LNGIntVector(new int[]{mkLit(0, false)}), new LNGLongVector(new long[]{1}), 0))
+                .isInstanceOf(IllegalStateException.class);
+        final MiniSat proofSolver = MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(false).proofGeneration(true).build(), NATIVE);
+        assertThat(((GlucoseSyrup) proofSolver.underlyingSolver()).nativeConstraints()).isFalse();
+        proofSolver.add(this.f.cc(CType.EQ, 2, vars(5)));
+        assertThat(proofSolver.sat()).isEqualTo(Tristate.TRUE);
+        assertThat(proofSolver.underlyingSolver().clauses().size()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testProposition() {
+        final MiniSat solver = MiniSat.glucose(this.f, MiniSatConfig.builder().build(), NATIVE);
+        final Variable[] vars = vars(3);
+        solver.add(this.f.cc(CType.LE, 1, vars), new StandardProposition(this.f.cc(CType.LE, 1, vars)));
+        solver.add(this.f.pbc(CType.GE, 2, vars, new int[]{1, 1, 2}));
+        assertThat(((GlucoseSyrup) solver.underlyingSolver()).pbConstraints().size()).isEqualTo(1);
+        assertThat(solver.underlyingSolver().clauses().empty()).isFalse();
+        assertThat(solver.enumerateAllModels(vars)).containsExactly(new Assignment(vars[0].negate(), vars[1].negate(), vars[2]));
+    }
+
+    @Test
+    public void testLargeCoefficients() {
+        final MiniSat solver = MiniSat.glucose(this.f, MiniSatConfig.builder().build(), NATIVE);
+        final Variable[] vars = vars(2);
+        // 2 * MAX * v0 - 2 * MAX * v1 <= 0  <=>  2 * MAX * v0 + 2 * MAX * -v1 <= 2 * MAX
+        final int max = Integer.MAX_VALUE;
+        solver.add(this.f.pbc(CType.LE, 0, new Literal[]{vars[0], vars[0], vars[1], vars[1]}, new int[]{max, max, -max, -max}));
+        final GlucoseSyrup glucose = (GlucoseSyrup) solver.underlyingSolver();
+        assertThat(glucose.pbConstraints().size()).isEqualTo(1);
+        assertThat(glucose.pbConstraints().get(0).coefficient(0)).isEqualTo(2L * max);
+        assertThat(glucose.pbConstraints().get(0).rhs()).isEqualTo(2L * max);
+        assertThat(solver.enumerateAllModels(vars)).containsExactlyInAnyOrder(new Assignment(vars[0], vars[1]),
+                new Assignment(vars[0].negate(), vars[1]), new Assignment(vars[0].negate(), vars[1].negate()));
+    }
+
+    @Test
+    public void testFormulaOnSolver() {
+        final MiniSat solver = MiniSat.glucose(this.f, MiniSatConfig.builder().build(), NATIVE);
+        final Variable[] vars = vars(3);
+        solver.add(this.f.cc(CType.LE, 1, vars));
+        solver.add(this.f.pbc(CType.GE, 2, vars, new int[]{1, 1, 2}));
+        assertThat(solver.underlyingSolver().clauses().empty()).isTrue();
+        assertThat(solver.execute(FormulaOnSolverFunction.get())).containsExactlyInAnyOrder(
+                this.f.cc(CType.LE, 1, vars),
+                this.f.pbc(CType.LE, 2, new Literal[]{vars[0].negate(), vars[1].negate(), vars[2].negate()}, new int[]{1, 1, 2}));
+        assertThat(solver.enumerateAllModels(vars)).containsExactly(new Assignment(vars[0].negate(), vars[1].negate(), vars[2]));
+    }
+
+    @Test
+    public void testPigeonHole() {
+        for (final GlucoseConfig config : Arrays.asList(NATIVE, NATIVE_CHRONO)) {
+            for (int n = 2; n <= 7; n++) {
+                final MiniSat solver = MiniSat.glucose(this.f, MiniSatConfig.builder().build(), config);
+                solver.add(pigeonHole(n));
+                assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+                assertThat(solver.knownVariables()).hasSize((n + 1) * n);
+            }
+        }
+    }
+
+    @Test
+    public void testFork() {
+        final Variable[] vars = vars(6);
+        final MiniSat solver = MiniSat.glucose(this.f, MiniSatConfig.builder().build(), NATIVE);
+        solver.add(this.f.cc(CType.EQ, 3, vars));
+        solver.add(this.f.literal("v0", true));
+        final MiniSat fork = solver.fork();
+        fork.add(this.f.pbc(CType.LE, 1, vars, new int[]{0, 1, 1, 1, 1, 1}));
+        assertThat(fork.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(solver.enumerateAllModels(vars)).hasSize(10);
+    }
+
+    @Test
+    public void testBackbone() {
+        final Variable[] vars = vars(5);
+        final List<Formula> formulas = Arrays.asList(this.f.cc(CType.GE, 3, vars), this.f.or(vars[0].negate(), vars[1].negate()),
+                this.f.pbc(CType.LE, 3, vars, new int[]{1, 1, 1, 1, 2}));
+        final SATSolver encoded = MiniSat.glucose(this.f);
+        final SATSolver nativeSolver = MiniSat.glucose(this.f, MiniSatConfig.builder().build(), NATIVE);
+        encoded.add(formulas);
+        nativeSolver.add(formulas);
+        final Backbone backbone = nativeSolver.execute(BackboneFunction.builder().variables(vars).type(BackboneType.POSITIVE_AND_NEGATIVE).build());
+        assertThat(backbone).isEqualTo(encoded.execute(BackboneFunction.builder().variables(vars).type(BackboneType.POSITIVE_AND_NEGATIVE).build()));
+        assertThat(backbone.getCompleteBackbone()).containsExactlyInAnyOrder(vars[2], vars[3], vars[4].negate());
+    }
+
+    @Test
+    public void testRandomInstances() {
+        final Random random = new Random(42);
+        final Variable[] vars = vars(30);
+        for (int i = 0; i < 200; i++) {
+            final List<Formula> formulas = randomInstance(random, vars);
+            final SATSolver encoded = MiniSat.glucose(this.f);
+            encoded.add(formulas);
+            final Tristate expected = encoded.sat();
+            for (final MiniSatConfig miniSatConfig : Arrays.asList(MiniSatConfig.builder().build(), MiniSatConfig.builder().incremental(false).build())) {
+                for (final GlucoseConfig config : Arrays.asList(NATIVE, NATIVE_CHRONO)) {
+                    final SATSolver solver = MiniSat.glucose(this.f, miniSatConfig, config);
+                    solver.add(formulas);
+                    assertThat(solver.sat()).isEqualTo(expected);
+                    if (expected == Tristate.TRUE) {
+                        final Assignment model = solver.model();
+                        assertThat(formulas).allMatch(formula -> formula.evaluate(model));
+                        final List<Literal> assumptions = Arrays.asList(vars[0], vars[1].negate());
+                        assertThat(solver.sat(assumptions)).isEqualTo(encoded.sat(assumptions));
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Formula> randomInstance(final Random random, final Variable[] vars) {
+        final List<Formula> formulas = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            final List<Literal> lits = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                lits.add(this.f.literal(vars[random.nextInt(vars.length)].name(), random.nextBoolean()));
+            }
+            formulas.add(this.f.clause(lits));
+        }
+        for (int i = 0; i < 6; i++) {
+            final int size = 4 + random.nextInt(8);
+            final Literal[] lits = new Literal[size];
+            final int[] coefficients = new int[size];
+            int sum = 0;
+            for (int j = 0; j < size; j++) {
+                lits[j] = this.f.literal(vars[random.nextInt(vars.length)].name(), random.nextBoolean());
+                coefficients[j] = i % 2 == 0 ? 1 : random.nextInt(9) - 3;
+                sum += Math.abs(coefficients[j]);
+            }
+            final CType comparator = CType.values()[random.nextInt(CType.values().length)];
+            formulas.add(this.f.pbc(comparator, random.nextInt(sum / 2 + 1), lits, coefficients));
+        }
+        return formulas;
+    }
+
+    private Formula pigeonHole(final int n) {
+        final List<Formula> formulas = new ArrayList<>();
+        for (int i = 0; i <= n; i++) {
+            final List<Variable> holes = new ArrayList<>();
+            for (int j = 0; j < n; j++) {
+                holes.add(this.f.variable("p" + i + "_" + j));
+            }
+            formulas.add(this.f.or(holes));
+        }
+        for (int j = 0; j < n; j++) {
+            final List<Variable> pigeons = new ArrayList<>();
+            for (int i = 0; i <= n; i++) {
+                pigeons.add(this.f.variable("p" + i + "_" + j));
+            }
+            formulas.add(this.f.amo(pigeons));
+        }
+        return this.f.and(formulas);
+    }
+
+    private Variable[] vars(final int n) {
+        final Variable[] vars = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            vars[i] = this.f.variable("v" + i);
+        }
+        return vars;
+    }
+}
@@ -0,0 +1,222 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.io.readers.DimacsReader;
+import org.logicng.solvers.MiniSat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the stable and focused search modes and the rephasing of Glucose.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class RephasingTest {
+
+    private static final GlucoseConfig CONFIG = GlucoseConfig.builder()
+            .stableMode(true)
+            .modeSwitchConflicts(100)
+            .lubyRestartBase(10)
+            .rephaseInterval(50)
+            .build();
+
+    @Test
+    public void testModeSwitch() {
+        final GlucoseSyrup solver = solverWithVars(CONFIG, 2);
+        assertThat(solver.stable).isFalse();
+        assertThat(solver.restartDue(0)).isFalse();
+        solver.modeSwitchPending = true;
+        assertThat(solver.restartDue(0)).isTrue();
+        solver.switchMode();
+        assertThat(solver.stable).isTrue();
+        assertThat(solver.modeSwitchPending).isFalse();
+        assertThat(solver.modeLength).isEqualTo(100.0);
+        solver.switchMode();
+        assertThat(solver.stable).isFalse();
+        assertThat(solver.modeLength).isEqualTo(200.0);
+    }
+
+    @Test
+    public void testLubyRestarts() {
+        final GlucoseSyrup solver = solverWithVars(CONFIG, 2);
+        solver.switchMode();
+        assertThat(solver.restartDue(9)).isFalse();
+        assertThat(solver.restartDue(10)).isTrue();
+        assertThat(solver.restartDue(10)).isTrue();
+        assertThat(solver.restartDue(10)).isFalse();
+        assertThat(solver.restartDue(20)).isTrue();
+        assertThat(solver.stableRestarts).isEqualTo(3);
+        solver.switchMode();
+        assertThat(solver.stableRestarts).isEqualTo(0);
+    }
+
+    @Test
+    public void testTargetAndBestPhases() {
+        final GlucoseSyrup solver = solverWithVars(CONFIG, 4);
+        solver.switchMode();
+        decide(solver, mkLit(0, false));
+        decide(solver, mkLit(1, true));
+        decide(solver, mkLit(2, false));
+        solver.updateTargetAndBestPhases();
+        assertThat(solver.targetAssigned).isEqualTo(2);
+        assertThat(solver.bestAssigned).isEqualTo(2);
+        assertThat(solver.targetPhases.toArray()).containsExactly(false, true, true, true);
+        assertThat(solver.bestPhases.toArray()).containsExactly(false, true, true, true);
+        assertThat(solver.decisionPolarity(0)).isFalse();
+        assertThat(solver.vars.get(0).polarity()).isTrue();
+        solver.cancelUntil(1);
+        decide(solver, mkLit(3, false));
+        decide(solver, mkLit(2, true));
+        solver.updateTargetAndBestPhases();
+        assertThat(solver.targetAssigned).isEqualTo(2);
+        assertThat(solver.targetPhases.toArray()).containsExactly(false, true, true, true);
+        decide(solver, mkLit(1, false));
+        solver.updateTargetAndBestPhases();
+        assertThat(solver.targetAssigned).isEqualTo(3);
+        assertThat(solver.targetPhases.toArray()).containsExactly(false, true, true, false);
+        solver.switchMode();
+        assertThat(solver.decisionPolarity(0)).isTrue();
+    }
+
+    @Test
+    public void testTargetPhasesOnlyInStableMode() {
+        final GlucoseSyrup solver = solverWithVars(CONFIG, 2);
+        decide(solver, mkLit(0, false));
+        decide(solver, mkLit(1, false));
+        solver.updateTargetAndBestPhases();
+        assertThat(solver.targetAssigned).isEqualTo(0);
+        assertThat(solver.bestAssigned).isEqualTo(1);
+        final GlucoseSyrup noTargets = solverWithVars(GlucoseConfig.builder().stableMode(true).targetPhases(false).build(), 2);
+        noTargets.switchMode();
+        decide(noTargets, mkLit(0, false));
+        decide(noTargets, mkLit(1, false));
+        noTargets.updateTargetAndBestPhases();
+        assertThat(noTargets.targetAssigned).isEqualTo(0);
+        assertThat(noTargets.bestAssigned).isEqualTo(0);
+        assertThat(noTargets.decisionPolarity(0)).isTrue();
+    }
+
+    @Test
+    public void testRephase() {
+        final GlucoseSyrup solver = solverWithVars(CONFIG, 3);
+        solver.bestPhases.set(0, false);
+        solver.bestAssigned = 1;
+        solver.conflicts = 50;
+        solver.rephase();
+        assertThat(polarities(solver)).containsExactly(true, true, true);
+        assertThat(solver.nextRephase).isEqualTo(150);
+        assertThat(solver.bestAssigned).isEqualTo(0);
+        solver.rephase();
+        assertThat(polarities(solver)).containsExactly(false, true, true);
+        assertThat(solver.targetPhases.toArray()).containsExactly(false, true, true);
+        solver.rephase();
+        assertThat(polarities(solver)).containsExactly(false, false, false);
+        solver.rephase();
+        assertThat(polarities(solver)).containsExactly(false, true, true);
+        assertThat(solver.rephaseCount).isEqualTo(4);
+        assertThat(solver.nextRephase).isEqualTo(300);
+    }
+
+    @Test
+    public void testFork() {
+        final GlucoseSyrup solver = solverWithVars(CONFIG, 2);
+        solver.switchMode();
+        solver.rephase();
+        final GlucoseSyrup fork = solver.fork();
+        assertThat(fork.stable).isTrue();
+        assertThat(fork.rephaseCount).isEqualTo(1);
+        assertThat(fork.targetPhases.toArray()).containsExactly(solver.targetPhases.toArray());
+        fork.targetPhases.set(0, false);
+        assertThat(solver.targetPhases.get(0)).isTrue();
+    }
+
+    @Test
+    public void testDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        try (final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"))) {
+            while (reader.ready()) {
+                final String[] tokens = reader.readLine().split(";");
+                expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+            }
+        }
+        final FormulaFactory f = new FormulaFactory();
+        final MiniSatConfig miniSatConfig = MiniSatConfig.builder().incremental(false).build();
+        final GlucoseConfig chronoConfig = GlucoseConfig.builder().stableMode(true).rephaseInterval(1000).chronologicalBacktracking(true).build();
+        final File[] files = new File("src/test/resources/sat").listFiles((dir, name) -> name.endsWith(".cnf"));
+        assert files != null;
+        for (final File file : files) {
+            final List<Formula> cnf = DimacsReader.readCNF(file, f);
+            for (final MiniSat solver : Arrays.asList(MiniSat.glucose(f, miniSatConfig, CONFIG), MiniSat.glucose(f, miniSatConfig, chronoConfig))) {
+                solver.add(cnf);
+                final boolean sat = solver.sat() == Tristate.TRUE;
+                assertThat(sat).isEqualTo(expectedResults.get(file.getName()));
+                if (sat) {
+                    final Assignment model = solver.model();
+                    assertThat(cnf).allMatch(clause -> clause.evaluate(model));
+                }
+            }
+        }
+    }
+
+    private static GlucoseSyrup solverWithVars(final GlucoseConfig config, final int numVars) {
+        final GlucoseSyrup solver = new GlucoseSyrup(MiniSatConfig.builder().build(), config);
+        for (int i = 0; i < numVars; i++) {
+            solver.newVar(true, true);
+        }
+        return solver;
+    }
+
+    private static void decide(final GlucoseSyrup solver, final int lit) {
+        solver.trailLim.push(solver.trail.size());
+        solver.uncheckedEnqueue(lit, null);
+    }
+
+    private static boolean[] polarities(final GlucoseSyrup solver) {
+        final boolean[] polarities = new boolean[solver.nVars()];
+        for (int v = 0; v < polarities.length; v++) {
+            polarities[v] = solver.vars.get(v).polarity();
+        }
+        return polarities;
+    }
+}
@@ -33,11 +33,13 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.logicng.datastructures.Tristate.UNDEF;
 import static org.logicng.solvers.sat.MiniSatConfig.ClauseMinimization.BASIC;
 import static org.logicng.solvers.sat.MiniSatConfig.ClauseMinimization.NONE;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
 
 import org.junit.jupiter.api.Test;
 import org.logicng.LogicNGTest;
 import org.logicng.LongRunningTag;
 import org.logicng.TestWithExampleFormulas;
+import org.logicng.collections.LNGIntVector;
 import org.logicng.datastructures.Assignment;
 import org.logicng.datastructures.Tristate;
 import org.logicng.formulas.CType;
@@ -54,6 +56,9 @@ import org.logicng.io.parsers.ParserException;
 import org.logicng.io.parsers.PropositionalParser;
 import org.logicng.io.parsers.PseudoBooleanParser;
 import org.logicng.propositions.StandardProposition;
+import org.logicng.solvers.datastructures.MSClause;
+import org.logicng.solvers.datastructures.MSVariable;
+import org.logicng.solvers.datastructures.MSWatchList;
 import org.logicng.solvers.MiniSat;
 import org.logicng.solvers.SATSolver;
 import org.logicng.solvers.SolverState;
@@ -81,7 +86,7 @@ import java.util.TreeSet;
 
 /**
  * Unit tests for the SAT solvers.
- * @version 1.6
+ * @version 2.7.0
  * @since 1.0
  */
 public class SATTest extends TestWithExampleFormulas implements LogicNGTest {
@@ -96,7 +101,7 @@ public class SATTest extends TestWithExampleFormulas implements LogicNGTest {
         this.f = new FormulaFactory();
         this.pg = new PigeonHoleGenerator(this.f);
         this.parser = new PropositionalParser(this.f);
-        this.solvers = new SATSolver[8];
+        this.solvers = new SATSolver[9];
         this.solvers[0] = MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(true).build());
         this.solvers[1] = MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(false).build());
         this.solvers[2] = MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(false).build(),
@@ -105,9 +110,11 @@ public class SATTest extends TestWithExampleFormulas implements LogicNGTest {
         this.solvers[4] = MiniSat.miniCard(this.f, MiniSatConfig.builder().incremental(false).build());
         this.solvers[5] = MiniSat.miniSat(this.f, MiniSatConfig.builder().cnfMethod(MiniSatConfig.CNFMethod.PG_ON_SOLVER).build());
         this.solvers[6] = MiniSat.miniSat(this.f, MiniSatConfig.builder().cnfMethod(MiniSatConfig.CNFMethod.PG_ON_SOLVER).auxiliaryVariablesInModels(false).build());
-        this.solvers[7] = MiniSat.miniSat(this.f, MiniSatConfig.builder().cnfMethod(MiniSatConfig.CNFMethod.FULL_PG_ON_SOLVER).auxiliaryVariablesInModels(false).build());
+        this.solvers[7] = MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(false).build(),
+                GlucoseConfig.builder().chronologicalBacktracking(true).chronoBacktrackingDistance(1).chronoBacktrackingConflicts(0).build());
+        this.solvers[8] = MiniSat.miniSat(this.f, MiniSatConfig.builder().cnfMethod(MiniSatConfig.CNFMethod.FULL_PG_ON_SOLVER).auxiliaryVariablesInModels(false).build());
 
-        this.testStrings = new String[8];
+        this.testStrings = new String[9];
         this.testStrings[0] = "MiniSat2Solver{result=UNDEF, incremental=true}";
         this.testStrings[1] = "MiniSat2Solver{result=UNDEF, incremental=false}";
         this.testStrings[2] = "GlucoseSyrup{result=UNDEF, incremental=false}";
@@ -115,7 +122,8 @@ public class SATTest extends TestWithExampleFormulas implements LogicNGTest {
         this.testStrings[4] = "MiniCard{result=UNDEF, incremental=false}";
         this.testStrings[5] = "MiniSat2Solver{result=UNDEF, incremental=true}";
         this.testStrings[6] = "MiniSat2Solver{result=UNDEF, incremental=true}";
-        this.testStrings[7] = "MiniSat2Solver{result=UNDEF, incremental=true}";
+        this.testStrings[7] = "GlucoseSyrup{result=UNDEF, incremental=false}";
+        this.testStrings[8] = "MiniSat2Solver{result=UNDEF, incremental=true}";
     }
 
     @Test
@@ -171,6 +179,48 @@ public class SATTest extends TestWithExampleFormulas implements LogicNGTest {
         }
     }
 
+    @Test
+    public void testVariablesOfDifferentFactories() {
+        final FormulaFactory g = new FormulaFactory();
+        g.variable("unused");
+        final Variable a = this.f.variable("a");
+        final Literal nc = this.f.literal("c", false);
+        for (final SATSolver s : this.solvers) {
+            s.add(this.f.or(a, this.f.variable("b")));
+            s.add(this.f.or(a.negate(), nc));
+            assertThat(s.sat(g.variable("a"))).isEqualTo(Tristate.TRUE);
+            assertThat(s.model(Arrays.asList(g.variable("a"), g.variable("c"))).literals()).containsExactly(a, nc);
+            assertThat(s.sat(Arrays.asList(g.variable("a"), g.variable("c")))).isEqualTo(Tristate.FALSE);
+            s.reset();
+        }
+    }
+
+    @Test
+    public void testVariableIndicesAfterLoadState() {
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        final Variable x = this.f.variable("x");
+        for (final SATSolver s : this.solvers) {
+            if (((MiniSat) s).getStyle() == MiniSat.SolverStyle.GLUCOSE || !((MiniSat) s).getConfig().incremental()) {
+                continue;
+            }
+            s.add(a);
+            final SolverState state = s.saveState();
+            s.add(b);
+            assertSolverSat(s);
+            assertThat(s.model().literals()).containsExactly(a, b);
+            s.loadState(state);
+            s.add(x.negate());
+            assertSolverSat(s);
+            assertThat(s.model().literals()).containsExactly(a, x.negate());
+            assertThat(s.model(Arrays.asList(b, x)).literals()).containsExactly(x.negate());
+            s.add(b.negate());
+            assertSolverSat(s);
+            assertThat(s.model().literals()).containsExactly(a, b.negate(), x.negate());
+            s.reset();
+        }
+    }
+
     @Test
     public void testAnd2() {
         for (final SATSolver s : this.solvers) {
@@ -1164,6 +1214,54 @@ public class SATTest extends TestWithExampleFormulas implements LogicNGTest {
         }
     }
 
+    @Test
+    public void testChronologicalConflictWatches() {
+        final GlucoseSyrup solver = new GlucoseSyrup(MiniSatConfig.builder().incremental(false).build(),
+                GlucoseConfig.builder().chronologicalBacktracking(true).build());
+        for (int i = 0; i < 5; i++) {
+            solver.newVar(true, true);
+        }
+        solver.addClause(new LNGIntVector(new int[]{mkLit(0, false), mkLit(1, false), mkLit(2, false), mkLit(3, false)}), null);
+        final MSClause clause = solver.clauses.get(0);
+        final int[] lits = clause.copyLiterals().toArray();
+        // levels of the false literals in the order of the clause:  1, 1, 3, 2
+        final int[] levels = {1, 1, 3, 2};
+        for (int level = 1; level <= 3; level++) {
+            solver.trailLim.push(solver.trail.size());
+        }
+        for (int i = 0; i < lits.length; i++) {
+            solver.uncheckedEnqueue(MiniSatStyleSolver.not(lits[i]), null, levels[i]);
+        }
+        assertThat(solver.conflictLevel(clause)).isEqualTo(3);
+        assertThat(solver.conflictLevelUnique).isTrue();
+        assertThat(clause.get(0)).isEqualTo(lits[2]);
+        assertThat(clause.get(1)).isEqualTo(lits[3]);
+        for (int i = 0; i < lits.length; i++) {
+            assertThat(watches(solver, MiniSatStyleSolver.not(lits[i]), clause)).isEqualTo(i >= 2);
+        }
+        solver.cancelUntil(2);
+        solver.uncheckedEnqueue(clause.get(0), clause, v(solver, clause.get(1)).level());
+        assertThat(solver.propagate()).isNull();
+        solver.cancelUntil(1);
+        solver.uncheckedEnqueue(MiniSatStyleSolver.not(lits[3]), null);
+        assertThat(solver.propagate()).isNull();
+        assertThat(solver.value(lits[2])).isEqualTo(Tristate.TRUE);
+    }
+
+    private static boolean watches(final GlucoseSyrup solver, final int lit, final MSClause clause) {
+        final MSWatchList ws = solver.watches.get(lit);
+        for (int i = 0; i < ws.size(); i++) {
+            if (ws.clause(i) == clause) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MSVariable v(final GlucoseSyrup solver, final int lit) {
+        return solver.vars.get(MiniSatStyleSolver.var(lit));
+    }
+
     /**
      * Tests if the given satisfying assignment is the highest assignment in the lexicographical order based on the given
      * literals order.
@@ -0,0 +1,193 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.ConcurrentFormulaFactory;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SolverState;
+import org.logicng.testutils.PigeonHoleGenerator;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for forking MiniSAT-style solvers.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class SolverForkTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+
+    private List<MiniSat> solvers(final FormulaFactory f) {
+        return Arrays.asList(
+                MiniSat.miniSat(f),
+                MiniSat.miniSat(f, MiniSatConfig.builder().incremental(false).build()),
+                MiniSat.miniSat(f, MiniSatConfig.builder().incremental(false).preprocessing(true).build()),
+                MiniSat.miniSat(f, MiniSatConfig.builder().cnfMethod(MiniSatConfig.CNFMethod.FULL_PG_ON_SOLVER).build()),
+                MiniSat.glucose(f),
+                MiniSat.miniCard(f));
+    }
+
+    @Test
+    public void testForkIsIndependent() {
+        for (int i = 0; i < 10; i++) {
+            final FormulaRandomizer randomizer = new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder()
+                    .numVars(12).weightPbc(1).weightCc(1).weightAmo(1).seed(i).build());
+            final Formula formula = randomizer.formula(4);
+            final Formula formula1 = randomizer.formula(3);
+            final Formula formula2 = randomizer.formula(3);
+            for (final MiniSat solver : solvers(this.f)) {
+                solver.add(formula);
+                final Tristate result = solver.sat();
+                final MiniSat fork = solver.fork();
+                assertThat(fork.getStyle()).isEqualTo(solver.getStyle());
+                assertThat(fork.sat()).isEqualTo(result);
+                solver.add(formula1);
+                fork.add(formula2);
+                assertThat(solver.sat()).isEqualTo(reference(formula, formula1));
+                assertThat(fork.sat()).isEqualTo(reference(formula, formula2));
+                if (fork.sat() == Tristate.TRUE) {
+                    assertThat(this.f.and(formula, formula2).evaluate(fork.model())).isTrue();
+                }
+                if (solver.sat() == Tristate.TRUE) {
+                    assertThat(this.f.and(formula, formula1).evaluate(solver.model())).isTrue();
+                }
+                for (int j = 0; j < 3; j++) {
+                    final List<Literal> assumptions = Arrays.asList(randomizer.literal(), randomizer.literal());
+                    final Tristate expected = reference(formula, formula2, this.f.and(assumptions));
+                    assertThat(fork.fork().sat(assumptions)).isEqualTo(expected);
+                    assertThat(fork.sat(assumptions)).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testForkWithLearntClauses() {
+        for (final MiniSat solver : solvers(this.f)) {
+            solver.add(new PigeonHoleGenerator(this.f).generate(6));
+            final Variable a = this.f.variable("a");
+            final Variable b = this.f.variable("b");
+            solver.add(this.f.or(a, b));
+            assertThat(solver.sat(this.f.literal("v1", true))).isEqualTo(Tristate.FALSE);
+            final MiniSat fork = solver.fork();
+            assertThat(fork.underlyingSolver().learnts.size()).isEqualTo(solver.underlyingSolver().learnts.size());
+            assertThat(fork.underlyingSolver().nVars()).isEqualTo(solver.underlyingSolver().nVars());
+            assertThat(fork.sat()).isEqualTo(Tristate.FALSE);
+            assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        }
+    }
+
+    @Test
+    public void testSavedStates() {
+        final MiniSat solver = MiniSat.miniSat(this.f);
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        solver.add(this.f.or(a, b));
+        final SolverState state = solver.saveState();
+        solver.add(a.negate());
+        final MiniSat fork = solver.fork();
+        fork.add(b.negate());
+        assertThat(fork.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        fork.loadState(state);
+        assertThat(fork.sat(a.negate())).isEqualTo(Tristate.TRUE);
+        assertThat(fork.model(Arrays.asList(a, b)).literals()).containsExactlyInAnyOrder(a.negate(), b);
+        assertThat(solver.sat(b.negate())).isEqualTo(Tristate.FALSE);
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        final FormulaFactory f = new ConcurrentFormulaFactory();
+        final FormulaRandomizer randomizer = new FormulaRandomizer(f, FormulaRandomizerConfig.builder().numVars(20).seed(42).build());
+        final Formula formula = f.and(randomizer.formula(4), randomizer.formula(4), randomizer.formula(4));
+        final MiniSat solver = MiniSat.miniSat(f);
+        solver.add(formula);
+        solver.sat();
+        final List<List<Literal>> queries = new ArrayList<>();
+        final List<Tristate> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            final List<Literal> query = Arrays.asList(randomizer.literal(), randomizer.literal(), randomizer.literal());
+            queries.add(query);
+            expected.add(solver.sat(query));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < queries.size(); i++) {
+                final MiniSat fork = solver.fork();
+                final List<Literal> query = queries.get(i);
+                final Tristate result = expected.get(i);
+                futures.add(executor.submit(() -> {
+                    final boolean correct = fork.sat(query) == result;
+                    if (result == Tristate.TRUE) {
+                        final Assignment model = fork.model(formula.variables());
+                        return correct && formula.evaluate(model) && f.and(query).evaluate(model);
+                    }
+                    return correct;
+                }));
+            }
+            for (final Future<Boolean> future : futures) {
+                assertThat(future.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnsupportedFork() {
+        final MiniSat2Solver solver = new MiniSat2Solver() {
+        };
+        assertThatThrownBy(solver::fork).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private Tristate reference(final Formula... formulas) {
+        final MiniSat reference = MiniSat.miniSat(this.f);
+        reference.add(Arrays.asList(formulas));
+        return reference.sat();
+    }
+}
@@ -0,0 +1,197 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.backbones.BackboneType;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SolverState;
+import org.logicng.util.FormulaRandomizer;
+import org.logicng.util.FormulaRandomizerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the trail reuse and the assumption stack of the MiniSAT-style solvers.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class TrailReuseTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+
+    private List<MiniSat> solvers() {
+        return Arrays.asList(
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().trailReuse(true).build()),
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().trailReuse(true).incremental(false).build()),
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().trailReuse(true).incremental(false).preprocessing(true).build()),
+                MiniSat.glucose(this.f, MiniSatConfig.builder().trailReuse(true).incremental(false).build(), GlucoseConfig.builder().build()),
+                MiniSat.miniCard(this.f, MiniSatConfig.builder().trailReuse(true).build()));
+    }
+
+    @Test
+    public void testTrailIsKept() {
+        final MiniSat solver = MiniSat.miniSat(this.f, MiniSatConfig.builder().trailReuse(true).build());
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        final Variable c = this.f.variable("c");
+        final Variable d = this.f.variable("d");
+        solver.add(this.f.or(a.negate(), b));
+        solver.add(this.f.or(c.negate(), d));
+        solver.add(this.f.or(b.negate(), c.negate(), d.negate()));
+        final MiniSatStyleSolver core = solver.underlyingSolver();
+        assertThat(solver.sat(Arrays.asList(a, c.negate()))).isEqualTo(Tristate.TRUE);
+        assertThat(core.decisionLevel()).isEqualTo(2);
+        assertThat(core.trailAssumptions.size()).isEqualTo(2);
+        assertThat(core.value(MiniSatStyleSolver.mkLit(core.idxForVariable(b), false))).isEqualTo(Tristate.TRUE);
+        assertThat(solver.sat(Arrays.asList(a, d))).isEqualTo(Tristate.TRUE);
+        assertThat(core.trailAssumptions.get(0)).isEqualTo(MiniSatStyleSolver.mkLit(core.idxForVariable(a), false));
+        assertThat(solver.sat(Arrays.asList(a, c))).isEqualTo(Tristate.FALSE);
+        assertThat(core.decisionLevel()).isEqualTo(1);
+        assertThat(solver.sat(Collections.singletonList(a))).isEqualTo(Tristate.TRUE);
+        assertThat(solver.model(Arrays.asList(a, b, c)).literals()).containsExactlyInAnyOrder(a, b, c.negate());
+        solver.add(a.negate());
+        assertThat(core.decisionLevel()).isZero();
+        assertThat(core.trailAssumptions.empty()).isTrue();
+        assertThat(solver.sat(Collections.singletonList(a))).isEqualTo(Tristate.FALSE);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        assertThat(core.decisionLevel()).isZero();
+    }
+
+    @Test
+    public void testNoTrailReuse() {
+        final MiniSat solver = MiniSat.miniSat(this.f);
+        solver.add(this.f.or(this.f.variable("a"), this.f.variable("b")));
+        assertThat(solver.sat(Collections.singletonList(this.f.literal("a", false)))).isEqualTo(Tristate.TRUE);
+        assertThat(solver.underlyingSolver().decisionLevel()).isZero();
+    }
+
+    @Test
+    public void testRandomQueries() {
+        for (int seed = 0; seed < 10; seed++) {
+            final FormulaRandomizer randomizer = new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder()
+                    .numVars(15).weightPbc(1).weightCc(1).weightAmo(1).seed(seed).build());
+            final Formula formula = randomizer.formula(4);
+            final Random random = new Random(seed);
+            final MiniSat reference = MiniSat.miniSat(this.f);
+            reference.add(formula);
+            for (final MiniSat solver : solvers()) {
+                solver.add(formula);
+                final List<Literal> stack = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    if (!stack.isEmpty() && random.nextInt(3) == 0) {
+                        final int n = 1 + random.nextInt(stack.size());
+                        solver.popAssumptions(n);
+                        stack.subList(stack.size() - n, stack.size()).clear();
+                    } else {
+                        final Literal literal = randomizer.literal();
+                        solver.pushAssumption(literal);
+                        stack.add(literal);
+                    }
+                    assertThat(solver.assumptionStack()).isEqualTo(stack);
+                    final Literal extra = randomizer.literal();
+                    final List<Literal> assumptions = new ArrayList<>(stack);
+                    assumptions.add(extra);
+                    assertThat(solver.sat()).isEqualTo(reference.sat(stack));
+                    final Tristate expected = reference.sat(assumptions);
+                    assertThat(solver.sat(extra)).isEqualTo(expected);
+                    assertThat(solver.sat(Collections.singletonList(extra))).isEqualTo(expected);
+                    if (expected == Tristate.TRUE) {
+                        final Assignment model = solver.model(this.f.and(formula, this.f.and(assumptions)).variables());
+                        assertThat(formula.evaluate(model)).isTrue();
+                        assertThat(this.f.and(assumptions).evaluate(model)).isTrue();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAssumptionStack() {
+        final MiniSat solver = MiniSat.miniSat(this.f, MiniSatConfig.builder().trailReuse(true).build());
+        final Variable a = this.f.variable("a");
+        final Variable b = this.f.variable("b");
+        final Variable c = this.f.variable("c");
+        solver.add(this.f.or(a, b, c));
+        assertThat(solver.enumerateAllModels(Arrays.asList(a, b, c))).hasSize(7);
+        solver.pushAssumption(a.negate());
+        solver.pushAssumptions(Collections.singletonList(b.negate()));
+        assertThat(solver.assumptionStack()).containsExactly(a.negate(), b.negate());
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        assertThat(solver.model(Arrays.asList(a, b, c)).literals()).containsExactlyInAnyOrder(a.negate(), b.negate(), c);
+        assertThat(solver.sat(c.negate())).isEqualTo(Tristate.FALSE);
+        assertThat(solver.enumerateAllModels(Arrays.asList(a, b, c))).hasSize(1);
+        final SolverState state = solver.saveState();
+        solver.add(c.negate());
+        assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        solver.loadState(state);
+        assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+        solver.popAssumptions(1);
+        assertThat(solver.assumptionStack()).containsExactly(a.negate());
+        assertThat(solver.enumerateAllModels(Arrays.asList(a, b, c))).hasSize(3);
+        solver.popAssumptions(0);
+        assertThatThrownBy(() -> solver.popAssumptions(2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> solver.popAssumptions(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> solver.assumptionStack().clear()).isInstanceOf(UnsupportedOperationException.class);
+        final MiniSat fork = solver.fork();
+        solver.popAssumptions(1);
+        assertThat(fork.assumptionStack()).containsExactly(a.negate());
+        solver.pushAssumption(this.f.variable("d"));
+        solver.reset();
+        assertThat(solver.assumptionStack()).isEmpty();
+    }
+
+    @Test
+    public void testBackbone() {
+        for (int seed = 0; seed < 10; seed++) {
+            final FormulaRandomizer randomizer = new FormulaRandomizer(this.f, FormulaRandomizerConfig.builder().numVars(15).seed(seed).build());
+            final Formula formula = this.f.and(randomizer.formula(3), randomizer.formula(3));
+            final MiniSat reference = MiniSat.miniSat(this.f);
+            reference.add(formula);
+            for (final MiniSat solver : solvers()) {
+                solver.add(formula);
+                assertThat(solver.backbone(formula.variables(), BackboneType.POSITIVE_AND_NEGATIVE))
+                        .isEqualTo(reference.backbone(formula.variables(), BackboneType.POSITIVE_AND_NEGATIVE));
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.io.readers.DimacsReader;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.datastructures.MSClause;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the vivification of learnt clauses.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class VivificationTest {
+
+    private static final MiniSatConfig CONFIG = MiniSatConfig.builder().incremental(false).vivification(true).build();
+
+    @Test
+    public void testImpliedLiteral() {
+        final MiniSat2Solver solver = solverWithVars(4);
+        addClause(solver, mkLit(0, false), mkLit(1, false));
+        addClause(solver, mkLit(1, true), mkLit(2, false));
+        final MSClause learnt = addLearnt(solver, mkLit(0, false), mkLit(2, false), mkLit(3, false));
+        assertThat(solver.vivifyLearnts()).isTrue();
+        assertThat(learnt.copyLiterals().toArray()).containsExactly(mkLit(0, false), mkLit(2, false));
+        assertThat(learnt.vivified()).isTrue();
+        assertThat(solver.learnts.size()).isEqualTo(1);
+        assertThat(solver.learntsLiterals).isEqualTo(2);
+    }
+
+    @Test
+    public void testFalseLiteral() {
+        final MiniSat2Solver solver = solverWithVars(4);
+        addClause(solver, mkLit(0, false), mkLit(1, true));
+        final MSClause learnt = addLearnt(solver, mkLit(0, false), mkLit(1, false), mkLit(3, false));
+        assertThat(solver.vivifyLearnts()).isTrue();
+        assertThat(learnt.copyLiterals().toArray()).containsExactly(mkLit(0, false), mkLit(3, false));
+        assertThat(solver.learntsLiterals).isEqualTo(2);
+    }
+
+    @Test
+    public void testConflict() {
+        final MiniSat2Solver solver = solverWithVars(4);
+        addClause(solver, mkLit(0, false), mkLit(3, false));
+        addClause(solver, mkLit(0, false), mkLit(3, true));
+        addLearnt(solver, mkLit(0, false), mkLit(1, false), mkLit(2, false));
+        assertThat(solver.vivifyLearnts()).isTrue();
+        assertThat(solver.learnts.size()).isEqualTo(0);
+        assertThat(solver.learntsLiterals).isEqualTo(0);
+        assertThat(solver.value(mkLit(0, false))).isEqualTo(Tristate.TRUE);
+        assertThat(solver.decisionLevel()).isEqualTo(0);
+    }
+
+    @Test
+    public void testUnchangedClause() {
+        final MiniSat2Solver solver = solverWithVars(3);
+        final MSClause learnt = addLearnt(solver, mkLit(0, false), mkLit(1, false), mkLit(2, true));
+        assertThat(solver.vivifyLearnts()).isTrue();
+        assertThat(learnt.copyLiterals().toArray()).containsExactly(mkLit(0, false), mkLit(1, false), mkLit(2, true));
+        assertThat(solver.learntsLiterals).isEqualTo(3);
+        assertThat(solver.trail.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testOnlyNonIncremental() {
+        assertThat(new MiniSat2Solver(CONFIG).vivification).isTrue();
+        assertThat(new MiniSat2Solver(MiniSatConfig.builder().vivification(true).build()).vivification).isFalse();
+        assertThat(new MiniSat2Solver(MiniSatConfig.builder().incremental(false).vivification(true).proofGeneration(true).build()).vivification).isFalse();
+        assertThat(new MiniSat2Solver(MiniSatConfig.builder().incremental(false).build()).vivification).isFalse();
+    }
+
+    @Test
+    public void testDimacsFiles() throws IOException {
+        final Map<String, Boolean> expectedResults = new HashMap<>();
+        try (final BufferedReader reader = new BufferedReader(new FileReader("src/test/resources/sat/results.txt"))) {
+            while (reader.ready()) {
+                final String[] tokens = reader.readLine().split(";");
+                expectedResults.put(tokens[0], Boolean.valueOf(tokens[1]));
+            }
+        }
+        final FormulaFactory f = new FormulaFactory();
+        final File[] files = new File("src/test/resources/sat").listFiles((dir, name) -> name.endsWith(".cnf"));
+        assert files != null;
+        boolean vivified = false;
+        for (final File file : files) {
+            final List<Formula> cnf = DimacsReader.readCNF(file, f);
+            for (final MiniSat solver : Arrays.asList(MiniSat.miniSat(f, CONFIG), MiniSat.glucose(f, CONFIG, GlucoseConfig.builder().build()))) {
+                solver.add(cnf);
+                final boolean sat = solver.sat() == Tristate.TRUE;
+                assertThat(sat).isEqualTo(expectedResults.get(file.getName()));
+                if (sat) {
+                    final Assignment model = solver.model();
+                    assertThat(cnf).allMatch(clause -> clause.evaluate(model));
+                }
+                int learntsLiterals = 0;
+                for (final MSClause learnt : solver.underlyingSolver().learnts) {
+                    vivified |= learnt.vivified();
+                    learntsLiterals += learnt.size();
+                }
+                assertThat(solver.underlyingSolver().learntsLiterals).isEqualTo(learntsLiterals);
+            }
+        }
+        assertThat(vivified).isTrue();
+    }
+
+    private static MiniSat2Solver solverWithVars(final int numVars) {
+        final MiniSat2Solver solver = new MiniSat2Solver(CONFIG);
+        for (int i = 0; i < numVars; i++) {
+            solver.newVar(true, true);
+        }
+        return solver;
+    }
+
+    private static void addClause(final MiniSat2Solver solver, final int... lits) {
+        solver.addClause(new LNGIntVector(lits), null);
+    }
+
+    private static MSClause addLearnt(final MiniSat2Solver solver, final int... lits) {
+        final MSClause learnt = new MSClause(new LNGIntVector(lits), true, solver.clauseArena);
+        solver.learnts.push(learnt);
+        solver.attachClause(learnt);
+        return learnt;
+    }
+}
@@ -0,0 +1,307 @@
+///////////////////////////////////////////////////////////////////////////
+//                   __                _      _   ________               //
+//                  / /   ____  ____ _(_)____/ | / / ____/               //
+//                 / /   / __ \/ __ `/ / ___/  |/ / / __                 //
+//                / /___/ /_/ / /_/ / / /__/ /|  / /_/ /                 //
+//               /_____/\____/\__, /_/\___/_/ |_/\____/                  //
+//                           /____/                                      //
+//                                                                       //
+//               The Next Generation Logic Library                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+//                                                                       //
+//  Copyright 2015-20xx Christoph Zengler                                //
+//                                                                       //
+//  Licensed under the Apache License, Version 2.0 (the "License");      //
+//  you may not use this file except in compliance with the License.     //
+//  You may obtain a copy of the License at                              //
+//                                                                       //
+//  http://www.apache.org/licenses/LICENSE-2.0                           //
+//                                                                       //
+//  Unless required by applicable law or agreed to in writing, software  //
+//  distributed under the License is distributed on an "AS IS" BASIS,    //
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or      //
+//  implied.  See the License for the specific language governing        //
+//  permissions and limitations under the License.                       //
+//                                                                       //
+///////////////////////////////////////////////////////////////////////////
+
+package org.logicng.solvers.sat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.logicng.solvers.sat.MiniSatStyleSolver.mkLit;
+
+import org.junit.jupiter.api.Test;
+import org.logicng.backbones.Backbone;
+import org.logicng.backbones.BackboneType;
+import org.logicng.collections.LNGIntVector;
+import org.logicng.datastructures.Assignment;
+import org.logicng.datastructures.Tristate;
+import org.logicng.formulas.Formula;
+import org.logicng.formulas.FormulaFactory;
+import org.logicng.formulas.Literal;
+import org.logicng.formulas.Variable;
+import org.logicng.predicates.satisfiability.TautologyPredicate;
+import org.logicng.solvers.MiniSat;
+import org.logicng.solvers.SATSolver;
+import org.logicng.solvers.SolverState;
+import org.logicng.solvers.functions.BackboneFunction;
+import org.logicng.solvers.functions.FormulaOnSolverFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit tests for the native XOR constraints of the MiniSAT-style solvers.
+ * @version 2.7.0
+ * @since 2.7.0
+ */
+public class XorConstraintsTest {
+
+    private final FormulaFactory f = new FormulaFactory();
+
+    @Test
+    public void testNormalization() {
+        final MiniSat2Solver solver = new MiniSat2Solver(MiniSatConfig.builder().build());
+        for (int i = 0; i < 5; i++) {
+            solver.newVar(true, true);
+        }
+        assertThat(solver.addClause(mkLit(4, false), null)).isTrue();
+        // x0 + -x1 + x1 + x2 + x0 + x3 + x4 = 1  <=>  x2 + x3 = 1
+        assertThat(solver.addXor(new LNGIntVector(new int[]{mkLit(0, false), mkLit(1, true), mkLit(1, false), mkLit(2, false),
+                mkLit(0, false), mkLit(3, false), mkLit(4, false)}), true)).isTrue();
+        assertThat(solver.xors().size()).isEqualTo(1);
+        assertThat(solver.xors().get(0).size()).isEqualTo(2);
+        assertThat(solver.xors().get(0).parity()).isTrue();
+        // -x3 + x4 = 1  <=>  x3 = 1
+        assertThat(solver.addXor(new LNGIntVector(new int[]{mkLit(3, true), mkLit(4, false)}), true)).isTrue();
+        assertThat(solver.xors().size()).isEqualTo(1);
+        assertThat(solver.solve(null)).isEqualTo(Tristate.TRUE);
+        assertThat(solver.model().get(2)).isFalse();
+        assertThat(solver.model().get(3)).isTrue();
+        assertThat(solver.addXor(new LNGIntVector(new int[]{mkLit(0, false), mkLit(0, false)}), false)).isTrue();
+        assertThat(solver.addXor(new LNGIntVector(new int[]{mkLit(0, false), mkLit(0, true)}), false)).isFalse();
+        assertThat(solver.solve(null)).isEqualTo(Tristate.FALSE);
+    }
+
+    @Test
+    public void testProofGeneration() {
+        final MiniSat2Solver solver = new MiniSat2Solver(MiniSatConfig.builder().proofGeneration(true).build());
+        solver.newVar(true, true);
+        assertThatThrownBy(() -> solver.addXor(new LNGIntVector(new int[]{mkLit(0, false)}), true)).isInstanceOf(IllegalStateException.class);
+        final MiniSat proofSolver = MiniSat.miniSat(this.f, MiniSatConfig.builder().proofGeneration(true).build());
+        proofSolver.addXor(Arrays.asList(vars(3)), true);
+        assertThat(proofSolver.underlyingSolver().xors().empty()).isTrue();
+        assertThat(proofSolver.underlyingSolver().clauses().size()).isGreaterThan(0);
+        assertThat(proofSolver.enumerateAllModels(vars(3))).hasSize(4);
+    }
+
+    @Test
+    public void testGaussianElimination() {
+        final Variable[] vars = vars(4);
+        for (final int gaussMaxLevel : Arrays.asList(-1, 0)) {
+            final MiniSat solver = MiniSat.miniSat(this.f, MiniSatConfig.builder().gaussMaxLevel(gaussMaxLevel).build());
+            solver.addXor(Arrays.asList(vars[0], vars[1], vars[2]), true);
+            solver.addXor(Arrays.asList(vars[1], vars[2], vars[3]), true);
+            solver.addXor(Arrays.asList(vars[1], vars[2].negate()), true);
+            assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+            if (gaussMaxLevel >= 0) {
+                assertThat(solver.execute(FormulaOnSolverFunction.get())).contains(vars[0], vars[3]);
+            }
+            assertThat(solver.model().positiveVariables()).contains(vars[0], vars[3]);
+            solver.addXor(Arrays.asList(vars[1], vars[2]), true);
+            assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        }
+    }
+
+    @Test
+    public void testTseitinFormulas() {
+        for (final MiniSat solver : solvers()) {
+            // without Gauss-Jordan elimination, Tseitin formulas are exponentially hard for CDCL
+            final int n = solver.getConfig().gaussMaxLevel() < 0 ? 30 : 100;
+            final List<List<Variable>> incidences = tseitinIncidences(new Random(42), n);
+            for (int i = 0; i < incidences.size(); i++) {
+                solver.addXor(incidences.get(i), i == 0);
+            }
+            assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+        }
+    }
+
+    @Test
+    public void testFormulaOnSolver() {
+        final Variable[] vars = vars(3);
+        final MiniSat solver = MiniSat.miniSat(this.f);
+        solver.addXor(Arrays.asList(vars[0], vars[1].negate(), vars[2]), true);
+        assertThat(solver.underlyingSolver().clauses().empty()).isTrue();
+        final Set<Formula> formulas = solver.execute(FormulaOnSolverFunction.get());
+        assertThat(formulas).hasSize(1);
+        final Formula expected = this.f.not(this.f.equivalence(this.f.equivalence(vars[0], vars[1]), vars[2]));
+        assertThat(this.f.equivalence(formulas.iterator().next(), expected).holds(new TautologyPredicate(this.f))).isTrue();
+        assertThat(solver.enumerateAllModels(vars)).containsExactlyInAnyOrder(
+                new Assignment(vars[0].negate(), vars[1].negate(), vars[2].negate()),
+                new Assignment(vars[0], vars[1], vars[2].negate()),
+                new Assignment(vars[0], vars[1].negate(), vars[2]),
+                new Assignment(vars[0].negate(), vars[1], vars[2]));
+    }
+
+    @Test
+    public void testInconsistentXorsAboveLevelZero() {
+        final Variable[] vars = vars(4);
+        final MiniSat solver = MiniSat.miniSat(this.f, MiniSatConfig.builder().gaussMaxLevel(Integer.MAX_VALUE).build());
+        solver.add(this.f.or(vars[3], vars[0]));
+        solver.addXor(Arrays.asList(vars[0], vars[1]), true);
+        solver.addXor(Arrays.asList(vars[1], vars[2]), true);
+        solver.addXor(Arrays.asList(vars[0], vars[2]), true);
+        final MiniSat2Solver underlying = (MiniSat2Solver) solver.underlyingSolver();
+        underlying.trailLim.push(underlying.trail.size());
+        underlying.uncheckedEnqueue(MiniSatStyleSolver.mkLit(underlying.idxForName(vars[3].name()), false), null);
+        assertThat(underlying.search(100)).isEqualTo(Tristate.FALSE);
+        assertThat(underlying.ok).isFalse();
+    }
+
+    @Test
+    public void testSaveAndLoadState() {
+        final Variable[] vars = vars(6);
+        for (final MiniSat solver : Arrays.asList(MiniSat.miniSat(this.f), MiniSat.miniCard(this.f))) {
+            solver.addXor(Arrays.asList(vars[0], vars[1], vars[2]), true);
+            final SolverState state = solver.saveState();
+            solver.addXor(Arrays.asList(vars[3], vars[4], vars[5]), false);
+            solver.addXor(Arrays.asList(vars[0], vars[1], vars[2], vars[3], vars[4], vars[5]), false);
+            assertThat(solver.sat()).isEqualTo(Tristate.FALSE);
+            solver.loadState(state);
+            assertThat(solver.underlyingSolver().xors().size()).isEqualTo(1);
+            assertThat(solver.sat()).isEqualTo(Tristate.TRUE);
+            assertThat(solver.enumerateAllModels(Arrays.asList(vars[0], vars[1], vars[2]))).hasSize(4);
+        }
+    }
+
+    @Test
+    public void testFork() {
+        final Variable[] vars = vars(4);
+        final MiniSat solver = MiniSat.glucose(this.f);
+        solver.addXor(Arrays.asList(vars), false);
+        solver.add(vars[0]);
+        final MiniSat fork = solver.fork();
+        fork.addXor(Arrays.asList(vars[1], vars[2], vars[3]), false);
+        assertThat(fork.sat()).isEqualTo(Tristate.FALSE);
+        assertThat(solver.enumerateAllModels(vars)).hasSize(4);
+    }
+
+    @Test
+    public void testBackbone() {
+        final Variable[] vars = vars(5);
+        final SATSolver encoded = MiniSat.miniSat(this.f);
+        encoded.add(xor(Arrays.asList(vars[0], vars[1], vars[2]), true));
+        encoded.add(xor(Arrays.asList(vars[1], vars[2]), false));
+        encoded.add(this.f.or(vars[3], vars[4]));
+        for (final MiniSat solver : solvers()) {
+            solver.addXor(Arrays.asList(vars[0], vars[1], vars[2]), true);
+            solver.addXor(Arrays.asList(vars[1], vars[2]), false);
+            solver.add(this.f.or(vars[3], vars[4]));
+            final BackboneFunction function = BackboneFunction.builder().variables(vars).type(BackboneType.POSITIVE_AND_NEGATIVE).build();
+            final Backbone backbone = solver.execute(function);
+            assertThat(backbone).isEqualTo(encoded.execute(function));
+            assertThat(backbone.getCompleteBackbone()).containsExactly(vars[0]);
+        }
+    }
+
+    @Test
+    public void testRandomInstances() {
+        final Random random = new Random(42);
+        final Variable[] vars = vars(30);
+        for (int i = 0; i < 100; i++) {
+            final List<Formula> clauses = new ArrayList<>();
+            for (int j = 0; j < 30; j++) {
+                final List<Literal> lits = new ArrayList<>();
+                for (int k = 0; k < 3; k++) {
+                    lits.add(this.f.literal(vars[random.nextInt(vars.length)].name(), random.nextBoolean()));
+                }
+                clauses.add(this.f.clause(lits));
+            }
+            final List<List<Literal>> xors = new ArrayList<>();
+            final List<Boolean> parities = new ArrayList<>();
+            for (int j = 0; j < 15; j++) {
+                final List<Literal> lits = new ArrayList<>();
+                final int size = 1 + random.nextInt(6);
+                for (int k = 0; k < size; k++) {
+                    lits.add(this.f.literal(vars[random.nextInt(vars.length)].name(), random.nextBoolean()));
+                }
+                xors.add(lits);
+                parities.add(random.nextBoolean());
+            }
+            final List<Formula> formulas = new ArrayList<>(clauses);
+            for (int j = 0; j < xors.size(); j++) {
+                formulas.add(xor(xors.get(j), parities.get(j)));
+            }
+            final SATSolver encoded = MiniSat.miniSat(this.f);
+            encoded.add(formulas);
+            final Tristate expected = encoded.sat();
+            final List<Literal> assumptions = Arrays.asList(vars[0], vars[1].negate());
+            final Tristate expectedWithAssumptions = encoded.sat(assumptions);
+            for (final MiniSat solver : solvers()) {
+                for (int j = 0; j < xors.size(); j++) {
+                    solver.addXor(xors.get(j), parities.get(j));
+                    solver.add(clauses.get(2 * j));
+                    solver.add(clauses.get(2 * j + 1));
+                }
+                assertThat(solver.sat()).isEqualTo(expected);
+                if (expected == Tristate.TRUE) {
+                    final Assignment model = solver.model(Arrays.asList(vars));
+                    assertThat(formulas).allMatch(formula -> formula.evaluate(model));
+                }
+                assertThat(solver.sat(assumptions)).isEqualTo(expectedWithAssumptions);
+            }
+        }
+    }
+
+    private List<MiniSat> solvers() {
+        final GlucoseConfig chrono = GlucoseConfig.builder().chronologicalBacktracking(true).chronoBacktrackingDistance(1).chronoBacktrackingConflicts(0).build();
+        return Arrays.asList(
+                MiniSat.miniSat(this.f),
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().incremental(false).preprocessing(true).build()),
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().gaussMaxLevel(-1).build()),
+                MiniSat.miniSat(this.f, MiniSatConfig.builder().gaussMaxLevel(Integer.MAX_VALUE).build()),
+                MiniSat.miniCard(this.f),
+                MiniSat.glucose(this.f),
+                MiniSat.glucose(this.f, MiniSatConfig.builder().incremental(false).gaussMaxLevel(2).build(), chrono));
+    }
+
+    private List<List<Variable>> tseitinIncidences(final Random random, final int n) {
+        final List<Integer> stubs = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            stubs.addAll(Collections.nCopies(3, v));
+        }
+        Collections.shuffle(stubs, random);
+        final List<List<Variable>> incidences = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            incidences.add(new ArrayList<>());
+        }
+        for (int e = 0; e < stubs.size() / 2; e++) {
+            final Variable edge = this.f.variable("e" + e);
+            incidences.get(stubs.get(2 * e)).add(edge);
+            incidences.get(stubs.get(2 * e + 1)).add(edge);
+        }
+        return incidences;
+    }
+
+    private Formula xor(final List<? extends Literal> literals, final boolean parity) {
+        Formula xor = this.f.constant(!parity);
+        for (final Literal literal : literals) {
+            xor = this.f.not(this.f.equivalence(xor, literal));
+        }
+        return xor;
+    }
+
+    private Variable[] vars(final int n) {
+        final Variable[] vars = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            vars[i] = this.f.variable("v" + i);
+        }
+        return vars;
+    }
+}